@@ -0,0 +1,205 @@
+package io.craft.atom.http;
+
+import io.craft.atom.http.HttpClientPool.Connect;
+import io.craft.atom.http.api.HttpClient;
+import io.craft.atom.http.api.HttpFuture;
+import io.craft.atom.io.IoConnector;
+import io.craft.atom.nio.NioOrderedDirectChannelEventDispatcher;
+import io.craft.atom.nio.api.NioFactory;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.HttpHeaders;
+import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.api.HttpResponseDecoderBuilder;
+import io.craft.atom.protocol.http.model.HttpEntity;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
+import io.craft.atom.protocol.http.model.HttpMethod;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpVersion;
+import io.craft.atom.util.schedule.ExpirationListener;
+import io.craft.atom.util.schedule.TimingWheel;
+
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connect and read deadlines are tracked by two timing wheels shared by all connections of the client,
+ * each wheel has 100 ticks over its timeout.
+ * Connect attempts are completed by the connector listener, so a refused connection fails at once.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class DefaultHttpClient implements HttpClient {
+
+
+	private static final Logger LOG   = LoggerFactory.getLogger(DefaultHttpClient.class);
+	private static final int    TICKS = 100                                             ;
+
+
+	@Getter @Setter private          int                                             connectTimeoutInMillis;
+	@Getter @Setter private          int                                             readTimeoutInMillis   ;
+	@Getter @Setter private          int                                             ioTimeoutInMillis     ;
+	@Getter @Setter private          int                                             maxConnectionsPerHost ;
+	@Getter @Setter private          int                                             maxPipelinedRequests  ;
+	@Getter @Setter private          int                                             maxPendingRequests    ;
+	@Getter @Setter private          int                                             maxLineLength         ;
+	@Getter @Setter private          int                                             maxResponseSize       ;
+	@Getter         private          HttpClientIoHandler                             ioHandler             ;
+	@Getter         private          IoConnector                                     ioConnector           ;
+	@Getter         private          TimingWheel<Connect>                            connectWheel          ;
+	@Getter         private          TimingWheel<HttpExchange>                       readWheel             ;
+	                private final    ConcurrentMap<InetSocketAddress, HttpClientPool> pools                 = new ConcurrentHashMap<InetSocketAddress, HttpClientPool>();
+	                private final    ProtocolEncoder<HttpRequest>                    encoder               = HttpCodecFactory.newHttpRequestEncoder()                  ;
+	                private volatile boolean                                         closed                ;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	public DefaultHttpClient() {}
+
+	public void init() {
+		HttpResponseDecoderBuilder decoderBuilder = HttpCodecFactory.newHttpResponseDecoderBuilder()
+		                                                            .maxLineLength(maxLineLength)
+		                                                            .maxResponseSize(maxResponseSize);
+		ioHandler   = new HttpClientIoHandler(this, decoderBuilder);
+		ioConnector = NioFactory.newTcpConnectorBuilder(ioHandler)
+		                        .connectTimeoutInMillis(connectTimeoutInMillis)
+		                        .ioTimeoutInMillis(ioTimeoutInMillis)
+		                        .dispatcher(new NioOrderedDirectChannelEventDispatcher())
+		                        .build();
+
+		connectWheel = new TimingWheel<Connect>(Math.max(1, connectTimeoutInMillis / TICKS), TICKS, TimeUnit.MILLISECONDS);
+		connectWheel.addExpirationListener(new ExpirationListener<Connect>() {
+			@Override
+			public void expired(Connect connect) {
+				connect.getPool().expired(connect);
+			}
+		});
+		connectWheel.start();
+
+		readWheel = new TimingWheel<HttpExchange>(Math.max(1, readTimeoutInMillis / TICKS), TICKS, TimeUnit.MILLISECONDS);
+		readWheel.addExpirationListener(new ExpirationListener<HttpExchange>() {
+			@Override
+			public void expired(HttpExchange exchange) {
+				HttpClientConnection connection = exchange.getConnection();
+				if (connection != null) {
+					connection.getPool().expired(exchange);
+				}
+			}
+		});
+		readWheel.start();
+		LOG.debug("[CRAFT-ATOM-HTTP] Http client init complete.");
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public HttpFuture execute(String host, int port, HttpRequest request) {
+		return execute(new InetSocketAddress(host, port), host, request);
+	}
+
+	@Override
+	public HttpFuture execute(InetSocketAddress address, HttpRequest request) {
+		return execute(address, address.getHostName(), request);
+	}
+
+	private HttpFuture execute(InetSocketAddress address, String host, HttpRequest request) {
+		DefaultHttpFuture future = new DefaultHttpFuture();
+		if (closed) {
+			future.setException(new IllegalStateException("Http client is closed"));
+			return future;
+		}
+		if (address.isUnresolved()) {
+			future.setException(new UnknownHostException(host));
+			return future;
+		}
+
+		byte[] bytes;
+		try {
+			bytes = encoder.encode(prepare(request, host, address.getPort()));
+		} catch (ProtocolException e) {
+			future.setException(e);
+			return future;
+		}
+		pool(address).execute(new HttpExchange(request, bytes, future));
+		return future;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		for (HttpClientPool pool : pools.values()) {
+			pool.close();
+		}
+		ioConnector.shutdown();
+		connectWheel.stop();
+		readWheel.stop();
+		LOG.debug("[CRAFT-ATOM-HTTP] Http client closed");
+	}
+
+	@Override
+	public int connectionCount() {
+		int count = 0;
+		for (HttpClientPool pool : pools.values()) {
+			count += pool.connectionCount();
+		}
+		return count;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	HttpClientPool pool(InetSocketAddress address) {
+		HttpClientPool pool = pools.get(address);
+		if (pool == null) {
+			pool = new HttpClientPool(this, address);
+			HttpClientPool prev = pools.putIfAbsent(address, pool);
+			if (prev != null) {
+				pool = prev;
+			}
+		}
+		return pool;
+	}
+
+	HttpClientPool getPool(InetSocketAddress address) {
+		return pools.get(address);
+	}
+
+	/**
+	 * Fills absent version, "Host" and "Content-Length" headers of the request.
+	 */
+	private static HttpRequest prepare(HttpRequest req, String host, int port) {
+		if (req.getRequestLine().getVersion() == null) {
+			req.getRequestLine().setVersion(HttpVersion.HTTP_1_1);
+		}
+		if (req.getFirstHeader(HttpHeaderType.HOST.getName()) == null) {
+			req.addHeader(new HttpHeader(HttpHeaderType.HOST.getName(), port == 80 ? host : host + ":" + port));
+		}
+		if (req.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName()) == null && req.getFirstHeader(HttpHeaderType.TRANSFER_ENCODING.getName()) == null) {
+			HttpEntity entity = req.getEntity();
+			HttpMethod method = req.getRequestLine().getMethod();
+			if (entity != null && entity.getContent() != null) {
+				req.addHeader(HttpHeaders.newContentLengthHeader(entity.getContent().length));
+			} else if (method == HttpMethod.POST || method == HttpMethod.PUT) {
+				req.addHeader(HttpHeaders.newContentLengthHeader(0));
+			}
+		}
+		return req;
+	}
+
+}
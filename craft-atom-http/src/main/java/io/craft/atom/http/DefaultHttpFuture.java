@@ -0,0 +1,176 @@
+package io.craft.atom.http;
+
+import io.craft.atom.http.api.HttpFuture;
+import io.craft.atom.http.api.HttpFutureListener;
+import io.craft.atom.protocol.http.model.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import lombok.ToString;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "done", "response", "exception" })
+public class DefaultHttpFuture implements HttpFuture {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultHttpFuture.class);
+
+
+	private volatile HttpResponse             response ;
+	private volatile Exception                exception;
+	private volatile boolean                  done     ;
+	private          List<HttpFutureListener> listeners;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		long timeoutMillis = unit.toMillis(timeout);
+		long endTime       = System.currentTimeMillis() + timeoutMillis;
+		synchronized (this) {
+			while (!done) {
+				long waitMillis = endTime - System.currentTimeMillis();
+				if (waitMillis <= 0) {
+					break;
+				}
+				wait(waitMillis);
+			}
+		}
+		return done;
+	}
+
+	@Override
+	public HttpResponse getResponse() {
+		return response;
+	}
+
+	@Override
+	public Exception getException() {
+		return exception;
+	}
+
+	@Override
+	public void addListener(HttpFutureListener listener) {
+		synchronized (this) {
+			if (!done) {
+				if (listeners == null) {
+					listeners = new ArrayList<HttpFutureListener>(1);
+				}
+				listeners.add(listener);
+				return;
+			}
+		}
+		notify(listener);
+	}
+
+	/**
+	 * @return <tt>true</tt> if the future is completed by this invocation.
+	 */
+	boolean setResponse(HttpResponse response) {
+		synchronized (this) {
+			if (done) return false;
+			this.response = response;
+			this.done     = true    ;
+			notifyAll();
+		}
+		notifyListeners();
+		return true;
+	}
+
+	/**
+	 * @return <tt>true</tt> if the future is completed by this invocation.
+	 */
+	boolean setException(Exception exception) {
+		synchronized (this) {
+			if (done) return false;
+			this.exception = exception;
+			this.done      = true     ;
+			notifyAll();
+		}
+		notifyListeners();
+		return true;
+	}
+
+	private void notifyListeners() {
+		List<HttpFutureListener> list;
+		synchronized (this) {
+			list      = listeners;
+			listeners = null     ;
+		}
+		if (list == null) {
+			return;
+		}
+		for (HttpFutureListener listener : list) {
+			notify(listener);
+		}
+	}
+
+	private void notify(HttpFutureListener listener) {
+		try {
+			listener.completed(this);
+		} catch (Throwable t) {
+			LOG.warn("[CRAFT-ATOM-HTTP] Notify http future listener error, |listener={}|", listener, t);
+		}
+	}
+
+	@Override
+	public HttpResponse get() throws InterruptedException, ExecutionException {
+		synchronized (this) {
+			while (!done) {
+				wait();
+			}
+		}
+		return result();
+	}
+
+	@Override
+	public HttpResponse get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!await(timeout, unit)) {
+			throw new TimeoutException();
+		}
+		return result();
+	}
+
+	private HttpResponse result() throws ExecutionException {
+		Exception e = exception;
+		if (e instanceof CancellationException) {
+			throw (CancellationException) e;
+		}
+		if (e != null) {
+			throw new ExecutionException(e);
+		}
+		return response;
+	}
+
+	/**
+	 * Completes the future with {@link CancellationException}, the request is not withdrawn if it is already sent.
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return setException(new CancellationException());
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return exception instanceof CancellationException;
+	}
+
+	@Override
+	public boolean isDone() {
+		return done;
+	}
+
+}
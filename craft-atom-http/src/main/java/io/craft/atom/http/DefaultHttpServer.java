@@ -0,0 +1,106 @@
+package io.craft.atom.http;
+
+import io.craft.atom.http.api.HttpHandler;
+import io.craft.atom.http.api.HttpServer;
+import io.craft.atom.io.IoAcceptor;
+import io.craft.atom.nio.NioOrderedDirectChannelEventDispatcher;
+import io.craft.atom.nio.api.NioFactory;
+import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.api.HttpEntityHandler;
+import io.craft.atom.protocol.http.api.HttpRequestDecoderBuilder;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.util.thread.NamedThreadFactory;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class DefaultHttpServer implements HttpServer {
+	
+	
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultHttpServer.class);
+	
+	
+	@Getter @Setter private String                         host                 ;
+	@Getter @Setter private int                            port                 ;
+	@Getter @Setter private int                            connections          ;
+	@Getter @Setter private int                            ioTimeoutInMillis    ;
+	@Getter @Setter private int                            maxLineLength        ;
+	@Getter @Setter private int                            maxRequestSize       ;
+	@Getter @Setter private int                            maxPipelinedRequests ;
+	@Getter @Setter private int                            maxPendingEntityBytes;
+	@Getter @Setter private int                            workers              ;
+	@Getter @Setter private boolean                        lazyHeader           ;
+	@Getter @Setter private ExecutorService                executor             ;
+	@Getter @Setter private HttpHandler                    handler              ;
+	@Getter @Setter private HttpEntityHandler<HttpRequest> entityHandler        ;
+	@Getter         private SocketAddress                  address              ;
+	@Getter         private HttpServerIoHandler            ioHandler            ;
+	@Getter         private IoAcceptor                     ioAcceptor           ;
+	
+	
+	// ~ -------------------------------------------------------------------------------------------------------------
+	
+	
+	public DefaultHttpServer() {}
+	
+	public void init() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(workers, new NamedThreadFactory("craft-atom-http-worker"));
+		}
+		
+		HttpRequestDecoderBuilder decoderBuilder = HttpCodecFactory.newHttpRequestDecoderBuilder()
+		                                                           .maxLineLength(maxLineLength)
+		                                                           .maxRequestSize(maxRequestSize)
+		                                                           .lazyHeader(lazyHeader);
+		address   = (host == null ? new InetSocketAddress(port) : new InetSocketAddress(host, port));
+		ioHandler = new HttpServerIoHandler(handler, entityHandler, executor, decoderBuilder, maxPipelinedRequests, maxPendingEntityBytes);
+		LOG.debug("[CRAFT-ATOM-HTTP] Http server init complete.");
+	}
+	
+	
+	// ~ -------------------------------------------------------------------------------------------------------------
+	
+
+	@Override
+	public void open() {
+		try {
+			ioAcceptor = NioFactory.newTcpAcceptorBuilder(ioHandler)
+					               .channelSize(connections)
+					               .ioTimeoutInMillis(ioTimeoutInMillis)
+					               .dispatcher(new NioOrderedDirectChannelEventDispatcher())
+					               .build();
+			ioAcceptor.bind(address);
+		} catch (Exception e) {
+			LOG.error("[CRAFT-ATOM-HTTP] Http server start fail, |host={}, port={}|", host, port, e);
+			throw new IllegalStateException("Http server start fail", e);
+		}
+		LOG.debug("[CRAFT-ATOM-HTTP] Http server is open for serving, |host={}, port={}|.", host, port);
+	}
+
+	@Override
+	public void close() {
+		if (ioAcceptor != null) {
+			ioAcceptor.shutdown();
+		}
+		executor.shutdown();
+		LOG.debug("[CRAFT-ATOM-HTTP] Http server closed");
+	}
+
+	@Override
+	public int connectionCount() {
+		return ioAcceptor == null ? 0 : ioAcceptor.x().aliveChannelCount();
+	}
+
+}
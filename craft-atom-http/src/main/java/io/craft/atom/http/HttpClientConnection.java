@@ -0,0 +1,131 @@
+package io.craft.atom.http;
+
+import io.craft.atom.io.Channel;
+import io.craft.atom.io.IllegalChannelStateException;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.HttpResponseDecoder;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpVersion;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A persistent client connection, requests are pipelined on it and responses are matched to requests in order.
+ * <p>
+ * Decoding happens in the io thread, other state is guarded by the lock of its {@link HttpClientPool}.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "channel", "inflight", "closing" })
+public class HttpClientConnection {
+
+
+	@Getter private final HttpClientPool       pool     ;
+	@Getter private final Channel<byte[]>      channel  ;
+	@Getter private final HttpResponseDecoder  decoder  ;
+	@Getter private final Deque<HttpExchange>  inflight = new ArrayDeque<HttpExchange>();
+	@Getter private       boolean              closing  ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HttpClientConnection(HttpClientPool pool, Channel<byte[]> channel, HttpResponseDecoder decoder) {
+		this.pool    = pool   ;
+		this.channel = channel;
+		this.decoder = decoder;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	List<HttpResponse> read(byte[] bytes) throws ProtocolException {
+		return decoder.decode(bytes);
+	}
+
+	/**
+	 * A request can be sent on an idle connection,
+	 * or pipelined behind idempotent requests if it is idempotent too and the pipeline is not full.
+	 */
+	boolean accept(HttpExchange exchange, int maxPipelinedRequests) {
+		if (closing || !channel.isOpen()) {
+			return false;
+		}
+		if (inflight.isEmpty()) {
+			return true;
+		}
+		return inflight.size() < maxPipelinedRequests && exchange.isIdempotent() && inflight.peekLast().isIdempotent();
+	}
+
+	void send(HttpExchange exchange) {
+		inflight.offer(exchange);
+		exchange.setConnection(this);
+		decoder.requestSent(exchange.getMethod());
+		try {
+			channel.write(exchange.getBytes());
+		} catch (IllegalChannelStateException e) {
+			// in flight requests are resent or failed when the channel closed event arrives
+			close();
+		}
+		if (!keepAlive(exchange.getRequest())) {
+			closing = true;
+		}
+	}
+
+	/**
+	 * @return the exchange answered by the response.
+	 */
+	HttpExchange complete(HttpResponse response) {
+		HttpExchange exchange = inflight.poll();
+		if (!keepAlive(response)) {
+			closing = true;
+		}
+		if (closing && inflight.isEmpty()) {
+			channel.close();
+		}
+		return exchange;
+	}
+
+	void close() {
+		closing = true;
+		channel.close();
+	}
+
+	boolean isIdle() {
+		return inflight.isEmpty();
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private static boolean keepAlive(HttpRequest request) {
+		return keepAlive(request.getRequestLine().getVersion(), request.getFirstHeader(HttpHeaderType.CONNECTION.getName()));
+	}
+
+	private static boolean keepAlive(HttpResponse response) {
+		return keepAlive(response.getStatusLine().getVersion(), response.getFirstHeader(HttpHeaderType.CONNECTION.getName()));
+	}
+
+	/**
+	 * HTTP/1.1 connections are persistent unless the message says close, HTTP/1.0 connections are persistent only if the message says keep-alive.
+	 */
+	private static boolean keepAlive(HttpVersion version, HttpHeader connection) {
+		String value = connection == null ? null : connection.getValue();
+		if (version == null || version == HttpVersion.HTTP_1_1) {
+			return value == null || !value.equalsIgnoreCase("close");
+		}
+		return value != null && value.equalsIgnoreCase("keep-alive");
+	}
+
+}
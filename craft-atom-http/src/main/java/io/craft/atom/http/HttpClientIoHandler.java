@@ -0,0 +1,120 @@
+package io.craft.atom.http;
+
+import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoHandler;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.HttpResponseDecoder;
+import io.craft.atom.protocol.http.api.HttpResponseDecoderBuilder;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Responses are decoded in the io thread and matched to the in flight requests of the connection.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class HttpClientIoHandler implements IoHandler {
+
+
+	private static final Logger LOG             = LoggerFactory.getLogger(HttpClientIoHandler.class);
+	private static final String HTTP_CONNECTION = "http.client.connection"                           ;
+
+
+	private final DefaultHttpClient          client        ;
+	private final HttpResponseDecoderBuilder decoderBuilder;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	public HttpClientIoHandler(DefaultHttpClient client, HttpResponseDecoderBuilder decoderBuilder) {
+		this.client         = client        ;
+		this.decoderBuilder = decoderBuilder;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public void channelOpened(Channel<byte[]> channel) {
+		HttpClientPool pool = client.getPool((InetSocketAddress) channel.getRemoteAddress());
+		if (pool == null) {
+			LOG.warn("[CRAFT-ATOM-HTTP] No pool for opened channel, |channel={}|", channel);
+			channel.close();
+			return;
+		}
+
+		HttpClientConnection connection = pool.opened(channel, (HttpResponseDecoder) decoderBuilder.build());
+		channel.setAttribute(HTTP_CONNECTION, connection);
+		LOG.debug("[CRAFT-ATOM-HTTP] Channel opened, |channel={}|", channel);
+	}
+
+	@Override
+	public void channelRead(Channel<byte[]> channel, byte[] bytes) {
+		HttpClientConnection connection = (HttpClientConnection) channel.getAttribute(HTTP_CONNECTION);
+		if (connection == null) {
+			return;
+		}
+
+		List<HttpResponse> responses;
+		try {
+			responses = connection.read(bytes);
+		} catch (ProtocolException e) {
+			LOG.debug("[CRAFT-ATOM-HTTP] Decode response fail, |channel={}|", channel, e);
+			connection.getPool().closed(connection, new IOException("Decode response fail", e));
+			connection.close();
+			return;
+		}
+
+		for (HttpResponse response : responses) {
+			int code = response.getStatusLine().getStatus().getStatusCode();
+			if (code < 200 && code != HttpStatus.SWITCHING_PROTOCOLS.getStatusCode()) {
+				// interim response, the final one follows
+				continue;
+			}
+			connection.getPool().received(connection, response);
+		}
+	}
+
+	@Override
+	public void channelWritten(Channel<byte[]> channel, byte[] bytes) {}
+
+	@Override
+	public void channelIdle(Channel<byte[]> channel) {
+		HttpClientConnection connection = (HttpClientConnection) channel.getAttribute(HTTP_CONNECTION);
+		if (connection == null) {
+			channel.close();
+			return;
+		}
+		connection.getPool().idle(connection);
+	}
+
+	@Override
+	public void channelThrown(Channel<byte[]> channel, Exception cause) {
+		LOG.warn("[CRAFT-ATOM-HTTP] Channel thrown, |channel={}|", channel, cause);
+		channel.close();
+	}
+
+	@Override
+	public void channelClosed(Channel<byte[]> channel) {
+		HttpClientConnection connection = (HttpClientConnection) channel.getAttribute(HTTP_CONNECTION);
+		if (connection != null) {
+			connection.getPool().closed(connection, new IOException("Connection closed, |channel=" + channel + "|"));
+			connection.getDecoder().reset();
+		}
+		LOG.debug("[CRAFT-ATOM-HTTP] Channel closed, |channel={}|", channel);
+	}
+
+	@Override
+	public void channelFlush(Channel<byte[]> channel, byte[] bytes) {}
+
+}
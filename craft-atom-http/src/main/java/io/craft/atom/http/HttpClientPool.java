@@ -0,0 +1,313 @@
+package io.craft.atom.http;
+
+import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoConnectListener;
+import io.craft.atom.protocol.http.HttpResponseDecoder;
+import io.craft.atom.protocol.http.model.HttpResponse;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keep-alive connection pool of a remote address.
+ * <p>
+ * Requests wait in a bounded pending queue and are dispatched to an idle connection first,
+ * a new connection is opened when all connections are busy and the limit is not reached,
+ * otherwise idempotent requests are pipelined on the least loaded connection.
+ * <br>
+ * Idempotent requests in flight on a broken connection are resent once.
+ * <p>
+ * All state is guarded by the pool lock, futures are completed outside the lock.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "address", "connections", "connecting" })
+public class HttpClientPool {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(HttpClientPool.class);
+
+
+	@Getter private final InetSocketAddress          address                                            ;
+	        private final DefaultHttpClient          client                                             ;
+	        private final List<HttpClientConnection> connections = new ArrayList<HttpClientConnection>();
+	        private final Deque<HttpExchange>        pending     = new ArrayDeque<HttpExchange>()       ;
+	        private final Deque<Connect>             connecting  = new ArrayDeque<Connect>()            ;
+	        private       boolean                    closed                                             ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HttpClientPool(DefaultHttpClient client, InetSocketAddress address) {
+		this.client  = client ;
+		this.address = address;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	void execute(HttpExchange exchange) {
+		Exception cause = null;
+		synchronized (this) {
+			if (closed) {
+				cause = new IllegalStateException("Http client is closed");
+			} else if (pending.size() >= client.getMaxPendingRequests()) {
+				cause = new RejectedExecutionException("Too many pending requests, |address=" + address + "|");
+			} else {
+				pending.offer(exchange);
+				dispatch();
+			}
+		}
+		if (cause != null) {
+			exchange.getFuture().setException(cause);
+		}
+	}
+
+	HttpClientConnection opened(Channel<byte[]> channel, HttpResponseDecoder decoder) {
+		HttpClientConnection connection = new HttpClientConnection(this, channel, decoder);
+		synchronized (this) {
+			Connect connect = connecting.poll();
+			if (connect != null) {
+				client.getConnectWheel().remove(connect);
+			}
+			if (closed) {
+				channel.close();
+				return connection;
+			}
+			connections.add(connection);
+			dispatch();
+		}
+		return connection;
+	}
+
+	void received(HttpClientConnection connection, HttpResponse response) {
+		HttpExchange exchange;
+		synchronized (this) {
+			exchange = connection.complete(response);
+			dispatch();
+		}
+		if (exchange == null) {
+			LOG.warn("[CRAFT-ATOM-HTTP] Unexpected response without request, |connection={}, response={}|", connection, response);
+			connection.close();
+			return;
+		}
+		client.getReadWheel().remove(exchange);
+		exchange.getFuture().setResponse(response);
+	}
+
+	void closed(HttpClientConnection connection, Exception cause) {
+		List<HttpExchange> failed = new ArrayList<HttpExchange>();
+		synchronized (this) {
+			connections.remove(connection);
+
+			// resend idempotent requests once in the original order, fail others
+			Iterator<HttpExchange> it = connection.getInflight().descendingIterator();
+			while (it.hasNext()) {
+				HttpExchange exchange = it.next();
+				client.getReadWheel().remove(exchange);
+				if (exchange.getFuture().isDone()) {
+					continue;
+				}
+				if (!closed && exchange.isIdempotent() && !exchange.isRetried()) {
+					exchange.setRetried(true);
+					exchange.setConnection(null);
+					pending.addFirst(exchange);
+				} else {
+					failed.add(exchange);
+				}
+			}
+			connection.getInflight().clear();
+			dispatch();
+		}
+		fail(failed, cause);
+	}
+
+	void idle(HttpClientConnection connection) {
+		synchronized (this) {
+			if (!connection.isIdle()) {
+				return;
+			}
+		}
+		connection.close();
+	}
+
+	/**
+	 * Read deadline of a sent request, the connection is closed as its later responses can no longer be matched.
+	 */
+	void expired(HttpExchange exchange) {
+		if (exchange.getFuture().isDone()) {
+			return;
+		}
+		synchronized (this) {
+			HttpClientConnection connection = exchange.getConnection();
+			if (connection != null) {
+				connection.close();
+			}
+		}
+		exchange.getFuture().setException(new TimeoutException("Read timeout, |address=" + address + "|"));
+	}
+
+	/**
+	 * Connect deadline of a hung attempt, pending requests fail if there is neither connection nor connecting attempt left.
+	 */
+	void expired(Connect connect) {
+		fail(connectFailed(connect), new ConnectException("Connect timeout, |address=" + address + "|"));
+	}
+
+	/**
+	 * Completion of a connect attempt notified by the connector, a refused connection fails without waiting the deadline.
+	 * The established connection is added on channel opened.
+	 */
+	void completed(Connect connect, Future<Channel<byte[]>> future) {
+		Throwable cause;
+		try {
+			future.get();
+			return;
+		} catch (ExecutionException e) {
+			cause = e.getCause();
+		} catch (Exception e) {
+			cause = e;
+		}
+		LOG.warn("[CRAFT-ATOM-HTTP] Connect fail, |address={}|", address, cause);
+		ConnectException ce = new ConnectException("Connect fail, |address=" + address + "|");
+		ce.initCause(cause);
+		fail(connectFailed(connect), ce);
+	}
+
+	void close() {
+		List<HttpExchange> failed = new ArrayList<HttpExchange>();
+		List<HttpClientConnection> list;
+		synchronized (this) {
+			closed = true;
+			failed.addAll(pending);
+			pending.clear();
+			list = new ArrayList<HttpClientConnection>(connections);
+		}
+		for (HttpClientConnection connection : list) {
+			connection.close();
+		}
+		fail(failed, new IOException("Http client is closed"));
+	}
+
+	synchronized int connectionCount() {
+		return connections.size();
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private void dispatch() {
+		while (!pending.isEmpty()) {
+			HttpExchange exchange = pending.peek();
+			HttpClientConnection connection = select(exchange);
+			if (connection == null) {
+				return;
+			}
+
+			pending.poll();
+			connection.send(exchange);
+			client.getReadWheel().add(exchange);
+		}
+	}
+
+	private HttpClientConnection select(HttpExchange exchange) {
+		HttpClientConnection best = null;
+		for (HttpClientConnection connection : connections) {
+			if (!connection.accept(exchange, client.getMaxPipelinedRequests())) {
+				continue;
+			}
+			if (connection.isIdle()) {
+				return connection;
+			}
+			if (best == null || connection.getInflight().size() < best.getInflight().size()) {
+				best = connection;
+			}
+		}
+
+		// prefer a new connection to pipelining
+		int total = connections.size() + connecting.size();
+		if (total < client.getMaxConnectionsPerHost() && connecting.size() < pending.size()) {
+			connect();
+			return null;
+		}
+		if (connecting.size() >= pending.size()) {
+			return null;
+		}
+		return best;
+	}
+
+	private void connect() {
+		Connect connect = new Connect(this);
+		connecting.offer(connect);
+		client.getConnectWheel().add(connect);
+		try {
+			client.getIoConnector().connect(address, connect);
+		} catch (Exception e) {
+			// rare, e.g. the connector is shutdown, the attempt is retired by its deadline as futures are completed outside the lock
+			LOG.warn("[CRAFT-ATOM-HTTP] Connect fail, |address={}|", address, e);
+		}
+	}
+
+	private synchronized List<HttpExchange> connectFailed(Connect connect) {
+		List<HttpExchange> failed = new ArrayList<HttpExchange>();
+		if (!connecting.remove(connect)) {
+			return failed;
+		}
+		client.getConnectWheel().remove(connect);
+		if (connections.isEmpty() && connecting.isEmpty()) {
+			failed.addAll(pending);
+			pending.clear();
+		} else {
+			dispatch();
+		}
+		return failed;
+	}
+
+	private void fail(List<HttpExchange> exchanges, Exception cause) {
+		for (HttpExchange exchange : exchanges) {
+			exchange.getFuture().setException(cause);
+		}
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * A connecting attempt, tracked on the connect timing wheel and completed by the connector.
+	 */
+	static class Connect implements IoConnectListener {
+
+		@Getter private final HttpClientPool pool;
+
+		Connect(HttpClientPool pool) {
+			this.pool = pool;
+		}
+
+		@Override
+		public void completed(Future<Channel<byte[]>> future) {
+			pool.completed(this, future);
+		}
+	}
+
+}
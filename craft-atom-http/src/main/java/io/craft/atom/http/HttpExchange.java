@@ -0,0 +1,51 @@
+package io.craft.atom.http;
+
+import io.craft.atom.protocol.http.model.HttpMethod;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A request and its response future, tracked from submission to completion.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "request", "retried" })
+public class HttpExchange {
+
+
+	@Getter         private final HttpRequest          request   ;
+	@Getter         private final byte[]               bytes     ;
+	@Getter         private final DefaultHttpFuture    future    ;
+	@Getter @Setter private       HttpClientConnection connection;
+	@Getter @Setter private       boolean              retried   ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HttpExchange(HttpRequest request, byte[] bytes, DefaultHttpFuture future) {
+		this.request = request;
+		this.bytes   = bytes  ;
+		this.future  = future ;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HttpMethod getMethod() {
+		return request.getRequestLine().getMethod();
+	}
+
+	/**
+	 * Only idempotent request is pipelined behind others, or resent after its connection is broken.
+	 */
+	public boolean isIdempotent() {
+		HttpMethod method = getMethod();
+		return method != HttpMethod.POST;
+	}
+
+}
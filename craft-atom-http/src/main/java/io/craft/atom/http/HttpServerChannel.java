@@ -0,0 +1,288 @@
+package io.craft.atom.http;
+
+import io.craft.atom.io.Channel;
+import io.craft.atom.io.IllegalChannelStateException;
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.http.HttpConstants;
+import io.craft.atom.protocol.http.api.HttpEntityHandler;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpResponse;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A http server connection, it sequences responses of pipelined requests.
+ * <p>
+ * Each request read from the connection takes a sequence number, responses are written strictly in sequence order
+ * no matter which order they are completed by the worker pool.
+ * The connection stops reading when in flight requests reach <tt>maxPipelinedRequests</tt>,
+ * and resumes when responses are written.
+ * <p>
+ * In streaming mode entity content is handed to the {@link HttpEntityHandler} in the worker pool,
+ * all tasks of the connection run serially so that content slices and the request are handled in order.
+ * The connection stops reading when pending content exceeds <tt>maxPendingEntityBytes</tt>,
+ * and resumes when it is drained to half.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "channel", "readSequence", "writeSequence", "pendingBytes" })
+public class HttpServerChannel implements HttpEntityHandler<HttpRequest> {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(HttpServerChannel.class);
+
+
+	@Getter private final Channel<byte[]>                channel                                          ;
+	@Getter private final ProtocolDecoder<HttpRequest>   decoder                                          ;
+	@Getter private final ProtocolEncoder<HttpResponse>  encoder                                          ;
+	@Getter private final Executor                       executor                                         ;
+	@Getter private final HttpEntityHandler<HttpRequest> entityHandler                                    ;
+	@Getter private final int                            maxPipelinedRequests                             ;
+	@Getter private final int                            maxPendingEntityBytes                            ;
+	        private final Map<Long, HttpResponse>        responses = new HashMap<Long, HttpResponse>()    ;
+	        private final Queue<Runnable>                tasks     = new LinkedList<Runnable>()           ;
+	        private final Runnable                       drainer   = new Drainer()                        ;
+	        private       long                           readSequence                                     ;
+	        private       long                           writeSequence                                    ;
+	        private       long                           pendingBytes                                     ;
+	        private       boolean                        running                                          ;
+	        private       boolean                        closing                                          ;
+	        private       byte[]                         lastBytes                                        ;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	HttpServerChannel(Channel<byte[]> channel, ProtocolDecoder<HttpRequest> decoder, ProtocolEncoder<HttpResponse> encoder, Executor executor, 
+			          HttpEntityHandler<HttpRequest> entityHandler, int maxPipelinedRequests, int maxPendingEntityBytes) {
+		this.channel               = channel              ;
+		this.decoder               = decoder              ;
+		this.encoder               = encoder              ;
+		this.executor              = executor             ;
+		this.entityHandler         = entityHandler        ;
+		this.maxPipelinedRequests  = maxPipelinedRequests ;
+		this.maxPendingEntityBytes = maxPendingEntityBytes;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	List<HttpRequest> read(byte[] bytes) {
+		return decoder.decode(bytes);
+	}
+
+	/**
+	 * Takes a sequence number for a new request, pauses reading if too many requests are in flight.
+	 *
+	 * @return sequence number of the request, or -1 if the connection is closing.
+	 */
+	synchronized long accept() {
+		if (closing) {
+			return -1;
+		}
+
+		long seq = readSequence++;
+		throttle();
+		return seq;
+	}
+	
+	/**
+	 * Dispatches a task to the worker pool, in streaming mode tasks of the connection run serially in order.
+	 * 
+	 * @param task
+	 * @throws RejectedExecutionException if the worker pool is overload.
+	 */
+	void dispatch(Runnable task) {
+		if (entityHandler == null) {
+			executor.execute(task);
+			return;
+		}
+		
+		synchronized (this) {
+			tasks.add(task);
+			if (running) {
+				return;
+			}
+			running = true;
+		}
+		
+		try {
+			executor.execute(drainer);
+		} catch (RejectedExecutionException e) {
+			synchronized (this) {
+				tasks.clear();
+				running = false;
+			}
+			throw e;
+		}
+	}
+	
+	@Override
+	public void entityStarted(final HttpRequest request) {
+		dispatch(new Runnable() {
+			@Override
+			public void run() {
+				entityHandler.entityStarted(request);
+			}
+		});
+	}
+
+	@Override
+	public void entityRead(final HttpRequest request, final byte[] content) {
+		synchronized (this) {
+			pendingBytes += content.length;
+			throttle();
+		}
+		
+		dispatch(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					entityHandler.entityRead(request, content);
+				} finally {
+					synchronized (HttpServerChannel.this) {
+						pendingBytes -= content.length;
+						throttle();
+					}
+				}
+			}
+		});
+	}
+
+	@Override
+	public void entityCompleted(final HttpRequest request) {
+		dispatch(new Runnable() {
+			@Override
+			public void run() {
+				entityHandler.entityCompleted(request);
+			}
+		});
+	}
+
+	/**
+	 * Completes the request with the sequence number, writes all responses ready in sequence order.
+	 *
+	 * @param seq
+	 * @param response
+	 */
+	synchronized void complete(long seq, HttpResponse response) {
+		if (seq < writeSequence) {
+			return;
+		}
+
+		responses.put(seq, response);
+		for (HttpResponse r = responses.remove(writeSequence); r != null; r = responses.remove(writeSequence)) {
+			writeSequence++;
+			if (closing) {
+				continue;
+			}
+
+			try {
+				byte[] bytes = encoder.encode(r);
+				channel.write(bytes);
+				if (!keepAlive(r)) {
+					closing   = true ;
+					lastBytes = bytes;
+				}
+			} catch (IllegalChannelStateException e) {
+				LOG.debug("[CRAFT-ATOM-HTTP] Drop response for broken connection, |channel={}|", channel);
+				closing = true;
+			}
+		}
+
+		if (closing) {
+			responses.clear();
+		} else {
+			throttle();
+		}
+	}
+	
+	/**
+	 * Pauses reading if too many requests are in flight or too much entity content is pending,
+	 * resumes reading when both are relieved.
+	 */
+	private void throttle() {
+		boolean full = readSequence - writeSequence >= maxPipelinedRequests;
+		if (channel.isOpen()) {
+			if (full || pendingBytes > maxPendingEntityBytes) {
+				channel.pause();
+				LOG.debug("[CRAFT-ATOM-HTTP] Pause channel, |channel={}, inflight={}, pendingBytes={}|", channel, readSequence - writeSequence, pendingBytes);
+			}
+		} else if (channel.isPaused() && !full && pendingBytes <= maxPendingEntityBytes / 2) {
+			channel.resume();
+			LOG.debug("[CRAFT-ATOM-HTTP] Resume channel, |channel={}|", channel);
+		}
+	}
+
+	/**
+	 * @param bytes written bytes
+	 * @return <tt>true</tt> if the bytes are the last response of a connection to be closed.
+	 */
+	synchronized boolean isLast(byte[] bytes) {
+		return closing && lastBytes == bytes;
+	}
+
+	synchronized boolean isClosing() {
+		return closing;
+	}
+
+	synchronized int inflight() {
+		return (int) (readSequence - writeSequence);
+	}
+	
+	/**
+	 * @return <tt>true</tt> if any request is in flight or any streaming task is pending.
+	 */
+	synchronized boolean isBusy() {
+		return readSequence > writeSequence || running;
+	}
+
+	private boolean keepAlive(HttpResponse response) {
+		HttpHeader header = response.getFirstHeader(HttpHeaderType.CONNECTION.getName());
+		return header == null || !HttpConstants.CONNECTION_CLOSE.equalsIgnoreCase(header.getValue());
+	}
+	
+	
+	// ~ -------------------------------------------------------------------------------------------------------------
+	
+	
+	private class Drainer implements Runnable {
+		@Override
+		public void run() {
+			for (;;) {
+				Runnable task;
+				synchronized (HttpServerChannel.this) {
+					task = tasks.poll();
+					if (task == null) {
+						running = false;
+						return;
+					}
+				}
+				
+				try {
+					task.run();
+				} catch (Throwable t) {
+					LOG.warn("[CRAFT-ATOM-HTTP] Run streaming task fail, |channel={}|", channel, t);
+				}
+			}
+		}
+	}
+
+}
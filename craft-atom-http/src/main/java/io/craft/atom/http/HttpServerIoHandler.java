@@ -0,0 +1,229 @@
+package io.craft.atom.http;
+
+import io.craft.atom.http.api.HttpHandler;
+import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoHandler;
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.HttpHeaders;
+import io.craft.atom.protocol.http.HttpRequestDecoder;
+import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.api.HttpEntityHandler;
+import io.craft.atom.protocol.http.api.HttpRequestDecoderBuilder;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpStatusLine;
+import io.craft.atom.protocol.http.model.HttpVersion;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class HttpServerIoHandler implements IoHandler {
+
+
+	private static final Logger LOG          = LoggerFactory.getLogger(HttpServerIoHandler.class);
+	private static final String HTTP_CHANNEL = "http.channel"                                    ;
+
+
+	private final HttpHandler                    handler              ;
+	private final HttpEntityHandler<HttpRequest> entityHandler        ;
+	private final Executor                       executor             ;
+	private final HttpRequestDecoderBuilder      decoderBuilder       ;
+	private final ProtocolEncoder<HttpResponse>  encoder              ;
+	private final int                            maxPipelinedRequests ;
+	private final int                            maxPendingEntityBytes;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	public HttpServerIoHandler(HttpHandler handler, HttpEntityHandler<HttpRequest> entityHandler, Executor executor, HttpRequestDecoderBuilder decoderBuilder, 
+			                   int maxPipelinedRequests, int maxPendingEntityBytes) {
+		this.handler               = handler                                  ;
+		this.entityHandler         = entityHandler                            ;
+		this.executor              = executor                                 ;
+		this.decoderBuilder        = decoderBuilder                           ;
+		this.encoder               = HttpCodecFactory.newHttpResponseEncoder();
+		this.maxPipelinedRequests  = maxPipelinedRequests                     ;
+		this.maxPendingEntityBytes = maxPendingEntityBytes                    ;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public void channelOpened(Channel<byte[]> channel) {
+		ProtocolDecoder<HttpRequest> decoder = decoderBuilder.build();
+		HttpServerChannel httpChannel = new HttpServerChannel(channel, decoder, encoder, executor, entityHandler, maxPipelinedRequests, maxPendingEntityBytes);
+		if (entityHandler != null) {
+			((HttpRequestDecoder) decoder).setEntityHandler(httpChannel);
+		}
+		channel.setAttribute(HTTP_CHANNEL, httpChannel);
+		LOG.debug("[CRAFT-ATOM-HTTP] Channel opened, |channel={}|", channel);
+	}
+
+	@Override
+	public void channelRead(Channel<byte[]> channel, byte[] bytes) {
+		HttpServerChannel httpChannel = (HttpServerChannel) channel.getAttribute(HTTP_CHANNEL);
+		if (httpChannel.isClosing()) {
+			return;
+		}
+
+		List<HttpRequest> reqs;
+		try {
+			reqs = httpChannel.read(bytes);
+		} catch (ProtocolException e) {
+			LOG.debug("[CRAFT-ATOM-HTTP] Decode request fail, |channel={}|", channel, e);
+			long seq = httpChannel.accept();
+			if (seq >= 0) {
+				httpChannel.complete(seq, response(HttpVersion.HTTP_1_1, HttpStatus.BAD_REQUEST, false));
+			}
+			return;
+		}
+
+		for (HttpRequest req : reqs) {
+			long seq = httpChannel.accept();
+			if (seq < 0) {
+				return;
+			}
+
+			try {
+				httpChannel.dispatch(new HandleTask(httpChannel, seq, req));
+			} catch (RejectedExecutionException e) {
+				LOG.warn("[CRAFT-ATOM-HTTP] Worker pool is overload, |channel={}|", channel);
+				httpChannel.complete(seq, prepare(req, response(version(req), HttpStatus.SERVICE_UNAVAILABLE, false)));
+			}
+		}
+	}
+
+	@Override
+	public void channelWritten(Channel<byte[]> channel, byte[] bytes) {
+		HttpServerChannel httpChannel = (HttpServerChannel) channel.getAttribute(HTTP_CHANNEL);
+		if (httpChannel != null && httpChannel.isLast(bytes)) {
+			channel.close();
+		}
+	}
+
+	@Override
+	public void channelIdle(Channel<byte[]> channel) {
+		HttpServerChannel httpChannel = (HttpServerChannel) channel.getAttribute(HTTP_CHANNEL);
+		if (httpChannel != null && httpChannel.isBusy()) {
+			return;
+		}
+		channel.close();
+	}
+
+	@Override
+	public void channelThrown(Channel<byte[]> channel, Exception cause) {
+		LOG.warn("[CRAFT-ATOM-HTTP] Channel thrown, |channel={}|", channel, cause);
+		channel.close();
+	}
+
+	@Override
+	public void channelClosed(Channel<byte[]> channel) {
+		HttpServerChannel httpChannel = (HttpServerChannel) channel.getAttribute(HTTP_CHANNEL);
+		if (httpChannel != null) {
+			httpChannel.getDecoder().reset();
+		}
+		LOG.debug("[CRAFT-ATOM-HTTP] Channel closed, |channel={}|", channel);
+	}
+
+	@Override
+	public void channelFlush(Channel<byte[]> channel, byte[] bytes) {}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Fills absent status line, "Content-Length", "Connection" and "Date" headers of the response.
+	 */
+	static HttpResponse prepare(HttpRequest req, HttpResponse res) {
+		HttpVersion version = version(req);
+		if (res.getStatusLine() == null) {
+			res.setStatusLine(new HttpStatusLine(version, HttpStatus.OK));
+		}
+		if (res.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName()) == null) {
+			int length = (res.getEntity() == null || res.getEntity().getContent() == null) ? 0 : res.getEntity().getContent().length;
+			res.addHeader(HttpHeaders.newContentLengthHeader(length));
+		}
+		if (res.getFirstHeader(HttpHeaderType.CONNECTION.getName()) == null) {
+			res.addHeader(HttpHeaders.newConnectionHeader(keepAlive(req)));
+		}
+		if (res.getFirstHeader(HttpHeaderType.DATE.getName()) == null) {
+			res.addHeader(HttpHeaders.newDateHeader());
+		}
+		return res;
+	}
+
+	/**
+	 * HTTP/1.1 connections are persistent unless the request says close, HTTP/1.0 connections are persistent only if the request says keep-alive.
+	 */
+	static boolean keepAlive(HttpRequest req) {
+		HttpHeader connection = req.getFirstHeader(HttpHeaderType.CONNECTION.getName());
+		String value = connection == null ? null : connection.getValue();
+		if (version(req) == HttpVersion.HTTP_1_1) {
+			return value == null || !value.equalsIgnoreCase("close");
+		}
+		return value != null && value.equalsIgnoreCase("keep-alive");
+	}
+
+	private static HttpVersion version(HttpRequest req) {
+		HttpVersion version = req.getRequestLine().getVersion();
+		return version == null ? HttpVersion.HTTP_1_1 : version;
+	}
+
+	private static HttpResponse response(HttpVersion version, HttpStatus status, boolean keepAlive) {
+		HttpResponse res = new HttpResponse();
+		res.setStatusLine(new HttpStatusLine(version, status));
+		res.addHeader(HttpHeaders.newContentLengthHeader(0));
+		res.addHeader(HttpHeaders.newConnectionHeader(keepAlive));
+		return res;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	private class HandleTask implements Runnable {
+
+		private final HttpServerChannel httpChannel;
+		private final long              seq        ;
+		private final HttpRequest       req        ;
+
+		HandleTask(HttpServerChannel httpChannel, long seq, HttpRequest req) {
+			this.httpChannel = httpChannel;
+			this.seq         = seq        ;
+			this.req         = req        ;
+		}
+
+		@Override
+		public void run() {
+			HttpResponse res;
+			try {
+				res = handler.handle(req);
+				if (res == null) {
+					res = response(version(req), HttpStatus.INTERNAL_SERVER_ERROR, keepAlive(req));
+				}
+			} catch (Throwable t) {
+				LOG.warn("[CRAFT-ATOM-HTTP] Handle request fail, |request={}|", req, t);
+				res = response(version(req), HttpStatus.INTERNAL_SERVER_ERROR, keepAlive(req));
+			}
+			httpChannel.complete(seq, prepare(req, res));
+		}
+	}
+
+}
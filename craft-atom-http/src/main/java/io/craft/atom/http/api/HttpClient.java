@@ -0,0 +1,52 @@
+package io.craft.atom.http.api;
+
+import io.craft.atom.protocol.http.model.HttpRequest;
+
+import java.net.InetSocketAddress;
+
+
+/**
+ * Non-blocking HTTP/1.1 client, keeps a pool of persistent connections per remote address and pipelines requests on them.
+ * <p>
+ * Requests are executed asynchronously, the response is delivered by the returned {@link HttpFuture},
+ * no thread is occupied while a request is outstanding.
+ * Use {@link HttpFactory} creates a http client.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface HttpClient {
+	
+	/**
+	 * Executes the request on a connection to the specified host.
+	 * <br>
+	 * "Host" and "Content-Length" headers are added to the request if absent.
+	 * 
+	 * @param host
+	 * @param port
+	 * @param request
+	 * @return future of the response.
+	 */
+	HttpFuture execute(String host, int port, HttpRequest request);
+	
+	/**
+	 * Executes the request on a connection to the specified address.
+	 * 
+	 * @param address
+	 * @param request
+	 * @return future of the response.
+	 * @see #execute(String, int, HttpRequest)
+	 */
+	HttpFuture execute(InetSocketAddress address, HttpRequest request);
+	
+	/**
+	 * Close the client, fails all outstanding requests and dispose all resources.
+	 */
+	void close();
+	
+	/**
+	 * @return current alive connection count.
+	 */
+	int connectionCount();
+	
+}
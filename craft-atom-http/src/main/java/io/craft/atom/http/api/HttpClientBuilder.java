@@ -0,0 +1,53 @@
+package io.craft.atom.http.api;
+
+import io.craft.atom.http.DefaultHttpClient;
+
+
+/**
+ * Builder for {@link HttpClient}
+ * <p>
+ * Requests of a remote address are queued in a bounded pending queue of <tt>maxPendingRequests</tt>,
+ * and sent over at most <tt>maxConnectionsPerHost</tt> connections, each carries at most <tt>maxPipelinedRequests</tt> requests in flight.
+ * Idle connections are kept alive for <tt>ioTimeoutInMillis</tt>.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class HttpClientBuilder {
+	
+	
+	private int connectTimeoutInMillis = 2000             ;
+	private int readTimeoutInMillis    = 10 * 1000        ;
+	private int ioTimeoutInMillis      = 60 * 1000        ;
+	private int maxConnectionsPerHost  = 8                ;
+	private int maxPipelinedRequests   = 4                ;
+	private int maxPendingRequests     = 1024             ;
+	private int maxLineLength          = 8192             ;
+	private int maxResponseSize        = 8 * 1024 * 1024  ;
+	
+	
+	public HttpClientBuilder connectTimeoutInMillis(int connectTimeoutInMillis) { this.connectTimeoutInMillis = connectTimeoutInMillis; return this; }
+	public HttpClientBuilder readTimeoutInMillis   (int readTimeoutInMillis   ) { this.readTimeoutInMillis    = readTimeoutInMillis   ; return this; }
+	public HttpClientBuilder ioTimeoutInMillis     (int ioTimeoutInMillis     ) { this.ioTimeoutInMillis      = ioTimeoutInMillis     ; return this; }
+	public HttpClientBuilder maxConnectionsPerHost (int maxConnectionsPerHost ) { this.maxConnectionsPerHost  = maxConnectionsPerHost ; return this; }
+	public HttpClientBuilder maxPipelinedRequests  (int maxPipelinedRequests  ) { this.maxPipelinedRequests   = maxPipelinedRequests  ; return this; }
+	public HttpClientBuilder maxPendingRequests    (int maxPendingRequests    ) { this.maxPendingRequests     = maxPendingRequests    ; return this; }
+	public HttpClientBuilder maxLineLength         (int maxLineLength         ) { this.maxLineLength          = maxLineLength         ; return this; }
+	public HttpClientBuilder maxResponseSize       (int maxResponseSize       ) { this.maxResponseSize        = maxResponseSize       ; return this; }
+	
+	
+	public HttpClient build() {
+		DefaultHttpClient hc = new DefaultHttpClient();
+		hc.setConnectTimeoutInMillis(connectTimeoutInMillis);
+		hc.setReadTimeoutInMillis(readTimeoutInMillis);
+		hc.setIoTimeoutInMillis(ioTimeoutInMillis);
+		hc.setMaxConnectionsPerHost(maxConnectionsPerHost);
+		hc.setMaxPipelinedRequests(maxPipelinedRequests);
+		hc.setMaxPendingRequests(maxPendingRequests);
+		hc.setMaxLineLength(maxLineLength);
+		hc.setMaxResponseSize(maxResponseSize);
+		hc.init();
+		return hc;
+	}
+	
+}
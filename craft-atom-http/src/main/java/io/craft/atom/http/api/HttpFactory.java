@@ -0,0 +1,36 @@
+package io.craft.atom.http.api;
+
+
+/**
+ * HTTP factory, which provides static factory method and builder to create {@link HttpServer} and {@link HttpClient} instance.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class HttpFactory {
+	
+	
+	// ~ -------------------------------------------------------------------------------------------------- http server
+
+	
+	public static HttpServer newHttpServer(int port, HttpHandler handler) {
+		return newHttpServerBuilder(port, handler).build();
+	}
+	
+	public static HttpServerBuilder newHttpServerBuilder(int port, HttpHandler handler) {
+		return new HttpServerBuilder().port(port).handler(handler);
+	}
+	
+	
+	// ~ -------------------------------------------------------------------------------------------------- http client
+	
+	
+	public static HttpClient newHttpClient() {
+		return newHttpClientBuilder().build();
+	}
+	
+	public static HttpClientBuilder newHttpClientBuilder() {
+		return new HttpClientBuilder();
+	}
+	
+}
@@ -0,0 +1,52 @@
+package io.craft.atom.http.api;
+
+import io.craft.atom.protocol.http.model.HttpResponse;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Represents the completion of an asynchronous http request.
+ * <p>
+ * The future is completed with the response, or with an exception, e.g. 
+ * {@link java.util.concurrent.TimeoutException} on connect or read deadline,
+ * {@link java.util.concurrent.RejectedExecutionException} if the pending queue is full,
+ * {@link java.io.IOException} if the connection is broken.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface HttpFuture extends Future<HttpResponse> {
+	
+	/**
+	 * Wait for the request to complete with the specified timeout.
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return <tt>true</tt> if the request is completed.
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	boolean await(long timeout, TimeUnit unit) throws InterruptedException;
+	
+	/**
+	 * @return the response, or <tt>null</tt> if the request is not completed or failed.
+	 */
+	HttpResponse getResponse();
+	
+	/**
+	 * @return the cause of the failure, or <tt>null</tt> if the request is not completed or succeeded.
+	 */
+	Exception getException();
+	
+	/**
+	 * Adds a listener which is notified when the request is completed, 
+	 * it is notified immediately in the caller thread if the request is already completed.
+	 * <br>
+	 * Listeners are usually notified in the io thread, so they should not block.
+	 * 
+	 * @param listener
+	 */
+	void addListener(HttpFutureListener listener);
+	
+}
@@ -0,0 +1,19 @@
+package io.craft.atom.http.api;
+
+
+/**
+ * Listens to the completion of a {@link HttpFuture}.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface HttpFutureListener {
+	
+	/**
+	 * Invoked when the request is completed with response or exception.
+	 * 
+	 * @param future
+	 */
+	void completed(HttpFuture future);
+	
+}
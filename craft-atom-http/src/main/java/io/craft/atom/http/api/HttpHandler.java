@@ -0,0 +1,27 @@
+package io.craft.atom.http.api;
+
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpResponse;
+
+
+/**
+ * Handles a http request and returns the response, it is invoked on the worker pool of {@link HttpServer}.
+ * <p>
+ * The handler should be thread safe, requests of the same connection may be handled concurrently, 
+ * the server sends responses in the order of requests.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface HttpHandler {
+	
+	/**
+	 * Handles the request.
+	 * 
+	 * @param request
+	 * @return the response, the server fills absent status line, "Content-Length", "Connection" and "Date" headers.
+	 * @throws Exception the server responds with 500 status.
+	 */
+	HttpResponse handle(HttpRequest request) throws Exception;
+	
+}
@@ -0,0 +1,31 @@
+package io.craft.atom.http.api;
+
+
+/**
+ * HTTP/1.1 server, supports persistent connections and pipelined requests.
+ * <p>
+ * Use {@link HttpFactory} creates a http server with a {@link HttpHandler}.
+ * Last invoke {@link HttpServer#open()} to start the server.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface HttpServer {
+	
+	/**
+	 * Open the http server and get things going. 
+	 * Just invoke this once.
+	 */
+	void open();
+	
+	/**
+	 * Close the server, dispose all resources.
+	 */
+	void close();
+	
+	/**
+	 * @return current alive connection count.
+	 */
+	int connectionCount();
+	
+}
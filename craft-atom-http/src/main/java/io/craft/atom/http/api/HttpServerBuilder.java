@@ -0,0 +1,77 @@
+package io.craft.atom.http.api;
+
+import io.craft.atom.http.DefaultHttpServer;
+import io.craft.atom.protocol.http.api.HttpEntityHandler;
+import io.craft.atom.protocol.http.model.HttpRequest;
+
+import java.util.concurrent.ExecutorService;
+
+
+/**
+ * Builder for {@link HttpServer}
+ * <p>
+ * If no executor is specified, the server creates a fixed worker pool with <tt>workers</tt> threads.
+ * <br>
+ * If an entity handler is specified, request entity is streamed to it instead of aggregated into the request,
+ * see {@link HttpEntityHandler}.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class HttpServerBuilder {
+	
+	
+	private String                         host                                                                  ;
+	private int                            port                                                                  ;
+	private int                            connections           = Integer.MAX_VALUE                             ;
+	private int                            ioTimeoutInMillis     = 120 * 1000                                    ;
+	private int                            maxLineLength         = 8192                                          ;
+	private int                            maxRequestSize        = 2 * 1024 * 1024                               ;
+	private int                            maxPipelinedRequests  = 16                                            ;
+	private int                            maxPendingEntityBytes = 1024 * 1024                                   ;
+	private int                            workers               = Runtime.getRuntime().availableProcessors() * 2;
+	private boolean                        lazyHeader            = false                                         ;
+	private ExecutorService                executor                                                              ;
+	private HttpHandler                     handler                                                               ;
+	private HttpEntityHandler<HttpRequest> entityHandler                                                         ;
+	
+	
+	public HttpServerBuilder host                 (String                         host                 ) { this.host                  = host                 ; return this; }
+	public HttpServerBuilder port                 (int                            port                 ) { this.port                  = port                 ; return this; }
+	public HttpServerBuilder connections          (int                            connections          ) { this.connections           = connections          ; return this; }
+	public HttpServerBuilder ioTimeoutInMillis    (int                            ioTimeoutInMillis    ) { this.ioTimeoutInMillis     = ioTimeoutInMillis    ; return this; }
+	public HttpServerBuilder maxLineLength        (int                            maxLineLength        ) { this.maxLineLength         = maxLineLength        ; return this; }
+	public HttpServerBuilder maxRequestSize       (int                            maxRequestSize       ) { this.maxRequestSize        = maxRequestSize       ; return this; }
+	public HttpServerBuilder maxPipelinedRequests (int                            maxPipelinedRequests ) { this.maxPipelinedRequests  = maxPipelinedRequests ; return this; }
+	public HttpServerBuilder maxPendingEntityBytes(int                            maxPendingEntityBytes) { this.maxPendingEntityBytes = maxPendingEntityBytes; return this; }
+	public HttpServerBuilder workers              (int                            workers              ) { this.workers               = workers              ; return this; }
+	public HttpServerBuilder lazyHeader           (boolean                        lazyHeader           ) { this.lazyHeader            = lazyHeader           ; return this; }
+	public HttpServerBuilder executor             (ExecutorService                executor             ) { this.executor              = executor             ; return this; }
+	public HttpServerBuilder handler              (HttpHandler                    handler              ) { this.handler               = handler              ; return this; }
+	public HttpServerBuilder entityHandler        (HttpEntityHandler<HttpRequest> entityHandler        ) { this.entityHandler         = entityHandler        ; return this; }
+	
+	
+	public HttpServer build() {
+		if (handler == null) {
+			throw new IllegalArgumentException("handler is null");
+		}
+		
+		DefaultHttpServer hs = new DefaultHttpServer();
+		hs.setHost(host);
+		hs.setPort(port);
+		hs.setConnections(connections);
+		hs.setIoTimeoutInMillis(ioTimeoutInMillis);
+		hs.setMaxLineLength(maxLineLength);
+		hs.setMaxRequestSize(maxRequestSize);
+		hs.setMaxPipelinedRequests(maxPipelinedRequests);
+		hs.setMaxPendingEntityBytes(maxPendingEntityBytes);
+		hs.setWorkers(workers);
+		hs.setLazyHeader(lazyHeader);
+		hs.setExecutor(executor);
+		hs.setHandler(handler);
+		hs.setEntityHandler(entityHandler);
+		hs.init();
+		return hs;
+	}
+	
+}
@@ -0,0 +1,245 @@
+package io.craft.atom.http;
+
+import io.craft.atom.http.api.HttpClient;
+import io.craft.atom.http.api.HttpFactory;
+import io.craft.atom.http.api.HttpFuture;
+import io.craft.atom.http.api.HttpFutureListener;
+import io.craft.atom.http.api.HttpHandler;
+import io.craft.atom.http.api.HttpServer;
+import io.craft.atom.protocol.http.model.HttpEntity;
+import io.craft.atom.protocol.http.model.HttpMethod;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpRequestLine;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpVersion;
+import io.craft.atom.test.AvailablePortFinder;
+import io.craft.atom.test.CaseCounter;
+
+import java.net.ConnectException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link HttpClient}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHttpClient {
+
+
+	private static final Logger  LOG   = LoggerFactory.getLogger(TestHttpClient.class);
+	private static final Charset UTF_8 = Charset.forName("utf-8")                     ;
+
+
+	private int        port  ;
+	private HttpServer server;
+	private HttpClient client;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	@Before
+	public void before() {
+		port   = AvailablePortFinder.getNextAvailable(24000);
+		server = HttpFactory.newHttpServerBuilder(port, new EchoHandler()).maxPipelinedRequests(4).build();
+		server.open();
+		client = HttpFactory.newHttpClientBuilder().connectTimeoutInMillis(500).readTimeoutInMillis(1000).maxConnectionsPerHost(2).build();
+	}
+
+	@After
+	public void after() {
+		client.close();
+		server.close();
+	}
+
+	@Test
+	public void testKeepAlive() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			HttpResponse res = client.execute("localhost", port, request(HttpMethod.GET, "/keep-alive/" + i, null)).get(5, TimeUnit.SECONDS);
+			Assert.assertEquals(HttpStatus.OK, res.getStatusLine().getStatus());
+			Assert.assertEquals("/keep-alive/" + i, content(res));
+		}
+		Assert.assertEquals(1, client.connectionCount());
+
+		HttpResponse res = client.execute("localhost", port, request(HttpMethod.POST, "/post", "hello")).get(5, TimeUnit.SECONDS);
+		Assert.assertEquals("/post hello", content(res));
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test keep alive. ", CaseCounter.incr(5)));
+	}
+
+	@Test
+	public void testPipelining() throws Exception {
+		int n = 200;
+		final CountDownLatch  latch  = new CountDownLatch(n);
+		final AtomicInteger   failed = new AtomicInteger();
+		List<HttpFuture>      futures = new ArrayList<HttpFuture>();
+		for (int i = 0; i < n; i++) {
+			HttpFuture future = client.execute("localhost", port, request(HttpMethod.GET, "/pipelining/" + i, null));
+			future.addListener(new HttpFutureListener() {
+				@Override
+				public void completed(HttpFuture future) {
+					if (future.getException() != null) {
+						failed.incrementAndGet();
+					}
+					latch.countDown();
+				}
+			});
+			futures.add(future);
+		}
+		Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Assert.assertEquals(0, failed.get());
+		for (int i = 0; i < n; i++) {
+			Assert.assertEquals("/pipelining/" + i, content(futures.get(i).getResponse()));
+		}
+		Assert.assertTrue(client.connectionCount() <= 2);
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test pipelining. ", CaseCounter.incr(n + 2)));
+	}
+
+	@Test
+	public void testMaxPendingRequests() throws Exception {
+		HttpClient hc = HttpFactory.newHttpClientBuilder().maxConnectionsPerHost(1).maxPipelinedRequests(1).maxPendingRequests(2).build();
+		try {
+			List<HttpFuture> futures = new ArrayList<HttpFuture>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(hc.execute("localhost", port, request(HttpMethod.GET, "/sleep/100", null)));
+			}
+			Assert.assertTrue(futures.get(2).getException() instanceof RejectedExecutionException);
+			Assert.assertTrue(futures.get(3).getException() instanceof RejectedExecutionException);
+			Assert.assertEquals("/sleep/100", content(futures.get(0).get(5, TimeUnit.SECONDS)));
+			Assert.assertEquals("/sleep/100", content(futures.get(1).get(5, TimeUnit.SECONDS)));
+		} finally {
+			hc.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test max pending requests. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testReadTimeout() throws Exception {
+		HttpFuture future = client.execute("localhost", port, request(HttpMethod.GET, "/sleep/3000", null));
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TimeoutException);
+		}
+
+		// a later request is served by a new connection
+		HttpResponse res = client.execute("localhost", port, request(HttpMethod.GET, "/after-timeout", null)).get(5, TimeUnit.SECONDS);
+		Assert.assertEquals("/after-timeout", content(res));
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test read timeout. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testConnectFail() throws Exception {
+		int unused = AvailablePortFinder.getNextAvailable(port + 1);
+		HttpFuture future = client.execute("localhost", unused, request(HttpMethod.GET, "/refused", null));
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof ConnectException);
+		}
+		Assert.assertEquals(0, client.connectionCount());
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test connect fail. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testConnectRefusedFast() throws Exception {
+		// a refused connection fails at once, the connect deadline is only for hung attempts
+		HttpClient slow = HttpFactory.newHttpClientBuilder().connectTimeoutInMillis(10000).readTimeoutInMillis(1000).build();
+		int unused = AvailablePortFinder.getNextAvailable(port + 1);
+		long s = System.currentTimeMillis();
+		HttpFuture future = slow.execute("localhost", unused, request(HttpMethod.GET, "/refused", null));
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof ConnectException);
+		}
+		long elapsed = System.currentTimeMillis() - s;
+		Assert.assertTrue(elapsed < 2000);
+		Assert.assertEquals(0, slow.connectionCount());
+		slow.close();
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test connect refused fast, |elapsed=%s ms|. ", CaseCounter.incr(3), elapsed));
+	}
+
+	@Test
+	public void testPerformance() throws Exception {
+		int n = 20000;
+		final CountDownLatch latch = new CountDownLatch(n);
+		HttpFutureListener listener = new HttpFutureListener() {
+			@Override
+			public void completed(HttpFuture future) {
+				latch.countDown();
+			}
+		};
+
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			HttpFuture future;
+			do {
+				future = client.execute("localhost", port, request(HttpMethod.GET, "/performance", null));
+			} while (future.getException() instanceof RejectedExecutionException);
+			future.addListener(listener);
+		}
+		Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+		long e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-HTTP] Http client performance, |requests={}, connections={}, elapse={}ms, rps={}|", n, client.connectionCount(), (e - s) / 1000000, n * 1000000000L / (e - s));
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test performance. ", CaseCounter.incr(1)));
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	private static HttpRequest request(HttpMethod method, String uri, String content) {
+		HttpRequest req = new HttpRequest(new HttpRequestLine(method, uri, HttpVersion.HTTP_1_1));
+		if (content != null) {
+			req.setEntity(new HttpEntity(content.getBytes(UTF_8)));
+		}
+		return req;
+	}
+
+	private static String content(HttpResponse res) {
+		return new String(res.getEntity().getContent(), UTF_8);
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	private static class EchoHandler implements HttpHandler {
+		@Override
+		public HttpResponse handle(HttpRequest request) throws Exception {
+			String uri = request.getRequestLine().getUri();
+			if (uri.startsWith("/sleep/")) {
+				Thread.sleep(Integer.parseInt(uri.substring("/sleep/".length())));
+			}
+			String body = uri;
+			if (request.getEntity() != null && request.getEntity().getContent() != null && request.getEntity().getContent().length > 0) {
+				body += " " + new String(request.getEntity().getContent(), UTF_8);
+			}
+			HttpResponse response = new HttpResponse();
+			response.setEntity(new HttpEntity(body.getBytes(UTF_8)));
+			return response;
+		}
+	}
+
+}
@@ -0,0 +1,325 @@
+package io.craft.atom.http;
+
+import io.craft.atom.http.api.HttpFactory;
+import io.craft.atom.http.api.HttpHandler;
+import io.craft.atom.http.api.HttpServer;
+import io.craft.atom.protocol.http.api.HttpEntityHandler;
+import io.craft.atom.protocol.http.model.HttpEntity;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.test.AvailablePortFinder;
+import io.craft.atom.test.CaseCounter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link HttpServer}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHttpServer {
+
+
+	private static final Logger  LOG   = LoggerFactory.getLogger(TestHttpServer.class);
+	private static final Charset UTF_8 = Charset.forName("utf-8")                     ;
+
+
+	private int        port  ;
+	private HttpServer server;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	@Before
+	public void before() {
+		port   = AvailablePortFinder.getNextAvailable(23000);
+		server = HttpFactory.newHttpServerBuilder(port, new EchoHandler()).maxLineLength(1024).maxPipelinedRequests(4).build();
+		server.open();
+	}
+
+	@After
+	public void after() {
+		server.close();
+	}
+
+	@Test
+	public void testKeepAlive() throws IOException {
+		Socket socket = new Socket("localhost", port);
+		try {
+			for (int i = 0; i < 3; i++) {
+				write(socket, request("/keep-alive/" + i, null));
+				String[] res = read(socket.getInputStream());
+				Assert.assertTrue(res[0].startsWith("HTTP/1.1 200"));
+				Assert.assertEquals("/keep-alive/" + i, res[1]);
+			}
+		} finally {
+			socket.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test keep alive. ", CaseCounter.incr(6)));
+	}
+
+	@Test
+	public void testPipelining() throws IOException {
+		Socket socket = new Socket("localhost", port);
+		try {
+			// earlier requests sleep longer, so they complete later than the following ones
+			StringBuilder sb = new StringBuilder();
+			int n = 10;
+			for (int i = 0; i < n; i++) {
+				sb.append(request("/pipelining/" + (n - i) * 10, null));
+			}
+			write(socket, sb.toString());
+			for (int i = 0; i < n; i++) {
+				String[] res = read(socket.getInputStream());
+				Assert.assertEquals("/pipelining/" + (n - i) * 10, res[1]);
+			}
+		} finally {
+			socket.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test pipelining. ", CaseCounter.incr(10)));
+	}
+
+	@Test
+	public void testConnectionClose() throws IOException {
+		Socket socket = new Socket("localhost", port);
+		try {
+			write(socket, request("/close", "close") + request("/dropped", null));
+			String[] res = read(socket.getInputStream());
+			Assert.assertEquals("/close", res[1]);
+			Assert.assertTrue(res[0].contains("Connection: close"));
+			Assert.assertEquals(-1, socket.getInputStream().read());
+		} finally {
+			socket.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test connection close. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testMaxLineLength() throws IOException {
+		Socket socket = new Socket("localhost", port);
+		try {
+			StringBuilder uri = new StringBuilder("/");
+			for (int i = 0; i < 2048; i++) {
+				uri.append('a');
+			}
+			write(socket, request(uri.toString(), null));
+			String[] res = read(socket.getInputStream());
+			Assert.assertTrue(res[0].startsWith("HTTP/1.1 400"));
+			Assert.assertEquals(-1, socket.getInputStream().read());
+		} finally {
+			socket.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test max line length. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testStreamingEntity() throws IOException {
+		int streamingPort = AvailablePortFinder.getNextAvailable(port + 1);
+		StreamingHandler sh = new StreamingHandler();
+		HttpServer streamingServer = HttpFactory.newHttpServerBuilder(streamingPort, sh)
+		                                        .maxRequestSize(64 * 1024)
+		                                        .maxPendingEntityBytes(64 * 1024)
+		                                        .entityHandler(sh)
+		                                        .build();
+		streamingServer.open();
+		
+		Socket socket = new Socket("localhost", streamingPort);
+		try {
+			// content length entity, bigger than max request size
+			int length = 4 * 1024 * 1024;
+			write(socket, "PUT /upload HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + length + "\r\n\r\n");
+			byte[] slice = new byte[16 * 1024];
+			Arrays.fill(slice, (byte) 'a');
+			for (int i = 0; i < length / slice.length; i++) {
+				socket.getOutputStream().write(slice);
+			}
+			String[] res = read(socket.getInputStream());
+			Assert.assertTrue(res[0].startsWith("HTTP/1.1 200"));
+			Assert.assertEquals(Integer.toString(length), res[1]);
+			
+			// chunked entity, on the same connection
+			write(socket, "POST /upload HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n5\r\nhello\r\n6\r\n world\r\n0\r\n\r\n");
+			res = read(socket.getInputStream());
+			Assert.assertEquals("11", res[1]);
+		} finally {
+			socket.close();
+			streamingServer.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test streaming entity. ", CaseCounter.incr(3)));
+	}
+	
+	/**
+	 * A wrk-style load test, each connection keeps sending pipelined batches of requests in a fixed duration.
+	 */
+	@Test
+	public void testLoad() throws Exception {
+		final int        connections = 8   ;
+		final int        pipeline    = 4   ;
+		final long       duration    = 1000;
+		final AtomicLong completed   = new AtomicLong();
+		final CountDownLatch latch   = new CountDownLatch(connections);
+		final List<Throwable> errors = new ArrayList<Throwable>();
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < pipeline; i++) {
+			sb.append(request("/load", null));
+		}
+		final String batch = sb.toString();
+
+		final long deadline = System.currentTimeMillis() + duration;
+		for (int i = 0; i < connections; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						Socket socket = new Socket("localhost", port);
+						try {
+							while (System.currentTimeMillis() < deadline) {
+								write(socket, batch);
+								for (int j = 0; j < pipeline; j++) {
+									read(socket.getInputStream());
+									completed.incrementAndGet();
+								}
+							}
+						} finally {
+							socket.close();
+						}
+					} catch (Throwable t) {
+						synchronized (errors) { errors.add(t); }
+					} finally {
+						latch.countDown();
+					}
+				}
+			}).start();
+		}
+		latch.await();
+
+		Assert.assertTrue(errors.toString(), errors.isEmpty());
+		Assert.assertTrue(completed.get() > 0);
+		LOG.info("[CRAFT-ATOM-HTTP] Test load, |connections={}, pipeline={}, requests={}, rps={}|", connections, pipeline, completed.get(), completed.get() * 1000 / duration);
+		System.out.println(String.format("[CRAFT-ATOM-HTTP] (^_^)  <%s>  Case -> test load. ", CaseCounter.incr(2)));
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	private static String request(String uri, String connection) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("GET ").append(uri).append(" HTTP/1.1\r\n");
+		sb.append("Host: localhost\r\n");
+		sb.append("User-Agent: craft-atom-test\r\n");
+		if (connection != null) {
+			sb.append("Connection: ").append(connection).append("\r\n");
+		}
+		sb.append("\r\n");
+		return sb.toString();
+	}
+
+	private static void write(Socket socket, String str) throws IOException {
+		OutputStream out = socket.getOutputStream();
+		out.write(str.getBytes(UTF_8));
+		out.flush();
+	}
+
+	/**
+	 * @return response head and body
+	 */
+	private static String[] read(InputStream in) throws IOException {
+		ByteArrayOutputStream head = new ByteArrayOutputStream();
+		int matched = 0;
+		while (matched < 4) {
+			int b = in.read();
+			if (b < 0) throw new IOException("Unexpected end of stream");
+			head.write(b);
+			matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+		}
+
+		String h = new String(head.toByteArray(), UTF_8);
+		int length = 0;
+		for (String line : h.split("\r\n")) {
+			if (line.toLowerCase().startsWith("content-length:")) {
+				length = Integer.parseInt(line.substring("content-length:".length()).trim());
+			}
+		}
+
+		byte[] body = new byte[length];
+		for (int off = 0; off < length;) {
+			int n = in.read(body, off, length - off);
+			if (n < 0) throw new IOException("Unexpected end of stream");
+			off += n;
+		}
+		return new String[] { h, new String(body, UTF_8) };
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Counts streaming entity bytes slowly, responds with the count.
+	 */
+	private static class StreamingHandler implements HttpHandler, HttpEntityHandler<HttpRequest> {
+		
+		private long count;
+		
+		@Override
+		public void entityStarted(HttpRequest request) {
+			count = 0;
+		}
+
+		@Override
+		public void entityRead(HttpRequest request, byte[] content) {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			count += content.length;
+		}
+
+		@Override
+		public void entityCompleted(HttpRequest request) {}
+
+		@Override
+		public HttpResponse handle(HttpRequest request) throws Exception {
+			HttpResponse response = new HttpResponse();
+			response.setEntity(new HttpEntity(Long.toString(count).getBytes(UTF_8)));
+			return response;
+		}
+	}
+	
+	private static class EchoHandler implements HttpHandler {
+		@Override
+		public HttpResponse handle(HttpRequest request) throws Exception {
+			String uri = request.getRequestLine().getUri();
+			if (uri.startsWith("/pipelining/")) {
+				Thread.sleep(Integer.parseInt(uri.substring("/pipelining/".length())));
+			}
+			HttpResponse response = new HttpResponse();
+			response.setEntity(new HttpEntity(uri.getBytes(UTF_8)));
+			return response;
+		}
+	}
+
+}
@@ -51,9 +51,8 @@ public interface Channel<D> {
 	/**
 	 * Pause this channel.
 	 * 
-	 * <p> After a channel is paused, any further attempt to invoke I/O 
-	 * operation upon it will return <tt>null</tt> or <tt>false</tt> indicate operation fail, 
-	 * instead throw exception.
+	 * <p> After a channel is paused, no more data is read from the peer until it is resumed, 
+	 * data can still be written to the peer.
 	 * 
 	 * <p> If this channel is already paused then invoking this method has no
      * effect.
@@ -17,7 +17,7 @@ public enum ChannelState {
 	/** Channel in ClOSED state, means channel can not be used. */
 	CLOSED,
 	
-	/** Channel in PAUSED state, means pause accept new data transmit request, but data already in the buffer of channel can be transmitted. */
+	/** Channel in PAUSED state, means pause reading new data from the peer, but data can still be written to the peer. */
 	PAUSED
 	
 }
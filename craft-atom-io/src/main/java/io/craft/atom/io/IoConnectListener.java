@@ -0,0 +1,22 @@
+package io.craft.atom.io;
+
+import java.util.concurrent.Future;
+
+/**
+ * Listens to the completion of a connect initiated by {@link IoConnector}.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface IoConnectListener {
+	
+	/**
+	 * Invoked when the connect succeeds, fails or times out, the future is done and never blocks.
+	 * <p>
+	 * It is invoked on the connector thread, so it should return quickly.
+	 * 
+	 * @param future
+	 */
+	void completed(Future<Channel<byte[]>> future);
+	
+}
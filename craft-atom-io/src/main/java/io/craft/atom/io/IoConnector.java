@@ -31,6 +31,16 @@ public interface IoConnector extends IoReactor, IoConnectorMBean {
 	 */
 	Future<Channel<byte[]>> connect(SocketAddress remoteAddress) throws IOException;
 	
+	/**
+	 * Connects to the specified remote address, the listener is notified when the connect succeeds, fails or times out.
+	 * 
+	 * @param remoteAddress
+	 * @param listener
+	 * @return <code>Future</code> instance which is completed when the channel initiated by this call succeeds or fails.
+	 * @throws IOException If some other I/O error occurs
+	 */
+	Future<Channel<byte[]>> connect(SocketAddress remoteAddress, IoConnectListener listener) throws IOException;
+	
 	
 	/**
 	 * Connects to the specified remote address and binds to the specified local address.
@@ -44,6 +44,7 @@ abstract public class NioByteChannel extends AbstractIoByteChannel {
 	protected final    Queue<ChannelEvent<byte[]>> eventQueue       = new ConcurrentLinkedQueue<ChannelEvent<byte[]>>();
 	protected final    Object                      lock             = new Object()                                     ;
 	protected final    AtomicBoolean               scheduleFlush    = new AtomicBoolean(false)                         ;
+	protected final    AtomicBoolean               eventPaused      = new AtomicBoolean(false)                         ;
 	protected volatile boolean                     eventProcessing  = false                                            ;
 	
 	
@@ -76,7 +77,6 @@ abstract public class NioByteChannel extends AbstractIoByteChannel {
 	public boolean write(byte[] data) throws IllegalChannelStateException {
 		if (isClosed())   { throw new IllegalChannelStateException("Channel is closed"); }
 		if (isClosing())  { throw new IllegalChannelStateException("Channel is closing"); }
-		if (isPaused())   { throw new IllegalChannelStateException("Channel is paused"); }
 		if (data == null) { return false; }
 		
 		setLastIoTime(System.currentTimeMillis());
@@ -120,6 +120,67 @@ abstract public class NioByteChannel extends AbstractIoByteChannel {
 		return semaphore.availablePermits();
 	}
 	
+	/**
+	 * Pausing stops reading only, the read interest is removed so that the selector does not spin on unread bytes,
+	 * writes are still accepted and flushed.
+	 * The application takes over a pause for event, so that the channel stays paused until the application resumes it.
+	 */
+	@Override
+	public void pause() {
+		synchronized (lock) {
+			eventPaused.set(false);
+			pause0();
+		}
+	}
+	
+	@Override
+	public void resume() {
+		synchronized (lock) {
+			eventPaused.set(false);
+			resume0();
+		}
+	}
+	
+	/**
+	 * Pauses the channel for too many pending events, only if it is open.
+	 */
+	public void pauseForEvent() {
+		synchronized (lock) {
+			if (isOpen()) {
+				eventPaused.set(true);
+				pause0();
+			}
+		}
+	}
+	
+	/**
+	 * Resumes the channel only if it is paused by {@link #pauseForEvent()}, 
+	 * a channel paused by the application stays paused until the application resumes it.
+	 * 
+	 * @return <tt>true</tt> if the channel is resumed.
+	 */
+	public boolean resumeForEvent() {
+		synchronized (lock) {
+			if (eventPaused.compareAndSet(true, false) && isPaused()) {
+				resume0();
+				return true;
+			}
+			return false;
+		}
+	}
+	
+	private void pause0() {
+		super.pause();
+		setInterestedInRead(false);
+	}
+	
+	private void resume0() {
+		super.resume();
+		if (setInterestedInRead(true)) {
+			processor.wakeup();
+		}
+	}
+	
     public void unsetScheduleFlush() {
     	scheduleFlush.set(false);
     }
@@ -189,6 +250,24 @@ abstract public class NioByteChannel extends AbstractIoByteChannel {
 		this.eventProcessing = eventProcessing;
 	}
 	
+	/**
+	 * @return <tt>true</tt> if the read interest is changed.
+	 */
+	boolean setInterestedInRead(boolean isInterested) {
+		SelectionKey key = selectionKey;
+		if (key == null || !key.isValid()) {
+			return false;
+		}
+		
+		int oldInterestOps = key.interestOps();
+		int newInterestOps = isInterested ? oldInterestOps | SelectionKey.OP_READ : oldInterestOps & ~SelectionKey.OP_READ;
+		if (oldInterestOps == newInterestOps) {
+			return false;
+		}
+		key.interestOps(newInterestOps);
+		return true;
+	}
+	
 	boolean isReadable() {
 		return isOpen() && selectionKey.isValid() && selectionKey.isReadable();
 	}
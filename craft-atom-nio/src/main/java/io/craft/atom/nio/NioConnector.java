@@ -1,6 +1,7 @@
 package io.craft.atom.nio;
 
 import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoConnectListener;
 import io.craft.atom.io.IoConnector;
 import io.craft.atom.io.IoConnectorX;
 import io.craft.atom.io.IoHandler;
@@ -127,11 +128,20 @@ abstract public class NioConnector extends NioReactor implements IoConnector {
 	
 	@Override
 	public Future<Channel<byte[]>> connect(SocketAddress remoteAddress) throws IOException {
-        return connect(remoteAddress, null);
+        return connect(remoteAddress, (SocketAddress) null);
     }
 	
+	@Override
+	public Future<Channel<byte[]>> connect(SocketAddress remoteAddress, IoConnectListener listener) throws IOException {
+		return connect(remoteAddress, null, listener);
+	}
+	
 	@Override
 	public Future<Channel<byte[]>> connect(SocketAddress remoteAddress, SocketAddress localAddress) throws IOException {
+		return connect(remoteAddress, localAddress, null);
+	}
+	
+	private Future<Channel<byte[]>> connect(SocketAddress remoteAddress, SocketAddress localAddress, IoConnectListener listener) throws IOException {
 		if (!this.selectable) {
 			throw new IllegalStateException("The connector is already shutdown.");
 		}
@@ -144,7 +154,7 @@ abstract public class NioConnector extends NioReactor implements IoConnector {
 			throw new IllegalStateException("Handler is not be set!");
 		}
 		
-		return connectByProtocol(remoteAddress, localAddress);
+		return connectByProtocol(remoteAddress, localAddress, listener);
 	}
 	
 	@Override
@@ -166,6 +176,6 @@ abstract public class NioConnector extends NioReactor implements IoConnector {
 		return x;
 	}
 	
-	abstract protected Future<Channel<byte[]>> connectByProtocol(SocketAddress remoteAddress, SocketAddress localAddress) throws IOException;
+	abstract protected Future<Channel<byte[]>> connectByProtocol(SocketAddress remoteAddress, SocketAddress localAddress, IoConnectListener listener) throws IOException;
 	abstract protected void xByProtocol(NioConnectorX x);
 }
@@ -116,7 +116,7 @@ public class NioProcessor extends NioReactor implements IoProcessor {
         }
     }
 	
-	private void wakeup() {
+	void wakeup() {
 		wakeupCalled.getAndSet(true);
 		selector.wakeup();
 	}
@@ -243,7 +243,7 @@ public class NioProcessor extends NioReactor implements IoProcessor {
 	private void register() throws ClosedChannelException {
 		for (NioByteChannel channel = newChannels.poll(); channel != null; channel = newChannels.poll()) {
 			SelectableChannel sc = channel.innerChannel();
-			SelectionKey key = sc.register(selector, SelectionKey.OP_READ, channel);
+			SelectionKey key = sc.register(selector, channel.isPaused() ? 0 : SelectionKey.OP_READ, channel);
 			channel.setSelectionKey(key);
 			idleTimer.add(channel);
 			
@@ -1,6 +1,7 @@
 package io.craft.atom.nio;
 
 import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoConnectListener;
 import io.craft.atom.io.IoHandler;
 import io.craft.atom.io.IoProtocol;
 import io.craft.atom.nio.api.NioConnectorConfig;
@@ -8,6 +9,7 @@ import io.craft.atom.nio.spi.NioBufferSizePredictorFactory;
 import io.craft.atom.nio.spi.NioChannelEventDispatcher;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.SocketAddress;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
@@ -26,6 +28,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Connects to server based on TCP.
+ * <p>
+ * The connect future is completed by the connect thread when the connect fails or times out,
+ * and by the connector executor when the channel is established, the {@link IoConnectListener} is notified then.
  * 
  * @author mindwind
  * @version 1.0, Feb 24, 2013
@@ -66,14 +71,15 @@ public class NioTcpConnector extends NioConnector {
 	
 	
 	@Override
-	protected Future<Channel<byte[]>> connectByProtocol(SocketAddress remoteAddress, SocketAddress localAddress) throws IOException {
+	protected Future<Channel<byte[]>> connectByProtocol(SocketAddress remoteAddress, SocketAddress localAddress, IoConnectListener listener) throws IOException {
 		SocketChannel sc = null;
 		boolean success = false;
 		try {
             sc = newSocketChannel(localAddress);
             if (sc.connect(remoteAddress)) {
                 // return true immediately, as established a local connection,
-            	Future<Channel<byte[]>> future = executorService.submit(new ConnectionCall(sc));
+            	ConnectFuture future = new ConnectFuture(new ConnectionCall(sc), listener);
+            	executorService.execute(future);
             	success = true;
             	LOG.debug("[CRAFT-ATOM-NIO] Established local connection");
                 return future;
@@ -90,13 +96,13 @@ public class NioTcpConnector extends NioConnector {
         }
         
         ConnectionCall cc = new ConnectionCall(sc);
-        FutureTask<Channel<byte[]>> futureTask = new FutureTask<Channel<byte[]>>(cc);
-        cc.setFutureTask(futureTask);
+        ConnectFuture future = new ConnectFuture(cc, listener);
+        cc.setFutureTask(future);
         connectQueue.add(cc);
         
         startup();
         selector.wakeup();
-		return futureTask;
+		return future;
 	}
 	
 	private SocketChannel newSocketChannel(SocketAddress localAddress) throws IOException {
@@ -151,6 +157,7 @@ public class NioTcpConnector extends NioConnector {
 				n++;
 			} catch (Exception e) {
 				close(sc);
+				cc.fail(e);
 				LOG.warn("[CRAFT-ATOM-NIO] Register connect event with exception", e);
 			}
 		}
@@ -175,6 +182,10 @@ public class NioTcpConnector extends NioConnector {
 					n++;
 				}
 				success = true;
+			} catch (IOException e) {
+				// like a refused connection, the future fails with the cause when canceled
+				cc.fail(e);
+				LOG.debug("[CRAFT-ATOM-NIO] Connect fail, |socket channel={}|", cc.getSocketChannel(), e);
 			} finally {
 				if (!success) {
 					// Connect failed, we have to cancel it.
@@ -211,6 +222,7 @@ public class NioTcpConnector extends NioConnector {
 			try {
 				close(sc);
 			} finally {
+				cc.fail(new ConnectException("Connect timeout"));
 				n++;
 			}
 		}
@@ -289,12 +301,38 @@ public class NioTcpConnector extends NioConnector {
 		}
 	}
 	
+	private static class ConnectFuture extends FutureTask<Channel<byte[]>> {
+		
+		
+		private final IoConnectListener listener;
+		
+		
+		public ConnectFuture(ConnectionCall cc, IoConnectListener listener) {
+			super(cc);
+			this.listener = listener;
+		}
+		
+		@Override
+		protected void done() {
+			if (listener == null) {
+				return;
+			}
+			
+			try {
+				listener.completed(this);
+			} catch (Exception e) {
+				LOG.warn("[CRAFT-ATOM-NIO] Connect listener exception", e);
+			}
+		}
+	}
+	
 	private class ConnectionCall implements Callable<Channel<byte[]>> {
 		
 		
 		private FutureTask<Channel<byte[]>> futureTask;
 		private SocketChannel socketChannel;
 		private long deadline;
+		private volatile Exception cause;
 
 		
 		public ConnectionCall(SocketChannel socketChannel) {
@@ -305,6 +343,10 @@ public class NioTcpConnector extends NioConnector {
 
 		@Override
 		public Channel<byte[]> call() throws Exception {
+			if (cause != null) {
+				throw cause;
+			}
+			
 			NioByteChannel channel = new NioTcpByteChannel(socketChannel, config, predictorFactory.newPredictor(config.getMinReadBufferSize(), config.getDefaultReadBufferSize(), config.getMaxReadBufferSize()), dispatcher);
 			NioProcessor processor = pool.pick(channel);
 			processor.setProtocol(IoProtocol.TCP);
@@ -330,6 +372,16 @@ public class NioTcpConnector extends NioConnector {
 		public void setFutureTask(FutureTask<Channel<byte[]>> futureTask) {
 			this.futureTask = futureTask;
 		}
+		
+		/**
+		 * Completes the future exceptionally, the first cause wins.
+		 */
+		public void fail(Exception e) {
+			if (cause == null) {
+				cause = e;
+			}
+			futureTask.run();
+		}
 	}
 	
 	@Override
@@ -47,7 +47,7 @@ abstract public class AbstractNioChannelEventDispatcher implements NioChannelEve
 	protected void beforeDispatch(NioByteChannel channel) {
 		boolean b = channel.tryAcquire();
 		if (!b) {
-			channel.pause();
+			channel.pauseForEvent();
 			LOG.warn("[CRAFT-ATOM-NIO]] Pause |channel={}, availablePermits={}|", channel, channel.availablePermits());
 		}
 		
@@ -60,8 +60,7 @@ abstract public class AbstractNioChannelEventDispatcher implements NioChannelEve
 	
 	protected void afterDispatch(NioByteChannel channel) {
 		channel.release();
-		if (channel.isPaused()) {
-			channel.resume();
+		if (channel.resumeForEvent()) {
 			LOG.warn("[CRAFT-ATOM-NIO]] Resume |channel={} availablePermits={}|", channel, channel.availablePermits());
 		}
 		
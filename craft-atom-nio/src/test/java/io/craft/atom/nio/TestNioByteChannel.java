@@ -0,0 +1,122 @@
+package io.craft.atom.nio;
+
+import io.craft.atom.io.AbstractIoHandler;
+import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoAcceptor;
+import io.craft.atom.io.IoConnector;
+import io.craft.atom.nio.api.NioConnectorConfig;
+import io.craft.atom.nio.api.NioFactory;
+import io.craft.atom.test.AvailablePortFinder;
+import io.craft.atom.test.CaseCounter;
+
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link NioByteChannel}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestNioByteChannel {
+	
+	
+	@Test
+	public void testPauseReadOnly() throws Exception {
+		int port = AvailablePortFinder.getNextAvailable();
+		CountingHandler server = new CountingHandler();
+		CountingHandler client = new CountingHandler();
+		IoAcceptor  acceptor  = NioFactory.newTcpAcceptor(server);
+		IoConnector connector = NioFactory.newTcpConnector(client);
+		acceptor.bind(port);
+		try {
+			Channel<byte[]> cc = connector.connect("127.0.0.1", port).get(2, TimeUnit.SECONDS);
+			Channel<byte[]> sc = server.opened.poll(2, TimeUnit.SECONDS);
+			
+			// a paused channel reads nothing
+			sc.pause();
+			cc.write("ping".getBytes());
+			Thread.sleep(200);
+			Assert.assertEquals(0, server.read.get());
+			
+			// but it still writes
+			Assert.assertTrue(sc.write("pong".getBytes()));
+			Assert.assertTrue(await(client.read, 4));
+			Assert.assertTrue(sc.isPaused());
+			
+			// the bytes arrived while paused are read after resume
+			sc.resume();
+			Assert.assertTrue(await(server.read, 4));
+		} finally {
+			connector.shutdown();
+			acceptor.shutdown();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test pause read only. ", CaseCounter.incr(5)));
+	}
+	
+	@Test
+	public void testPauseForEvent() throws Exception {
+		SocketChannel socket = SocketChannel.open();
+		try {
+			NioByteChannel channel = new NioTcpByteChannel(socket, new NioConnectorConfig(), new NioAdaptiveBufferSizePredictor(), null);
+			
+			// paused for event and resumed for event
+			channel.pauseForEvent();
+			Assert.assertTrue(channel.isPaused());
+			Assert.assertTrue(channel.resumeForEvent());
+			Assert.assertTrue(channel.isOpen());
+			
+			// paused by the application, it stays paused after the event pause and resume
+			channel.pause();
+			channel.pauseForEvent();
+			Assert.assertFalse(channel.resumeForEvent());
+			Assert.assertTrue(channel.isPaused());
+			channel.resume();
+			Assert.assertTrue(channel.isOpen());
+			
+			// paused by the application after an event pause, the event resume leaves it paused
+			channel.pauseForEvent();
+			channel.pause();
+			Assert.assertFalse(channel.resumeForEvent());
+			Assert.assertTrue(channel.isPaused());
+		} finally {
+			socket.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test pause for event. ", CaseCounter.incr(8)));
+	}
+	
+	private boolean await(AtomicInteger count, int expected) throws InterruptedException {
+		for (int i = 0; i < 200 && count.get() < expected; i++) {
+			Thread.sleep(10);
+		}
+		return count.get() == expected;
+	}
+	
+	
+	// ~ ------------------------------------------------------------------------------------------------------------
+	
+	
+	private static class CountingHandler extends AbstractIoHandler {
+		
+		private final BlockingQueue<Channel<byte[]>> opened = new LinkedBlockingQueue<Channel<byte[]>>();
+		private final AtomicInteger                  read   = new AtomicInteger()                       ;
+		
+		@Override
+		public void channelOpened(Channel<byte[]> channel) {
+			opened.offer(channel);
+		}
+		
+		@Override
+		public void channelRead(Channel<byte[]> channel, byte[] bytes) {
+			read.addAndGet(bytes.length);
+		}
+	}
+	
+}
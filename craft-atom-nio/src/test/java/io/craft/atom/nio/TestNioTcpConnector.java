@@ -1,6 +1,7 @@
 package io.craft.atom.nio;
 
 import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoConnectListener;
 import io.craft.atom.io.IoConnector;
 import io.craft.atom.nio.NioTcpConnector;
 import io.craft.atom.nio.api.NioFactory;
@@ -8,6 +9,9 @@ import io.craft.atom.test.AvailablePortFinder;
 import io.craft.atom.test.CaseCounter;
 
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -49,4 +53,29 @@ public class TestNioTcpConnector {
 		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test nio tcp connector timeout. ", CaseCounter.incr(1)));
 	}
 	
+	@Test
+	public void testRefused() throws Exception {
+		IoConnector connector = NioFactory.newTcpConnectorBuilder(new NioConnectorHandler()).connectTimeoutInMillis(10000).build();
+		final CountDownLatch latch = new CountDownLatch(1);
+		IoConnectListener listener = new IoConnectListener() {
+			@Override
+			public void completed(Future<Channel<byte[]>> future) {
+				Assert.assertTrue(future.isDone());
+				latch.countDown();
+			}
+		};
+		Future<Channel<byte[]>> future = connector.connect(new InetSocketAddress("127.0.0.1", AvailablePortFinder.getNextAvailable()), listener);
+		
+		// refused connection fails the future and notifies the listener at once rather than at the connect timeout
+		try {
+			future.get(2000, TimeUnit.MILLISECONDS);
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof ConnectException);
+		}
+		Assert.assertTrue(latch.await(2000, TimeUnit.MILLISECONDS));
+		connector.shutdown();
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test nio tcp connector refused. ", CaseCounter.incr(1)));
+	}
+	
 }
@@ -0,0 +1,183 @@
+package io.craft.atom.protocol.frame;
+
+import io.craft.atom.protocol.AbstractProtocolDecoder;
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.ProtocolExceptionType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+
+/**
+ * A {@link ProtocolDecoder} which splits bytes into frames by the value of a length field in the frame header.
+ * <p>
+ * The frame length is computed as:
+ * <pre>
+ * lengthFieldOffset + lengthFieldLength + value of length field + lengthAdjustment
+ * </pre>
+ * e.g. a 4 bytes length field which counts itself is configured as <tt>lengthFieldOffset=0, lengthFieldLength=4, lengthAdjustment=-4</tt>.
+ * Each frame is returned as a {@link ByteBuffer} without the first <tt>initialBytesToStrip</tt> bytes.
+ * <p>
+ * Complete frames in the bytes passed to {@link #decode(byte[])} are sliced from the bytes without copying,
+ * so the caller must not modify the bytes after decode. Only a frame split across decode calls is assembled 
+ * in the pooled buffer and copied out once it is complete, the buffer is released after that.
+ * <br>
+ * Not thread safe.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(callSuper = true, of = { "lengthFieldOffset", "lengthFieldLength", "byteOrder", "lengthAdjustment", "initialBytesToStrip" })
+public class LengthFieldFrameDecoder extends AbstractProtocolDecoder implements ProtocolDecoder<ByteBuffer> {
+	
+	
+	@Getter private final int       lengthFieldOffset  ;
+	@Getter private final int       lengthFieldLength  ;
+	@Getter private final ByteOrder byteOrder          ;
+	@Getter private final int       lengthAdjustment   ;
+	@Getter private final int       initialBytesToStrip;
+	        private final int       headerLength       ;
+	        private       int       frameLength        ;
+	
+	
+	// ~ ------------------------------------------------------------------------------------------------------------
+	
+	
+	public LengthFieldFrameDecoder(int lengthFieldOffset, int lengthFieldLength) {
+		this(lengthFieldOffset, lengthFieldLength, ByteOrder.BIG_ENDIAN, 0, 0);
+	}
+	
+	public LengthFieldFrameDecoder(int lengthFieldOffset, int lengthFieldLength, ByteOrder byteOrder, int lengthAdjustment, int initialBytesToStrip) {
+		if (lengthFieldOffset < 0) {
+			throw new IllegalArgumentException("lengthFieldOffset must be a non-negative integer: " + lengthFieldOffset);
+		}
+		if (lengthFieldLength != 1 && lengthFieldLength != 2 && lengthFieldLength != 3 && lengthFieldLength != 4 && lengthFieldLength != 8) {
+			throw new IllegalArgumentException("lengthFieldLength must be either 1, 2, 3, 4, or 8: " + lengthFieldLength);
+		}
+		if (initialBytesToStrip < 0) {
+			throw new IllegalArgumentException("initialBytesToStrip must be a non-negative integer: " + initialBytesToStrip);
+		}
+		
+		this.lengthFieldOffset   = lengthFieldOffset;
+		this.lengthFieldLength   = lengthFieldLength;
+		this.byteOrder           = byteOrder;
+		this.lengthAdjustment    = lengthAdjustment;
+		this.initialBytesToStrip = initialBytesToStrip;
+		this.headerLength        = lengthFieldOffset + lengthFieldLength;
+	}
+	
+	public LengthFieldFrameDecoder(int lengthFieldOffset, int lengthFieldLength, ByteOrder byteOrder, int lengthAdjustment, int initialBytesToStrip, int defaultBufferSize, int maxSize) {
+		this(lengthFieldOffset, lengthFieldLength, byteOrder, lengthAdjustment, initialBytesToStrip);
+		this.defaultBufferSize = defaultBufferSize;
+		this.maxSize           = maxSize;
+	}
+	
+	
+	// ~ ------------------------------------------------------------------------------------------------------------
+	
+	
+	@Override
+	public void reset() {
+		super.reset();
+		frameLength = 0;
+	}
+
+	@Override
+	public List<ByteBuffer> decode(byte[] bytes) throws ProtocolException {
+		List<ByteBuffer> frames = new ArrayList<ByteBuffer>();
+		int off = 0;
+		if (buf != null) {
+			off = assemble(bytes, frames);
+		}
+		
+		while (off < bytes.length) {
+			if (bytes.length - off < headerLength) {
+				break;
+			}
+			int len = frameLength(bytes, off);
+			if (bytes.length - off < len) {
+				break;
+			}
+			frames.add(ByteBuffer.wrap(bytes, off + initialBytesToStrip, len - initialBytesToStrip).slice());
+			off += len;
+		}
+		
+		// keep the partial frame
+		if (off < bytes.length) {
+			acquire();
+			buf.append(bytes, off, bytes.length - off);
+		}
+		return frames;
+	}
+	
+	/**
+	 * Appends bytes to the buffered partial frame until it is complete.
+	 * 
+	 * @return the offset of bytes consumed.
+	 */
+	private int assemble(byte[] bytes, List<ByteBuffer> frames) {
+		int off = 0;
+		if (buf.length() < headerLength) {
+			off = Math.min(headerLength - buf.length(), bytes.length);
+			buf.append(bytes, 0, off);
+			if (buf.length() < headerLength) {
+				return off;
+			}
+		}
+		if (frameLength == 0) {
+			frameLength = frameLength(buf.buffer(), 0);
+		}
+		
+		int n = Math.min(frameLength - buf.length(), bytes.length - off);
+		buf.append(bytes, off, n);
+		off += n;
+		if (buf.length() < frameLength) {
+			return off;
+		}
+		
+		frames.add(ByteBuffer.wrap(buf.array(initialBytesToStrip, frameLength)));
+		release();
+		frameLength = 0;
+		return off;
+	}
+	
+	private int frameLength(byte[] b, int off) {
+		long value = lengthFieldValue(b, off + lengthFieldOffset);
+		long len   = headerLength + value + lengthAdjustment;
+		if (value < 0 || len < headerLength || len < initialBytesToStrip) {
+			discard();
+			throw new ProtocolException("Invalid frame length, value=" + value + ", lengthAdjustment=" + lengthAdjustment);
+		}
+		if (len > maxSize) {
+			discard();
+			throw new ProtocolException(ProtocolExceptionType.MAX_SIZE_LIMIT, maxSize);
+		}
+		return (int) len;
+	}
+	
+	private long lengthFieldValue(byte[] b, int off) {
+		long value = 0;
+		if (byteOrder == ByteOrder.BIG_ENDIAN) {
+			for (int i = 0; i < lengthFieldLength; i++) {
+				value = (value << 8) | (b[off + i] & 0xff);
+			}
+		} else {
+			for (int i = lengthFieldLength - 1; i >= 0; i--) {
+				value = (value << 8) | (b[off + i] & 0xff);
+			}
+		}
+		return value;
+	}
+	
+	private void discard() {
+		release();
+		frameLength = 0;
+	}
+
+}
@@ -0,0 +1,72 @@
+package io.craft.atom.protocol.frame;
+
+import io.craft.atom.protocol.AbstractProtocolEncoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+
+import java.nio.ByteOrder;
+
+import lombok.Getter;
+import lombok.ToString;
+
+
+/**
+ * A {@link ProtocolEncoder} which prepends a length field to the payload bytes.
+ * <p>
+ * The value of the length field is <tt>payload length - lengthAdjustment</tt>, 
+ * so that the frame is decoded by a {@link LengthFieldFrameDecoder} with same length field length, byte order and adjustment at offset 0.
+ * <br>
+ * Thread safe.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(callSuper = true, of = { "lengthFieldLength", "byteOrder", "lengthAdjustment" })
+public class LengthFieldFrameEncoder extends AbstractProtocolEncoder implements ProtocolEncoder<byte[]> {
+	
+	
+	@Getter private final int       lengthFieldLength;
+	@Getter private final ByteOrder byteOrder        ;
+	@Getter private final int       lengthAdjustment ;
+	
+	
+	// ~ ------------------------------------------------------------------------------------------------------------
+	
+	
+	public LengthFieldFrameEncoder(int lengthFieldLength) {
+		this(lengthFieldLength, ByteOrder.BIG_ENDIAN, 0);
+	}
+	
+	public LengthFieldFrameEncoder(int lengthFieldLength, ByteOrder byteOrder, int lengthAdjustment) {
+		if (lengthFieldLength != 1 && lengthFieldLength != 2 && lengthFieldLength != 3 && lengthFieldLength != 4 && lengthFieldLength != 8) {
+			throw new IllegalArgumentException("lengthFieldLength must be either 1, 2, 3, 4, or 8: " + lengthFieldLength);
+		}
+		
+		this.lengthFieldLength = lengthFieldLength;
+		this.byteOrder         = byteOrder;
+		this.lengthAdjustment  = lengthAdjustment;
+	}
+	
+	
+	// ~ ------------------------------------------------------------------------------------------------------------
+	
+	
+	@Override
+	public byte[] encode(byte[] payload) throws ProtocolException {
+		if (payload == null) return null;
+		
+		long value = (long) payload.length - lengthAdjustment;
+		if (value < 0 || (lengthFieldLength < 8 && value >= 1L << (lengthFieldLength << 3))) {
+			throw new ProtocolException("Length field overflow, length=" + value + ", lengthFieldLength=" + lengthFieldLength);
+		}
+		
+		byte[] frame = new byte[lengthFieldLength + payload.length];
+		for (int i = 0; i < lengthFieldLength; i++) {
+			int shift = (byteOrder == ByteOrder.BIG_ENDIAN ? lengthFieldLength - 1 - i : i) << 3;
+			frame[i] = (byte) (value >>> shift);
+		}
+		System.arraycopy(payload, 0, frame, lengthFieldLength, payload.length);
+		return frame;
+	}
+
+}
@@ -0,0 +1,37 @@
+package io.craft.atom.protocol.frame.api;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.frame.LengthFieldFrameDecoder;
+import io.craft.atom.protocol.frame.LengthFieldFrameEncoder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+
+/**
+ * Frame codec factory, which provides static factory method to create {@link ProtocolEncoder} and {@link ProtocolDecoder}.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class FrameCodecFactory {
+
+	
+	public static ProtocolEncoder<byte[]> newLengthFieldFrameEncoder(int lengthFieldLength) {
+		return new LengthFieldFrameEncoder(lengthFieldLength);
+	}
+	
+	public static ProtocolEncoder<byte[]> newLengthFieldFrameEncoder(int lengthFieldLength, ByteOrder byteOrder, int lengthAdjustment) {
+		return new LengthFieldFrameEncoder(lengthFieldLength, byteOrder, lengthAdjustment);
+	}
+	
+	public static ProtocolDecoder<ByteBuffer> newLengthFieldFrameDecoder(int lengthFieldOffset, int lengthFieldLength) {
+		return new LengthFieldFrameDecoder(lengthFieldOffset, lengthFieldLength);
+	}
+	
+	public static LengthFieldFrameDecoderBuilder newLengthFieldFrameDecoderBuilder(int lengthFieldOffset, int lengthFieldLength) {
+		return new LengthFieldFrameDecoderBuilder(lengthFieldOffset, lengthFieldLength);
+	}
+	
+}
@@ -0,0 +1,43 @@
+package io.craft.atom.protocol.frame.api;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.frame.LengthFieldFrameDecoder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class LengthFieldFrameDecoderBuilder {
+
+	
+	private int       lengthFieldOffset   = 0                       ;
+	private int       lengthFieldLength   = 4                       ;
+	private ByteOrder byteOrder           = ByteOrder.BIG_ENDIAN    ;
+	private int       lengthAdjustment    = 0                       ;
+	private int       initialBytesToStrip = 0                       ;
+	private int       defaultBufferSize   = 2048                    ;
+	private int       maxSize             = defaultBufferSize * 1024;
+	
+	
+	public LengthFieldFrameDecoderBuilder(int lengthFieldOffset, int lengthFieldLength) {
+		this.lengthFieldOffset = lengthFieldOffset;
+		this.lengthFieldLength = lengthFieldLength;
+	}
+	
+	
+	public LengthFieldFrameDecoderBuilder byteOrder          (ByteOrder byteOrder)     { this.byteOrder           = byteOrder          ; return this; }
+	public LengthFieldFrameDecoderBuilder lengthAdjustment   (int lengthAdjustment)    { this.lengthAdjustment    = lengthAdjustment   ; return this; }
+	public LengthFieldFrameDecoderBuilder initialBytesToStrip(int initialBytesToStrip) { this.initialBytesToStrip = initialBytesToStrip; return this; }
+	public LengthFieldFrameDecoderBuilder defaultBufferSize  (int defaultBufferSize)   { this.defaultBufferSize   = defaultBufferSize  ; return this; }
+	public LengthFieldFrameDecoderBuilder maxSize            (int maxSize)             { this.maxSize             = maxSize            ; return this; }
+	
+	
+	public ProtocolDecoder<ByteBuffer> build() {
+		return new LengthFieldFrameDecoder(lengthFieldOffset, lengthFieldLength, byteOrder, lengthAdjustment, initialBytesToStrip, defaultBufferSize, maxSize);
+	}
+	
+}
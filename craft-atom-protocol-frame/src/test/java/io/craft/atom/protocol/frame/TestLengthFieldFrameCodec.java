@@ -0,0 +1,245 @@
+package io.craft.atom.protocol.frame;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.frame.api.FrameCodecFactory;
+import io.craft.atom.protocol.rpc.KryoSerialization;
+import io.craft.atom.protocol.rpc.api.RpcCodecFactory;
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcHeader;
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Tests for {@link LengthFieldFrameDecoder} and {@link LengthFieldFrameEncoder}
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestLengthFieldFrameCodec {
+	
+	
+	private static final Logger LOG = LoggerFactory.getLogger(TestLengthFieldFrameCodec.class);
+	
+	
+	private Random random = new Random(5246);
+	
+	
+	// ~ ------------------------------------------------------------------------------------------------------------
+	
+	
+	@Test
+	public void testRoundTrip() {
+		for (int width : new int[] { 1, 2, 3, 4, 8 }) {
+			for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+				ProtocolEncoder<byte[]>     encoder = FrameCodecFactory.newLengthFieldFrameEncoder(width, order, 0);
+				ProtocolDecoder<ByteBuffer> decoder = FrameCodecFactory.newLengthFieldFrameDecoderBuilder(0, width).byteOrder(order).initialBytesToStrip(width).build();
+				byte[] payload = new byte[width == 1 ? 255 : 300];
+				random.nextBytes(payload);
+				List<ByteBuffer> frames = decoder.decode(encoder.encode(payload));
+				Assert.assertEquals(1, frames.size());
+				Assert.assertTrue(Arrays.equals(payload, bytes(frames.get(0))));
+			}
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-FRAME] (^_^)  <%s>  Case -> test round trip. ", CaseCounter.incr(20)));
+	}
+	
+	@Test
+	public void testStreamingDecode() {
+		// length field counts the whole frame
+		ProtocolEncoder<byte[]>     encoder = FrameCodecFactory.newLengthFieldFrameEncoder(4, ByteOrder.BIG_ENDIAN, -4);
+		ProtocolDecoder<ByteBuffer> decoder = FrameCodecFactory.newLengthFieldFrameDecoderBuilder(0, 4).lengthAdjustment(-4).initialBytesToStrip(4).build();
+		List<byte[]>    payloads = new ArrayList<byte[]>();
+		ByteArrayBuffer wire     = new ByteArrayBuffer(1024);
+		for (int i = 0; i < 200; i++) {
+			byte[] payload = new byte[random.nextInt(5000)];
+			random.nextBytes(payload);
+			payloads.add(payload);
+			wire.append(encoder.encode(payload));
+		}
+		
+		List<ByteBuffer> frames = new ArrayList<ByteBuffer>();
+		byte[] bytes = wire.array();
+		for (int off = 0; off < bytes.length;) {
+			int n = Math.min(bytes.length - off, 1 + random.nextInt(8000));
+			frames.addAll(decoder.decode(Arrays.copyOfRange(bytes, off, off + n)));
+			off += n;
+		}
+		Assert.assertEquals(payloads.size(), frames.size());
+		for (int i = 0; i < payloads.size(); i++) {
+			Assert.assertTrue(Arrays.equals(payloads.get(i), bytes(frames.get(i))));
+		}
+		Assert.assertEquals(0, ((LengthFieldFrameDecoder) decoder).footprint());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-FRAME] (^_^)  <%s>  Case -> test streaming decode. ", CaseCounter.incr(2)));
+	}
+	
+	@Test
+	public void testZeroCopy() {
+		ProtocolEncoder<byte[]> encoder = FrameCodecFactory.newLengthFieldFrameEncoder(2);
+		LengthFieldFrameDecoder decoder = new LengthFieldFrameDecoder(0, 2);
+		byte[] frame = encoder.encode("hello".getBytes());
+		ByteArrayBuffer wire = new ByteArrayBuffer(64);
+		wire.append(frame).append(frame).append(frame, 0, 3);
+		byte[] bytes = wire.array();
+		
+		// complete frames share the input array, the partial one is buffered
+		List<ByteBuffer> frames = decoder.decode(bytes);
+		Assert.assertEquals(2, frames.size());
+		Assert.assertSame(bytes, frames.get(0).array());
+		Assert.assertSame(bytes, frames.get(1).array());
+		Assert.assertTrue(decoder.footprint() > 0);
+		
+		frames = decoder.decode(Arrays.copyOfRange(frame, 3, frame.length));
+		Assert.assertEquals(1, frames.size());
+		Assert.assertTrue(Arrays.equals(frame, bytes(frames.get(0))));
+		Assert.assertEquals(0, decoder.footprint());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-FRAME] (^_^)  <%s>  Case -> test zero copy. ", CaseCounter.incr(7)));
+	}
+	
+	@Test
+	public void testHeaderOffset() {
+		// RPC header: 16 bytes before a 4 bytes body size, header is 20 bytes
+		RpcMessage rm = newRpcMessage();
+		byte[] bytes = RpcCodecFactory.newRpcEncoder().encode(rm);
+		ProtocolDecoder<ByteBuffer> decoder = FrameCodecFactory.newLengthFieldFrameDecoderBuilder(16, 4).initialBytesToStrip(20).build();
+		List<ByteBuffer> frames = decoder.decode(bytes);
+		Assert.assertEquals(1, frames.size());
+		ByteBuffer body = frames.get(0);
+		Assert.assertEquals(bytes.length - 20, body.remaining());
+		RpcBody rb = KryoSerialization.getInstance().deserialize(body.array(), body.arrayOffset() + body.position());
+		Assert.assertEquals(rm.getBody(), rb);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-FRAME] (^_^)  <%s>  Case -> test header offset. ", CaseCounter.incr(3)));
+	}
+	
+	@Test
+	public void testInvalidFrame() {
+		ProtocolDecoder<ByteBuffer> decoder = FrameCodecFactory.newLengthFieldFrameDecoderBuilder(0, 4).maxSize(1024).build();
+		try {
+			decoder.decode(new byte[] { 0, 0, 4, 1, 0 });
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(true);
+		}
+		
+		// a negative adjusted length
+		decoder = FrameCodecFactory.newLengthFieldFrameDecoderBuilder(0, 1).lengthAdjustment(-4).build();
+		try {
+			decoder.decode(new byte[] { 2, 0, 0 });
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(true);
+		}
+		
+		// the decoder goes on after reset
+		decoder.reset();
+		Assert.assertEquals(1, decoder.decode(new byte[] { 4 }).size());
+		
+		try {
+			FrameCodecFactory.newLengthFieldFrameEncoder(1).encode(new byte[256]);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(true);
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-FRAME] (^_^)  <%s>  Case -> test invalid frame. ", CaseCounter.incr(4)));
+	}
+	
+	@Test
+	public void testPerformance() {
+		RpcMessage      rm    = newRpcMessage();
+		byte[]          frame = RpcCodecFactory.newRpcEncoder().encode(rm);
+		ByteArrayBuffer wire  = new ByteArrayBuffer(frame.length * 100);
+		for (int i = 0; i < 100; i++) {
+			wire.append(frame);
+		}
+		byte[] bytes = wire.array();
+		int    n     = 5000 ;
+		
+		// bytes arrive in chunks which split frames
+		List<byte[]> chunks = new ArrayList<byte[]>();
+		for (int off = 0; off < bytes.length; off += 1500) {
+			chunks.add(Arrays.copyOfRange(bytes, off, Math.min(bytes.length, off + 1500)));
+		}
+		
+		for (int round = 0; round < 2; round++) {
+			ProtocolDecoder<RpcMessage> rpcDecoder = RpcCodecFactory.newRpcDecoder();
+			long s = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				for (byte[] chunk : chunks) {
+					rpcDecoder.decode(chunk);
+				}
+			}
+			long e = System.nanoTime();
+			long rpc = e - s;
+			
+			ProtocolDecoder<ByteBuffer> frameDecoder = FrameCodecFactory.newLengthFieldFrameDecoderBuilder(16, 4).initialBytesToStrip(20).build();
+			s = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				for (byte[] chunk : chunks) {
+					for (ByteBuffer body : frameDecoder.decode(chunk)) {
+						KryoSerialization.getInstance().deserialize(body.array(), body.arrayOffset() + body.position());
+					}
+				}
+			}
+			e = System.nanoTime();
+			long framed = e - s;
+			
+			s = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				for (byte[] chunk : chunks) {
+					frameDecoder.decode(chunk);
+				}
+			}
+			e = System.nanoTime();
+			long frameOnly = e - s;
+			
+			LOG.info("[CRAFT-ATOM-PROTOCOL-FRAME] Decode performance, |messages={}, RpcDecoder={}ms, LengthFieldFrameDecoder+deserialize={}ms, LengthFieldFrameDecoder={}ms|", n * 100, rpc / 1000000, framed / 1000000, frameOnly / 1000000);
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-FRAME] (^_^)  <%s>  Case -> test performance. ", CaseCounter.incr(1)));
+	}
+	
+	
+	// ~ ------------------------------------------------------------------------------------------------------------
+	
+	
+	private static byte[] bytes(ByteBuffer frame) {
+		byte[] b = new byte[frame.remaining()];
+		frame.duplicate().get(b);
+		return b;
+	}
+	
+	private static RpcMessage newRpcMessage() {
+		RpcHeader rh = new RpcHeader();
+		rh.setSt(KryoSerialization.getInstance().type());
+		rh.setRp();
+		rh.setId(1);
+		RpcMethod method = new RpcMethod();
+		method.setName("run");
+		method.setParameterTypes(String.class, Integer.class);
+		method.setParameters("hello", 1);
+		RpcBody rb = new RpcBody();
+		rb.setRpcInterface(Runnable.class);
+		rb.setRpcMethod(method);
+		RpcMessage rm = new RpcMessage();
+		rm.setHeader(rh);
+		rm.setBody(rb);
+		return rm;
+	}
+	
+}
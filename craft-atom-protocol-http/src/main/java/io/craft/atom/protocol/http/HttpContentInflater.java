@@ -0,0 +1,350 @@
+package io.craft.atom.protocol.http;
+
+import static io.craft.atom.protocol.http.HttpConstants.CONTENT_ENCODING_GZIP;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.ProtocolExceptionType;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Incremental inflater for <tt>gzip</tt> and <tt>deflate</tt> content coding,
+ * compressed content is fed slice by slice and inflated bytes are returned as soon as they are available.
+ * <p>
+ * <tt>gzip</tt> header and trailer are parsed incrementally and the trailer CRC32 and size are verified,
+ * concatenated gzip members are supported.
+ * <tt>deflate</tt> content is sniffed by its first two bytes, RFC 2616 says it is a zlib stream (RFC 1950)
+ * but many implementations send raw deflate (RFC 1951), both are accepted.
+ * <p>
+ * Decompression bomb protection: once inflated bytes exceed 64KB,
+ * the ratio of inflated bytes to compressed bytes must not exceed <tt>maxRatio</tt>,
+ * and inflated bytes of a content must never exceed <tt>maxSize</tt>.
+ * <p>
+ * The underlying {@link Inflater} is reused across messages, call {@link #end()} to release its native resources.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "maxRatio", "maxSize", "gzip", "state", "in", "out" })
+public class HttpContentInflater {
+
+
+	private static final byte[] EMPTY           = new byte[0];
+	private static final int    RATIO_THRESHOLD = 64 * 1024  ;
+	private static final int    HEADER          = 0          ;
+	private static final int    BODY            = 1          ;
+	private static final int    TRAILER         = 2          ;
+	private static final int    DONE            = 3          ;
+	private static final int    FHCRC           = 2          ;
+	private static final int    FEXTRA          = 4          ;
+	private static final int    FNAME           = 8          ;
+	private static final int    FCOMMENT        = 16         ;
+
+
+	@Getter @Setter private       int             maxRatio                           ;
+	@Getter @Setter private       long            maxSize                            ;
+	                private final CRC32           crc      = new CRC32()             ;
+	                private final ByteArrayBuffer pending  = new ByteArrayBuffer(16) ;
+	                private final byte[]          block    = new byte[8192]          ;
+	                private       Inflater        zlib                               ;
+	                private       Inflater        raw                                ;
+	                private       Inflater        inflater                           ;
+	                private       boolean         gzip                               ;
+	                private       int             state                              ;
+	                private       int             members                            ;
+	                private       long            in                                 ;
+	                private       long            out                                ;
+	                private       long            memberOut                          ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HttpContentInflater() {
+		this(100);
+	}
+
+	public HttpContentInflater(int maxRatio) {
+		this(maxRatio, Long.MAX_VALUE);
+	}
+
+	public HttpContentInflater(int maxRatio, long maxSize) {
+		this.maxRatio = maxRatio;
+		this.maxSize  = maxSize ;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Starts inflating a new content.
+	 *
+	 * @param coding <tt>gzip</tt> or <tt>deflate</tt>
+	 */
+	public void start(String coding) {
+		reset();
+		gzip = CONTENT_ENCODING_GZIP.equals(coding);
+	}
+
+	/**
+	 * Inflates a slice of compressed content.
+	 *
+	 * @param bytes compressed bytes
+	 * @return inflated bytes, may be empty if more compressed bytes are needed.
+	 * @throws ProtocolException if the content is malformed or the ratio or size limit is exceeded.
+	 */
+	public byte[] inflate(byte[] bytes) throws ProtocolException {
+		ByteArrayBuffer result = new ByteArrayBuffer(Math.max(bytes.length << 1, 64));
+		int off = 0;
+		while (off < bytes.length) {
+			switch (state) {
+			case HEADER:
+				off += gzip ? gzipHeader(bytes, off) : zlibHeader(bytes, off, result);
+				break;
+			case BODY:
+				off += body(bytes, off, bytes.length - off, result);
+				break;
+			case TRAILER:
+				off += trailer(bytes, off);
+				break;
+			default:
+				// ignore trailing garbage after deflate stream
+				off = bytes.length;
+			}
+		}
+		return result.length() == 0 ? EMPTY : result.array();
+	}
+
+	/**
+	 * Finishes current content, verifies the compressed stream is complete.
+	 *
+	 * @return the last inflated bytes, usually empty.
+	 * @throws ProtocolException if the content is truncated.
+	 */
+	public byte[] finish() throws ProtocolException {
+		byte[] tail = EMPTY;
+
+		// raw deflate may need an extra dummy byte to signal end of stream
+		if (state == BODY && inflater == raw && !inflater.finished()) {
+			ByteArrayBuffer result = new ByteArrayBuffer(64);
+			body(new byte[1], 0, 1, result);
+			tail = result.array();
+		}
+
+		boolean empty    = state == HEADER && members == 0 && pending.length() == 0;
+		boolean complete = gzip ? (state == HEADER && members > 0 && pending.length() == 0) : state == DONE;
+		if (!empty && !complete) {
+			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "truncated " + (gzip ? "gzip" : "deflate") + " content");
+		}
+
+		reset();
+		return tail;
+	}
+
+	/**
+	 * Resets the inflater for a new content.
+	 */
+	public void reset() {
+		if (inflater != null) {
+			inflater.reset();
+			inflater = null;
+		}
+		state     = HEADER;
+		members   = 0     ;
+		in        = 0     ;
+		out       = 0     ;
+		memberOut = 0     ;
+		crc.reset();
+		pending.clear();
+	}
+
+	/**
+	 * Releases native resources of the inflater, it can still be used after end.
+	 */
+	public void end() {
+		reset();
+		if (zlib != null) {
+			zlib.end();
+			zlib = null;
+		}
+		if (raw != null) {
+			raw.end();
+			raw = null;
+		}
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private int gzipHeader(byte[] bytes, int off) throws ProtocolException {
+		int prev = pending.length();
+		pending.append(bytes, off, bytes.length - off);
+		int len = gzipHeaderLength(pending.buffer(), pending.length());
+		if (len < 0) {
+			return bytes.length - off;
+		}
+
+		pending.clear();
+		inflater = raw();
+		state = BODY;
+		return len - prev;
+	}
+
+	/**
+	 * @return gzip header length, or -1 if the header is incomplete.
+	 */
+	private int gzipHeaderLength(byte[] b, int len) throws ProtocolException {
+		if (len < 10) {
+			return -1;
+		}
+		if ((b[0] & 0xff) != 0x1f || (b[1] & 0xff) != 0x8b || b[2] != 8) {
+			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "not in gzip format");
+		}
+
+		int flag = b[3] & 0xff;
+		int i = 10;
+		if ((flag & FEXTRA) != 0) {
+			if (len < i + 2) return -1;
+			i += 2 + ((b[i] & 0xff) | ((b[i + 1] & 0xff) << 8));
+		}
+		if ((flag & FNAME) != 0) {
+			i = zero(b, i, len);
+			if (i < 0) return -1;
+		}
+		if ((flag & FCOMMENT) != 0) {
+			i = zero(b, i, len);
+			if (i < 0) return -1;
+		}
+		if ((flag & FHCRC) != 0) {
+			i += 2;
+		}
+		return i <= len ? i : -1;
+	}
+
+	private int zero(byte[] b, int from, int len) {
+		for (int i = from; i < len; i++) {
+			if (b[i] == 0) {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+
+	private int zlibHeader(byte[] bytes, int off, ByteArrayBuffer result) throws ProtocolException {
+		int n = Math.min(2 - pending.length(), bytes.length - off);
+		pending.append(bytes, off, n);
+		if (pending.length() < 2) {
+			return n;
+		}
+
+		// zlib header: CMF | FLG, compression method 8 and (CMF * 256 + FLG) is a multiple of 31
+		int cmf = pending.byteAt(0) & 0xff;
+		int flg = pending.byteAt(1) & 0xff;
+		inflater = ((cmf & 0x0f) == 8 && ((cmf << 8) | flg) % 31 == 0) ? zlib() : raw();
+		state = BODY;
+
+		byte[] head = pending.array();
+		pending.clear();
+		body(head, 0, head.length, result);
+		return n;
+	}
+
+	private int body(byte[] bytes, int off, int len, ByteArrayBuffer result) throws ProtocolException {
+		inflater.setInput(bytes, off, len);
+		try {
+			while (!inflater.finished()) {
+				int n = inflater.inflate(block);
+				if (n > 0) {
+					if (gzip) {
+						crc.update(block, 0, n);
+					}
+					result.append(block, 0, n);
+					out       += n;
+					memberOut += n;
+					checkLimit();
+				} else if (inflater.needsDictionary()) {
+					throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "inflate needs dictionary");
+				} else if (inflater.needsInput()) {
+					break;
+				}
+			}
+		} catch (DataFormatException e) {
+			throw new ProtocolException(e);
+		}
+
+		int consumed = len - inflater.getRemaining();
+		if (inflater.finished()) {
+			in += inflater.getBytesRead();
+			inflater.reset();
+			state = gzip ? TRAILER : DONE;
+		}
+		return consumed;
+	}
+
+	private int trailer(byte[] bytes, int off) throws ProtocolException {
+		int n = Math.min(8 - pending.length(), bytes.length - off);
+		pending.append(bytes, off, n);
+		if (pending.length() < 8) {
+			return n;
+		}
+
+		byte[] b = pending.buffer();
+		long crc32 = le(b, 0);
+		long isize = le(b, 4);
+		if (crc32 != crc.getValue() || isize != (memberOut & 0xffffffffL)) {
+			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "corrupt gzip trailer");
+		}
+
+		// ready for next gzip member
+		members++;
+		memberOut = 0;
+		crc.reset();
+		pending.clear();
+		state = HEADER;
+		return n;
+	}
+
+	private long le(byte[] b, int off) {
+		return ((b[off] & 0xffL) | ((b[off + 1] & 0xffL) << 8) | ((b[off + 2] & 0xffL) << 16) | ((b[off + 3] & 0xffL) << 24));
+	}
+
+	private void checkLimit() throws ProtocolException {
+		if (out > maxSize) {
+			throw new ProtocolException(ProtocolExceptionType.MAX_SIZE_LIMIT, maxSize);
+		}
+		if (out <= RATIO_THRESHOLD) {
+			return;
+		}
+
+		long compressed = in + inflater.getBytesRead();
+		if (out > compressed * maxRatio) {
+			throw new ProtocolException(ProtocolExceptionType.RATIO_LIMIT, maxRatio);
+		}
+	}
+
+	private Inflater zlib() {
+		if (zlib == null) {
+			zlib = new Inflater(false);
+		}
+		return zlib;
+	}
+
+	private Inflater raw() {
+		if (raw == null) {
+			raw = new Inflater(true);
+		}
+		return raw;
+	}
+
+}
@@ -1,5 +1,6 @@
 package io.craft.atom.protocol.http;
 
+import java.nio.charset.Charset;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -9,6 +10,9 @@ import java.util.TimeZone;
 
 /**
  * Generates date in the format required by the HTTP protocol.
+ * <p>
+ * Current date is formatted at most once per second and shared by all threads, 
+ * its US-ASCII bytes are cached as well so encoders can write it without encoding again.
  * 
  * @author mindwind
  * @version 1.0, Mar 22, 2013
@@ -19,9 +23,9 @@ public class HttpDates {
 	/** The date format pattern used to generate the header in RFC 1123 format. */
     private static final String                  DATE_FORMAT_RFC1123 = "EEE, dd MMM yyyy HH:mm:ss zzz";
     private static final TimeZone                GMT                 = TimeZone.getTimeZone("GMT")    ;
+    private static final Charset                 US_ASCII            = Charset.forName("US-ASCII")    ;
     private static final ThreadLocal<DateFormat> threadLocal         = new ThreadLocal<DateFormat>()  ;
-    private static       long                    dateAsLong          = 0L                             ;
-    private static       String                  dateAsText          = null                           ;
+    private static volatile CurrentDate          current             = new CurrentDate(-1L, null)     ;
     
     
     // ~ -----------------------------------------------------------------------------------------------------------
@@ -38,12 +42,27 @@ public class HttpDates {
     }
 
     public static String formatCurrentDate() {
-        long now = System.currentTimeMillis();
-        if (now - dateAsLong > 1000) {
-        	dateAsText = format(new Date(now));
-            dateAsLong = now;
-        }
-        return dateAsText;
+        return currentDate().text;
+    }
+    
+    /**
+     * @param text date text
+     * @return US-ASCII bytes of the text if it is the cached current date, otherwise <code>null</code>.
+     */
+    static byte[] currentDateBytes(String text) {
+    	CurrentDate cd = current;
+    	return cd.text == text ? cd.bytes : null;
+    }
+    
+    private static CurrentDate currentDate() {
+    	long second = System.currentTimeMillis() / 1000;
+    	CurrentDate cd = current;
+    	if (cd.second != second) {
+    		// racing threads may format the same second more than once, the holder is immutable so it is harmless
+    		cd = new CurrentDate(second, format(new Date(second * 1000)));
+    		current = cd;
+    	}
+    	return cd;
     }
     
     public static String format(Date date) {
@@ -60,4 +79,21 @@ public class HttpDates {
 		}
     }
 	
+    
+    // ~ -----------------------------------------------------------------------------------------------------------
+    
+    
+    private static class CurrentDate {
+    	
+    	private final long   second;
+    	private final String text  ;
+    	private final byte[] bytes ;
+    	
+    	CurrentDate(long second, String text) {
+    		this.second = second                                      ;
+    		this.text   = text                                        ;
+    		this.bytes  = text == null ? null : text.getBytes(US_ASCII);
+    	}
+    }
+	
 }
@@ -16,6 +16,7 @@ import static io.craft.atom.protocol.http.HttpConstants.TRANSFER_ENCODING_CHUNKE
 import io.craft.atom.protocol.AbstractProtocolDecoder;
 import io.craft.atom.protocol.ProtocolException;
 import io.craft.atom.protocol.ProtocolExceptionType;
+import io.craft.atom.protocol.http.api.HttpEntityHandler;
 import io.craft.atom.protocol.http.model.HttpChunk;
 import io.craft.atom.protocol.http.model.HttpChunkEntity;
 import io.craft.atom.protocol.http.model.HttpContentType;
@@ -23,13 +24,15 @@ import io.craft.atom.protocol.http.model.HttpEntity;
 import io.craft.atom.protocol.http.model.HttpHeader;
 import io.craft.atom.protocol.http.model.HttpHeaderType;
 import io.craft.atom.protocol.http.model.HttpHeaderValueElement;
+import io.craft.atom.protocol.http.model.HttpLazyHeaders;
 import io.craft.atom.protocol.http.model.HttpMessage;
 import io.craft.atom.protocol.http.model.MimeType;
+import io.craft.atom.util.ByteArrayBuffer;
 import io.craft.atom.util.ByteUtil;
-import io.craft.atom.util.GzipUtil;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 
 import lombok.Getter;
@@ -39,6 +42,18 @@ import lombok.ToString;
 
 /**
  * A http decoder for {@code HttpRequest} and {@code HttpResponse}
+ * <p>
+ * In lazy header mode the decoder only records header name and value offsets while parsing,
+ * header bytes are copied once per message and header strings are materialized on demand, see {@link HttpLazyHeaders}.
+ * <p>
+ * In streaming mode (set with an {@link HttpEntityHandler}) the decoder does not aggregate entity content,
+ * each content slice is emitted to the handler as it arrives and the consumed bytes are released from the buffer,
+ * so the buffer is bounded by read size instead of entity size.
+ * <p>
+ * <tt>gzip</tt> and <tt>deflate</tt> content is inflated incrementally by a {@link HttpContentInflater} reused for the connection,
+ * in streaming mode the handler receives inflated content.
+ * Inflated content is bounded by <tt>maxInflateRatio</tt> and <tt>maxInflateSize</tt>,
+ * the size defaults to <tt>maxSize</tt> for aggregated content and is unbounded for streaming content.
  * 
  * @author mindwind
  * @version 1.0, Feb 3, 2013
@@ -71,14 +86,24 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 	protected static final int ENTITY_ENCODING                = 58;
 	
 	
-	@Getter @Setter protected int             maxLineLength = defaultBufferSize;
-	@Getter         protected int             trailerSize                      ;
-	@Getter         protected HttpHeader      header                           ;
-	@Getter         protected HttpEntity      entity                           ;
-	@Getter         protected HttpChunk       chunk                            ;
-	@Getter         protected HttpContentType contentType                      ;
-	@Getter         protected String          chunkExtName                     ;
-	@Getter         protected T               httpMessage                      ;
+	@Getter @Setter protected int                  maxLineLength   = defaultBufferSize                    ;
+	@Getter @Setter protected boolean              lazyHeader                                             ;
+	@Getter @Setter protected int                  maxInflateRatio = 100                                  ;
+	@Getter @Setter protected int                  maxInflateSize                                         ;
+	@Getter @Setter protected HttpEntityHandler<T> entityHandler                                          ;
+	@Getter         protected int                  trailerSize                                            ;
+	@Getter         protected HttpHeader           header                                                 ;
+	@Getter         protected HttpEntity           entity                                                 ;
+	@Getter         protected HttpChunk            chunk                                                  ;
+	@Getter         protected HttpContentType      contentType                                            ;
+	@Getter         protected String               chunkExtName                                           ;
+	@Getter         protected T                    httpMessage                                            ;
+	                protected int[]                headerOffsets   = new int[HttpLazyHeaders.STRIDE * 16] ;
+	                protected int                  headerCount                                            ;
+	                protected boolean              folded                                                 ;
+	                protected int                  remaining                                              ;
+	                protected HttpContentInflater  inflater                                               ;
+	                protected boolean              inflating                                              ;
 	
 	
 	// ~ ------------------------------------------------------------------------------------------------------------
@@ -97,6 +122,13 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		contentType   = null             ;
 		chunkExtName  = null             ;
 		httpMessage   = null             ;
+		headerCount   = 0                ;
+		folded        = false            ;
+		remaining     = 0                ;
+		inflating     = false            ;
+		if (inflater != null) {
+			inflater.end();
+		}
 	}
 	
 	
@@ -104,6 +136,16 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		// enter END state means search index stay for the last byte of the HttpMessage, move to next
 		slide(1);
 		
+		if (streaming() && entity != null) {
+			if (inflating) {
+				inflating = false;
+				byte[] tail = inflater.finish();
+				if (tail.length > 0) {
+					entityHandler.entityRead(httpMessage, tail);
+				}
+			}
+			entityHandler.entityCompleted(httpMessage);
+		}
 		httpMessages.add(httpMessage);
 		splitIndex = stateIndex = searchIndex;
 		clear();
@@ -111,61 +153,24 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 	}
 	
 	protected void state4ENTITY_ENCODING() throws ProtocolException, IOException {
-		HttpHeader ceh = httpMessage.getFirstHeader(HttpHeaderType.CONTENT_ENCODING.getName());
-		String coding = null;
-		if (ceh == null){
-			coding = CONTENT_ENCODING_IDENTITY;
-		} else {
-			coding = ceh.getValue();
+		// streaming entity content is emitted (and inflated) as received
+		if (streaming()) {
+			state = END;
+			return;
 		}
 		
 		// none or identity
-		if (coding == null || CONTENT_ENCODING_IDENTITY.equals(coding)) {
+		String coding = contentCoding();
+		if (CONTENT_ENCODING_IDENTITY.equals(coding)) {
 			// if content is chunked, getContent() will restructure chunked content to a complete content.
 			httpMessage.getEntity().setContent(httpMessage.getEntity().getContent());
 		}
-		// gzip
-		else if (CONTENT_ENCODING_GZIP.equals(coding)) {
-			byte[] content = GzipUtil.ungzip(httpMessage.getEntity().getContent());
-			httpMessage.getEntity().setContent(content);
-		}
-		// deflate
-		else if (CONTENT_ENCODING_DEFLATE.equals(coding)) {
-			/*
-			 * A zlib stream will have a header.
-			 * 
-			 * CMF | FLG [| DICTID ] | ...compressed data | ADLER32 |
-			 * 
-			 * * CMF is one byte.
-			 * 
-			 * * FLG is one byte.
-			 * 
-			 * * DICTID is four bytes, and only present if FLG.FDICT is set.
-			 * 
-			 * Sniff the content. Does it look like a zlib stream, with a CMF, etc?
-			 * c.f. RFC1950, section 2.2. http://tools.ietf.org/html/rfc1950#page-4
-			 * 
-			 * We need to see if it looks like a proper zlib stream, or whether it
-			 * is just a deflate stream. RFC2616 calls zlib streams deflate.
-			 * Confusing, isn't it? That's why some servers implement deflate
-			 * Content-Encoding using deflate streams, rather than zlib streams.
-			 * 
-			 * We could start looking at the bytes, but to be honest, someone else
-			 * has already read the RFCs and implemented that for us. So we'll just
-			 * use the JDK libraries and exception handling to do this. If that
-			 * proves slow, then we could potentially change this to check the first
-			 * byte - does it look like a CMF? What about the second byte - does it
-			 * look like a FLG, etc.
-			 * 
-			 * Many browsers over the years implemented an incorrect deflate algorithm, 
-			 * For example: deflate works in Safari 4.0 but is broken in Safari 5.1, it also always has issues on IE.
-			 * So, we don't support deflate encoding now.
-			 */
-			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "unsupported content encoding=" + coding);
-		}
-		// compress or others encoding is unsupported
+		// gzip or deflate
 		else {
-			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "unsupported content encoding=" + coding);
+			HttpContentInflater inflater = inflater(coding);
+			ByteArrayBuffer content = new ByteArrayBuffer(inflater.inflate(httpMessage.getEntity().getContent()));
+			content.append(inflater.finish());
+			httpMessage.getEntity().setContent(content.array());
 		}
 		
 		// next state
@@ -173,6 +178,39 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		state = END;
 	}
 	
+	/**
+	 * @return content coding of current message, <tt>identity</tt>, <tt>gzip</tt> or <tt>deflate</tt>.
+	 * @throws ProtocolException if content coding is unsupported, e.g. <tt>compress</tt>
+	 */
+	protected String contentCoding() throws ProtocolException {
+		HttpHeader ceh = httpMessage.getFirstHeader(HttpHeaderType.CONTENT_ENCODING.getName());
+		if (ceh == null || ceh.getValue() == null) {
+			return CONTENT_ENCODING_IDENTITY;
+		}
+		
+		String coding = ceh.getValue().trim().toLowerCase();
+		if (coding.isEmpty() || CONTENT_ENCODING_IDENTITY.equals(coding)) {
+			return CONTENT_ENCODING_IDENTITY;
+		}
+		if (CONTENT_ENCODING_GZIP.equals(coding) || CONTENT_ENCODING_DEFLATE.equals(coding)) {
+			return coding;
+		}
+		throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "unsupported content encoding=" + coding);
+	}
+	
+	/**
+	 * The inflater is created once and reused for all messages of the connection.
+	 */
+	protected HttpContentInflater inflater(String coding) {
+		if (inflater == null) {
+			inflater = new HttpContentInflater(maxInflateRatio);
+		}
+		inflater.setMaxRatio(maxInflateRatio);
+		inflater.setMaxSize(maxInflateSize > 0 ? maxInflateSize : (streaming() ? Long.MAX_VALUE : maxSize));
+		inflater.start(coding);
+		return inflater;
+	}
+	
 	protected void state4ENTITY_CHUNKED_TRAILER_NAME() throws ProtocolException {
 		boolean done = skip(CR, LF);
 		if (!done) { 
@@ -219,9 +257,22 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 	}
 	
 	protected void state4ENTITY_CHUNKED_DATA() throws ProtocolException {
-		boolean done = skip(CR, LF);
-		if (!done) { 
-			return; 
+		// skip CRLF only once before chunk data, a streaming chunk may be sliced across several reads
+		if (!streaming() || remaining == chunk.getSize()) {
+			boolean done = skip(CR, LF);
+			if (!done) { 
+				return; 
+			}
+		}
+		
+		if (streaming()) {
+			emit();
+			if (remaining == 0) {
+				// skip CRLF
+				slide(2);
+				state = ENTITY_CHUNKED_SIZE;
+			}
+			return;
 		}
 		
 		// slice content value
@@ -293,6 +344,7 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		
 		chunk = new HttpChunk();
 		chunk.setSize(size);
+		remaining = size;
 		
 		byte pb = previousByte();
 		if (SEMICOLON == pb) {
@@ -316,11 +368,20 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 	
 	protected void state4ENTITY_LENGTH() throws ProtocolException {
 		// get content length
-		int clen = Integer.parseInt(httpMessage.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName()).getValue());
+		int clen = Integer.parseInt(httpMessage.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName()).getValue().trim());
 		if (clen < 0) {
 			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "content length < 0");
 		}
 		
+		// streaming content value
+		if (streaming()) {
+			emit();
+			if (remaining == 0) {
+				state = ENTITY_ENCODING;
+			}
+			return;
+		}
+		
 		// slice content value
 		byte[] content = sliceByLength(clen);
 		if (content == null) {
@@ -336,19 +397,19 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 	}
 	
 	protected void state4ENTITY() throws ProtocolException {
-		boolean done = skip(CR, LF);
-		if (!done) { 
-			return; 
-		}
+		// enter ENTITY state means search index stay for the LF of the empty line after headers
+		HttpHeader clh = httpMessage.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName());
+		HttpHeader teh = httpMessage.getFirstHeader(HttpHeaderType.TRANSFER_ENCODING.getName());
 		
 		// content length
-		if (httpMessage.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName()) != null) {
+		if (clh != null) {
 			entity = new HttpEntity();
 			entity.setContentType(getContentType(httpMessage));
+			remaining = Integer.parseInt(clh.getValue().trim());
 			state = ENTITY_LENGTH;
 		}
 		// chunked
-		else if (TRANSFER_ENCODING_CHUNKED.equals(httpMessage.getFirstHeader(HttpHeaderType.TRANSFER_ENCODING.getName()).getValue())) {
+		else if (teh != null && TRANSFER_ENCODING_CHUNKED.equalsIgnoreCase(teh.getValue().trim())) {
 			entity = new HttpChunkEntity();
 			entity.setContentType(getContentType(httpMessage));
 			state = ENTITY_CHUNKED_SIZE;
@@ -356,6 +417,54 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		// no entity
 		else {
 			state = END;
+			return;
+		}
+		
+		if (streaming()) {
+			String coding = contentCoding();
+			inflating = !CONTENT_ENCODING_IDENTITY.equals(coding);
+			if (inflating) {
+				inflater(coding);
+			}
+			httpMessage.setEntity(entity);
+			entityHandler.entityStarted(httpMessage);
+		}
+		
+		// empty content is completed without waiting for more bytes, otherwise move to the first content byte
+		if (state == ENTITY_LENGTH && remaining == 0) {
+			entity.setContent(new byte[0]);
+			httpMessage.setEntity(entity);
+			state = ENTITY_ENCODING;
+		} else {
+			slide(1);
+		}
+	}
+	
+	protected boolean streaming() {
+		return entityHandler != null;
+	}
+	
+	/**
+	 * Emits available entity bytes up to remaining length to the entity handler,
+	 * consumed bytes are split off so that the buffer can be compacted on next decoding.
+	 * On the last slice the pointer stays at the last byte of the entity (or chunk) content.
+	 */
+	protected void emit() throws ProtocolException {
+		int offset = stateIndex;
+		int length = Math.min(remaining, buf.length() - offset);
+		if (length <= 0) {
+			return;
+		}
+		
+		byte[] content = buf.array(offset, offset + length);
+		remaining -= length;
+		stateIndex = searchIndex = remaining == 0 ? offset + length - 1 : offset + length;
+		splitIndex = searchIndex;
+		if (inflating) {
+			content = inflater.inflate(content);
+		}
+		if (content.length > 0) {
+			entityHandler.entityRead(httpMessage, content);
 		}
 	}
 	
@@ -364,30 +473,43 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		
 		// folded header
 		if (SP == cb || HT == cb) {
+			fold();
 			state = HEADER_VALUE_PREFIX;
 		}
 		// header end
 		else if (CR == cb) {
-			httpMessage.addHeader(header);
+			addHeader();
+			endHeaders();
 			state = hasEntity(httpMessage) ? ENTITY : END;
 			slide(1);
 		}
 		// next header
 		else {
-			httpMessage.addHeader(header);
+			addHeader();
 			state = HEADER_NAME;
 		}
 	}
 	
 	protected void state4HEADER_VALUE() throws ProtocolException {
 		// slice header value
-		String value = sliceBySeparators(-1, LF);
-		if (value == null) {
-			return;
+		if (lazy()) {
+			int offset = stateIndex;
+			if (!scan(LF)) {
+				return;
+			}
+			
+			int j = headerCount * HttpLazyHeaders.STRIDE;
+			headerOffsets[j + 2] = offset - splitIndex;
+			headerOffsets[j + 3] = Math.max(0, stateIndex - offset - 2);
+		} else {
+			String value = sliceBySeparators(-1, LF);
+			if (value == null) {
+				return;
+			}
+			
+			header.appendValue(value);
 		}
 		
-		header.appendValue(value);
-		
 		// to next state
 		byte cb = currentByte();
 		// has no next byte in buffer
@@ -396,18 +518,20 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		}
 		// folded header
 		else if (SP == cb || HT == cb) {
+			fold();
 			state = HEADER_VALUE_PREFIX;
 		}
 		// header end
 		else if (CR == cb) {
-			httpMessage.addHeader(header);
+			addHeader();
+			endHeaders();
 			state = hasEntity(httpMessage) ? ENTITY : END;
 			slide(1);
 		}
 		// next header
 		else {
-			httpMessage.addHeader(header);
-		   state = HEADER_NAME;
+			addHeader();
+			state = HEADER_NAME;
 		}
 	}
 	
@@ -424,25 +548,102 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 	
 	protected void state4HEADER_NAME() throws ProtocolException {
 		// slice header name
-		String name = sliceBySeparators(0, COLON);
-		if (name == null) { 
-			return; 
+		if (lazy()) {
+			int offset = stateIndex;
+			if (!scan(COLON)) {
+				return;
+			}
+			
+			int length = stateIndex - offset - 1;
+			int j = headerCount * HttpLazyHeaders.STRIDE;
+			if (j + HttpLazyHeaders.STRIDE > headerOffsets.length) {
+				headerOffsets = Arrays.copyOf(headerOffsets, headerOffsets.length << 1);
+			}
+			HttpHeaderType type = HttpHeaderType.from(buf.buffer(), offset, length);
+			headerOffsets[j    ] = offset - splitIndex;
+			headerOffsets[j + 1] = length;
+			headerOffsets[j + 4] = type == null ? -1 : type.ordinal();
+		} else {
+			String name = sliceBySeparators(0, COLON);
+			if (name == null) { 
+				return; 
+			}
+			
+			header = new HttpHeader();
+			header.setName(name);
 		}
 		
-		header = new HttpHeader();
-		header.setName(name);
-		
 		// to next state
 		state = HEADER_VALUE_PREFIX;
 	}
 	
+	protected boolean lazy() {
+		return lazyHeader && !folded;
+	}
+	
+	protected void addHeader() {
+		if (lazy()) {
+			headerCount++;
+		} else {
+			httpMessage.addHeader(header);
+		}
+	}
+	
+	protected void endHeaders() {
+		if (!lazy() || headerCount == 0) {
+			return;
+		}
+		
+		// copy header bytes once and rebase offsets to the copy
+		int n     = headerCount * HttpLazyHeaders.STRIDE;
+		int first = headerOffsets[0];
+		int end   = headerOffsets[n - 3] + headerOffsets[n - 2];
+		byte[] raw = buf.array(splitIndex + first, splitIndex + end);
+		int[] offsets = Arrays.copyOf(headerOffsets, n);
+		for (int j = 0; j < n; j += HttpLazyHeaders.STRIDE) {
+			offsets[j    ] -= first;
+			offsets[j + 2] -= first;
+		}
+		httpMessage.setLazyHeaders(new HttpLazyHeaders(raw, offsets, headerCount, charset));
+		headerCount = 0;
+	}
+	
+	/**
+	 * Folded header is obsolete and rare, fall back to eager header for the rest of current message.
+	 */
+	protected void fold() {
+		if (!lazy()) {
+			return;
+		}
+		
+		for (int i = 0; i < headerCount; i++) {
+			httpMessage.addHeader(newHeader(i));
+		}
+		header = newHeader(headerCount);
+		headerCount = 0;
+		folded = true;
+	}
+	
+	private HttpHeader newHeader(int i) {
+		int j = i * HttpLazyHeaders.STRIDE;
+		String name  = new String(buf.buffer(), splitIndex + headerOffsets[j    ], headerOffsets[j + 1], charset);
+		String value = new String(buf.buffer(), splitIndex + headerOffsets[j + 2], headerOffsets[j + 3], charset);
+		return new HttpHeader(name, value);
+	}
+	
+	/**
+	 * Compacts the buffer from split index, state and search index are kept relative to it.
+	 * The search index may be beyond the buffer end, e.g. a streaming chunk has slid over its CRLF which is not received yet.
+	 */
 	protected void adapt() {
+		acquire();
+		
 		if (splitIndex > 0 && splitIndex < buf.length()) {
 			byte[] tailBytes = buf.array(splitIndex, buf.length());
 			buf.clear();
 			buf.append(tailBytes);
-			stateIndex -= splitIndex;
-			searchIndex = buf.length();
+			stateIndex  -= splitIndex;
+			searchIndex -= splitIndex;
 			splitIndex = 0;
 		}
 		
@@ -450,10 +651,6 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 			buf.clear();
 			stateIndex = splitIndex = searchIndex = 0;
 		}
-		
-		if (buf.length() == 0 && buf.capacity() > maxSize * 2) {
-			buf.reset(defaultBufferSize);
-		}
 	}
 	
 	protected HttpContentType getContentType(HttpMessage httpMessage) {
@@ -542,8 +739,22 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 	}
 	
 	protected String sliceBySeparators(int shift, byte... separators) throws ProtocolException {
-		boolean done = false;
 		int offset = stateIndex;
+		if (scan(separators)) {
+			return new String(buf.buffer(), offset, stateIndex - offset - 1 + shift, charset);
+		} else {
+			return null;
+		}
+	}
+	
+	/**
+	 * Scans bytes until any of the separators, on success the state index points to the byte next to the separator.
+	 * 
+	 * @param separators
+	 * @return <tt>true</tt> if a separator is found.
+	 */
+	protected boolean scan(byte... separators) throws ProtocolException {
+		boolean done = false;
 		int length = searchIndex - stateIndex;
 		for (int i = searchIndex; i < buf.length(); length++) {
 			if (length > maxLineLength) { throw new ProtocolException(ProtocolExceptionType.LINE_LENGTH_LIMIT, maxLineLength); }
@@ -551,7 +762,6 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 			byte b = buf.byteAt(i);
 			searchIndex = ++i;
 			if (ByteUtil.indexOf(separators, b) >= 0) {
-				length = searchIndex - stateIndex - 1;
 				stateIndex = searchIndex;
 				done = true;
 				break;
@@ -560,11 +770,7 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		
 		if (searchIndex > maxSize) { throw new ProtocolException(ProtocolExceptionType.MAX_SIZE_LIMIT, maxSize); }
 		
-		if (done) {
-			return new String(buf.buffer(), offset, length + shift, charset);
-		} else {
-			return null;	
-		}
+		return done;
 	}
 	
 	protected boolean skip(byte... bytes) throws ProtocolException {
@@ -597,12 +803,16 @@ abstract public class HttpDecoder<T extends HttpMessage> extends AbstractProtoco
 		chunkExtName = null;
 		trailerSize = 0;
 		httpMessage = null;
+		headerCount = 0;
+		folded = false;
+		remaining = 0;
+		inflating = false;
 	}
 	
 	protected void resetIndex() {
 		searchIndex = splitIndex = stateIndex = 0;
 	}
 	
-	abstract boolean hasEntity(T httpMessage);
+	abstract boolean hasEntity(T httpMessage) throws ProtocolException;
 	
 }
@@ -4,140 +4,222 @@ import static io.craft.atom.protocol.http.HttpConstants.AMPERSAND;
 import static io.craft.atom.protocol.http.HttpConstants.EQUAL_SIGN;
 import static io.craft.atom.protocol.http.HttpConstants.PERCENT_SIGN;
 import static io.craft.atom.protocol.http.HttpConstants.PLUS_SIGN;
+import static io.craft.atom.protocol.http.HttpConstants.SP;
+import static io.craft.atom.protocol.http.model.HttpParameters.NAME_ENCODED;
+import static io.craft.atom.protocol.http.model.HttpParameters.STRIDE;
+import static io.craft.atom.protocol.http.model.HttpParameters.VALUE_ENCODED;
 
 import io.craft.atom.protocol.AbstractProtocolCodec;
 import io.craft.atom.protocol.ProtocolDecoder;
 import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.model.HttpParameters;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 
 /**
- * A {@link ProtocolDecoder} which decodes cookie string bytes into {@code Map<String, List<String>>} object, default charset is utf-8.
+ * A {@link ProtocolDecoder} which decodes parameter string bytes into {@code Map<String, List<String>>} object, default charset is utf-8.
  * <br>
  * Only accept complete parameter bytes to decode, because this implementation is stateless and thread safe.
- * 
+ * <p>
+ * Bytes are scanned in a single pass which records name and value offsets into {@link HttpParameters},
+ * escape sequences are validated in the same pass. Names and values are then percent-decoded straight from the bytes,
+ * plain ASCII into a char buffer reused by all parameters, without intermediate strings.
+ * In lazy mode decoding is deferred until a parameter is read.
+ * <br>
+ * Parameter count and the size of each <code>name=value</code> pair are limited, exceeding either fails the decoding.
+ *
  * @author mindwind
  * @version 1.0, Mar 26, 2013
+ * @see HttpParameters
  */
-@ToString(callSuper = true)
+@ToString(callSuper = true, of = { "maxParameterCount", "maxParameterSize", "lazy" })
 public class HttpParameterDecoder extends AbstractProtocolCodec implements ProtocolDecoder<Map<String, List<String>>> {
-	
-	
-	private static final int START =  0;
-	private static final int NAME  =  1;
-	private static final int VALUE =  2;
-	private static final int END   = -1;
-	
-	
+
+
+	private static final Set<String> ASCII_COMPATIBLE = new HashSet<String>(Arrays.asList("UTF-8", "US-ASCII", "ISO-8859-1", "GBK", "GB2312", "GB18030", "windows-1252"));
+
+
+	@Getter @Setter private int     maxParameterCount = 1000           ;
+	@Getter @Setter private int     maxParameterSize  = 2 * 1024 * 1024;
+	@Getter @Setter private boolean lazy                               ;
+
+
 	// ~ ------------------------------------------------------------------------------------------------------------
-	
-	
+
+
 	public HttpParameterDecoder() {};
-	
+
 	public HttpParameterDecoder(Charset charset) {
 		this.charset = charset;
 	}
-	
-	
+
+	public HttpParameterDecoder(Charset charset, int maxParameterCount, int maxParameterSize, boolean lazy) {
+		this.charset           = charset          ;
+		this.maxParameterCount = maxParameterCount;
+		this.maxParameterSize  = maxParameterSize ;
+		this.lazy              = lazy             ;
+	}
+
+
 	// ~ ------------------------------------------------------------------------------------------------------------
-	
-	
+
+
 	@Override
 	public void reset() {}
-	
+
 	@Override
 	public List<Map<String, List<String>>> decode(byte[] bytes) throws ProtocolException {
-		try {
-			return decode0(bytes);
-		} catch (Exception e) {
-			if (e instanceof ProtocolException) {
-				throw (ProtocolException) e;
-			}
-			throw new ProtocolException(e);
+		HttpParameters parameters = decodeParameters(bytes);
+		if (parameters.isEmpty()) {
+			return Collections.emptyList();
 		}
+
+		List<Map<String, List<String>>> paras = new ArrayList<Map<String, List<String>>>(1);
+		paras.add(parameters.toMap());
+		return paras;
 	}
-	
-	private List<Map<String, List<String>>> decode0(byte[] bytes) throws ProtocolException, UnsupportedEncodingException {
-		List<Map<String, List<String>>> paras = new ArrayList<Map<String,List<String>>>();
-		
-		Map<String, List<String>> map = null;
-		String name = null;
-		String value = null;
-		int searchIndex = 0;
-		int stateIndex = 0;
-		int state = START;
-		int len = bytes.length;
-		int i = 0;
-		boolean decode = false;
-		while (searchIndex < len) {
-			switch (state) {
-			case START:
-				state = NAME;
-				map = new HashMap<String, List<String>>();
-				break;
-			case NAME:
-				byte nameHead = bytes[searchIndex];
-				if (nameHead == PLUS_SIGN || nameHead == PERCENT_SIGN) {
-					decode = true;
-				}
-				for (; searchIndex < len && bytes[searchIndex] != EQUAL_SIGN; searchIndex++, i++);
-				name = new String(bytes, stateIndex, i, charset);
-				if (decode) {
-					name = URLDecoder.decode(name, charset.name());
-				}
-				
-				stateIndex = ++searchIndex;
-				i = 0;
-				decode = false;
-				state = VALUE;
-				break;
-			case VALUE:
-				byte valueHead = bytes[searchIndex];
-				if (valueHead == PLUS_SIGN || valueHead == PERCENT_SIGN) {
-					decode = true;
-				}
-				for (; searchIndex < len && bytes[searchIndex] != AMPERSAND; searchIndex++, i++);
-				value = new String(bytes, stateIndex, i, charset);
-				if (decode) {
-					value = URLDecoder.decode(value, charset.name());
-				}
-				
-				List<String> values = map.get(name);
-				if (values == null) {
-					values = new ArrayList<String>();
-					map.put(name, values);
-				}
-				values.add(value);
-				
-				name = value = null;
-				stateIndex = ++searchIndex;
-				i = 0;
-				decode = false;
-				if (searchIndex >= len) {
-					state = END;
-				} else {
-					state = NAME;
+
+	public HttpParameters decodeParameters(byte[] bytes) throws ProtocolException {
+		return decodeParameters(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * @return parameters as views over the bytes, which must not be changed afterwards.
+	 * @throws ProtocolException if the bytes have a malformed escape sequence or exceed the limits.
+	 */
+	public HttpParameters decodeParameters(byte[] bytes, int offset, int length) throws ProtocolException {
+		int[] offsets = new int[Math.min(8, maxParameterCount + 1) * STRIDE];
+		int   size    = 0;
+		int   start   = offset;
+		int   eq      = -1;
+		int   flags   = 0;
+		int   end     = offset + length;
+		for (int i = offset; i <= end; i++) {
+			byte b = i < end ? bytes[i] : AMPERSAND;
+			if (b == AMPERSAND) {
+				if (i > start) {
+					if (size >= maxParameterCount) {
+						throw new ProtocolException("Too many parameters, |max=" + maxParameterCount + "|");
+					}
+					if (i - start > maxParameterSize) {
+						throw new ProtocolException("Parameter is too large, |max=" + maxParameterSize + ", size=" + (i - start) + "|");
+					}
+					if ((size + 1) * STRIDE > offsets.length) {
+						offsets = Arrays.copyOf(offsets, offsets.length * 2);
+					}
+					int j = size * STRIDE;
+					offsets[j]     = start                         ;
+					offsets[j + 1] = (eq < 0 ? i : eq) - start     ;
+					offsets[j + 2] = eq < 0 ? i : eq + 1           ;
+					offsets[j + 3] = eq < 0 ? 0 : i - eq - 1       ;
+					offsets[j + 4] = flags                         ;
+					size++;
 				}
-				break;
-			case END:
-				// nothing to do
-				break;
+				start = i + 1;
+				eq    = -1   ;
+				flags = 0    ;
+			} else if (b == EQUAL_SIGN && eq < 0) {
+				eq = i;
+			} else if (b == PERCENT_SIGN) {
+				unescape(bytes, i, end);
+				flags |= (eq < 0 ? NAME_ENCODED : VALUE_ENCODED);
+				i += 2;
+			} else if (b == PLUS_SIGN || b < 0) {
+				flags |= (eq < 0 ? NAME_ENCODED : VALUE_ENCODED);
 			}
 		}
-		
-		if (map != null) {
-			paras.add(map);
+
+		HttpParameters parameters = new HttpParameters(bytes, offsets, size, charset);
+		if (!lazy) {
+			parameters.materialize();
 		}
-		return paras;
+		return parameters;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Percent-decodes a parameter name or value, '+' is decoded as space.
+	 *
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @param charset
+	 * @param buf     char buffer at least <tt>length</tt> long, used to decode plain ASCII.
+	 * @return decoded string
+	 * @throws ProtocolException if there is a malformed escape sequence.
+	 */
+	public static String decodeComponent(byte[] bytes, int offset, int length, Charset charset, char[] buf) throws ProtocolException {
+		if (!ASCII_COMPATIBLE.contains(charset.name())) {
+			return decodeBytes(bytes, offset, length, charset);
+		}
+
+		int n   = 0;
+		int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			int b = bytes[i];
+			if (b == PLUS_SIGN) {
+				b = SP;
+			} else if (b == PERCENT_SIGN) {
+				b = unescape(bytes, i, end);
+				i += 2;
+			}
+			if (b < 0 || b > 0x7f) {
+				return decodeBytes(bytes, offset, length, charset);
+			}
+			buf[n++] = (char) b;
+		}
+		return new String(buf, 0, n);
+	}
+
+	private static String decodeBytes(byte[] bytes, int offset, int length, Charset charset) throws ProtocolException {
+		byte[] buf = new byte[length];
+		int    n   = 0;
+		int    end = offset + length;
+		for (int i = offset; i < end; i++) {
+			byte b = bytes[i];
+			if (b == PLUS_SIGN) {
+				b = SP;
+			} else if (b == PERCENT_SIGN) {
+				b = (byte) unescape(bytes, i, end);
+				i += 2;
+			}
+			buf[n++] = b;
+		}
+		return new String(buf, 0, n, charset);
+	}
+
+	/**
+	 * @return the byte value of the escape sequence starts at the index.
+	 */
+	private static int unescape(byte[] bytes, int i, int end) throws ProtocolException {
+		int hi = i + 2 < end ? hex(bytes[i + 1]) : -1;
+		int lo = i + 2 < end ? hex(bytes[i + 2]) : -1;
+		if (hi < 0 || lo < 0) {
+			throw new ProtocolException("Malformed escape sequence, |index=" + i + "|");
+		}
+		return (hi << 4) | lo;
+	}
+
+	private static int hex(byte b) {
+		if (b >= '0' && b <= '9') return b - '0';
+		if (b >= 'a' && b <= 'f') return b - 'a' + 10;
+		if (b >= 'A' && b <= 'F') return b - 'A' + 10;
+		return -1;
 	}
 
 }
@@ -42,7 +42,6 @@ public class HttpRequestDecoder extends HttpDecoder<HttpRequest> implements Prot
 	public HttpRequestDecoder(Charset charset, int defaultBufferSize) {
 		this(charset);
 		this.defaultBufferSize = defaultBufferSize;
-		buf.reset(defaultBufferSize);
 	}
 
 	public HttpRequestDecoder(Charset charset, int defaultBufferSize, int maxLineLength) {
@@ -148,6 +147,7 @@ public class HttpRequestDecoder extends HttpDecoder<HttpRequest> implements Prot
 			}
 		}
 		
+		recycle();
 		return reqs;
 	}
 	
@@ -162,10 +162,10 @@ public class HttpRequestDecoder extends HttpDecoder<HttpRequest> implements Prot
 		HttpVersion version = HttpVersion.from(versionStr);
 		httpMessage.getRequestLine().setVersion(version);
 		
-		// to next state;
+		// to next state, no header
 		if (CR == currentByte() && LF == nextByte()) {
-			state = ENTITY;
-			slide(2);
+			state = hasEntity(httpMessage) ? ENTITY : END;
+			slide(1);
 		} else {
 			state = HEADER_NAME;
 		}
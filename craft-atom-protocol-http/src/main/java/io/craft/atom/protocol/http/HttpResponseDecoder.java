@@ -1,35 +1,283 @@
 package io.craft.atom.protocol.http;
 
+import static io.craft.atom.protocol.http.HttpConstants.CR;
+import static io.craft.atom.protocol.http.HttpConstants.HT;
+import static io.craft.atom.protocol.http.HttpConstants.LF;
+import static io.craft.atom.protocol.http.HttpConstants.SP;
+
 import io.craft.atom.protocol.ProtocolDecoder;
 import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.ProtocolExceptionType;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
+import io.craft.atom.protocol.http.model.HttpMethod;
 import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpStatusLine;
+import io.craft.atom.protocol.http.model.HttpVersion;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import lombok.ToString;
 
 
 /**
  * A {@link ProtocolDecoder} which decodes bytes into {@code HttpResponse} object, default charset is utf-8
+ * <p>
+ * Whether a response has entity depends on the request it answers, e.g. response to a <tt>HEAD</tt> request never has entity.
+ * So a client should notify the decoder with {@link #requestSent(HttpMethod)} for each request in order,
+ * without notification the decoder assumes the request is a <tt>GET</tt>.
+ * <br>
+ * Entity delimited by connection close (neither <tt>Content-Length</tt> nor chunked) is not supported.
  * <br>
- * Not thread safe
- * 
+ * Not thread safe, except {@link #requestSent(HttpMethod)}.
+ *
  * @author mindwind
  * @version 1.0, Feb 3, 2013
  */
 @ToString(callSuper = true)
 public class HttpResponseDecoder extends HttpDecoder<HttpResponse> implements ProtocolDecoder<HttpResponse> {
 
+
+	private static final int STATUS_LINE_END = 23;
+
+
+	private final Queue<HttpMethod> methods = new ConcurrentLinkedQueue<HttpMethod>();
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HttpResponseDecoder() {
+		super();
+	}
+
+	public HttpResponseDecoder(Charset charset) {
+		this.charset = charset;
+	}
+
+	public HttpResponseDecoder(Charset charset, int defaultBufferSize) {
+		this(charset);
+		this.defaultBufferSize = defaultBufferSize;
+	}
+
+	public HttpResponseDecoder(Charset charset, int defaultBufferSize, int maxLineLength) {
+		this(charset, defaultBufferSize);
+		this.maxLineLength = maxLineLength;
+	}
+
+	public HttpResponseDecoder(Charset charset, int defaultBufferSize, int maxLineLength, int maxResponseSize) {
+		this(charset, defaultBufferSize, maxLineLength);
+		this.maxSize = maxResponseSize;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Notifies the decoder that a request is sent, must be invoked in the order of requests.
+	 *
+	 * @param method method of the sent request
+	 */
+	public void requestSent(HttpMethod method) {
+		methods.offer(method);
+	}
+
 	@Override
 	public List<HttpResponse> decode(byte[] bytes) throws ProtocolException {
-		// TODO Auto-generated method stub
-		return null;
+		try {
+			return decode0(bytes);
+		} catch (Exception e) {
+			clear();
+			resetIndex();
+			if (e instanceof ProtocolException) {
+				throw (ProtocolException) e;
+			}
+			throw new ProtocolException(e);
+		}
 	}
 
 	@Override
-	boolean hasEntity(HttpResponse httpMessage) {
-		// Here assume all response has entity, it does not hurt the correctness.
+	public void reset() {
+		super.reset();
+		methods.clear();
+	}
+
+	@Override
+	boolean hasEntity(HttpResponse response) throws ProtocolException {
+		int code = response.getStatusLine().getStatus().getStatusCode();
+		if (code < 200 || code == 204 || code == 304 || methods.peek() == HttpMethod.HEAD) {
+			return false;
+		}
+
+		HttpHeader clh = response.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName());
+		HttpHeader teh = response.getFirstHeader(HttpHeaderType.TRANSFER_ENCODING.getName());
+		if (clh == null && teh == null) {
+			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "entity delimited by connection close is unsupported");
+		}
 		return true;
 	}
 
+	private List<HttpResponse> decode0(byte[] bytes) throws ProtocolException, IOException {
+		List<HttpResponse> responses = new ArrayList<HttpResponse>();
+		adapt();
+		buf.append(bytes);
+
+		while (searchIndex < buf.length()) {
+			switch (state) {
+			case START:
+				state4START();
+				break;
+			case VERSION:
+				state4VERSION();
+				break;
+			case STATUS_CODE:
+				state4STATUS_CODE();
+				break;
+			case REASON_PHRASE:
+				state4REASON_PHRASE();
+				break;
+			case STATUS_LINE_END:
+				state4STATUS_LINE_END();
+				break;
+			case HEADER_NAME:
+				state4HEADER_NAME();
+				break;
+			case HEADER_VALUE_PREFIX:
+				state4HEADER_VALUE_PREFIX();
+				break;
+			case HEADER_VALUE:
+				state4HEADER_VALUE();
+				break;
+			case HEADER_VALUE_SUFFIX:
+				state4HEADER_VALUE_SUFFIX();
+				break;
+			case ENTITY:
+				state4ENTITY();
+				break;
+			case ENTITY_LENGTH:
+				state4ENTITY_LENGTH();
+				break;
+			case ENTITY_CHUNKED_SIZE:
+				state4ENTITY_CHUNKED_SIZE();
+				break;
+			case ENTITY_CHUNKED_EXTENSION_NAME:
+				state4ENTITY_CHUNKED_EXTENSION_NAME();
+				break;
+			case ENTITY_CHUNKED_EXTENSION_VALUE:
+				state4ENTITY_CHUNKED_EXTENSION_VALUE();
+				break;
+			case ENTITY_CHUNKED_DATA:
+				state4ENTITY_CHUNKED_DATA();
+				break;
+			case ENTITY_CHUNKED_TRAILER_NAME:
+				state4ENTITY_CHUNKED_TRAILER_NAME();
+				break;
+			case ENTITY_CHUNKED_TRAILER_VALUE:
+				state4ENTITY_CHUNKED_TRAILER_VALUE();
+				break;
+			case ENTITY_ENCODING:
+				state4ENTITY_ENCODING();
+				break;
+			case END:
+				// interim 1xx response does not answer the request
+				if (httpMessage.getStatusLine().getStatus().getStatusCode() >= 200) {
+					methods.poll();
+				}
+				state4END(responses);
+				break;
+			default:
+				throw new IllegalStateException("Invalid decoder state!");
+			}
+		}
+
+		recycle();
+		return responses;
+	}
+
+	private void state4STATUS_LINE_END() throws ProtocolException {
+		// header end
+		if (CR == currentByte()) {
+			state = hasEntity(httpMessage) ? ENTITY : END;
+			slide(1);
+		}
+		// first header
+		else {
+			state = HEADER_NAME;
+		}
+	}
+
+	private void state4REASON_PHRASE() throws ProtocolException {
+		// slice reason phrase part, the phrase of the status is used instead
+		String reasonPhrase = sliceBySeparators(-1, LF);
+		if (reasonPhrase == null) {
+			return;
+		}
+
+		// to next state
+		state = STATUS_LINE_END;
+	}
+
+	private void state4STATUS_CODE() throws ProtocolException {
+		// slice status code part, reason phrase may be absent
+		String codeStr = sliceBySeparators(0, SP, HT, LF);
+		if (codeStr == null) {
+			return;
+		}
+
+		// render current response with status
+		HttpStatus status = null;
+		try {
+			status = HttpStatus.from(Integer.parseInt(codeStr.trim()));
+		} catch (NumberFormatException e) {
+			// handled below
+		}
+		if (status == null) {
+			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "invalid status code=" + codeStr);
+		}
+		httpMessage.getStatusLine().setStatus(status);
+
+		// to next state
+		state = LF == previousByte() ? STATUS_LINE_END : REASON_PHRASE;
+	}
+
+	private void state4VERSION() throws ProtocolException {
+		// slice version part
+		String versionStr = sliceBySeparators(0, SP, HT);
+		if (versionStr == null) {
+			return;
+		}
+
+		// render current response with version
+		HttpVersion version = HttpVersion.from(versionStr);
+		if (version == null) {
+			throw new ProtocolException(ProtocolExceptionType.UNEXPECTED, "invalid http version=" + versionStr);
+		}
+		httpMessage.getStatusLine().setVersion(version);
+
+		// to next state
+		state = STATUS_CODE;
+	}
+
+	private void state4START() throws ProtocolException {
+		// skip any CR or LF before status line
+		boolean done = skip(CR, LF);
+		if (!done) {
+			return;
+		}
+
+		// on START state create a new response as current response.
+		httpMessage = new HttpResponse();
+		httpMessage.setStatusLine(new HttpStatusLine());
+
+		// to next state
+		state = VERSION;
+	}
+
 }
@@ -1,38 +1,221 @@
 package io.craft.atom.protocol.http;
 
+import static io.craft.atom.protocol.http.HttpConstants.CR;
+import static io.craft.atom.protocol.http.HttpConstants.LF;
 import io.craft.atom.protocol.ProtocolEncoder;
 import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.model.HttpChunk;
+import io.craft.atom.protocol.http.model.HttpChunkEntity;
+import io.craft.atom.protocol.http.model.HttpEntity;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
 import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpStatusLine;
+import io.craft.atom.protocol.http.model.HttpVersion;
+import io.craft.atom.util.ByteArrayBuffer;
 
 import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map.Entry;
 
 import lombok.ToString;
 
 
 /**
  * A {@link ProtocolEncoder} which encodes a {@code HttpResponse} object into bytes follow the HTTP specification, default charset is utf-8.
+ * <p>
+ * The response is written at byte level: status lines and common header names are pre-encoded,
+ * the current "Date" header value is taken from the shared cache of {@link HttpDates},
+ * US-ASCII header values are copied char by char without charset encoding, and entity content is written verbatim.
  * <br>
  * Thread safe.
- * 
+ *
  * @author mindwind
  * @version 1.0, Feb 3, 2013
  */
 @ToString(callSuper = true)
 public class HttpResponseEncoder extends HttpEncoder implements ProtocolEncoder<HttpResponse> {
 
+
+	private static final byte[]     COLON_SP     = { ':', ' ' }  ;
+	private static final byte[][][] STATUS_LINES = statusLines();
+	private static final byte[][]   HEADER_NAMES = headerNames();
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
 	public HttpResponseEncoder() {
 		super();
 	}
-	
+
 	public HttpResponseEncoder(Charset charset)  {
 		this.charset = charset;
 	}
 
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
 	@Override
 	public byte[] encode(HttpResponse response) throws ProtocolException {
 		if (response == null) return null;
-		String httpString = response.toHttpString(charset);
-		return httpString.getBytes(charset);
+
+		HttpEntity entity = response.getEntity();
+		List<HttpHeader> headers = response.getHeaders();
+		HttpStatusLine statusLine = response.getStatusLine();
+		ByteArrayBuffer buf = new ByteArrayBuffer(estimate(statusLine, headers, entity));
+
+		// status line
+		if (statusLine != null) {
+			writeStatusLine(buf, statusLine);
+		}
+
+		// headers and empty line
+		for (HttpHeader header : headers) {
+			writeHeader(buf, header);
+		}
+		if (!headers.isEmpty()) {
+			buf.append(CR).append(LF);
+		}
+
+		// entity
+		if (entity instanceof HttpChunkEntity) {
+			writeChunkEntity(buf, (HttpChunkEntity) entity);
+		} else if (entity != null && entity.getContent() != null) {
+			buf.append(entity.getContent());
+		}
+
+		return buf.isFull() ? buf.buffer() : buf.array();
+	}
+
+	private void writeStatusLine(ByteArrayBuffer buf, HttpStatusLine statusLine) {
+		byte[] line = STATUS_LINES[statusLine.getVersion().ordinal()][statusLine.getStatus().ordinal()];
+		if (line != null) {
+			buf.append(line);
+		} else {
+			write(buf, statusLine.toHttpString());
+		}
+	}
+
+	private void writeHeader(ByteArrayBuffer buf, HttpHeader header) {
+		String name  = header.getName();
+		String value = header.getValue();
+
+		HttpHeaderType type = HttpHeaderType.from(name);
+		if (type != null && type.getName().equals(name)) {
+			buf.append(HEADER_NAMES[type.ordinal()]);
+		} else {
+			write(buf, name);
+			buf.append(COLON_SP);
+		}
+
+		byte[] date = type == HttpHeaderType.DATE ? HttpDates.currentDateBytes(value) : null;
+		if (date != null) {
+			buf.append(date);
+		} else {
+			write(buf, value);
+		}
+		buf.append(CR).append(LF);
+	}
+
+	private void writeChunkEntity(ByteArrayBuffer buf, HttpChunkEntity entity) {
+		for (HttpChunk chunk : entity.getChunks()) {
+			write(buf, Integer.toHexString(chunk.getSize()));
+			for (Entry<String, String> ext : chunk.getExtension().entrySet()) {
+				buf.append((byte) ';');
+				write(buf, ext.getKey());
+				if (ext.getValue() != null) {
+					buf.append((byte) '=');
+					write(buf, ext.getValue());
+				}
+			}
+			buf.append(CR).append(LF);
+			if (chunk.getData() != null) {
+				buf.append(chunk.getData()).append(CR).append(LF);
+			}
+		}
+		for (HttpHeader trailer : entity.getTrailers().values()) {
+			writeHeader(buf, trailer);
+		}
+	}
+
+	/**
+	 * Writes US-ASCII string char by char, falls back to charset encoding for any other string.
+	 */
+	private void write(ByteArrayBuffer buf, String s) {
+		int len = s.length();
+		for (int i = 0; i < len; i++) {
+			if (s.charAt(i) >= 0x80) {
+				buf.append(s.getBytes(charset));
+				return;
+			}
+		}
+		for (int i = 0; i < len; i++) {
+			buf.append((byte) s.charAt(i));
+		}
+	}
+
+	/**
+	 * @return exact encoded length of a US-ASCII response with plain entity, so the buffer can be returned without copy.
+	 */
+	private int estimate(HttpStatusLine statusLine, List<HttpHeader> headers, HttpEntity entity) {
+		int n = headers.isEmpty() ? 0 : 2;
+		if (statusLine != null) {
+			byte[] line = STATUS_LINES[statusLine.getVersion().ordinal()][statusLine.getStatus().ordinal()];
+			n += line == null ? 64 : line.length;
+		}
+		for (HttpHeader header : headers) {
+			n += header.getName().length() + header.getValue().length() + 4;
+		}
+		if (entity != null && entity.getContent() != null) {
+			n += entity.getContent().length;
+		}
+		return n;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Pre-encoded status lines of all versions and statuses, <code>null</code> if the line is not US-ASCII.
+	 */
+	private static byte[][][] statusLines() {
+		HttpVersion[] versions = HttpVersion.values();
+		HttpStatus [] statuses = HttpStatus.values();
+		byte[][][] lines = new byte[versions.length][statuses.length][];
+		for (HttpVersion version : versions) {
+			for (HttpStatus status : statuses) {
+				lines[version.ordinal()][status.ordinal()] = ascii(new HttpStatusLine(version, status).toHttpString());
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Pre-encoded header names followed by ": ".
+	 */
+	private static byte[][] headerNames() {
+		HttpHeaderType[] types = HttpHeaderType.values();
+		byte[][] names = new byte[types.length][];
+		for (HttpHeaderType type : types) {
+			names[type.ordinal()] = ascii(type.getName() + ": ");
+		}
+		return names;
+	}
+
+	private static byte[] ascii(String s) {
+		byte[] b = new byte[s.length()];
+		for (int i = 0; i < b.length; i++) {
+			char c = s.charAt(i);
+			if (c >= 0x80) {
+				return null;
+			}
+			b[i] = (byte) c;
+		}
+		return b;
 	}
 
 }
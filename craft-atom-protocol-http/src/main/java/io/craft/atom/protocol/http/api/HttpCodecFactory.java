@@ -53,6 +53,14 @@ public class HttpCodecFactory {
 		return new HttpResponseEncoder(charset);
 	}
 	
+	public static ProtocolDecoder<HttpResponse> newHttpResponseDecoder() {
+		return newHttpResponseDecoderBuilder().build();
+	}
+	
+	public static HttpResponseDecoderBuilder newHttpResponseDecoderBuilder() {
+		return new HttpResponseDecoderBuilder();
+	}
+	
 	
 	// http cookie
 	public static ProtocolEncoder<HttpCookie> newHttpCookieEncoder() {
@@ -93,4 +101,8 @@ public class HttpCodecFactory {
 		return new HttpParameterDecoder(charset);
 	}
 	
+	public static HttpParameterDecoder newHttpParameterDecoder(Charset charset, int maxParameterCount, int maxParameterSize, boolean lazy) {
+		return new HttpParameterDecoder(charset, maxParameterCount, maxParameterSize, lazy);
+	}
+	
 }
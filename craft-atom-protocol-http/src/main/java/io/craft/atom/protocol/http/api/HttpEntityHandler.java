@@ -0,0 +1,42 @@
+package io.craft.atom.protocol.http.api;
+
+import io.craft.atom.protocol.http.model.HttpMessage;
+
+/**
+ * Handles entity content of a http message in streaming mode.
+ * <p>
+ * When a http decoder is set with an entity handler, entity content is not aggregated into the message,
+ * each content slice (for <tt>Content-Length</tt> entity) or chunk data slice (for chunked entity)
+ * is emitted to the handler as soon as it arrives.
+ * The decoded message itself is still returned by the decoder after its entity is completed, without content.
+ * <br>
+ * All methods are invoked in the decoding thread, so implementation should not block.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface HttpEntityHandler<T extends HttpMessage> {
+
+	/**
+	 * Invoked when the message head is decoded and its entity starts.
+	 *
+	 * @param message
+	 */
+	void entityStarted(T message);
+
+	/**
+	 * Invoked when some entity content has arrived.
+	 *
+	 * @param message
+	 * @param content
+	 */
+	void entityRead(T message, byte[] content);
+
+	/**
+	 * Invoked when the entity is completed, trailers of chunked entity are available now.
+	 *
+	 * @param message
+	 */
+	void entityCompleted(T message);
+
+}
@@ -16,20 +16,33 @@ import java.nio.charset.Charset;
 public class HttpRequestDecoderBuilder {
 
 	
-	private Charset charset           = Charset.forName("utf-8");
-	private int     defaultBufferSize = 2048                    ;
-	private int     maxLineLength     = defaultBufferSize       ;
-	private int     maxRequestSize    = defaultBufferSize * 1024;
+	private Charset                        charset           = Charset.forName("utf-8");
+	private int                            defaultBufferSize = 2048                    ;
+	private int                            maxLineLength     = defaultBufferSize       ;
+	private int                            maxRequestSize    = defaultBufferSize * 1024;
+	private boolean                        lazyHeader        = false                   ;
+	private int                            maxInflateRatio   = 100                     ;
+	private int                            maxInflateSize    = 0                       ;
+	private HttpEntityHandler<HttpRequest> entityHandler                               ;
 	
 	
-	public HttpRequestDecoderBuilder charset          (Charset charset)       { this.charset           = charset          ; return this; }
-	public HttpRequestDecoderBuilder defaultBufferSize(int defaultBufferSize) { this.defaultBufferSize = defaultBufferSize; return this; }
-	public HttpRequestDecoderBuilder maxLineLength    (int maxLineLength)     { this.maxLineLength     = maxLineLength    ; return this; }
-	public HttpRequestDecoderBuilder maxRequestSize   (int maxRequestSize)    { this.maxRequestSize    = maxRequestSize   ; return this; }
+	public HttpRequestDecoderBuilder charset          (Charset charset)                              { this.charset           = charset          ; return this; }
+	public HttpRequestDecoderBuilder defaultBufferSize(int defaultBufferSize)                        { this.defaultBufferSize = defaultBufferSize; return this; }
+	public HttpRequestDecoderBuilder maxLineLength    (int maxLineLength)                            { this.maxLineLength     = maxLineLength    ; return this; }
+	public HttpRequestDecoderBuilder maxRequestSize   (int maxRequestSize)                           { this.maxRequestSize    = maxRequestSize   ; return this; }
+	public HttpRequestDecoderBuilder lazyHeader       (boolean lazyHeader)                           { this.lazyHeader        = lazyHeader       ; return this; }
+	public HttpRequestDecoderBuilder maxInflateRatio  (int maxInflateRatio)                          { this.maxInflateRatio   = maxInflateRatio  ; return this; }
+	public HttpRequestDecoderBuilder maxInflateSize   (int maxInflateSize)                           { this.maxInflateSize    = maxInflateSize   ; return this; }
+	public HttpRequestDecoderBuilder entityHandler    (HttpEntityHandler<HttpRequest> entityHandler) { this.entityHandler     = entityHandler    ; return this; }
 	
 	
 	public ProtocolDecoder<HttpRequest> build() {
-		return new HttpRequestDecoder(charset, defaultBufferSize, maxLineLength, maxRequestSize);
+		HttpRequestDecoder decoder = new HttpRequestDecoder(charset, defaultBufferSize, maxLineLength, maxRequestSize);
+		decoder.setLazyHeader(lazyHeader);
+		decoder.setEntityHandler(entityHandler);
+		decoder.setMaxInflateRatio(maxInflateRatio);
+		decoder.setMaxInflateSize(maxInflateSize);
+		return decoder;
 	}
 	
 }
@@ -0,0 +1,48 @@
+package io.craft.atom.protocol.http.api;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.http.HttpResponseDecoder;
+import io.craft.atom.protocol.http.model.HttpResponse;
+
+import java.nio.charset.Charset;
+
+
+/**
+ * Builder for {@link HttpResponseDecoder}
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class HttpResponseDecoderBuilder {
+
+	
+	private Charset                         charset           = Charset.forName("utf-8");
+	private int                             defaultBufferSize = 2048                    ;
+	private int                             maxLineLength     = defaultBufferSize       ;
+	private int                             maxResponseSize   = defaultBufferSize * 1024;
+	private boolean                         lazyHeader        = false                   ;
+	private int                             maxInflateRatio   = 100                     ;
+	private int                             maxInflateSize    = 0                       ;
+	private HttpEntityHandler<HttpResponse> entityHandler                               ;
+	
+	
+	public HttpResponseDecoderBuilder charset          (Charset charset)                               { this.charset           = charset          ; return this; }
+	public HttpResponseDecoderBuilder defaultBufferSize(int defaultBufferSize)                         { this.defaultBufferSize = defaultBufferSize; return this; }
+	public HttpResponseDecoderBuilder maxLineLength    (int maxLineLength)                             { this.maxLineLength     = maxLineLength    ; return this; }
+	public HttpResponseDecoderBuilder maxResponseSize  (int maxResponseSize)                           { this.maxResponseSize   = maxResponseSize  ; return this; }
+	public HttpResponseDecoderBuilder lazyHeader       (boolean lazyHeader)                            { this.lazyHeader        = lazyHeader       ; return this; }
+	public HttpResponseDecoderBuilder maxInflateRatio  (int maxInflateRatio)                           { this.maxInflateRatio   = maxInflateRatio  ; return this; }
+	public HttpResponseDecoderBuilder maxInflateSize   (int maxInflateSize)                            { this.maxInflateSize    = maxInflateSize   ; return this; }
+	public HttpResponseDecoderBuilder entityHandler    (HttpEntityHandler<HttpResponse> entityHandler) { this.entityHandler     = entityHandler    ; return this; }
+	
+	
+	public ProtocolDecoder<HttpResponse> build() {
+		HttpResponseDecoder decoder = new HttpResponseDecoder(charset, defaultBufferSize, maxLineLength, maxResponseSize);
+		decoder.setLazyHeader(lazyHeader);
+		decoder.setEntityHandler(entityHandler);
+		decoder.setMaxInflateRatio(maxInflateRatio);
+		decoder.setMaxInflateSize(maxInflateSize);
+		return decoder;
+	}
+	
+}
@@ -1117,6 +1117,30 @@ public enum HttpHeaderType {
 	// ~ ---------------------------------------------------------------------------------------------------------
 
 	
+	/** Perfect hash table over header names, case insensitive, built at class loading. */
+	private static final HttpHeaderType[] TABLE;
+	private static final int              SEED ;
+	
+	static {
+		HttpHeaderType[] values = values();
+		HttpHeaderType[] table  = null;
+		int seed = 0;
+		for (int size = 256; table == null; size <<= 1) {
+			for (seed = 1; seed < 1 << 16; seed++) {
+				table = new HttpHeaderType[size];
+				for (HttpHeaderType type : values) {
+					int i = hash(type.name, seed) & (size - 1);
+					if (table[i] != null) { table = null; break; }
+					table[i] = type;
+				}
+				if (table != null) break;
+			}
+		}
+		TABLE = table;
+		SEED  = seed ;
+	}
+	
+	
 	private final String name;
 
 	private HttpHeaderType(String name) {
@@ -1126,5 +1150,86 @@ public enum HttpHeaderType {
 	public String getName() {
 		return name;
 	}
+	
+	/**
+	 * Returns the {@link HttpHeaderType} instance from the specified header name, case insensitive.
+	 * 
+	 * @param name
+	 * @return The header type, or <code>null</code> if no type is matched
+	 */
+	public static HttpHeaderType from(String name) {
+		if (name == null) {
+			return null;
+		}
+		
+		HttpHeaderType type = TABLE[hash(name, SEED) & (TABLE.length - 1)];
+		if (type != null && type.name.equalsIgnoreCase(name)) {
+			return type;
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the {@link HttpHeaderType} instance from the specified header name bytes, case insensitive.
+	 * 
+	 * @param bytes
+	 * @param offset
+	 * @param length
+	 * @return The header type, or <code>null</code> if no type is matched
+	 */
+	public static HttpHeaderType from(byte[] bytes, int offset, int length) {
+		HttpHeaderType type = TABLE[hash(bytes, offset, length, SEED) & (TABLE.length - 1)];
+		if (type != null && type.equalsIgnoreCase(bytes, offset, length)) {
+			return type;
+		}
+		return null;
+	}
+	
+	/**
+	 * @return <tt>true</tt> if the header name is exactly equal to the specified bytes, case sensitive.
+	 */
+	boolean matches(byte[] bytes, int offset, int length) {
+		if (name.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (name.charAt(i) != bytes[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private boolean equalsIgnoreCase(byte[] bytes, int offset, int length) {
+		if (name.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (lower(name.charAt(i)) != lower(bytes[offset + i] & 0xff)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static int hash(String name, int seed) {
+		int h = seed ^ name.length();
+		for (int i = 0; i < name.length(); i++) {
+			h = h * 31 + lower(name.charAt(i));
+		}
+		return h ^ (h >>> 15);
+	}
+	
+	private static int hash(byte[] bytes, int offset, int length, int seed) {
+		int h = seed ^ length;
+		for (int i = offset; i < offset + length; i++) {
+			h = h * 31 + lower(bytes[i] & 0xff);
+		}
+		return h ^ (h >>> 15);
+	}
+	
+	private static int lower(int c) {
+		return c >= 'A' && c <= 'Z' ? c + 32 : c;
+	}
 
 }
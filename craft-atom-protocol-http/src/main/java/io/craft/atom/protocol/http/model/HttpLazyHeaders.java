@@ -0,0 +1,173 @@
+package io.craft.atom.protocol.http.model;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.ToString;
+
+/**
+ * Header fields of a http message kept as raw bytes with name and value offsets,
+ * header name and value strings are materialized on demand.
+ * <p>
+ * Well-known header names are resolved to {@link HttpHeaderType} once when the header is recorded,
+ * so lookup by a well-known name compares types instead of strings,
+ * and the materialized name reuses the interned {@link HttpHeaderType#getName()} if bytes are identical.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ * @see HttpMessage
+ */
+@ToString(of = "size")
+public class HttpLazyHeaders implements Serializable {
+
+
+	private static final long             serialVersionUID = 2935475309622185390L  ;
+	private static final HttpHeaderType[] TYPES            = HttpHeaderType.values();
+	
+	/** Each header takes 5 slots: name offset, name length, value offset, value length and type ordinal (or -1) */
+	public  static final int              STRIDE           = 5                      ;
+
+
+	private final           byte[]       raw        ;
+	private final           int[]        offsets    ;
+	private final           int          size       ;
+	private final           String       charsetName;
+	private       transient Charset      charset    ;
+	private                 HttpHeader[] cache      ;
+
+
+	// ~ -----------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @param raw     raw bytes of header fields
+	 * @param offsets header offsets into the raw bytes, {@link #STRIDE} slots for each header
+	 * @param size    header count
+	 * @param charset
+	 */
+	public HttpLazyHeaders(byte[] raw, int[] offsets, int size, Charset charset) {
+		this.raw         = raw           ;
+		this.offsets     = offsets       ;
+		this.size        = size          ;
+		this.charset     = charset       ;
+		this.charsetName = charset.name();
+	}
+
+
+	// ~ -----------------------------------------------------------------------------------------------------------
+
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i header index
+	 * @return the header at the specified index, materialized on first access.
+	 */
+	public HttpHeader get(int i) {
+		if (cache == null) {
+			cache = new HttpHeader[size];
+		}
+
+		HttpHeader header = cache[i];
+		if (header == null) {
+			header = materialize(i);
+			cache[i] = header;
+		}
+		return header;
+	}
+
+	/**
+	 * @param name header name, case insensitive
+	 * @return the first header with the name or <code>null</code>
+	 */
+	public HttpHeader getFirst(String name) {
+		int i = indexOf(name, 0);
+		return i < 0 ? null : get(i);
+	}
+
+	/**
+	 * @param name header name, case insensitive
+	 * @return all headers with the name, in order.
+	 */
+	public List<HttpHeader> get(String name) {
+		List<HttpHeader> headers = new ArrayList<HttpHeader>();
+		for (int i = indexOf(name, 0); i >= 0; i = indexOf(name, i + 1)) {
+			headers.add(get(i));
+		}
+		return headers;
+	}
+
+	/**
+	 * @return all headers materialized, in order.
+	 */
+	public List<HttpHeader> toList() {
+		List<HttpHeader> headers = new ArrayList<HttpHeader>(size);
+		for (int i = 0; i < size; i++) {
+			headers.add(get(i));
+		}
+		return headers;
+	}
+
+	private int indexOf(String name, int from) {
+		if (name == null) {
+			return -1;
+		}
+
+		HttpHeaderType type = HttpHeaderType.from(name);
+		for (int i = from; i < size; i++) {
+			int j = i * STRIDE;
+			if (type != null) {
+				if (offsets[j + 4] == type.ordinal()) return i;
+			} else if (offsets[j + 4] < 0 && equalsIgnoreCase(name, offsets[j], offsets[j + 1])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean equalsIgnoreCase(String name, int offset, int length) {
+		if (name.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = name.charAt(i);
+			int  b = raw[offset + i] & 0xff;
+			if (c != b && Character.toLowerCase(c) != Character.toLowerCase((char) b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private HttpHeader materialize(int i) {
+		int j = i * STRIDE;
+		int nameOffset  = offsets[j]    ;
+		int nameLength  = offsets[j + 1];
+		int valueOffset = offsets[j + 2];
+		int valueLength = offsets[j + 3];
+		int ordinal     = offsets[j + 4];
+
+		String name;
+		if (ordinal >= 0 && TYPES[ordinal].matches(raw, nameOffset, nameLength)) {
+			name = TYPES[ordinal].getName();
+		} else {
+			name = new String(raw, nameOffset, nameLength, charset());
+		}
+		String value = new String(raw, valueOffset, valueLength, charset());
+		return new HttpHeader(name, value);
+	}
+	
+	private Charset charset() {
+		if (charset == null) {
+			charset = Charset.forName(charsetName);
+		}
+		return charset;
+	}
+
+}
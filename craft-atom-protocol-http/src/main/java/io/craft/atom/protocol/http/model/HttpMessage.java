@@ -46,9 +46,10 @@ public abstract class HttpMessage implements Serializable {
 	private static final long serialVersionUID = -8373186983205172162L;
 	
 	
-	@Getter @Setter protected List<HttpHeader> headers = new ArrayList<HttpHeader>();
-	@Getter @Setter protected HttpEntity       entity                               ;
-	@Setter         protected List<HttpCookie>     cookies                              ;
+	                protected List<HttpHeader> headers     = new ArrayList<HttpHeader>();
+	@Getter @Setter protected HttpLazyHeaders  lazyHeaders                              ;
+	@Getter @Setter protected HttpEntity       entity                                   ;
+	@Setter         protected List<HttpCookie> cookies                                  ;
 	
 	
 	// ~ ------------------------------------------------------------------------------------------------------------
@@ -71,6 +72,28 @@ public abstract class HttpMessage implements Serializable {
 	// ~ ------------------------------------------------------------------------------------------------------------
 	
 	
+	public List<HttpHeader> getHeaders() {
+		materialize();
+		return headers;
+	}
+	
+	public void setHeaders(List<HttpHeader> headers) {
+		this.headers     = headers;
+		this.lazyHeaders = null   ;
+	}
+	
+	/**
+	 * Materializes all lazy headers, if any, into the header list.
+	 */
+	protected void materialize() {
+		if (lazyHeaders == null) {
+			return;
+		}
+		
+		headers.addAll(0, lazyHeaders.toList());
+		lazyHeaders = null;
+	}
+	
 	/**
 	 * Add a new header to http message, if the header exists replace it.
 	 * 
@@ -81,6 +104,7 @@ public abstract class HttpMessage implements Serializable {
 			return;
 		}
 		
+		materialize();
 		headers.add(header);
 	}
 	
@@ -107,6 +131,7 @@ public abstract class HttpMessage implements Serializable {
 			return;
 		}
 		
+		materialize();
 		for (int i = 0; i < headers.size(); i++) {
             HttpHeader header = headers.get(i);
             if (header.getName().equalsIgnoreCase(name)) {
@@ -131,6 +156,13 @@ public abstract class HttpMessage implements Serializable {
 			return null;
 		}
 		
+		if (lazyHeaders != null) {
+			HttpHeader header = lazyHeaders.getFirst(name);
+			if (header != null) {
+				return header;
+			}
+		}
+		
 		for (int i = 0; i < headers.size(); i++) {
             HttpHeader header = headers.get(i);
             if (header.getName().equalsIgnoreCase(name)) {
@@ -151,7 +183,7 @@ public abstract class HttpMessage implements Serializable {
      * @return header list
      */
 	public List<HttpHeader> getHeaders(String name) {
-		List<HttpHeader> headersFound = new ArrayList<HttpHeader>();
+		List<HttpHeader> headersFound = lazyHeaders == null ? new ArrayList<HttpHeader>() : lazyHeaders.get(name);
 
         for (int i = 0; i < headers.size(); i++) {
         	HttpHeader header = headers.get(i);
@@ -246,7 +278,7 @@ public abstract class HttpMessage implements Serializable {
 	}
 	
 	public Iterator<HttpHeader> headerIterator() {
-		return headers.iterator();
+		return getHeaders().iterator();
 	}
 	
 	
@@ -0,0 +1,233 @@
+package io.craft.atom.protocol.http.model;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.HttpParameterDecoder;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.ToString;
+
+/**
+ * Parameters of a query string or an <code>application/x-www-form-urlencoded</code> entity,
+ * kept as raw bytes with name and value offsets in order.
+ * <p>
+ * Parameter names and values are percent-decoded eagerly by {@link HttpParameterDecoder}, or on first access in lazy mode.
+ * Lookup compares the name with raw bytes of plain ASCII names, so parameters which are never read are never decoded.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ * @see HttpParameterDecoder
+ */
+@ToString(of = "size")
+public class HttpParameters implements Serializable {
+
+
+	private static final long serialVersionUID = -6243019420517353726L;
+
+	/** Each parameter takes 5 slots: name offset, name length, value offset, value length and encoding flags */
+	public  static final int  STRIDE           = 5                    ;
+
+	/** Flag bit of name with escaped or non-ASCII bytes */
+	public  static final int  NAME_ENCODED     = 1                    ;
+
+	/** Flag bit of value with escaped or non-ASCII bytes */
+	public  static final int  VALUE_ENCODED    = 2                    ;
+
+
+	private final           byte[]   raw        ;
+	private final           int[]    offsets    ;
+	private final           int      size       ;
+	private final           String   charsetName;
+	private       transient Charset  charset    ;
+	private       transient char[]   buf        ;
+	private                 String[] cache      ;
+
+
+	// ~ -----------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @param raw     raw bytes of parameters
+	 * @param offsets parameter offsets into the raw bytes, {@link #STRIDE} slots for each parameter
+	 * @param size    parameter count
+	 * @param charset
+	 */
+	public HttpParameters(byte[] raw, int[] offsets, int size, Charset charset) {
+		this.raw         = raw           ;
+		this.offsets     = offsets       ;
+		this.size        = size          ;
+		this.charset     = charset       ;
+		this.charsetName = charset.name();
+	}
+
+
+	// ~ -----------------------------------------------------------------------------------------------------------
+
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param i parameter index
+	 * @return decoded name of the parameter at the specified index.
+	 */
+	public String getName(int i) {
+		return string(i, 0);
+	}
+
+	/**
+	 * @param i parameter index
+	 * @return decoded value of the parameter at the specified index.
+	 */
+	public String getValue(int i) {
+		return string(i, 1);
+	}
+
+	/**
+	 * @param name parameter name, case sensitive
+	 * @return the first value of the parameter or <code>null</code>
+	 */
+	public String get(String name) {
+		int i = indexOf(name, 0);
+		return i < 0 ? null : getValue(i);
+	}
+
+	/**
+	 * @param name parameter name, case sensitive
+	 * @return all values of the parameter in order, or empty list if the parameter does not exist.
+	 */
+	public List<String> getAll(String name) {
+		int i = indexOf(name, 0);
+		if (i < 0) {
+			return Collections.emptyList();
+		}
+
+		List<String> values = new ArrayList<String>(1);
+		for (; i >= 0; i = indexOf(name, i + 1)) {
+			values.add(getValue(i));
+		}
+		return values;
+	}
+
+	/**
+	 * @return all parameters decoded, as a map which preserves parameter order.
+	 */
+	public Map<String, List<String>> toMap() {
+		Map<String, List<String>> map = new LinkedHashMap<String, List<String>>();
+		for (int i = 0; i < size; i++) {
+			String name = getName(i);
+			List<String> values = map.get(name);
+			if (values == null) {
+				values = new ArrayList<String>(1);
+				map.put(name, values);
+			}
+			values.add(getValue(i));
+		}
+		return map;
+	}
+
+	/**
+	 * Decodes all parameter names and values.
+	 *
+	 * @throws ProtocolException if a parameter has a malformed escape sequence.
+	 */
+	public void materialize() throws ProtocolException {
+		for (int i = 0; i < size; i++) {
+			for (int k = 0; k < 2; k++) {
+				if (cache == null || cache[i * 2 + k] == null) {
+					cache(i, k, decode(i, k));
+				}
+			}
+		}
+	}
+
+
+	// ~ -----------------------------------------------------------------------------------------------------------
+
+
+	private int indexOf(String name, int from) {
+		if (name == null) {
+			return -1;
+		}
+
+		for (int i = from; i < size; i++) {
+			int j = i * STRIDE;
+			if ((offsets[j + 4] & NAME_ENCODED) == 0) {
+				if (equals(name, offsets[j], offsets[j + 1])) return i;
+			} else if (name.equals(getName(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean equals(String name, int offset, int length) {
+		if (name.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (name.charAt(i) != raw[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param k 0 for name, 1 for value
+	 */
+	private String string(int i, int k) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+		}
+
+		String s = cache == null ? null : cache[i * 2 + k];
+		if (s == null) {
+			try {
+				s = decode(i, k);
+			} catch (ProtocolException e) {
+				throw new IllegalArgumentException(e.getMessage(), e);
+			}
+			cache(i, k, s);
+		}
+		return s;
+	}
+
+	private String decode(int i, int k) throws ProtocolException {
+		int j = i * STRIDE;
+		int offset = offsets[j + k * 2]    ;
+		int length = offsets[j + k * 2 + 1];
+		if (buf == null || buf.length < length) {
+			buf = new char[length];
+		}
+		return HttpParameterDecoder.decodeComponent(raw, offset, length, charset(), buf);
+	}
+
+	private void cache(int i, int k, String s) {
+		if (cache == null) {
+			cache = new String[size * 2];
+		}
+		cache[i * 2 + k] = s;
+	}
+
+	private Charset charset() {
+		if (charset == null) {
+			charset = Charset.forName(charsetName);
+		}
+		return charset;
+	}
+
+}
@@ -1,6 +1,5 @@
 package io.craft.atom.protocol.http.model;
 
-import static io.craft.atom.protocol.http.HttpConstants.S_AMPERSAND;
 import static io.craft.atom.protocol.http.HttpConstants.S_Q_MARK;
 
 import io.craft.atom.protocol.ProtocolException;
@@ -11,6 +10,7 @@ import io.craft.atom.protocol.http.HttpParameterDecoder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -141,33 +141,38 @@ public class HttpRequest extends HttpMessage {
 	}
 	
 	private Map<String, List<String>> parseParameters() {
-		Map<String, List<String>> map = Collections.emptyMap();
-		
-		StringBuilder buf = new StringBuilder();
-		String queryString = getQueryString();
-		if (queryString != null) {
-			buf.append(queryString);
-		}
-		
-		HttpContentType contentType = getContentType();
-		if (contentType != null && MimeType.APPLICATION_X_WWW_FORM_URLENCODED == contentType.getMimeType()) {
-			buf.append(S_AMPERSAND).append(getEntity().getContentAsString());
-		}
-		
+		Map<String, List<String>> map = new LinkedHashMap<String, List<String>>();
 		try {
-			List<Map<String, List<String>>> paras = PARAMETER_DECODER.decode(buf.toString().getBytes(PARAMETER_DECODER.getCharset()));
-			if (!paras.isEmpty()) {
-				map = paras.get(0);
+			String queryString = getQueryString();
+			if (queryString != null) {
+				putParameters(map, PARAMETER_DECODER.decodeParameters(queryString.getBytes(PARAMETER_DECODER.getCharset())));
+			}
+			
+			HttpContentType contentType = getContentType();
+			if (contentType != null && MimeType.APPLICATION_X_WWW_FORM_URLENCODED == contentType.getMimeType() && getEntity() != null && getEntity().getContent() != null) {
+				putParameters(map, PARAMETER_DECODER.decodeParameters(getEntity().getContent()));
 			}
 		} catch (ProtocolException e) {
 			LOG.warn("[CRAFT-ATOM-PROTOCOL-HTTP] Decode request parameter error", e);
-			return map;
+			return Collections.emptyMap();
 		}
 		
 		this.parameterMap = map;
 		return this.parameterMap;
 	}
 	
+	private static void putParameters(Map<String, List<String>> map, HttpParameters parameters) {
+		for (int i = 0; i < parameters.size(); i++) {
+			String name = parameters.getName(i);
+			List<String> values = map.get(name);
+			if (values == null) {
+				values = new ArrayList<String>(1);
+				map.put(name, values);
+			}
+			values.add(parameters.getValue(i));
+		}
+	}
+	
 	/**
      * Get the query string that is contained in the request URL after
      * the path. This method returns <code>null</code> if the URL does not have a query string.
@@ -130,7 +130,10 @@ public enum HttpStatus {
     
     /** (HTTP/1.1 - RFC 2616) The request contained an expectation in the Expect request header that could not be satisfied by the server. */
     EXPECTATION_FAILED(417, "Expectation Failed"),
-    
+
+    /** (HTTP/1.1 - RFC 2817) The client should switch to a different protocol given in the Upgrade header. */
+    UPGRADE_REQUIRED(426, "Upgrade Required"),
+
 	
 	// ~ 5xx --------------------------------------------------------------------------------------- Server error
     
@@ -157,6 +160,9 @@ public enum HttpStatus {
 	// ~ ---------------------------------------------------------------------------------------------------------
 	
 	
+	private static final HttpStatus[] VALUES = values();
+	
+	
 	private final int    statusCode  ;
 	private final String reasonPhrase;
 	
@@ -174,4 +180,26 @@ public enum HttpStatus {
 		return reasonPhrase;
 	}
 	
+	/**
+	 * Returns the {@link HttpStatus} instance from the specified status code.
+	 * <p>
+	 * An unrecognized status code is treated as the <tt>x00</tt> status code of its class, as RFC 7231 section 6 requires,
+	 * e.g. 429 is treated as 400.
+	 * 
+	 * @param statusCode
+	 * @return The status, or <code>null</code> if the status code is out of range [100, 599]
+	 */
+	public static HttpStatus from(int statusCode) {
+		if (statusCode < 100 || statusCode > 599) {
+			return null;
+		}
+		
+		for (HttpStatus status : VALUES) {
+			if (status.statusCode == statusCode) {
+				return status;
+			}
+		}
+		return from(statusCode / 100 * 100);
+	}
+	
 }
@@ -22,7 +22,10 @@ public enum HttpVersion {
 	
 	HTTP_1_1("HTTP/1.1"), 
 	HTTP_1_0("HTTP/1.0"),
-	HTTP_0_9("HTTP/0.9");
+	HTTP_0_9("HTTP/0.9"),
+	
+	/** Version of messages carried by HTTP/2 streams, never parsed from an HTTP/1.x start line */
+	HTTP_2_0("HTTP/2.0");
 	
 	
 	private final String value;
@@ -0,0 +1,148 @@
+package io.craft.atom.protocol.http;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.ByteArrayBuffer;
+import io.craft.atom.util.GzipUtil;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link HttpContentInflater}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHttpContentInflater {
+
+
+	private HttpContentInflater inflater = new HttpContentInflater();
+	private byte[]              data     = data(100 * 1024);
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Test
+	public void testGzip() throws Exception {
+		byte[] gzip = GzipUtil.gzip(data);
+		for (int slice : new int[] { 1, 7, 1024, gzip.length }) {
+			Assert.assertTrue(Arrays.equals(data, inflate("gzip", gzip, slice)));
+		}
+
+		// concatenated members
+		byte[] twice = new ByteArrayBuffer(gzip).append(gzip).array();
+		byte[] expected = new ByteArrayBuffer(data).append(data).array();
+		Assert.assertTrue(Arrays.equals(expected, inflate("gzip", twice, 1000)));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test gzip. ", CaseCounter.incr(5)));
+	}
+
+	@Test
+	public void testDeflate() throws Exception {
+		byte[] zlib = deflate(data, false);
+		byte[] raw  = deflate(data, true);
+		for (int slice : new int[] { 1, 1024, zlib.length }) {
+			Assert.assertTrue(Arrays.equals(data, inflate("deflate", zlib, slice)));
+			Assert.assertTrue(Arrays.equals(data, inflate("deflate", raw , slice)));
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test deflate. ", CaseCounter.incr(6)));
+	}
+
+	@Test
+	public void testTruncated() throws Exception {
+		byte[] gzip = GzipUtil.gzip(data);
+		inflater.start("gzip");
+		inflater.inflate(Arrays.copyOf(gzip, gzip.length - 4));
+		try {
+			inflater.finish();
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getMessage().contains("truncated"));
+		}
+
+		// empty content is not truncated
+		inflater.start("gzip");
+		Assert.assertEquals(0, inflater.finish().length);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test truncated. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testRatioLimit() throws Exception {
+		byte[] bomb = GzipUtil.gzip(new byte[16 * 1024 * 1024]);
+		try {
+			inflate("gzip", bomb, 1024);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getMessage().contains("Ratio limit"));
+		}
+
+		// the inflater is still usable after a failure
+		Assert.assertTrue(Arrays.equals(data, inflate("gzip", GzipUtil.gzip(data), 1024)));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test ratio limit. ", CaseCounter.incr(2)));
+	}
+
+
+	@Test
+	public void testSizeLimit() throws Exception {
+		// 1MB of zeros is far below the ratio limit, only the size limit stops it
+		byte[] bomb = GzipUtil.gzip(new byte[1024 * 1024]);
+		inflater.setMaxRatio(10000);
+		inflater.setMaxSize(64 * 1024);
+		try {
+			inflate("gzip", bomb, 1024);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getMessage().contains("Max size limit"));
+		}
+
+		// content within the size limit
+		inflater.setMaxSize(data.length);
+		Assert.assertTrue(Arrays.equals(data, inflate("gzip", GzipUtil.gzip(data), 1024)));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test size limit. ", CaseCounter.incr(2)));
+	}
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private byte[] inflate(String coding, byte[] bytes, int slice) throws ProtocolException {
+		ByteArrayBuffer buf = new ByteArrayBuffer();
+		inflater.start(coding);
+		for (int off = 0; off < bytes.length; off += slice) {
+			buf.append(inflater.inflate(Arrays.copyOfRange(bytes, off, Math.min(bytes.length, off + slice))));
+		}
+		buf.append(inflater.finish());
+		return buf.array();
+	}
+
+	private static byte[] data(int length) {
+		// compressible but not trivial
+		byte[] data = new byte[length];
+		Random random = new Random(0);
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) ('a' + random.nextInt(4));
+		}
+		return data;
+	}
+
+	private static byte[] deflate(byte[] data, boolean nowrap) throws IOException {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+		deflater.setInput(data);
+		deflater.finish();
+		ByteArrayBuffer buf = new ByteArrayBuffer();
+		byte[] block = new byte[1024];
+		while (!deflater.finished()) {
+			int n = deflater.deflate(block);
+			buf.append(block, 0, n);
+		}
+		deflater.end();
+		return buf.array();
+	}
+
+}
@@ -6,6 +6,11 @@ import io.craft.atom.protocol.ProtocolException;
 import io.craft.atom.protocol.http.api.HttpCodecFactory;
 import io.craft.atom.test.CaseCounter;
 
+import io.craft.atom.protocol.http.model.HttpParameters;
+
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -39,4 +44,79 @@ public class TestHttpParameterDecoder {
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test parameter. ", CaseCounter.incr(1)));
 	}
 	
+	@Test
+	public void testDecodeParameters() throws ProtocolException {
+		Charset utf8 = Charset.forName("utf-8");
+		for (boolean lazy : new boolean[] { false, true }) {
+			HttpParameterDecoder hpd = HttpCodecFactory.newHttpParameterDecoder(utf8, 16, 64, lazy);
+			HttpParameters paras = hpd.decodeParameters("a=1+2&&b&c=&%E6%B5%8B=%E8%AF%95&d=\u00e9t\u00e9&a=%2B%26&e==x".getBytes(utf8));
+			Assert.assertEquals(7, paras.size());
+			Assert.assertEquals("1 2", paras.get("a"));
+			Assert.assertEquals(Arrays.asList("1 2", "+&"), paras.getAll("a"));
+			Assert.assertEquals("", paras.get("b"));
+			Assert.assertEquals("", paras.get("c"));
+			Assert.assertEquals("\u8bd5", paras.get("\u6d4b"));
+			Assert.assertEquals("\u00e9t\u00e9", paras.get("d"));
+			Assert.assertEquals("=x", paras.get("e"));
+			Assert.assertNull(paras.get("f"));
+			Assert.assertEquals("\u6d4b", paras.getName(3));
+			Assert.assertEquals(6, paras.toMap().size());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test decode parameters. ", CaseCounter.incr(20)));
+	}
+	
+	@Test
+	public void testInvalid() {
+		Charset utf8 = Charset.forName("utf-8");
+		HttpParameterDecoder hpd = HttpCodecFactory.newHttpParameterDecoder(utf8, 2, 8, true);
+		String[] invalids = { "a=%E6%B5%8", "a=%zz", "a=1&b=2&c=3", "a=123456789" };
+		for (String invalid : invalids) {
+			try {
+				hpd.decodeParameters(invalid.getBytes(utf8));
+				Assert.fail(invalid);
+			} catch (ProtocolException e) {
+				LOG.debug("[CRAFT-ATOM-PROTOCOL-HTTP] Expected exception, |e={}|", e.getMessage());
+			}
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test invalid parameter. ", CaseCounter.incr(invalids.length)));
+	}
+	
+	@Test
+	public void testPerformance() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			sb.append(i == 0 ? "" : "&").append("field").append(i).append("=value+").append(i).append("%20%E6%B5%8B%E8%AF%95");
+		}
+		byte[] bytes = sb.toString().getBytes("utf-8");
+		HttpParameterDecoder eager = new HttpParameterDecoder();
+		HttpParameterDecoder lazy  = HttpCodecFactory.newHttpParameterDecoder(Charset.forName("utf-8"), 1000, 8192, true);
+		int loop = 20000;
+		
+		long s = System.nanoTime();
+		for (int i = 0; i < loop; i++) {
+			for (String pair : new String(bytes, "utf-8").split("&")) {
+				int idx = pair.indexOf('=');
+				URLDecoder.decode(pair.substring(0, idx), "utf-8");
+				URLDecoder.decode(pair.substring(idx + 1), "utf-8");
+			}
+		}
+		long e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP] Decode parameters by string, |loop={}, elapse={}ms|", loop, (e - s) / 1000000);
+		
+		s = System.nanoTime();
+		for (int i = 0; i < loop; i++) {
+			eager.decodeParameters(bytes);
+		}
+		e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP] Decode parameters by bytes, |loop={}, elapse={}ms|", loop, (e - s) / 1000000);
+		
+		s = System.nanoTime();
+		for (int i = 0; i < loop; i++) {
+			lazy.decodeParameters(bytes).get("field49");
+		}
+		e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP] Decode parameters lazily and get one, |loop={}, elapse={}ms|", loop, (e - s) / 1000000);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test performance. ", CaseCounter.incr(1)));
+	}
+	
 }
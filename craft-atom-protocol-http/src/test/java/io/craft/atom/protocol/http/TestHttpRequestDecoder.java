@@ -4,12 +4,19 @@ import io.craft.atom.protocol.ProtocolDecoder;
 import io.craft.atom.protocol.ProtocolEncoder;
 import io.craft.atom.protocol.ProtocolException;
 import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.api.HttpEntityHandler;
+import io.craft.atom.protocol.http.model.HttpChunkEntity;
 import io.craft.atom.protocol.http.model.HttpCookie;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
 import io.craft.atom.protocol.http.model.HttpRequest;
 import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.ByteArrayBuffer;
+import io.craft.atom.util.GzipUtil;
 import io.craft.atom.util.StringUtil;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -109,8 +116,8 @@ public class TestHttpRequestDecoder {
 	@Test 
 	public void testStreamingRequestWithoutEntityInRandomLoop() throws ProtocolException {
 		String req = "GET /s?wd=java+jdk7&rsv_bp=0&inputT=14326 HTTP/1.1\r\nHost: www.baidu.com\r\nUser-Agent: Mozilla/5.0 (Windows NT 6.1; rv:5.0) Gecko/20100101 Firefox/5.0\r\nAccept: text/html,application/xhtml+xml,\r\n\tapplication/xml;q=0.9,*/*;q=0.8\r\nAccept-Language: zh-cn,zh;q=0.5\r\nAccept-Encoding: gzip, deflate\r\nAccept-Charset: GB2312,utf-8;q=0.7,*;q=0.7\r\nConnection: keep-alive\r\nReferer: http://www.baidu.com/\r\nCookie: BAIDUID=34C25418C0B70D93E53A8E1CB8CB150F:FG=1\r\n\r\n";	
-		testInRandomLoop(req, 100, false);
-		testInRandomLoop(req, 1, true);
+		testInRandomLoop(decoder, req, 100, false);
+		testInRandomLoop(decoder, req, 1, true);
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test streaming request without entity in random loop. ", CaseCounter.incr(2)));
 	}
 	
@@ -126,32 +133,26 @@ public class TestHttpRequestDecoder {
 
 	public void testStreamingRequestWithFixLengthEntity() throws ProtocolException {
 		String req = "\r\nPOST /craft/webservice/helloWS HTTP/1.1\r\nContent-Type: text/xml; charset=UTF-8\r\nAccept: */*\r\nSOAPAction: \"\"\r\nUser-Agent: Apache CXF 2.4.0\r\nCache-Control: no-cache\r\nPragma: no-cache\r\nHost: localhost:9999\r\nConnection: keep-alive\r\nContent-Length: 194\r\n\r\n<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body><ns2:sayHi xmlns:ns2=\"http://craft.org\"><ns2:text>How are you?</ns2:text></ns2:sayHi></soap:Body></soap:Envelope>";
-		testInRandomLoop(req, 100, false);
-		testInRandomLoop(req, 1, true);
+		testInRandomLoop(decoder, req, 100, false);
+		testInRandomLoop(decoder, req, 1, true);
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test streaming request with fix length entity. ", CaseCounter.incr(2)));
 	}
 	
 	@Test 
 	public void testStreamingRequestWithChunkedEntity() throws ProtocolException {
-		String req = "POST /craft/webservice/helloWS HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTrailer: Content-MD5\r\nContent-Type: text/xml; charset=UTF-8\r\n\r\n24;extname=extvalue;aaa=bbb;kkk\r\nThis is the data in the first chunk \r\n1A\r\nand this is the second one\r\n0\r\nContent-MD5: gjqesdflj12dsfsf12\r\n";
-		testInRandomLoop(req, 100, false);
-		testInRandomLoop(req, 1, true);
+		streamingRequestWithChunkedEntity(decoder);
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test streaming request with chunked entity. ", CaseCounter.incr(2)));
 	}
 	
 	@Test 
 	public void testStreamingRequestWithChineseUrlAndEntity() throws ProtocolException {
-		String req = "POST /测试/s?in=测试 HTTP/1.1\r\nHost: www.baidu.com\r\nContent-Length: 34\r\nUser-Agent: Mozilla/5.0 (Windows NT 6.1; rv:5.0) Gecko/20100101 Firefox/5.0\r\nAccept: text/html,application/xhtml+xml,\r\n\tapplication/xml;q=0.9,*/*;q=0.8\r\nAccept-Language: zh-cn,zh;q=0.5\r\nAccept-Encoding: gzip, deflate\r\nAccept-Charset: GB2312,utf-8;q=0.7,*;q=0.7\r\nConnection: keep-alive\r\nReferer: http://www.baidu.com/\r\nCookie: BAIDUID=34C25418C0B70D93E53A8E1CB8CB150F:FG=1\r\n\r\ntest这是一个中文字符测试";
-		testInRandomLoop(req, 100, false);
-		testInRandomLoop(req, 1, true);
+		streamingRequestWithChineseUrlAndEntity(decoder);
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test streaming request with chinese url and entity. ", CaseCounter.incr(2)));
 	}
 	
 	@Test 
 	public void testForFoldedHeader() throws ProtocolException {
-		String req = "POST /craft/webservice/helloWS HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTrailer: Content-MD5\r\nContent-Type: text/xml;\r\n \t charset=UTF-8\r\n\r\n24;extname=extvalue;aaa=bbb;kkk\r\nThis is the data in the first chunk \r\n1A\r\nand this is the second one\r\n0\r\nContent-MD5: gjqesdflj12dsfsf12\r\n";
-		testInRandomLoop(req, 100, false);
-		testInRandomLoop(req, 1, true);
+		foldedHeader(decoder);
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test for folded header. ", CaseCounter.incr(2)));
 	}
 	
@@ -171,7 +172,234 @@ public class TestHttpRequestDecoder {
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test one request with cookie. ", CaseCounter.incr(2)));
 	}
 	
-	private void testInRandomLoop(String req, int loop, boolean onebyte) throws ProtocolException {
+	@Test
+	public void testLazyHeader() throws ProtocolException {
+		for (HttpHeaderType type : HttpHeaderType.values()) {
+			Assert.assertEquals(type, HttpHeaderType.from(type.getName().toLowerCase()));
+			byte[] bytes = type.getName().toUpperCase().getBytes(charset);
+			Assert.assertEquals(type, HttpHeaderType.from(bytes, 0, bytes.length));
+		}
+		Assert.assertNull(HttpHeaderType.from("X-Request-Id"));
+		
+		ProtocolDecoder<HttpRequest> eager = HttpCodecFactory.newHttpRequestDecoder();
+		ProtocolDecoder<HttpRequest> lazy  = HttpCodecFactory.newHttpRequestDecoderBuilder().lazyHeader(true).build();
+		String req = "GET /s?wd=java+jdk7&rsv_bp=0&inputT=14326 HTTP/1.1\r\nHost: www.baidu.com\r\nUser-Agent: Mozilla/5.0 (Windows NT 6.1; rv:5.0) Gecko/20100101 Firefox/5.0\r\nAccept-Language: zh-cn,zh;q=0.5\r\nX-Request-Id: 10.0.0.1\r\nCookie: SID=31d4d96e407aad42\r\nCookie: lang=en-US\r\n\r\n";
+		HttpRequest lazyRequest  = lazy.decode(req.getBytes(charset)).get(0);
+		HttpRequest eagerRequest = eager.decode(req.getBytes(charset)).get(0);
+		Assert.assertNotNull(lazyRequest.getLazyHeaders());
+		Assert.assertEquals("www.baidu.com", lazyRequest.getFirstHeader("host").getValue());
+		Assert.assertSame(HttpHeaderType.HOST.getName(), lazyRequest.getFirstHeader("Host").getName());
+		Assert.assertEquals("10.0.0.1", lazyRequest.getFirstHeader("x-request-id").getValue());
+		Assert.assertEquals(2, lazyRequest.getCookies().size());
+		Assert.assertEquals(new String(encoder.encode(eagerRequest), charset), new String(encoder.encode(lazyRequest), charset));
+		
+		streamingRequestWithChunkedEntity(lazy);
+		streamingRequestWithChineseUrlAndEntity(lazy);
+		foldedHeader(lazy);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test lazy header. ", CaseCounter.incr(8)));
+	}
+	
+	@Test
+	public void testLazyHeaderPerformance() throws ProtocolException {
+		String req = "GET /s?wd=java+jdk7&rsv_bp=0&inputT=14326 HTTP/1.1\r\nHost: www.baidu.com\r\nConnection: keep-alive\r\nCache-Control: max-age=0\r\nUpgrade-Insecure-Requests: 1\r\nUser-Agent: Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/58.0.3029.110 Safari/537.36\r\nAccept: text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8\r\nReferer: http://www.baidu.com/\r\nAccept-Encoding: gzip, deflate, sdch, br\r\nAccept-Language: zh-CN,zh;q=0.8,en;q=0.6\r\nCookie: BAIDUID=34C25418C0B70D93E53A8E1CB8CB150F:FG=1; BIDUPSID=34C25418C0B70D93E53A8E1CB8CB150F; PSTM=1494816612\r\n\r\n";
+		byte[] bytes = req.getBytes(charset);
+		ProtocolDecoder<HttpRequest> eager = HttpCodecFactory.newHttpRequestDecoder();
+		ProtocolDecoder<HttpRequest> lazy  = HttpCodecFactory.newHttpRequestDecoderBuilder().lazyHeader(true).build();
+		int loop = 20000;
+		
+		// warm up
+		decodeInLoop(eager, bytes, loop);
+		decodeInLoop(lazy , bytes, loop);
+		
+		long s = System.nanoTime();
+		decodeInLoop(eager, bytes, loop);
+		long eagerElapse = System.nanoTime() - s;
+		
+		s = System.nanoTime();
+		decodeInLoop(lazy, bytes, loop);
+		long lazyElapse = System.nanoTime() - s;
+		
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP] Test eager header decode elapse={} ns/op", eagerElapse / loop);
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP] Test lazy  header decode elapse={} ns/op", lazyElapse  / loop);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test lazy header performance. ", CaseCounter.incr(1)));
+	}
+	
+	@Test
+	public void testStreamingEntity() throws ProtocolException {
+		String data = "This is the data in the first chunk \r\nand this is the second one";
+		String req  = "POST /craft/webservice/helloWS HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTrailer: Content-MD5\r\nContent-Type: text/xml; charset=UTF-8\r\n\r\n26;extname=extvalue\r\nThis is the data in the first chunk \r\n\r\n1A\r\nand this is the second one\r\n0\r\nContent-MD5: gjqesdflj12dsfsf12\r\n";
+		for (int i = 1; i <= req.length(); i++) {
+			RecordingEntityHandler handler = new RecordingEntityHandler();
+			ProtocolDecoder<HttpRequest> streaming = HttpCodecFactory.newHttpRequestDecoderBuilder().entityHandler(handler).build();
+			List<HttpRequest> reqs = null;
+			for (String str : StringUtil.split(req, i)) {
+				reqs = streaming.decode(str.getBytes(charset));
+			}
+			
+			Assert.assertEquals(1, reqs.size());
+			Assert.assertEquals(1, handler.started);
+			Assert.assertEquals(1, handler.completed);
+			Assert.assertEquals(data, new String(handler.content.array(), charset));
+			HttpChunkEntity entity = (HttpChunkEntity) reqs.get(0).getEntity();
+			Assert.assertTrue(entity.getChunks().isEmpty());
+			Assert.assertEquals("gjqesdflj12dsfsf12", entity.getTrailers().get("Content-MD5").getValue());
+		}
+		
+		// a big content length entity does not enlarge decoder buffer
+		RecordingEntityHandler handler = new RecordingEntityHandler();
+		HttpRequestDecoder streaming = (HttpRequestDecoder) HttpCodecFactory.newHttpRequestDecoderBuilder().maxRequestSize(64 * 1024).entityHandler(handler).build();
+		int length = 4 * 1024 * 1024;
+		streaming.decode(("PUT /upload HTTP/1.1\r\nContent-Length: " + length + "\r\n\r\n").getBytes(charset));
+		byte[] slice = new byte[8192];
+		Arrays.fill(slice, (byte) 'a');
+		for (int i = 0; i < length / slice.length; i++) {
+			List<HttpRequest> reqs = streaming.decode(slice);
+			Assert.assertTrue(streaming.footprint() <= 16 * 1024);
+			Assert.assertEquals(i == length / slice.length - 1 ? 1 : 0, reqs.size());
+		}
+		Assert.assertEquals(length, handler.content.length());
+		Assert.assertEquals(1, handler.completed);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test streaming entity. ", CaseCounter.incr(req.length() * 6 + 2)));
+	}
+	
+	@Test
+	public void testStreamingChunkedEntityAtEverySplitPoint() throws ProtocolException {
+		// cut at any two points, including right after the data of a chunk and inside its CRLF, a pipelined request follows
+		String data = "helloabcx";
+		String req  = "POST /chunked HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n5\r\nhello\r\n3;ext=v\r\nabc\r\n1\r\nx\r\n0\r\n\r\n"
+		            + "POST /length HTTP/1.1\r\nContent-Length: 2\r\n\r\nyz";
+		byte[] bytes = req.getBytes(charset);
+		for (int i = 0; i <= bytes.length; i++) {
+			for (int j = i; j <= bytes.length; j++) {
+				RecordingEntityHandler handler = new RecordingEntityHandler();
+				ProtocolDecoder<HttpRequest> streaming = HttpCodecFactory.newHttpRequestDecoderBuilder().entityHandler(handler).build();
+				int n = 0;
+				n += streaming.decode(Arrays.copyOfRange(bytes, 0, i)).size();
+				n += streaming.decode(Arrays.copyOfRange(bytes, i, j)).size();
+				n += streaming.decode(Arrays.copyOfRange(bytes, j, bytes.length)).size();
+				Assert.assertEquals(2, n);
+				Assert.assertEquals(2, handler.completed);
+				Assert.assertEquals(data + "yz", new String(handler.content.array(), charset));
+			}
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test streaming chunked entity at every split point. ", CaseCounter.incr(3)));
+	}
+	
+	@Test
+	public void testGzipEntity() throws ProtocolException, IOException {
+		String data = "This is the data in the first chunk, and this is the second one";
+		byte[] gzip = GzipUtil.gzip(data.getBytes(charset));
+		ByteArrayBuffer req = new ByteArrayBuffer();
+		req.append(("POST /gzip HTTP/1.1\r\nContent-Encoding: gzip\r\nTransfer-Encoding: chunked\r\n\r\n" + Integer.toHexString(10) + "\r\n").getBytes(charset));
+		req.append(gzip, 0, 10).append("\r\n".getBytes(charset));
+		req.append((Integer.toHexString(gzip.length - 10) + "\r\n").getBytes(charset));
+		req.append(gzip, 10, gzip.length - 10).append("\r\n0\r\n\r\n".getBytes(charset));
+		req.append(("POST /gzip HTTP/1.1\r\nContent-Encoding: gzip\r\nContent-Length: " + gzip.length + "\r\n\r\n").getBytes(charset));
+		req.append(gzip);
+		byte[] bytes = req.array();
+		
+		// aggregated
+		List<HttpRequest> reqs = decoder.decode(bytes);
+		Assert.assertEquals(2, reqs.size());
+		Assert.assertEquals(data, new String(reqs.get(0).getEntity().getContent(), charset));
+		Assert.assertEquals(data, new String(reqs.get(1).getEntity().getContent(), charset));
+		
+		// streaming, byte by byte
+		RecordingEntityHandler handler = new RecordingEntityHandler();
+		ProtocolDecoder<HttpRequest> streaming = HttpCodecFactory.newHttpRequestDecoderBuilder().entityHandler(handler).build();
+		int n = 0;
+		for (byte b : bytes) {
+			n += streaming.decode(new byte[] { b }).size();
+		}
+		Assert.assertEquals(2, n);
+		Assert.assertEquals(2, handler.completed);
+		Assert.assertEquals(data + data, new String(handler.content.array(), charset));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test gzip entity. ", CaseCounter.incr(7)));
+	}
+	
+	@Test
+	public void testGzipEntitySizeLimit() throws ProtocolException, IOException {
+		// highly compressible, far below the ratio limit but inflated over the max request size
+		byte[] gzip = GzipUtil.gzip(new byte[1024 * 1024]);
+		ByteArrayBuffer req = new ByteArrayBuffer();
+		req.append(("POST /gzip HTTP/1.1\r\nContent-Encoding: gzip\r\nContent-Length: " + gzip.length + "\r\n\r\n").getBytes(charset));
+		req.append(gzip);
+		byte[] bytes = req.array();
+		
+		// aggregated, the inflated size defaults to the max request size
+		ProtocolDecoder<HttpRequest> aggregated = HttpCodecFactory.newHttpRequestDecoderBuilder().maxRequestSize(64 * 1024).maxInflateRatio(10000).build();
+		try {
+			aggregated.decode(bytes);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getMessage().contains("Max size limit"));
+		}
+		
+		// streaming, with an explicit inflated size
+		RecordingEntityHandler handler = new RecordingEntityHandler();
+		ProtocolDecoder<HttpRequest> streaming = HttpCodecFactory.newHttpRequestDecoderBuilder().maxInflateRatio(10000).maxInflateSize(64 * 1024).entityHandler(handler).build();
+		try {
+			streaming.decode(bytes);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getMessage().contains("Max size limit"));
+		}
+		Assert.assertTrue(handler.content.length() <= 64 * 1024);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test gzip entity size limit. ", CaseCounter.incr(3)));
+	}
+	
+	private static class RecordingEntityHandler implements HttpEntityHandler<HttpRequest> {
+		
+		private int             started                        ;
+		private int             completed                      ;
+		private ByteArrayBuffer content   = new ByteArrayBuffer();
+		
+		@Override
+		public void entityStarted(HttpRequest request) {
+			started++;
+		}
+
+		@Override
+		public void entityRead(HttpRequest request, byte[] bytes) {
+			content.append(bytes);
+		}
+
+		@Override
+		public void entityCompleted(HttpRequest request) {
+			completed++;
+		}
+	}
+	
+	private void decodeInLoop(ProtocolDecoder<HttpRequest> decoder, byte[] bytes, int loop) throws ProtocolException {
+		for (int i = 0; i < loop; i++) {
+			HttpRequest request = decoder.decode(bytes).get(0);
+			
+			// a proxy reads only a few headers
+			request.getFirstHeader(HttpHeaderType.HOST.getName());
+			request.getFirstHeader(HttpHeaderType.CONNECTION.getName());
+			request.getFirstHeader(HttpHeaderType.CONTENT_LENGTH.getName());
+		}
+	}
+	
+	private void streamingRequestWithChunkedEntity(ProtocolDecoder<HttpRequest> decoder) throws ProtocolException {
+		String req = "POST /craft/webservice/helloWS HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTrailer: Content-MD5\r\nContent-Type: text/xml; charset=UTF-8\r\n\r\n24;extname=extvalue;aaa=bbb;kkk\r\nThis is the data in the first chunk \r\n1A\r\nand this is the second one\r\n0\r\nContent-MD5: gjqesdflj12dsfsf12\r\n";
+		testInRandomLoop(decoder, req, 100, false);
+		testInRandomLoop(decoder, req, 1, true);
+	}
+	
+	private void streamingRequestWithChineseUrlAndEntity(ProtocolDecoder<HttpRequest> decoder) throws ProtocolException {
+		String req = "POST /测试/s?in=测试 HTTP/1.1\r\nHost: www.baidu.com\r\nContent-Length: 34\r\nUser-Agent: Mozilla/5.0 (Windows NT 6.1; rv:5.0) Gecko/20100101 Firefox/5.0\r\nAccept: text/html,application/xhtml+xml,\r\n\tapplication/xml;q=0.9,*/*;q=0.8\r\nAccept-Language: zh-cn,zh;q=0.5\r\nAccept-Encoding: gzip, deflate\r\nAccept-Charset: GB2312,utf-8;q=0.7,*;q=0.7\r\nConnection: keep-alive\r\nReferer: http://www.baidu.com/\r\nCookie: BAIDUID=34C25418C0B70D93E53A8E1CB8CB150F:FG=1\r\n\r\ntest这是一个中文字符测试";
+		testInRandomLoop(decoder, req, 100, false);
+		testInRandomLoop(decoder, req, 1, true);
+	}
+	
+	private void foldedHeader(ProtocolDecoder<HttpRequest> decoder) throws ProtocolException {
+		String req = "POST /craft/webservice/helloWS HTTP/1.1\r\nTransfer-Encoding: chunked\r\nTrailer: Content-MD5\r\nContent-Type: text/xml;\r\n \t charset=UTF-8\r\n\r\n24;extname=extvalue;aaa=bbb;kkk\r\nThis is the data in the first chunk \r\n1A\r\nand this is the second one\r\n0\r\nContent-MD5: gjqesdflj12dsfsf12\r\n";
+		testInRandomLoop(decoder, req, 100, false);
+		testInRandomLoop(decoder, req, 1, true);
+	}
+	
+	private void testInRandomLoop(ProtocolDecoder<HttpRequest> decoder, String req, int loop, boolean onebyte) throws ProtocolException {
 		for (int i = 0; i < loop; i++) {
 			int num = new Random().nextInt(req.length() + 1);
 			String[] sarr = null;
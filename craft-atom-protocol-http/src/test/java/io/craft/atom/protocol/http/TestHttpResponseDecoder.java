@@ -0,0 +1,121 @@
+package io.craft.atom.protocol.http;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.model.HttpChunkEntity;
+import io.craft.atom.protocol.http.model.HttpMethod;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpVersion;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.StringUtil;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link HttpResponseDecoder}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHttpResponseDecoder {
+
+
+	private static final Charset UTF_8 = Charset.forName("utf-8");
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Test
+	public void testContentLength() throws ProtocolException {
+		String res = "HTTP/1.1 200 OK\r\nContent-Type: text/plain; charset=utf-8\r\nContent-Length: 11\r\n\r\nhello world";
+		for (int i = 1; i <= res.length(); i++) {
+			List<HttpResponse> list = decode(HttpCodecFactory.newHttpResponseDecoder(), res, i);
+			Assert.assertEquals(1, list.size());
+			HttpResponse response = list.get(0);
+			Assert.assertEquals(HttpVersion.HTTP_1_1, response.getStatusLine().getVersion());
+			Assert.assertEquals(HttpStatus.OK, response.getStatusLine().getStatus());
+			Assert.assertEquals("hello world", response.getEntity().getContentAsString());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test content length. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testChunked() throws ProtocolException {
+		String res = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n5\r\nhello\r\n6\r\n world\r\n0\r\n\r\n";
+		for (int i = 1; i <= res.length(); i++) {
+			List<HttpResponse> list = decode(HttpCodecFactory.newHttpResponseDecoder(), res, i);
+			Assert.assertEquals(1, list.size());
+			Assert.assertTrue(list.get(0).getEntity() instanceof HttpChunkEntity);
+			Assert.assertEquals("hello world", new String(list.get(0).getEntity().getContent(), UTF_8));
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test chunked. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testPipelined() throws ProtocolException {
+		String res = "HTTP/1.1 100 Continue\r\n\r\n"
+		           + "HTTP/1.1 200 OK\r\nContent-Length: 1\r\n\r\na"
+		           + "HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\n"
+		           + "HTTP/1.1 204 No Content\r\n\r\n"
+		           + "HTTP/1.1 429\r\nContent-Length: 0\r\n\r\n"
+		           + "HTTP/1.0 304 Not Modified\r\nContent-Length: 5\r\n\r\n";
+		for (int i = 1; i <= res.length(); i++) {
+			HttpResponseDecoder decoder = (HttpResponseDecoder) HttpCodecFactory.newHttpResponseDecoder();
+			decoder.requestSent(HttpMethod.POST);
+			decoder.requestSent(HttpMethod.HEAD);
+			decoder.requestSent(HttpMethod.DELETE);
+			decoder.requestSent(HttpMethod.GET);
+			decoder.requestSent(HttpMethod.GET);
+			List<HttpResponse> list = decode(decoder, res, i);
+			Assert.assertEquals(6, list.size());
+			Assert.assertEquals(HttpStatus.CONTINUE, list.get(0).getStatusLine().getStatus());
+			Assert.assertEquals("a", list.get(1).getEntity().getContentAsString());
+			Assert.assertNull(list.get(2).getEntity());
+			Assert.assertEquals(HttpStatus.NO_CONTENT, list.get(3).getStatusLine().getStatus());
+			Assert.assertEquals(HttpStatus.BAD_REQUEST, list.get(4).getStatusLine().getStatus());
+			Assert.assertEquals(0, list.get(4).getEntity().getContent().length);
+			Assert.assertEquals(HttpVersion.HTTP_1_0, list.get(5).getStatusLine().getVersion());
+			Assert.assertNull(list.get(5).getEntity());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test pipelined. ", CaseCounter.incr(8)));
+	}
+
+	@Test
+	public void testInvalid() {
+		try {
+			HttpCodecFactory.newHttpResponseDecoder().decode("HTTP/1.1 abc OK\r\n\r\n".getBytes(UTF_8));
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getMessage().contains("invalid status code"));
+		}
+		try {
+			HttpCodecFactory.newHttpResponseDecoder().decode("HTTP/1.0 200 OK\r\nConnection: close\r\n\r\nbody".getBytes(UTF_8));
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getMessage().contains("unsupported"));
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test invalid. ", CaseCounter.incr(2)));
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private List<HttpResponse> decode(ProtocolDecoder<HttpResponse> decoder, String res, int slice) throws ProtocolException {
+		List<HttpResponse> list = new ArrayList<HttpResponse>();
+		for (String str : StringUtil.split(res, slice)) {
+			list.addAll(decoder.decode(str.getBytes(UTF_8)));
+		}
+		return list;
+	}
+
+}
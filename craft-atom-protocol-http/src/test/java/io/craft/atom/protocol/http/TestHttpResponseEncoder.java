@@ -0,0 +1,155 @@
+package io.craft.atom.protocol.http;
+
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.model.HttpChunk;
+import io.craft.atom.protocol.http.model.HttpChunkEntity;
+import io.craft.atom.protocol.http.model.HttpContentType;
+import io.craft.atom.protocol.http.model.HttpEntity;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpStatusLine;
+import io.craft.atom.protocol.http.model.HttpVersion;
+import io.craft.atom.protocol.http.model.MimeType;
+import io.craft.atom.test.CaseCounter;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link HttpResponseEncoder}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHttpResponseEncoder {
+
+
+	private static final Logger  LOG   = LoggerFactory.getLogger(TestHttpResponseEncoder.class);
+	private static final Charset UTF_8 = Charset.forName("utf-8")                              ;
+
+
+	private ProtocolEncoder<HttpResponse> encoder = HttpCodecFactory.newHttpResponseEncoder();
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Test
+	public void testEncode() throws ProtocolException {
+		// same bytes as the string form for text response
+		HttpResponse res = json();
+		res.addHeader(new HttpHeader("X-Custom", "valüe"));
+		Assert.assertTrue(Arrays.equals(res.toHttpString(UTF_8).getBytes(UTF_8), encoder.encode(res)));
+
+		// non US-ASCII reason phrase
+		res.setStatusLine(new HttpStatusLine(HttpVersion.HTTP_1_0, HttpStatus.ACCEPTED));
+		Assert.assertTrue(Arrays.equals(res.toHttpString(UTF_8).getBytes(UTF_8), encoder.encode(res)));
+
+		// chunked entity
+		HttpChunkEntity chunked = new HttpChunkEntity();
+		HttpChunk chunk = new HttpChunk(5, "hello".getBytes(UTF_8));
+		chunk.addExtension("ext", "value");
+		chunked.addChunk(chunk);
+		chunked.addChunk(new HttpChunk(0, new byte[0]));
+		chunked.addTrailer(new HttpHeader("Content-MD5", "gjqesdflj12dsfsf12"));
+		res = new HttpResponse();
+		res.setStatusLine(new HttpStatusLine(HttpVersion.HTTP_1_1, HttpStatus.OK));
+		res.addHeader(new HttpHeader("Transfer-Encoding", "chunked"));
+		res.setEntity(chunked);
+		Assert.assertTrue(Arrays.equals(res.toHttpString(UTF_8).getBytes(UTF_8), encoder.encode(res)));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test encode. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testBinaryEntity() throws ProtocolException {
+		byte[] content = new byte[256];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		HttpResponse res = new HttpResponse();
+		res.setStatusLine(new HttpStatusLine(HttpVersion.HTTP_1_1, HttpStatus.OK));
+		res.addHeader(HttpHeaders.newContentLengthHeader(content.length));
+		res.setEntity(new HttpEntity(content));
+		byte[] bytes = encoder.encode(res);
+		Assert.assertTrue(Arrays.equals(content, Arrays.copyOfRange(bytes, bytes.length - content.length, bytes.length)));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test binary entity. ", CaseCounter.incr(1)));
+	}
+
+	@Test
+	public void testCurrentDate() {
+		// retry if the cached date rolls over to next second in between
+		String date;
+		byte[] bytes;
+		do {
+			date  = HttpDates.formatCurrentDate();
+			bytes = HttpDates.currentDateBytes(date);
+		} while (bytes == null);
+		Assert.assertEquals(date, new String(bytes, UTF_8));
+		Assert.assertNull(HttpDates.currentDateBytes(new String(date)));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test current date. ", CaseCounter.incr(3)));
+	}
+
+	/**
+	 * Throughput of small json responses, string encoding versus byte level encoding.
+	 */
+	@Test
+	public void testPerformance() throws ProtocolException {
+		int loop = 200000;
+		HttpResponse res = json();
+
+		// warm up
+		encodeStringInLoop(res, loop);
+		encodeInLoop(res, loop);
+
+		long s = System.nanoTime();
+		encodeStringInLoop(res, loop);
+		long stringElapse = System.nanoTime() - s;
+
+		s = System.nanoTime();
+		encodeInLoop(res, loop);
+		long byteElapse = System.nanoTime() - s;
+
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP] Test string response encode elapse={} ns/op, tps={}", stringElapse / loop, loop * 1000000000L / stringElapse);
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP] Test byte   response encode elapse={} ns/op, tps={}", byteElapse   / loop, loop * 1000000000L / byteElapse  );
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP] (^_^)  <%s>  Case -> test response encode performance. ", CaseCounter.incr(1)));
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private HttpResponse json() {
+		byte[] content = "{\"id\":12345,\"name\":\"craft-atom\",\"tags\":[\"nio\",\"http\"],\"ok\":true}".getBytes(UTF_8);
+		HttpResponse res = new HttpResponse();
+		res.setStatusLine(new HttpStatusLine(HttpVersion.HTTP_1_1, HttpStatus.OK));
+		res.addHeader(HttpHeaders.newServerHeader("craft-atom"));
+		res.addHeader(HttpHeaders.newContentTypeHeader(new HttpContentType(MimeType.APPLICATION_JSON, UTF_8)));
+		res.addHeader(HttpHeaders.newContentLengthHeader(content.length));
+		res.addHeader(HttpHeaders.newConnectionHeader(true));
+		res.addHeader(HttpHeaders.newDateHeader());
+		res.setEntity(new HttpEntity(content));
+		return res;
+	}
+
+	private void encodeStringInLoop(HttpResponse res, int loop) {
+		for (int i = 0; i < loop; i++) {
+			res.toHttpString(UTF_8).getBytes(UTF_8);
+		}
+	}
+
+	private void encodeInLoop(HttpResponse res, int loop) throws ProtocolException {
+		for (int i = 0; i < loop; i++) {
+			encoder.encode(res);
+		}
+	}
+
+}
@@ -0,0 +1,835 @@
+package io.craft.atom.protocol.http2;
+
+import static io.craft.atom.protocol.http2.model.Http2Frame.FLAG_ACK;
+import static io.craft.atom.protocol.http2.model.Http2Frame.FLAG_END_HEADERS;
+import static io.craft.atom.protocol.http2.model.Http2Frame.FLAG_END_STREAM;
+import static io.craft.atom.protocol.http2.model.Http2Frame.FLAG_PADDED;
+import static io.craft.atom.protocol.http2.model.Http2Frame.FLAG_PRIORITY;
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.model.HttpEntity;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
+import io.craft.atom.protocol.http.model.HttpMessage;
+import io.craft.atom.protocol.http.model.HttpMethod;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpRequestLine;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpStatusLine;
+import io.craft.atom.protocol.http.model.HttpVersion;
+import io.craft.atom.protocol.http2.hpack.HpackDecoder;
+import io.craft.atom.protocol.http2.hpack.HpackEncoder;
+import io.craft.atom.protocol.http2.model.Http2ErrorCode;
+import io.craft.atom.protocol.http2.model.Http2Frame;
+import io.craft.atom.protocol.http2.model.Http2FrameType;
+import io.craft.atom.protocol.http2.model.Http2Message;
+import io.craft.atom.protocol.http2.model.Http2Settings;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An HTTP/2 connection endpoint, multiplexes concurrent request and response exchanges over one transport connection.
+ * <p>
+ * The connection is transport agnostic: inbound bytes are fed to {@link #decode(byte[])}, which returns the completed messages,
+ * outbound bytes are produced by {@link #request(HttpRequest)}, {@link #respond(int, HttpResponse)} and frame handling,
+ * and are taken by {@link #flush()} to be written to the transport.
+ * <p>
+ * Flow control follows RFC 7540 section 5.2. Outbound DATA is bounded by the connection and stream send windows,
+ * the rest is kept on the stream and sent when WINDOW_UPDATE arrives.
+ * Inbound DATA is buffered into the message, and the windows are replenished once half is consumed.
+ * <p>
+ * A stream error resets only the stream, a connection error sends GOAWAY and is thrown as {@link Http2Exception}.
+ * Server push is not supported, the client disables it in its settings.
+ * <br>
+ * Thread safe, all methods synchronize on the connection.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "client", "streams", "sendWindow", "recvWindow", "goAwaySent", "goAwayReceived" })
+public class Http2Connection implements ProtocolDecoder<Http2Message> {
+
+
+	private static final Logger      LOG                 = LoggerFactory.getLogger(Http2Connection.class);
+	private static final Set<String> CONNECTION_SPECIFIC = new HashSet<String>(Arrays.asList("connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade", "host"));
+
+
+	@Getter         private final boolean                   client                                                 ;
+	@Getter         private final Http2Settings             localSettings                                          ;
+	@Getter         private final Http2Settings             remoteSettings = new Http2Settings()                   ;
+	                private final Http2FrameDecoder         frameDecoder                                           ;
+	                private final HpackDecoder              hpackDecoder                                           ;
+	                private final HpackEncoder              hpackEncoder                                           ;
+	                private final Map<Integer, Http2Stream> streams        = new HashMap<Integer, Http2Stream>()   ;
+	                private final Set<Http2Stream>          blocked        = new LinkedHashSet<Http2Stream>()      ;
+	                private final ByteArrayBuffer           out            = new ByteArrayBuffer(4096)             ;
+	@Getter @Setter private       int                       maxContentLength = 8 * 1024 * 1024                     ;
+	@Getter         private       int                       sendWindow     = Http2Settings.DEFAULT_WINDOW_SIZE     ;
+	@Getter         private       int                       recvWindow     = Http2Settings.DEFAULT_WINDOW_SIZE     ;
+	                private       int                       recvConsumed                                           ;
+	                private       int                       nextStreamId                                           ;
+	                private       int                       lastRemoteStreamId                                     ;
+	                private       int                       remoteStreams                                          ;
+	                private       int                       localStreams                                           ;
+	                private       int                       headerStreamId                                         ;
+	                private       boolean                   headerEndStream                                        ;
+	                private       ByteArrayBuffer           headerBlock                                            ;
+	@Getter         private       boolean                   goAwaySent                                             ;
+	@Getter         private       boolean                   goAwayReceived                                         ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * The local settings are sent with the connection preface, so {@link #flush()} should be invoked after the connection is created.
+	 *
+	 * @param client        <tt>true</tt> on the client side
+	 * @param localSettings settings of this endpoint
+	 */
+	public Http2Connection(boolean client, Http2Settings localSettings) {
+		this.client        = client;
+		this.localSettings = new Http2Settings(localSettings);
+		if (client) {
+			this.localSettings.setEnablePush(false);
+		}
+		this.nextStreamId = client ? 1 : 2;
+		this.frameDecoder = new Http2FrameDecoder(!client, this.localSettings.getMaxFrameSize(), 2048);
+		this.hpackDecoder = new HpackDecoder(this.localSettings.getHeaderTableSize(), this.localSettings.getMaxHeaderListSize());
+		this.hpackEncoder = new HpackEncoder(4096);
+
+		if (client) {
+			out.append(Http2FrameDecoder.PREFACE);
+		}
+		writeFrame(Http2FrameType.SETTINGS, 0, 0, this.localSettings.toPayload());
+
+		// the connection window is not changed by settings, enlarge it to the stream window
+		int delta = this.localSettings.getInitialWindowSize() - Http2Settings.DEFAULT_WINDOW_SIZE;
+		if (delta > 0) {
+			writeWindowUpdate(0, delta);
+			recvWindow += delta;
+		}
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------ outbound
+
+
+	/**
+	 * Sends a request on a new stream, client side only.
+	 *
+	 * @return the stream id
+	 * @throws Http2Exception with {@link Http2ErrorCode#REFUSED_STREAM} if the connection is going away or the peer's concurrent streams limit is reached.
+	 */
+	public synchronized int request(HttpRequest request) throws Http2Exception {
+		if (!client) {
+			throw new IllegalStateException("Server side connection can not send request");
+		}
+		if (goAwaySent || goAwayReceived) {
+			throw new Http2Exception(Http2ErrorCode.REFUSED_STREAM, "Connection is going away");
+		}
+		if (localStreams >= remoteSettings.getMaxConcurrentStreams()) {
+			throw new Http2Exception(Http2ErrorCode.REFUSED_STREAM, "Too many concurrent streams, |max=" + remoteSettings.getMaxConcurrentStreams() + "|");
+		}
+
+		Http2Stream stream = new Http2Stream(nextStreamId, remoteSettings.getInitialWindowSize(), localSettings.getInitialWindowSize());
+		nextStreamId += 2;
+		streams.put(stream.getId(), stream);
+		localStreams++;
+
+		HttpRequestLine line    = request.getRequestLine();
+		List<HttpHeader> headers = new ArrayList<HttpHeader>();
+		HttpHeader       host    = request.getFirstHeader(HttpHeaderType.HOST.getName());
+		headers.add(new HttpHeader(":method", line.getMethod().name()));
+		headers.add(new HttpHeader(":scheme", "http"));
+		if (host != null) {
+			headers.add(new HttpHeader(":authority", host.getValue()));
+		}
+		headers.add(new HttpHeader(":path", line.getUri()));
+		send(stream, headers, request);
+		return stream.getId();
+	}
+
+	/**
+	 * Sends the response of a request stream, server side only.
+	 *
+	 * @return <tt>false</tt> if the stream is already closed, e.g. reset by the client.
+	 */
+	public synchronized boolean respond(int streamId, HttpResponse response) {
+		if (client) {
+			throw new IllegalStateException("Client side connection can not send response");
+		}
+		Http2Stream stream = streams.get(streamId);
+		if (stream == null || stream.isLocalClosed()) {
+			return false;
+		}
+
+		List<HttpHeader> headers = new ArrayList<HttpHeader>();
+		HttpStatusLine   line    = response.getStatusLine();
+		headers.add(new HttpHeader(":status", Integer.toString(line == null ? HttpStatus.OK.getStatusCode() : line.getStatus().getStatusCode())));
+		send(stream, headers, response);
+		return true;
+	}
+
+	/**
+	 * Resets a stream, e.g. the client cancels a request.
+	 */
+	public synchronized void reset(int streamId, Http2ErrorCode errorCode) {
+		Http2Stream stream = streams.get(streamId);
+		if (stream == null) {
+			return;
+		}
+		writeRstStream(streamId, errorCode);
+		close(stream);
+	}
+
+	/**
+	 * Sends GOAWAY, no new stream is accepted or started, existing streams complete normally.
+	 */
+	public synchronized void goAway(Http2ErrorCode errorCode) {
+		if (goAwaySent) {
+			return;
+		}
+		goAwaySent = true;
+		byte[] payload = new byte[8];
+		writeInt(payload, 0, lastRemoteStreamId);
+		writeInt(payload, 4, errorCode.getCode());
+		writeFrame(Http2FrameType.GOAWAY, 0, 0, payload);
+	}
+
+	/**
+	 * @return the bytes to be written to the transport, an empty array if there is nothing to write.
+	 */
+	public synchronized byte[] flush() {
+		writeBlocked();
+		byte[] bytes = out.array();
+		out.clear();
+		return bytes;
+	}
+
+	/**
+	 * @return count of open streams
+	 */
+	public synchronized int getStreamCount() {
+		return streams.size();
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------ inbound
+
+
+	/**
+	 * Processes inbound bytes.
+	 *
+	 * @return messages completed by these bytes, and streams reset before their message completed.
+	 * @throws Http2Exception if it is a connection error, GOAWAY has been written and the connection should be closed after flush.
+	 */
+	@Override
+	public synchronized List<Http2Message> decode(byte[] bytes) throws ProtocolException {
+		List<Http2Message> messages = new ArrayList<Http2Message>();
+		try {
+			for (Http2Frame frame : frameDecoder.decode(bytes)) {
+				try {
+					handle(frame, messages);
+				} catch (Http2Exception e) {
+					if (e.isConnectionError()) {
+						throw e;
+					}
+					LOG.debug("[CRAFT-ATOM-PROTOCOL-HTTP2] Stream error, |stream={}|", e.getStreamId(), e);
+					writeRstStream(e.getStreamId(), e.getErrorCode());
+					Http2Stream stream = streams.get(e.getStreamId());
+					if (stream != null) {
+						failed(stream, e.getErrorCode(), messages);
+					}
+				}
+			}
+		} catch (Http2Exception e) {
+			goAway(e.getErrorCode());
+			throw e;
+		}
+		return messages;
+	}
+
+	@Override
+	public synchronized void reset() {
+		frameDecoder.reset();
+	}
+
+	private void handle(Http2Frame frame, List<Http2Message> messages) throws Http2Exception {
+		if (headerBlock != null && frame.getType() != Http2FrameType.CONTINUATION) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Header block is interrupted by " + frame.getType());
+		}
+
+		switch (frame.getType()) {
+		case DATA         : handleData(frame, messages)        ; break;
+		case HEADERS      : handleHeaders(frame, messages)     ; break;
+		case CONTINUATION : handleContinuation(frame, messages); break;
+		case PRIORITY     : handlePriority(frame)              ; break;
+		case RST_STREAM   : handleRstStream(frame, messages)   ; break;
+		case SETTINGS     : handleSettings(frame)              ; break;
+		case PING         : handlePing(frame)                  ; break;
+		case GOAWAY       : handleGoAway(frame, messages)      ; break;
+		case WINDOW_UPDATE: handleWindowUpdate(frame)          ; break;
+		case PUSH_PROMISE : throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Server push is disabled");
+		default           : break;
+		}
+	}
+
+	private void handleData(Http2Frame frame, List<Http2Message> messages) throws Http2Exception {
+		int id = frame.getStreamId();
+		if (id == 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "DATA on stream 0");
+		}
+
+		// flow controlled length includes padding
+		int length = frame.getLength();
+		if (length > recvWindow) {
+			throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL_ERROR, "Connection receive window exceeded");
+		}
+		recvWindow   -= length;
+		recvConsumed += length;
+		if (recvConsumed >= localSettings.getInitialWindowSize() / 2) {
+			writeWindowUpdate(0, recvConsumed);
+			recvWindow  += recvConsumed;
+			recvConsumed = 0;
+		}
+
+		Http2Stream stream = streams.get(id);
+		if (stream == null || stream.isRemoteClosed()) {
+			throw new Http2Exception(Http2ErrorCode.STREAM_CLOSED, id, "DATA on closed stream");
+		}
+		if (stream.getMessage() == null) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "DATA before HEADERS");
+		}
+		if (length > stream.getRecvWindow()) {
+			throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL_ERROR, id, "Stream receive window exceeded");
+		}
+		stream.setRecvWindow(stream.getRecvWindow() - length);
+
+		byte[] payload = frame.getPayload();
+		int    offset  = 0;
+		int    end     = payload.length;
+		if (frame.hasFlag(FLAG_PADDED)) {
+			int pad = payload.length > 0 ? payload[0] & 0xff : -1;
+			if (pad < 0 || pad >= payload.length) {
+				throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Invalid padding");
+			}
+			offset = 1;
+			end    = payload.length - pad;
+		}
+		if (stream.getContent() == null) {
+			stream.setContent(new ByteArrayBuffer(Math.max(end - offset, 64)));
+		}
+		if (stream.getContent().length() + end - offset > maxContentLength) {
+			throw new Http2Exception(Http2ErrorCode.CANCEL, id, "Content is too large, |max=" + maxContentLength + "|");
+		}
+		stream.getContent().append(payload, offset, end - offset);
+
+		if (frame.hasFlag(FLAG_END_STREAM)) {
+			complete(stream, messages);
+			return;
+		}
+
+		stream.setRecvConsumed(stream.getRecvConsumed() + length);
+		if (stream.getRecvConsumed() >= localSettings.getInitialWindowSize() / 2) {
+			writeWindowUpdate(id, stream.getRecvConsumed());
+			stream.setRecvWindow(stream.getRecvWindow() + stream.getRecvConsumed());
+			stream.setRecvConsumed(0);
+		}
+	}
+
+	private void handleHeaders(Http2Frame frame, List<Http2Message> messages) throws Http2Exception {
+		int id = frame.getStreamId();
+		if (id == 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "HEADERS on stream 0");
+		}
+
+		byte[] payload = frame.getPayload();
+		int    offset  = 0;
+		int    end     = payload.length;
+		if (frame.hasFlag(FLAG_PADDED)) {
+			int pad = payload.length > 0 ? payload[0] & 0xff : -1;
+			offset = 1;
+			end    = payload.length - pad;
+		}
+		if (frame.hasFlag(FLAG_PRIORITY)) {
+			offset += 5;
+		}
+		if (end < offset) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Invalid padding");
+		}
+
+		headerStreamId  = id;
+		headerEndStream = frame.hasFlag(FLAG_END_STREAM);
+		headerBlock     = new ByteArrayBuffer(Math.max(end - offset, 64));
+		headerBlock.append(payload, offset, end - offset);
+		if (frame.hasFlag(FLAG_END_HEADERS)) {
+			headers(messages);
+		}
+	}
+
+	private void handleContinuation(Http2Frame frame, List<Http2Message> messages) throws Http2Exception {
+		if (headerBlock == null || frame.getStreamId() != headerStreamId) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Unexpected CONTINUATION");
+		}
+		if (headerBlock.length() + frame.getLength() > localSettings.getMaxHeaderListSize()) {
+			throw new Http2Exception(Http2ErrorCode.ENHANCE_YOUR_CALM, "Header block is too large");
+		}
+		headerBlock.append(frame.getPayload());
+		if (frame.hasFlag(FLAG_END_HEADERS)) {
+			headers(messages);
+		}
+	}
+
+	/**
+	 * Handles a complete header block, the block is always decoded to keep the HPACK state in sync with the peer.
+	 */
+	private void headers(List<Http2Message> messages) throws Http2Exception {
+		int              id        = headerStreamId;
+		boolean          endStream = headerEndStream;
+		List<HttpHeader> headers   = hpackDecoder.decode(headerBlock.array());
+		headerBlock = null;
+
+		Http2Stream stream = streams.get(id);
+		if (stream == null) {
+			stream = open(id);
+			if (stream == null) {
+				return;
+			}
+		} else if (stream.isRemoteClosed()) {
+			throw new Http2Exception(Http2ErrorCode.STREAM_CLOSED, id, "HEADERS on half closed stream");
+		}
+
+		if (stream.getMessage() == null) {
+			HttpMessage message = client ? toResponse(id, headers) : toRequest(id, headers);
+			if (message == null) {
+				// informational response, the final one follows
+				return;
+			}
+			stream.setMessage(message);
+		} else {
+			// trailers
+			if (!endStream) {
+				throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Trailers without END_STREAM");
+			}
+			for (HttpHeader header : headers) {
+				stream.getMessage().addHeader(header);
+			}
+		}
+
+		if (endStream) {
+			complete(stream, messages);
+		}
+	}
+
+	/**
+	 * Opens a stream initiated by the peer.
+	 *
+	 * @return the stream, or <code>null</code> if the stream is refused.
+	 */
+	private Http2Stream open(int id) throws Http2Exception {
+		if (client || id % 2 == 0) {
+			if (id < nextStreamId && (id % 2 == 1) == client) {
+				throw new Http2Exception(Http2ErrorCode.STREAM_CLOSED, id, "HEADERS on closed stream");
+			}
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Invalid stream id, |id=" + id + "|");
+		}
+		if (id <= lastRemoteStreamId) {
+			throw new Http2Exception(Http2ErrorCode.STREAM_CLOSED, "HEADERS on closed stream, |id=" + id + "|");
+		}
+
+		lastRemoteStreamId = id;
+		if (goAwaySent) {
+			return null;
+		}
+		if (remoteStreams >= localSettings.getMaxConcurrentStreams()) {
+			writeRstStream(id, Http2ErrorCode.REFUSED_STREAM);
+			return null;
+		}
+
+		Http2Stream stream = new Http2Stream(id, remoteSettings.getInitialWindowSize(), localSettings.getInitialWindowSize());
+		streams.put(id, stream);
+		remoteStreams++;
+		return stream;
+	}
+
+	private void handlePriority(Http2Frame frame) throws Http2Exception {
+		if (frame.getStreamId() == 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "PRIORITY on stream 0");
+		}
+		if (frame.getLength() != 5) {
+			throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, frame.getStreamId(), "Invalid PRIORITY length");
+		}
+	}
+
+	private void handleRstStream(Http2Frame frame, List<Http2Message> messages) throws Http2Exception {
+		if (frame.getStreamId() == 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "RST_STREAM on stream 0");
+		}
+		if (frame.getLength() != 4) {
+			throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, "Invalid RST_STREAM length");
+		}
+
+		Http2Stream stream = streams.get(frame.getStreamId());
+		if (stream != null) {
+			failed(stream, Http2ErrorCode.from(readInt(frame.getPayload(), 0)), messages);
+		}
+	}
+
+	private void handleSettings(Http2Frame frame) throws Http2Exception {
+		if (frame.getStreamId() != 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "SETTINGS on stream " + frame.getStreamId());
+		}
+		if (frame.hasFlag(FLAG_ACK)) {
+			if (frame.getLength() != 0) {
+				throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, "SETTINGS ack with payload");
+			}
+			return;
+		}
+
+		int initialWindowSize = remoteSettings.getInitialWindowSize();
+		remoteSettings.apply(frame.getPayload());
+		int delta = remoteSettings.getInitialWindowSize() - initialWindowSize;
+		if (delta != 0) {
+			for (Http2Stream stream : streams.values()) {
+				long window = (long) stream.getSendWindow() + delta;
+				if (window > Http2Settings.MAX_WINDOW_SIZE) {
+					throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL_ERROR, "Stream send window overflow");
+				}
+				stream.setSendWindow((int) window);
+			}
+		}
+		hpackEncoder.setPeerTableSize(remoteSettings.getHeaderTableSize());
+		writeFrame(Http2FrameType.SETTINGS, FLAG_ACK, 0, null);
+	}
+
+	private void handlePing(Http2Frame frame) throws Http2Exception {
+		if (frame.getStreamId() != 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "PING on stream " + frame.getStreamId());
+		}
+		if (frame.getLength() != 8) {
+			throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, "Invalid PING length");
+		}
+		if (!frame.hasFlag(FLAG_ACK)) {
+			writeFrame(Http2FrameType.PING, FLAG_ACK, 0, frame.getPayload());
+		}
+	}
+
+	private void handleGoAway(Http2Frame frame, List<Http2Message> messages) throws Http2Exception {
+		if (frame.getStreamId() != 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "GOAWAY on stream " + frame.getStreamId());
+		}
+		if (frame.getLength() < 8) {
+			throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, "Invalid GOAWAY length");
+		}
+
+		goAwayReceived = true;
+		int lastStreamId = readInt(frame.getPayload(), 0) & 0x7fffffff;
+		LOG.debug("[CRAFT-ATOM-PROTOCOL-HTTP2] GOAWAY received, |last stream={}, error={}|", lastStreamId, Http2ErrorCode.from(readInt(frame.getPayload(), 4)));
+
+		// local streams the peer has not processed are refused, they are safe to retry
+		List<Http2Stream> refused = new ArrayList<Http2Stream>();
+		for (Http2Stream stream : streams.values()) {
+			if (stream.getId() > lastStreamId && local(stream.getId())) {
+				refused.add(stream);
+			}
+		}
+		for (Http2Stream stream : refused) {
+			failed(stream, Http2ErrorCode.REFUSED_STREAM, messages);
+		}
+	}
+
+	private void handleWindowUpdate(Http2Frame frame) throws Http2Exception {
+		int id = frame.getStreamId();
+		if (frame.getLength() != 4) {
+			throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, "Invalid WINDOW_UPDATE length");
+		}
+		int increment = readInt(frame.getPayload(), 0) & 0x7fffffff;
+		if (increment == 0) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Zero window increment");
+		}
+
+		if (id == 0) {
+			if ((long) sendWindow + increment > Http2Settings.MAX_WINDOW_SIZE) {
+				throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL_ERROR, "Connection send window overflow");
+			}
+			sendWindow += increment;
+			return;
+		}
+
+		Http2Stream stream = streams.get(id);
+		if (stream == null) {
+			return;
+		}
+		if ((long) stream.getSendWindow() + increment > Http2Settings.MAX_WINDOW_SIZE) {
+			throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL_ERROR, id, "Stream send window overflow");
+		}
+		stream.setSendWindow(stream.getSendWindow() + increment);
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------ stream
+
+
+	private void complete(Http2Stream stream, List<Http2Message> messages) {
+		stream.setRemoteClosed(true);
+		HttpMessage message = stream.getMessage();
+		if (stream.getContent() != null) {
+			message.setEntity(new HttpEntity(stream.getContent().array()));
+			stream.setContent(null);
+		}
+		messages.add(new Http2Message(stream.getId(), message));
+		if (stream.isClosed()) {
+			close(stream);
+		}
+	}
+
+	private void failed(Http2Stream stream, Http2ErrorCode errorCode, List<Http2Message> messages) {
+		boolean pending = !stream.isRemoteClosed();
+		close(stream);
+		if (pending && local(stream.getId())) {
+			messages.add(new Http2Message(stream.getId(), null, errorCode));
+		}
+	}
+
+	private void close(Http2Stream stream) {
+		if (streams.remove(stream.getId()) == null) {
+			return;
+		}
+		blocked.remove(stream);
+		stream.setLocalClosed(true);
+		stream.setRemoteClosed(true);
+		stream.setPendingData(null);
+		if (local(stream.getId())) {
+			localStreams--;
+		} else {
+			remoteStreams--;
+		}
+	}
+
+	private boolean local(int id) {
+		return (id % 2 == 1) == client;
+	}
+
+	private void send(Http2Stream stream, List<HttpHeader> headers, HttpMessage message) {
+		for (HttpHeader header : message.getHeaders()) {
+			if (!CONNECTION_SPECIFIC.contains(header.getName().toLowerCase())) {
+				headers.add(header);
+			}
+		}
+
+		HttpEntity entity    = message.getEntity();
+		byte[]     content   = entity == null ? null : entity.getContent();
+		boolean    endStream = content == null || content.length == 0;
+		writeHeaders(stream.getId(), headers, endStream);
+		if (endStream) {
+			localClosed(stream);
+			return;
+		}
+
+		stream.setPendingData(content);
+		stream.setPendingOffset(0);
+		blocked.add(stream);
+		writeBlocked();
+	}
+
+	private void localClosed(Http2Stream stream) {
+		stream.setLocalClosed(true);
+		if (stream.isClosed()) {
+			close(stream);
+		}
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------ write
+
+
+	/**
+	 * Writes the DATA of blocked streams as far as the flow control windows allow, streams take turns frame by frame.
+	 */
+	private void writeBlocked() {
+		while (sendWindow > 0 && !blocked.isEmpty()) {
+			boolean progress = false;
+			for (Iterator<Http2Stream> it = blocked.iterator(); it.hasNext() && sendWindow > 0;) {
+				Http2Stream stream = it.next();
+				int n = Math.min(Math.min(stream.getPendingLength(), stream.getSendWindow()), Math.min(sendWindow, remoteSettings.getMaxFrameSize()));
+				if (n <= 0) {
+					continue;
+				}
+
+				int     offset    = stream.getPendingOffset();
+				boolean endStream = n == stream.getPendingLength();
+				Http2FrameEncoder.write(out, Http2FrameType.DATA, endStream ? FLAG_END_STREAM : 0, stream.getId(), stream.getPendingData(), offset, n);
+				stream.setPendingOffset(offset + n);
+				stream.setSendWindow(stream.getSendWindow() - n);
+				sendWindow -= n;
+				progress = true;
+				if (endStream) {
+					it.remove();
+					stream.setPendingData(null);
+					localClosed(stream);
+				}
+			}
+			if (!progress) {
+				return;
+			}
+		}
+	}
+
+	private void writeHeaders(int streamId, List<HttpHeader> headers, boolean endStream) {
+		ByteArrayBuffer block = new ByteArrayBuffer(256);
+		hpackEncoder.encode(headers, block);
+
+		int     max    = remoteSettings.getMaxFrameSize();
+		int     offset = 0;
+		boolean first  = true;
+		do {
+			int n     = Math.min(max, block.length() - offset);
+			int flags = offset + n == block.length() ? FLAG_END_HEADERS : 0;
+			if (first && endStream) {
+				flags |= FLAG_END_STREAM;
+			}
+			Http2FrameEncoder.write(out, first ? Http2FrameType.HEADERS : Http2FrameType.CONTINUATION, flags, streamId, block.buffer(), offset, n);
+			offset += n;
+			first   = false;
+		} while (offset < block.length());
+	}
+
+	private void writeRstStream(int streamId, Http2ErrorCode errorCode) {
+		byte[] payload = new byte[4];
+		writeInt(payload, 0, errorCode.getCode());
+		writeFrame(Http2FrameType.RST_STREAM, 0, streamId, payload);
+	}
+
+	private void writeWindowUpdate(int streamId, int increment) {
+		byte[] payload = new byte[4];
+		writeInt(payload, 0, increment);
+		writeFrame(Http2FrameType.WINDOW_UPDATE, 0, streamId, payload);
+	}
+
+	private void writeFrame(Http2FrameType type, int flags, int streamId, byte[] payload) {
+		Http2FrameEncoder.write(out, type, flags, streamId, payload, 0, payload == null ? 0 : payload.length);
+	}
+
+	private static void writeInt(byte[] b, int off, int v) {
+		b[off]     = (byte) (v >>> 24);
+		b[off + 1] = (byte) (v >>> 16);
+		b[off + 2] = (byte) (v >>> 8) ;
+		b[off + 3] = (byte)  v        ;
+	}
+
+	private static int readInt(byte[] b, int off) {
+		return ((b[off] & 0xff) << 24) | ((b[off + 1] & 0xff) << 16) | ((b[off + 2] & 0xff) << 8) | (b[off + 3] & 0xff);
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------ convert
+
+
+	private HttpRequest toRequest(int id, List<HttpHeader> headers) throws Http2Exception {
+		String method = null, path = null, authority = null, scheme = null;
+		HttpRequest request = new HttpRequest();
+		boolean regular = false;
+		for (HttpHeader header : headers) {
+			String name = header.getName();
+			if (name.startsWith(":")) {
+				if (regular) {
+					throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Pseudo header after regular header");
+				}
+				if      (":method"   .equals(name)) method    = header.getValue();
+				else if (":path"     .equals(name)) path      = header.getValue();
+				else if (":authority".equals(name)) authority = header.getValue();
+				else if (":scheme"   .equals(name)) scheme    = header.getValue();
+				else throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Unknown pseudo header, |name=" + name + "|");
+			} else {
+				regular = true;
+				validate(id, header);
+				request.addHeader(header);
+			}
+		}
+		if (method == null || path == null || path.isEmpty() || scheme == null) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Missing pseudo header");
+		}
+
+		HttpMethod m;
+		try {
+			m = HttpMethod.valueOf(method);
+		} catch (IllegalArgumentException e) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Unsupported method, |method=" + method + "|");
+		}
+		request.setRequestLine(new HttpRequestLine(m, path, HttpVersion.HTTP_2_0));
+		if (authority != null && request.getFirstHeader(HttpHeaderType.HOST.getName()) == null) {
+			request.addHeader(new HttpHeader(HttpHeaderType.HOST.getName(), authority));
+		}
+		return request;
+	}
+
+	/**
+	 * @return the response, or <code>null</code> if it is an informational response.
+	 */
+	private HttpResponse toResponse(int id, List<HttpHeader> headers) throws Http2Exception {
+		String status = null;
+		HttpResponse response = new HttpResponse();
+		boolean regular = false;
+		for (HttpHeader header : headers) {
+			String name = header.getName();
+			if (name.startsWith(":")) {
+				if (regular || !":status".equals(name)) {
+					throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Invalid pseudo header, |name=" + name + "|");
+				}
+				status = header.getValue();
+			} else {
+				regular = true;
+				validate(id, header);
+				response.addHeader(header);
+			}
+		}
+
+		int code;
+		try {
+			code = Integer.parseInt(status);
+		} catch (NumberFormatException e) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Invalid status, |status=" + status + "|");
+		}
+		if (code >= 100 && code < 200) {
+			return null;
+		}
+		HttpStatus hs = HttpStatus.from(code);
+		if (hs == null) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Invalid status, |status=" + status + "|");
+		}
+		response.setStatusLine(new HttpStatusLine(HttpVersion.HTTP_2_0, hs));
+		return response;
+	}
+
+	private static void validate(int id, HttpHeader header) throws Http2Exception {
+		String name = header.getName();
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Uppercase header name, |name=" + name + "|");
+			}
+		}
+		if (CONNECTION_SPECIFIC.contains(name) && !"host".equals(name)) {
+			throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, id, "Connection specific header, |name=" + name + "|");
+		}
+	}
+
+}
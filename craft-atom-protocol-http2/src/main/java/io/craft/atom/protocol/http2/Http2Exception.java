@@ -0,0 +1,43 @@
+package io.craft.atom.protocol.http2;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http2.model.Http2ErrorCode;
+import lombok.Getter;
+
+/**
+ * A {@link ProtocolException} carries an HTTP/2 error code.
+ * <br>
+ * Stream id 0 means a connection error, the connection should be closed after GOAWAY is sent.
+ * Otherwise it is a stream error, only the stream is reset.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class Http2Exception extends ProtocolException {
+
+
+	private static final long serialVersionUID = -4207349632178459302L;
+
+
+	@Getter private final Http2ErrorCode errorCode;
+	@Getter private final int            streamId ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public Http2Exception(Http2ErrorCode errorCode, String message) {
+		this(errorCode, 0, message);
+	}
+
+	public Http2Exception(Http2ErrorCode errorCode, int streamId, String message) {
+		super(errorCode + ": " + message);
+		this.errorCode = errorCode;
+		this.streamId  = streamId ;
+	}
+
+	public boolean isConnectionError() {
+		return streamId == 0;
+	}
+
+}
@@ -0,0 +1,120 @@
+package io.craft.atom.protocol.http2;
+
+import static io.craft.atom.protocol.http2.model.Http2Frame.HEADER_LENGTH;
+import io.craft.atom.protocol.AbstractProtocolDecoder;
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http2.model.Http2ErrorCode;
+import io.craft.atom.protocol.http2.model.Http2Frame;
+import io.craft.atom.protocol.http2.model.Http2FrameType;
+import io.craft.atom.protocol.http2.model.Http2Settings;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A {@link ProtocolDecoder} which decodes bytes into {@link Http2Frame} objects.
+ * <br>
+ * Frames of unknown type are discarded, as RFC 7540 section 4.1 requires.
+ * On the server side the decoder verifies the client connection preface before the first frame.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(callSuper = true, of = { "maxFrameSize", "preface" })
+public class Http2FrameDecoder extends AbstractProtocolDecoder implements ProtocolDecoder<Http2Frame> {
+
+
+	/** The client connection preface, "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n" */
+	public static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(Charset.forName("US-ASCII"));
+
+
+	@Getter @Setter private int     maxFrameSize = Http2Settings.DEFAULT_FRAME_SIZE;
+	@Getter @Setter private boolean preface                                        ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public Http2FrameDecoder() {}
+
+	/**
+	 * @param preface <tt>true</tt> if the client connection preface is expected, that is on the server side.
+	 */
+	public Http2FrameDecoder(boolean preface) {
+		this.preface = preface;
+	}
+
+	public Http2FrameDecoder(boolean preface, int maxFrameSize, int defaultBufferSize) {
+		this.preface           = preface          ;
+		this.maxFrameSize      = maxFrameSize     ;
+		this.defaultBufferSize = defaultBufferSize;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public List<Http2Frame> decode(byte[] bytes) throws ProtocolException {
+		List<Http2Frame> frames = new ArrayList<Http2Frame>();
+		adapt();
+		buf.append(bytes);
+
+		try {
+			if (preface) {
+				if (buf.length() - splitIndex < PREFACE.length) {
+					checkPreface(buf.length() - splitIndex);
+					return frames;
+				}
+				checkPreface(PREFACE.length);
+				searchIndex = splitIndex = splitIndex + PREFACE.length;
+				preface = false;
+			}
+
+			while (buf.length() - splitIndex >= HEADER_LENGTH) {
+				byte[] b      = buf.buffer();
+				int    off    = splitIndex;
+				int    length = ((b[off] & 0xff) << 16) | ((b[off + 1] & 0xff) << 8) | (b[off + 2] & 0xff);
+				if (length > maxFrameSize) {
+					throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, "Frame is too large, |length=" + length + ", max=" + maxFrameSize + "|");
+				}
+				if (buf.length() - off < HEADER_LENGTH + length) {
+					break;
+				}
+
+				Http2FrameType type     = Http2FrameType.from(b[off + 3] & 0xff);
+				int            flags    = b[off + 4] & 0xff;
+				int            streamId = ((b[off + 5] & 0x7f) << 24) | ((b[off + 6] & 0xff) << 16) | ((b[off + 7] & 0xff) << 8) | (b[off + 8] & 0xff);
+				if (type != null) {
+					frames.add(new Http2Frame(type, flags, streamId, buf.array(off + HEADER_LENGTH, off + HEADER_LENGTH + length)));
+				}
+				searchIndex = splitIndex = off + HEADER_LENGTH + length;
+			}
+			searchIndex = buf.length();
+		} catch (ProtocolException e) {
+			reset();
+			throw e;
+		}
+
+		recycle();
+		return frames;
+	}
+
+	private void checkPreface(int length) throws Http2Exception {
+		byte[] b = buf.buffer();
+		for (int i = 0; i < length; i++) {
+			if (b[splitIndex + i] != PREFACE[i]) {
+				throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Invalid connection preface");
+			}
+		}
+	}
+
+}
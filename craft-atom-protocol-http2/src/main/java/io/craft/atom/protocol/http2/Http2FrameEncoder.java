@@ -0,0 +1,54 @@
+package io.craft.atom.protocol.http2;
+
+import static io.craft.atom.protocol.http2.model.Http2Frame.HEADER_LENGTH;
+import io.craft.atom.protocol.AbstractProtocolCodec;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http2.model.Http2Frame;
+import io.craft.atom.protocol.http2.model.Http2FrameType;
+import io.craft.atom.util.ByteArrayBuffer;
+import lombok.ToString;
+
+/**
+ * A {@link ProtocolEncoder} which encodes {@link Http2Frame} object into bytes.
+ * <br>
+ * Thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(callSuper = true)
+public class Http2FrameEncoder extends AbstractProtocolCodec implements ProtocolEncoder<Http2Frame> {
+
+
+	@Override
+	public byte[] encode(Http2Frame frame) throws ProtocolException {
+		if (frame == null) {
+			return null;
+		}
+
+		byte[] payload = frame.getPayload() == null ? new byte[0] : frame.getPayload();
+		ByteArrayBuffer buf = new ByteArrayBuffer(HEADER_LENGTH + payload.length);
+		write(buf, frame.getType(), frame.getFlags(), frame.getStreamId(), payload, 0, payload.length);
+		return buf.buffer();
+	}
+
+	/**
+	 * Writes a frame into the buffer, without copying the payload into an intermediate frame object.
+	 */
+	public static void write(ByteArrayBuffer buf, Http2FrameType type, int flags, int streamId, byte[] payload, int offset, int length) {
+		buf.append((byte) (length >>> 16));
+		buf.append((byte) (length >>> 8) );
+		buf.append((byte)  length        );
+		buf.append((byte)  type.getCode());
+		buf.append((byte)  flags         );
+		buf.append((byte) ((streamId >>> 24) & 0x7f));
+		buf.append((byte)  (streamId >>> 16)        );
+		buf.append((byte)  (streamId >>> 8)         );
+		buf.append((byte)   streamId                );
+		if (length > 0) {
+			buf.append(payload, offset, length);
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package io.craft.atom.protocol.http2;
+
+import io.craft.atom.protocol.http.model.HttpMessage;
+import io.craft.atom.util.ByteArrayBuffer;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A stream of an {@link Http2Connection}, keeps its flow control windows, the inbound message under assembly and the outbound data blocked by flow control.
+ * <br>
+ * A stream is closed once END_STREAM is both sent and received, or it is reset.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "id", "sendWindow", "recvWindow", "localClosed", "remoteClosed" })
+public class Http2Stream {
+
+
+	@Getter         private final int             id              ;
+	@Getter @Setter private       int             sendWindow      ;
+	@Getter @Setter private       int             recvWindow      ;
+	@Getter @Setter private       int             recvConsumed    ;
+	@Getter @Setter private       boolean         localClosed     ;
+	@Getter @Setter private       boolean         remoteClosed    ;
+	@Getter @Setter private       HttpMessage     message         ;
+	@Getter @Setter private       ByteArrayBuffer content         ;
+	@Getter @Setter private       byte[]          pendingData     ;
+	@Getter @Setter private       int             pendingOffset   ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public Http2Stream(int id, int sendWindow, int recvWindow) {
+		this.id         = id        ;
+		this.sendWindow = sendWindow;
+		this.recvWindow = recvWindow;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public boolean isClosed() {
+		return localClosed && remoteClosed;
+	}
+
+	public int getPendingLength() {
+		return pendingData == null ? 0 : pendingData.length - pendingOffset;
+	}
+
+}
@@ -0,0 +1,68 @@
+package io.craft.atom.protocol.http2.api;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.http2.Http2Connection;
+import io.craft.atom.protocol.http2.Http2FrameDecoder;
+import io.craft.atom.protocol.http2.Http2FrameEncoder;
+import io.craft.atom.protocol.http2.hpack.HpackDecoder;
+import io.craft.atom.protocol.http2.hpack.HpackEncoder;
+import io.craft.atom.protocol.http2.model.Http2Frame;
+import io.craft.atom.protocol.http2.model.Http2Settings;
+
+
+/**
+ * HTTP/2 codec factory, which provides static factory method to create frame codec, HPACK codec and connection instance.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class Http2CodecFactory {
+
+
+	// frame
+	public static ProtocolEncoder<Http2Frame> newHttp2FrameEncoder() {
+		return new Http2FrameEncoder();
+	}
+
+	public static ProtocolDecoder<Http2Frame> newHttp2FrameDecoder() {
+		return new Http2FrameDecoder();
+	}
+
+	public static ProtocolDecoder<Http2Frame> newHttp2FrameDecoder(boolean preface) {
+		return new Http2FrameDecoder(preface);
+	}
+
+
+	// hpack
+	public static HpackEncoder newHpackEncoder() {
+		return new HpackEncoder();
+	}
+
+	public static HpackDecoder newHpackDecoder() {
+		return new HpackDecoder();
+	}
+
+	public static HpackDecoder newHpackDecoder(int maxTableSize, int maxHeaderListSize) {
+		return new HpackDecoder(maxTableSize, maxHeaderListSize);
+	}
+
+
+	// connection
+	public static Http2Connection newHttp2ClientConnection() {
+		return newHttp2ClientConnection(new Http2Settings());
+	}
+
+	public static Http2Connection newHttp2ClientConnection(Http2Settings settings) {
+		return new Http2Connection(true, settings);
+	}
+
+	public static Http2Connection newHttp2ServerConnection() {
+		return newHttp2ServerConnection(new Http2Settings());
+	}
+
+	public static Http2Connection newHttp2ServerConnection(Http2Settings settings) {
+		return new Http2Connection(false, settings);
+	}
+
+}
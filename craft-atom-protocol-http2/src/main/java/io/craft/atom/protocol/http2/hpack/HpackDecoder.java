@@ -0,0 +1,206 @@
+package io.craft.atom.protocol.http2.hpack;
+
+import io.craft.atom.protocol.AbstractProtocolCodec;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http2.Http2Exception;
+import io.craft.atom.protocol.http2.model.Http2ErrorCode;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Decodes HPACK header blocks into header lists, see RFC 7541.
+ * <p>
+ * The decoder keeps the dynamic table of a connection, so header blocks must be decoded in the order they arrive.
+ * Header names and values are decoded with the charset, default is utf-8.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(callSuper = true, of = { "table", "maxTableSize", "maxHeaderListSize" })
+public class HpackDecoder extends AbstractProtocolCodec {
+
+
+	        private final HpackTable table            ;
+	@Getter private       int        maxTableSize     ;
+	@Getter private       int        maxHeaderListSize;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HpackDecoder() {
+		this(4096, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxTableSize      max dynamic table size the peer encoder may use, as announced by SETTINGS_HEADER_TABLE_SIZE
+	 * @param maxHeaderListSize max uncompressed size of a header list, as announced by SETTINGS_MAX_HEADER_LIST_SIZE
+	 */
+	public HpackDecoder(int maxTableSize, int maxHeaderListSize) {
+		this.table             = new HpackTable(maxTableSize);
+		this.maxTableSize      = maxTableSize                ;
+		this.maxHeaderListSize = maxHeaderListSize           ;
+	}
+
+	public HpackDecoder(Charset charset, int maxTableSize, int maxHeaderListSize) {
+		this(maxTableSize, maxHeaderListSize);
+		this.charset = charset;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @param block a complete header block
+	 * @return header list in order
+	 * @throws Http2Exception with {@link Http2ErrorCode#COMPRESSION_ERROR} if the block is malformed.
+	 */
+	public List<HttpHeader> decode(byte[] block) throws Http2Exception {
+		List<HttpHeader> headers  = new ArrayList<HttpHeader>();
+		int[]            cursor   = new int[1];
+		int              listSize = 0;
+		boolean          leading  = true;
+		while (cursor[0] < block.length) {
+			int b = block[cursor[0]] & 0xff;
+			if ((b & 0x80) != 0) {
+				// indexed header field
+				int index = decodeInt(block, cursor, 7);
+				HttpHeader entry = entry(index);
+				headers.add(new HttpHeader(entry.getName(), entry.getValue()));
+				listSize += octets(entry) + HpackTable.ENTRY_OVERHEAD;
+				leading = false;
+			} else if ((b & 0xe0) == 0x20) {
+				// dynamic table size update, only at the beginning of a block
+				if (!leading) {
+					throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Table size update after header field");
+				}
+				int size = decodeInt(block, cursor, 5);
+				if (size > maxTableSize) {
+					throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Table size update exceeds limit, |size=" + size + ", max=" + maxTableSize + "|");
+				}
+				table.setMaxSize(size);
+			} else {
+				// literal header field, with incremental indexing (01), without indexing (0000) or never indexed (0001)
+				boolean indexing = (b & 0xc0) == 0x40;
+				int     index    = decodeInt(block, cursor, indexing ? 6 : 4);
+				byte[]  name     = index == 0 ? decodeString(block, cursor) : null;
+				byte[]  value    = decodeString(block, cursor);
+				String  n        = name == null ? entry(index).getName() : new String(name, charset);
+				String  v        = new String(value, charset);
+				int     octets   = (name == null ? octets(entry(index).getName()) : name.length) + value.length;
+				if (indexing) {
+					table.add(n, v, octets);
+				}
+				headers.add(new HttpHeader(n, v));
+				listSize += octets + HpackTable.ENTRY_OVERHEAD;
+				leading = false;
+			}
+
+			if (listSize > maxHeaderListSize) {
+				throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Header list is too large, |max=" + maxHeaderListSize + "|");
+			}
+		}
+		return headers;
+	}
+
+	/**
+	 * Changes the max dynamic table size after the new SETTINGS_HEADER_TABLE_SIZE is acknowledged.
+	 */
+	public void setMaxTableSize(int maxTableSize) {
+		this.maxTableSize = maxTableSize;
+		if (table.getMaxSize() > maxTableSize) {
+			table.setMaxSize(maxTableSize);
+		}
+	}
+
+	public void setMaxHeaderListSize(int maxHeaderListSize) {
+		this.maxHeaderListSize = maxHeaderListSize;
+	}
+
+	HpackTable getTable() {
+		return table;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private HttpHeader entry(int index) throws Http2Exception {
+		HttpHeader entry = table.get(index);
+		if (entry == null) {
+			throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Invalid table index, |index=" + index + "|");
+		}
+		return entry;
+	}
+
+	private int octets(HttpHeader entry) {
+		return octets(entry.getName()) + octets(entry.getValue());
+	}
+
+	private int octets(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) > 0x7f) {
+				return s.getBytes(charset).length;
+			}
+		}
+		return s.length();
+	}
+
+	/**
+	 * Decodes an integer with an N-bit prefix, see RFC 7541 section 5.1.
+	 */
+	static int decodeInt(byte[] block, int[] cursor, int prefix) throws Http2Exception {
+		int max   = (1 << prefix) - 1;
+		int value = block[cursor[0]++] & max;
+		if (value < max) {
+			return value;
+		}
+
+		for (int shift = 0; ; shift += 7) {
+			if (cursor[0] >= block.length || shift > 28) {
+				throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Invalid integer");
+			}
+			int b = block[cursor[0]++] & 0xff;
+			long v = value + ((long) (b & 0x7f) << shift);
+			if (v > Integer.MAX_VALUE) {
+				throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Integer overflow");
+			}
+			value = (int) v;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+
+	/**
+	 * Decodes a string literal, see RFC 7541 section 5.2.
+	 */
+	private static byte[] decodeString(byte[] block, int[] cursor) throws Http2Exception {
+		if (cursor[0] >= block.length) {
+			throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Truncated string");
+		}
+		boolean huffman = (block[cursor[0]] & 0x80) != 0;
+		int     length  = decodeInt(block, cursor, 7);
+		if (length > block.length - cursor[0]) {
+			throw new Http2Exception(Http2ErrorCode.COMPRESSION_ERROR, "Truncated string");
+		}
+
+		int offset = cursor[0];
+		cursor[0] += length;
+		if (huffman) {
+			return HpackHuffman.decode(block, offset, length);
+		}
+		byte[] bytes = new byte[length];
+		System.arraycopy(block, offset, bytes, 0, length);
+		return bytes;
+	}
+
+}
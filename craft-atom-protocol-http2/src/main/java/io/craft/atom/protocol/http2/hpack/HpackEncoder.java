@@ -0,0 +1,153 @@
+package io.craft.atom.protocol.http2.hpack;
+
+import io.craft.atom.protocol.AbstractProtocolCodec;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Encodes header lists into HPACK header blocks, see RFC 7541.
+ * <p>
+ * A header matching a table entry is encoded as an index, others are literals with incremental indexing.
+ * Credentials are never indexed, and values too large for the dynamic table are not indexed.
+ * A string is Huffman encoded only if that is shorter.
+ * <br>
+ * Header names are lowercased as HTTP/2 requires. Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(callSuper = true, of = { "table", "maxTableSize" })
+public class HpackEncoder extends AbstractProtocolCodec {
+
+
+	        private final HpackTable table          ;
+	@Getter private       int        maxTableSize   ;
+	        private       int        pendingSize = -1;
+	        private       int        minPendingSize  ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HpackEncoder() {
+		this(4096);
+	}
+
+	/**
+	 * @param maxTableSize upper bound of the dynamic table size used by this encoder
+	 */
+	public HpackEncoder(int maxTableSize) {
+		this.maxTableSize = maxTableSize;
+		this.table        = new HpackTable(Math.min(4096, maxTableSize));
+	}
+
+	public HpackEncoder(Charset charset, int maxTableSize) {
+		this(maxTableSize);
+		this.charset = charset;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Applies the peer's SETTINGS_HEADER_TABLE_SIZE, the change is signaled at the beginning of the next header block.
+	 */
+	public void setPeerTableSize(int peerTableSize) {
+		int size = Math.min(peerTableSize, maxTableSize);
+		if (pendingSize < 0) {
+			minPendingSize = size;
+		} else {
+			minPendingSize = Math.min(minPendingSize, size);
+		}
+		pendingSize = size;
+	}
+
+	public void encode(List<HttpHeader> headers, ByteArrayBuffer out) {
+		if (pendingSize >= 0) {
+			if (minPendingSize < pendingSize) {
+				encodeInt(out, 0x20, 5, minPendingSize);
+				table.setMaxSize(minPendingSize);
+			}
+			encodeInt(out, 0x20, 5, pendingSize);
+			table.setMaxSize(pendingSize);
+			pendingSize = -1;
+		}
+
+		for (HttpHeader header : headers) {
+			encode(header.getName().toLowerCase(Locale.ENGLISH), header.getValue() == null ? "" : header.getValue(), out);
+		}
+	}
+
+	HpackTable getTable() {
+		return table;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private void encode(String name, String value, ByteArrayBuffer out) {
+		boolean sensitive = "authorization".equals(name) || "proxy-authorization".equals(name);
+		int     index     = table.indexOf(name, value);
+		if (index > 0 && !sensitive) {
+			encodeInt(out, 0x80, 7, index);
+			return;
+		}
+
+		int    nameIndex = Math.abs(index);
+		byte[] n         = name.getBytes(charset);
+		byte[] v         = value.getBytes(charset);
+		int    octets    = n.length + v.length;
+		if (sensitive) {
+			encodeInt(out, 0x10, 4, nameIndex);
+		} else if (octets + HpackTable.ENTRY_OVERHEAD > table.getMaxSize() / 2) {
+			encodeInt(out, 0x00, 4, nameIndex);
+		} else {
+			encodeInt(out, 0x40, 6, nameIndex);
+			table.add(name, value, octets);
+		}
+		if (nameIndex == 0) {
+			encodeString(out, n);
+		}
+		encodeString(out, v);
+	}
+
+	/**
+	 * Encodes an integer with an N-bit prefix, see RFC 7541 section 5.1.
+	 */
+	static void encodeInt(ByteArrayBuffer out, int mask, int prefix, int value) {
+		int max = (1 << prefix) - 1;
+		if (value < max) {
+			out.append((byte) (mask | value));
+			return;
+		}
+
+		out.append((byte) (mask | max));
+		value -= max;
+		while (value >= 0x80) {
+			out.append((byte) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		out.append((byte) value);
+	}
+
+	private static void encodeString(ByteArrayBuffer out, byte[] bytes) {
+		int huffmanLength = HpackHuffman.encodedLength(bytes);
+		if (huffmanLength < bytes.length) {
+			encodeInt(out, 0x80, 7, huffmanLength);
+			HpackHuffman.encode(bytes, out);
+		} else {
+			encodeInt(out, 0x00, 7, bytes.length);
+			out.append(bytes);
+		}
+	}
+
+}
@@ -0,0 +1,231 @@
+package io.craft.atom.protocol.http2.hpack;
+
+import io.craft.atom.protocol.http.model.HttpHeader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The HPACK indexing table, the static table of RFC 7541 Appendix A followed by a dynamic table.
+ * <p>
+ * The dynamic table is a ring of entries, the newest entry has the lowest index.
+ * The size of an entry is the octet length of its name and value plus 32, entries are evicted from the oldest when the size exceeds the max size.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "size", "maxSize", "length" })
+public class HpackTable {
+
+
+	public static final int ENTRY_OVERHEAD = 32;
+
+	static final HttpHeader[] STATIC_TABLE = {
+		null,
+		new HttpHeader(":authority"                 , ""             ),
+		new HttpHeader(":method"                    , "GET"          ),
+		new HttpHeader(":method"                    , "POST"         ),
+		new HttpHeader(":path"                      , "/"            ),
+		new HttpHeader(":path"                      , "/index.html"  ),
+		new HttpHeader(":scheme"                    , "http"         ),
+		new HttpHeader(":scheme"                    , "https"        ),
+		new HttpHeader(":status"                    , "200"          ),
+		new HttpHeader(":status"                    , "204"          ),
+		new HttpHeader(":status"                    , "206"          ),
+		new HttpHeader(":status"                    , "304"          ),
+		new HttpHeader(":status"                    , "400"          ),
+		new HttpHeader(":status"                    , "404"          ),
+		new HttpHeader(":status"                    , "500"          ),
+		new HttpHeader("accept-charset"             , ""             ),
+		new HttpHeader("accept-encoding"            , "gzip, deflate"),
+		new HttpHeader("accept-language"            , ""             ),
+		new HttpHeader("accept-ranges"              , ""             ),
+		new HttpHeader("accept"                     , ""             ),
+		new HttpHeader("access-control-allow-origin", ""             ),
+		new HttpHeader("age"                        , ""             ),
+		new HttpHeader("allow"                      , ""             ),
+		new HttpHeader("authorization"              , ""             ),
+		new HttpHeader("cache-control"              , ""             ),
+		new HttpHeader("content-disposition"        , ""             ),
+		new HttpHeader("content-encoding"           , ""             ),
+		new HttpHeader("content-language"           , ""             ),
+		new HttpHeader("content-length"             , ""             ),
+		new HttpHeader("content-location"           , ""             ),
+		new HttpHeader("content-range"              , ""             ),
+		new HttpHeader("content-type"               , ""             ),
+		new HttpHeader("cookie"                     , ""             ),
+		new HttpHeader("date"                       , ""             ),
+		new HttpHeader("etag"                       , ""             ),
+		new HttpHeader("expect"                     , ""             ),
+		new HttpHeader("expires"                    , ""             ),
+		new HttpHeader("from"                       , ""             ),
+		new HttpHeader("host"                       , ""             ),
+		new HttpHeader("if-match"                   , ""             ),
+		new HttpHeader("if-modified-since"          , ""             ),
+		new HttpHeader("if-none-match"              , ""             ),
+		new HttpHeader("if-range"                   , ""             ),
+		new HttpHeader("if-unmodified-since"        , ""             ),
+		new HttpHeader("last-modified"              , ""             ),
+		new HttpHeader("link"                       , ""             ),
+		new HttpHeader("location"                   , ""             ),
+		new HttpHeader("max-forwards"               , ""             ),
+		new HttpHeader("proxy-authenticate"         , ""             ),
+		new HttpHeader("proxy-authorization"        , ""             ),
+		new HttpHeader("range"                      , ""             ),
+		new HttpHeader("referer"                    , ""             ),
+		new HttpHeader("refresh"                    , ""             ),
+		new HttpHeader("retry-after"                , ""             ),
+		new HttpHeader("server"                     , ""             ),
+		new HttpHeader("set-cookie"                 , ""             ),
+		new HttpHeader("strict-transport-security"  , ""             ),
+		new HttpHeader("transfer-encoding"          , ""             ),
+		new HttpHeader("user-agent"                 , ""             ),
+		new HttpHeader("vary"                       , ""             ),
+		new HttpHeader("via"                        , ""             ),
+		new HttpHeader("www-authenticate"           , ""             )
+	};
+
+	static final int STATIC_LENGTH = STATIC_TABLE.length - 1;
+
+	/** Static index of the first entry with the name */
+	private static final Map<String, Integer> STATIC_NAMES   = new HashMap<String, Integer>();
+
+	/** Static index of the entry with the name and value, "name:value" as key */
+	private static final Map<String, Integer> STATIC_ENTRIES = new HashMap<String, Integer>();
+
+	static {
+		for (int i = STATIC_LENGTH; i > 0; i--) {
+			STATIC_NAMES.put(STATIC_TABLE[i].getName(), i);
+			STATIC_ENTRIES.put(STATIC_TABLE[i].getName() + ":" + STATIC_TABLE[i].getValue(), i);
+		}
+	}
+
+
+	        private HttpHeader[] entries = new HttpHeader[16];
+	        private int[]        sizes   = new int[16]       ;
+	        private int          head                        ;
+	@Getter private int          length                      ;
+	@Getter private int          size                        ;
+	@Getter private int          maxSize                     ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public HpackTable(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @param index 1-based index of the static and dynamic table.
+	 * @return the entry or <code>null</code> if the index is out of range.
+	 */
+	public HttpHeader get(int index) {
+		if (index <= 0) {
+			return null;
+		}
+		if (index <= STATIC_LENGTH) {
+			return STATIC_TABLE[index];
+		}
+		int i = index - STATIC_LENGTH - 1;
+		if (i >= length) {
+			return null;
+		}
+		return entries[(head - 1 - i + entries.length) % entries.length];
+	}
+
+	/**
+	 * @param octets octet length of the name and value
+	 */
+	public void add(String name, String value, int octets) {
+		int entrySize = octets + ENTRY_OVERHEAD;
+		if (entrySize > maxSize) {
+			// an entry larger than the table empties the table, see RFC 7541 section 4.4
+			clear();
+			return;
+		}
+
+		evict(maxSize - entrySize);
+		if (length == entries.length) {
+			HttpHeader[] expanded      = new HttpHeader[entries.length * 2];
+			int[]        expandedSizes = new int[entries.length * 2]       ;
+			for (int i = 0; i < length; i++) {
+				int j = (head - length + i + entries.length) % entries.length;
+				expanded[i]      = entries[j];
+				expandedSizes[i] = sizes[j]  ;
+			}
+			entries = expanded     ;
+			sizes   = expandedSizes;
+			head    = length       ;
+		}
+		entries[head] = new HttpHeader(name, value);
+		sizes  [head] = entrySize;
+		head = (head + 1) % entries.length;
+		length++;
+		size += entrySize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		evict(maxSize);
+	}
+
+	/**
+	 * @return index of the entry with the name and value, or the negative index of an entry with the name, or 0 if none matches.
+	 */
+	public int indexOf(String name, String value) {
+		Integer i = STATIC_ENTRIES.get(name + ":" + value);
+		if (i != null) {
+			return i;
+		}
+
+		int nameIndex = 0;
+		for (int j = 0; j < length; j++) {
+			HttpHeader e = entries[(head - 1 - j + entries.length) % entries.length];
+			if (e.getName().equals(name)) {
+				if (e.getValue().equals(value)) {
+					return STATIC_LENGTH + 1 + j;
+				}
+				if (nameIndex == 0) {
+					nameIndex = STATIC_LENGTH + 1 + j;
+				}
+			}
+		}
+
+		Integer ni = STATIC_NAMES.get(name);
+		if (ni != null) {
+			return -ni;
+		}
+		return -nameIndex;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private void evict(int limit) {
+		while (size > limit && length > 0) {
+			int tail = (head - length + entries.length) % entries.length;
+			entries[tail] = null;
+			size -= sizes[tail];
+			length--;
+		}
+	}
+
+	private void clear() {
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = null;
+		}
+		head = length = size = 0;
+	}
+
+}
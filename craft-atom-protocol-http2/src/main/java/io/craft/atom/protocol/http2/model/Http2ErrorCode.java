@@ -0,0 +1,49 @@
+package io.craft.atom.protocol.http2.model;
+
+/**
+ * Enumeration of HTTP/2 error codes used in RST_STREAM and GOAWAY frames, see RFC 7540 section 7.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public enum Http2ErrorCode {
+
+
+	NO_ERROR           (0x0),
+	PROTOCOL_ERROR     (0x1),
+	INTERNAL_ERROR     (0x2),
+	FLOW_CONTROL_ERROR (0x3),
+	SETTINGS_TIMEOUT   (0x4),
+	STREAM_CLOSED      (0x5),
+	FRAME_SIZE_ERROR   (0x6),
+	REFUSED_STREAM     (0x7),
+	CANCEL             (0x8),
+	COMPRESSION_ERROR  (0x9),
+	CONNECT_ERROR      (0xa),
+	ENHANCE_YOUR_CALM  (0xb),
+	INADEQUATE_SECURITY(0xc),
+	HTTP_1_1_REQUIRED  (0xd);
+
+
+	private static final Http2ErrorCode[] CODES = values();
+
+
+	private final int code;
+
+
+	private Http2ErrorCode(int code) {
+		this.code = code;
+	}
+
+	/**
+	 * @return error code of the value, unknown codes are treated as {@link #INTERNAL_ERROR}.
+	 */
+	public static Http2ErrorCode from(int code) {
+		return code >= 0 && code < CODES.length ? CODES[code] : INTERNAL_ERROR;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+}
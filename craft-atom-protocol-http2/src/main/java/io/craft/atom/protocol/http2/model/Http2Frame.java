@@ -0,0 +1,71 @@
+package io.craft.atom.protocol.http2.model;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * An HTTP/2 frame, a fixed 9-octet header followed by a variable-length payload.
+ * <pre>
+ *  +-----------------------------------------------+
+ *  |                 Length (24)                   |
+ *  +---------------+---------------+---------------+
+ *  |   Type (8)    |   Flags (8)   |
+ *  +-+-------------+---------------+-------------------------------+
+ *  |R|                 Stream Identifier (31)                      |
+ *  +=+=============================================================+
+ *  |                   Frame Payload (0...)                      ...
+ *  +---------------------------------------------------------------+
+ * </pre>
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "type", "flags", "streamId" })
+public class Http2Frame implements Serializable {
+
+
+	private static final long serialVersionUID = -2810327416593048203L;
+
+
+	public  static final int  HEADER_LENGTH    = 9   ;
+	public  static final int  FLAG_END_STREAM  = 0x1 ;
+	public  static final int  FLAG_ACK         = 0x1 ;
+	public  static final int  FLAG_END_HEADERS = 0x4 ;
+	public  static final int  FLAG_PADDED      = 0x8 ;
+	public  static final int  FLAG_PRIORITY    = 0x20;
+
+
+	@Getter @Setter private Http2FrameType type    ;
+	@Getter @Setter private int            flags   ;
+	@Getter @Setter private int            streamId;
+	@Getter @Setter private byte[]         payload ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public Http2Frame() {}
+
+	public Http2Frame(Http2FrameType type, int flags, int streamId, byte[] payload) {
+		this.type     = type    ;
+		this.flags    = flags   ;
+		this.streamId = streamId;
+		this.payload  = payload ;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public boolean hasFlag(int flag) {
+		return (flags & flag) != 0;
+	}
+
+	public int getLength() {
+		return payload == null ? 0 : payload.length;
+	}
+
+}
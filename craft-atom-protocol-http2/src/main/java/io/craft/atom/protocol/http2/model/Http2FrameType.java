@@ -0,0 +1,45 @@
+package io.craft.atom.protocol.http2.model;
+
+/**
+ * Enumeration of HTTP/2 frame types, see RFC 7540 section 6.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public enum Http2FrameType {
+
+
+	DATA         (0x0),
+	HEADERS      (0x1),
+	PRIORITY     (0x2),
+	RST_STREAM   (0x3),
+	SETTINGS     (0x4),
+	PUSH_PROMISE (0x5),
+	PING         (0x6),
+	GOAWAY       (0x7),
+	WINDOW_UPDATE(0x8),
+	CONTINUATION (0x9);
+
+
+	private static final Http2FrameType[] TYPES = values();
+
+
+	private final int code;
+
+
+	private Http2FrameType(int code) {
+		this.code = code;
+	}
+
+	/**
+	 * @return frame type of the code, or <code>null</code> if the type is unknown.
+	 */
+	public static Http2FrameType from(int code) {
+		return code >= 0 && code < TYPES.length ? TYPES[code] : null;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+}
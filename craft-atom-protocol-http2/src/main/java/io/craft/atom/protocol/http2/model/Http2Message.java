@@ -0,0 +1,52 @@
+package io.craft.atom.protocol.http2.model;
+
+import io.craft.atom.protocol.http.model.HttpMessage;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A complete message received on an HTTP/2 stream, an {@link io.craft.atom.protocol.http.model.HttpRequest} on the server side
+ * and an {@link io.craft.atom.protocol.http.model.HttpResponse} on the client side.
+ * <br>
+ * If the stream is reset before the message completes, the message is <code>null</code> and the error code tells why.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString
+public class Http2Message implements Serializable {
+
+
+	private static final long serialVersionUID = 8406427911342215317L;
+
+
+	@Getter private final int            streamId ;
+	@Getter private final HttpMessage    message  ;
+	@Getter private final Http2ErrorCode errorCode;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public Http2Message(int streamId, HttpMessage message) {
+		this(streamId, message, null);
+	}
+
+	public Http2Message(int streamId, HttpMessage message, Http2ErrorCode errorCode) {
+		this.streamId  = streamId ;
+		this.message   = message  ;
+		this.errorCode = errorCode;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public boolean isReset() {
+		return errorCode != null;
+	}
+
+}
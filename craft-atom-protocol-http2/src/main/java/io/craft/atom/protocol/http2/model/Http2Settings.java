@@ -0,0 +1,136 @@
+package io.craft.atom.protocol.http2.model;
+
+import io.craft.atom.protocol.http2.Http2Exception;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * HTTP/2 connection settings, initial values are defined by RFC 7540 section 6.5.2.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString
+public class Http2Settings implements Serializable {
+
+
+	private static final long serialVersionUID = 5403615960437917186L;
+
+	public  static final int  HEADER_TABLE_SIZE      = 0x1       ;
+	public  static final int  ENABLE_PUSH            = 0x2       ;
+	public  static final int  MAX_CONCURRENT_STREAMS = 0x3       ;
+	public  static final int  INITIAL_WINDOW_SIZE    = 0x4       ;
+	public  static final int  MAX_FRAME_SIZE         = 0x5       ;
+	public  static final int  MAX_HEADER_LIST_SIZE   = 0x6       ;
+	public  static final int  DEFAULT_WINDOW_SIZE    = 65535     ;
+	public  static final int  DEFAULT_FRAME_SIZE     = 16384     ;
+	public  static final int  MAX_WINDOW_SIZE        = 0x7fffffff;
+	public  static final int  MAX_FRAME_SIZE_LIMIT   = 0xffffff  ;
+
+
+	@Getter @Setter private int     headerTableSize      = 4096               ;
+	@Getter @Setter private boolean enablePush           = true               ;
+	@Getter @Setter private int     maxConcurrentStreams = Integer.MAX_VALUE  ;
+	@Getter @Setter private int     initialWindowSize    = DEFAULT_WINDOW_SIZE;
+	@Getter @Setter private int     maxFrameSize         = DEFAULT_FRAME_SIZE ;
+	@Getter @Setter private int     maxHeaderListSize    = Integer.MAX_VALUE  ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public Http2Settings() {}
+
+	public Http2Settings(Http2Settings settings) {
+		this.headerTableSize      = settings.headerTableSize     ;
+		this.enablePush           = settings.enablePush          ;
+		this.maxConcurrentStreams = settings.maxConcurrentStreams;
+		this.initialWindowSize    = settings.initialWindowSize   ;
+		this.maxFrameSize         = settings.maxFrameSize        ;
+		this.maxHeaderListSize    = settings.maxHeaderListSize   ;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @return SETTINGS frame payload of the values differ from the initial ones.
+	 */
+	public byte[] toPayload() {
+		Http2Settings initial = new Http2Settings();
+		int[] ids    = new int[6];
+		int[] values = new int[6];
+		int   n      = 0;
+		if (headerTableSize != initial.headerTableSize)                { ids[n] = HEADER_TABLE_SIZE     ; values[n++] = headerTableSize     ; }
+		if (enablePush != initial.enablePush)                          { ids[n] = ENABLE_PUSH           ; values[n++] = enablePush ? 1 : 0  ; }
+		if (maxConcurrentStreams != initial.maxConcurrentStreams)      { ids[n] = MAX_CONCURRENT_STREAMS; values[n++] = maxConcurrentStreams; }
+		if (initialWindowSize != initial.initialWindowSize)            { ids[n] = INITIAL_WINDOW_SIZE   ; values[n++] = initialWindowSize   ; }
+		if (maxFrameSize != initial.maxFrameSize)                      { ids[n] = MAX_FRAME_SIZE        ; values[n++] = maxFrameSize        ; }
+		if (maxHeaderListSize != initial.maxHeaderListSize)            { ids[n] = MAX_HEADER_LIST_SIZE  ; values[n++] = maxHeaderListSize   ; }
+
+		byte[] payload = new byte[n * 6];
+		for (int i = 0; i < n; i++) {
+			int off = i * 6;
+			payload[off]     = (byte) (ids[i] >>> 8) ;
+			payload[off + 1] = (byte)  ids[i]        ;
+			payload[off + 2] = (byte) (values[i] >>> 24);
+			payload[off + 3] = (byte) (values[i] >>> 16);
+			payload[off + 4] = (byte) (values[i] >>> 8) ;
+			payload[off + 5] = (byte)  values[i]        ;
+		}
+		return payload;
+	}
+
+	/**
+	 * Applies the values of a SETTINGS frame payload, unknown settings are ignored.
+	 *
+	 * @throws Http2Exception if the payload or a value is invalid.
+	 */
+	public void apply(byte[] payload) throws Http2Exception {
+		if (payload.length % 6 != 0) {
+			throw new Http2Exception(Http2ErrorCode.FRAME_SIZE_ERROR, "Invalid settings length, |length=" + payload.length + "|");
+		}
+
+		for (int off = 0; off < payload.length; off += 6) {
+			int  id    = ((payload[off] & 0xff) << 8) | (payload[off + 1] & 0xff);
+			long value = ((payload[off + 2] & 0xffL) << 24) | ((payload[off + 3] & 0xff) << 16) | ((payload[off + 4] & 0xff) << 8) | (payload[off + 5] & 0xff);
+			switch (id) {
+			case HEADER_TABLE_SIZE:
+				headerTableSize = (int) Math.min(value, Integer.MAX_VALUE);
+				break;
+			case ENABLE_PUSH:
+				if (value > 1) {
+					throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Invalid enable push, |value=" + value + "|");
+				}
+				enablePush = value == 1;
+				break;
+			case MAX_CONCURRENT_STREAMS:
+				maxConcurrentStreams = (int) Math.min(value, Integer.MAX_VALUE);
+				break;
+			case INITIAL_WINDOW_SIZE:
+				if (value > MAX_WINDOW_SIZE) {
+					throw new Http2Exception(Http2ErrorCode.FLOW_CONTROL_ERROR, "Invalid initial window size, |value=" + value + "|");
+				}
+				initialWindowSize = (int) value;
+				break;
+			case MAX_FRAME_SIZE:
+				if (value < DEFAULT_FRAME_SIZE || value > MAX_FRAME_SIZE_LIMIT) {
+					throw new Http2Exception(Http2ErrorCode.PROTOCOL_ERROR, "Invalid max frame size, |value=" + value + "|");
+				}
+				maxFrameSize = (int) value;
+				break;
+			case MAX_HEADER_LIST_SIZE:
+				maxHeaderListSize = (int) Math.min(value, Integer.MAX_VALUE);
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,306 @@
+package io.craft.atom.protocol.http2;
+
+import io.craft.atom.protocol.http.model.HttpEntity;
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpMethod;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpRequestLine;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpStatusLine;
+import io.craft.atom.protocol.http.model.HttpVersion;
+import io.craft.atom.protocol.http2.api.Http2CodecFactory;
+import io.craft.atom.protocol.http2.model.Http2ErrorCode;
+import io.craft.atom.protocol.http2.model.Http2Message;
+import io.craft.atom.protocol.http2.model.Http2Settings;
+import io.craft.atom.test.CaseCounter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHttp2Connection {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestHttp2Connection.class);
+
+
+	private Random             random    = new Random(7540);
+	private List<Http2Message> requests  = new ArrayList<Http2Message>();
+	private List<Http2Message> responses = new ArrayList<Http2Message>();
+	private boolean            chunked                                  ;
+
+
+	@Test
+	public void testExchange() {
+		Http2Connection client = Http2CodecFactory.newHttp2ClientConnection();
+		Http2Connection server = Http2CodecFactory.newHttp2ServerConnection();
+		HttpRequest request = request(HttpMethod.POST, "/echo?x=1", "hello".getBytes());
+		request.addHeader(new HttpHeader("Connection", "keep-alive"));
+		int id = client.request(request);
+		Assert.assertEquals(1, id);
+		pump(client, server);
+
+		Assert.assertEquals(1, requests.size());
+		HttpRequest r = (HttpRequest) requests.get(0).getMessage();
+		Assert.assertEquals(HttpMethod.POST, r.getRequestLine().getMethod());
+		Assert.assertEquals("/echo?x=1", r.getRequestLine().getUri());
+		Assert.assertEquals(HttpVersion.HTTP_2_0, r.getRequestLine().getVersion());
+		Assert.assertEquals("example.com", r.getFirstHeader("Host").getValue());
+		Assert.assertEquals("v", r.getFirstHeader("x-custom").getValue());
+		Assert.assertNull(r.getFirstHeader("connection"));
+		Assert.assertEquals("hello", new String(r.getEntity().getContent()));
+
+		Assert.assertTrue(server.respond(id, response(HttpStatus.CREATED, "world".getBytes())));
+		pump(client, server);
+		Assert.assertEquals(1, responses.size());
+		HttpResponse rsp = (HttpResponse) responses.get(0).getMessage();
+		Assert.assertEquals(HttpStatus.CREATED, rsp.getStatusLine().getStatus());
+		Assert.assertEquals("world", new String(rsp.getEntity().getContent()));
+		Assert.assertEquals(0, client.getStreamCount());
+		Assert.assertEquals(0, server.getStreamCount());
+		Assert.assertFalse(server.respond(id, response(HttpStatus.OK, null)));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test exchange. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testMultiplex() {
+		chunked = true;
+		Http2Settings settings = new Http2Settings();
+		settings.setMaxFrameSize(32768);
+		Http2Connection client = Http2CodecFactory.newHttp2ClientConnection();
+		Http2Connection server = Http2CodecFactory.newHttp2ServerConnection(settings);
+
+		// bodies larger than the default window need WINDOW_UPDATE to complete
+		Map<Integer, byte[]> bodies = new HashMap<Integer, byte[]>();
+		for (int i = 0; i < 64; i++) {
+			byte[] body = new byte[random.nextInt(200000)];
+			random.nextBytes(body);
+			bodies.put(client.request(request(HttpMethod.PUT, "/item/" + i, body)), body);
+		}
+		pump(client, server);
+		Assert.assertEquals(64, requests.size());
+		for (Http2Message m : requests) {
+			Assert.assertTrue(Arrays.equals(bodies.get(m.getStreamId()), entity(m)));
+			server.respond(m.getStreamId(), response(HttpStatus.OK, entity(m)));
+		}
+		pump(client, server);
+		Assert.assertEquals(64, responses.size());
+		for (Http2Message m : responses) {
+			Assert.assertTrue(Arrays.equals(bodies.get(m.getStreamId()), entity(m)));
+		}
+		Assert.assertEquals(0, client.getStreamCount());
+		Assert.assertEquals(0, server.getStreamCount());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test multiplex. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testWindow() {
+		Http2Settings settings = new Http2Settings();
+		settings.setInitialWindowSize(1024 * 1024);
+		Http2Connection client = Http2CodecFactory.newHttp2ClientConnection(settings);
+		Http2Connection server = Http2CodecFactory.newHttp2ServerConnection();
+		pump(client, server);
+		Assert.assertEquals(1024 * 1024, client.getRecvWindow());
+
+		int id = client.request(request(HttpMethod.GET, "/big", null));
+		pump(client, server);
+		byte[] body = new byte[3 * 1024 * 1024];
+		random.nextBytes(body);
+		server.respond(id, response(HttpStatus.OK, body));
+		pump(client, server);
+		Assert.assertEquals(1, responses.size());
+		Assert.assertTrue(Arrays.equals(body, entity(responses.get(0))));
+
+		// content limit
+		client.setMaxContentLength(1024);
+		id = client.request(request(HttpMethod.GET, "/big", null));
+		pump(client, server);
+		server.respond(id, response(HttpStatus.OK, body));
+		pump(client, server);
+		Assert.assertEquals(2, responses.size());
+		Assert.assertEquals(Http2ErrorCode.CANCEL, responses.get(1).getErrorCode());
+		Assert.assertEquals(0, server.getStreamCount());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test window. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testReset() {
+		Http2Settings settings = new Http2Settings();
+		settings.setMaxConcurrentStreams(2);
+		Http2Connection client = Http2CodecFactory.newHttp2ClientConnection();
+		Http2Connection server = Http2CodecFactory.newHttp2ServerConnection(settings);
+		pump(client, server);
+
+		// concurrent streams limit
+		int a = client.request(request(HttpMethod.GET, "/a", null));
+		int b = client.request(request(HttpMethod.GET, "/b", null));
+		try {
+			client.request(request(HttpMethod.GET, "/c", null));
+			Assert.fail();
+		} catch (Http2Exception e) {
+			Assert.assertEquals(Http2ErrorCode.REFUSED_STREAM, e.getErrorCode());
+		}
+		pump(client, server);
+		Assert.assertEquals(2, requests.size());
+
+		// client cancel
+		client.reset(a, Http2ErrorCode.CANCEL);
+		pump(client, server);
+		Assert.assertFalse(server.respond(a, response(HttpStatus.OK, null)));
+		Assert.assertEquals(1, server.getStreamCount());
+
+		// server reset
+		server.reset(b, Http2ErrorCode.INTERNAL_ERROR);
+		pump(client, server);
+		Assert.assertEquals(1, responses.size());
+		Assert.assertTrue(responses.get(0).isReset());
+		Assert.assertEquals(Http2ErrorCode.INTERNAL_ERROR, responses.get(0).getErrorCode());
+		Assert.assertEquals(0, client.getStreamCount());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test reset. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testGoAway() {
+		Http2Connection client = Http2CodecFactory.newHttp2ClientConnection();
+		Http2Connection server = Http2CodecFactory.newHttp2ServerConnection();
+		int a = client.request(request(HttpMethod.GET, "/a", null));
+		pump(client, server);
+		server.goAway(Http2ErrorCode.NO_ERROR);
+
+		// stream b is sent before GOAWAY arrives, it is refused and safe to retry
+		int b = client.request(request(HttpMethod.GET, "/b", null));
+		pump(client, server);
+		Assert.assertTrue(client.isGoAwayReceived());
+		Assert.assertEquals(1, requests.size());
+		Assert.assertEquals(1, responses.size());
+		Assert.assertEquals(b, responses.get(0).getStreamId());
+		Assert.assertEquals(Http2ErrorCode.REFUSED_STREAM, responses.get(0).getErrorCode());
+		try {
+			client.request(request(HttpMethod.GET, "/c", null));
+			Assert.fail();
+		} catch (Http2Exception e) {
+			Assert.assertEquals(Http2ErrorCode.REFUSED_STREAM, e.getErrorCode());
+		}
+
+		// existing stream completes
+		Assert.assertTrue(server.respond(a, response(HttpStatus.OK, "ok".getBytes())));
+		pump(client, server);
+		Assert.assertEquals(2, responses.size());
+		Assert.assertEquals("ok", new String(entity(responses.get(1))));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test go away. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testProtocolError() {
+		Http2Connection server = Http2CodecFactory.newHttp2ServerConnection();
+		byte[] bytes = new byte[Http2FrameDecoder.PREFACE.length + 9];
+		System.arraycopy(Http2FrameDecoder.PREFACE, 0, bytes, 0, Http2FrameDecoder.PREFACE.length);
+		// DATA on stream 0
+		bytes[Http2FrameDecoder.PREFACE.length + 3] = 0;
+		try {
+			server.decode(bytes);
+			Assert.fail();
+		} catch (Http2Exception e) {
+			Assert.assertEquals(Http2ErrorCode.PROTOCOL_ERROR, e.getErrorCode());
+		}
+		Assert.assertTrue(server.isGoAwaySent());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test protocol error. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testPerformance() {
+		Http2Connection client = Http2CodecFactory.newHttp2ClientConnection();
+		Http2Connection server = Http2CodecFactory.newHttp2ServerConnection();
+		byte[] body = new byte[256];
+		int n = 50000, batch = 100;
+		long s = System.nanoTime();
+		for (int i = 0; i < n / batch; i++) {
+			for (int j = 0; j < batch; j++) {
+				client.request(request(HttpMethod.GET, "/api/item", null));
+			}
+			pump(client, server);
+			for (Http2Message m : requests) {
+				server.respond(m.getStreamId(), response(HttpStatus.OK, body));
+			}
+			requests.clear();
+			pump(client, server);
+			Assert.assertEquals(batch, responses.size());
+			responses.clear();
+		}
+		long e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP2] Connection exchange performance, |count={}, elapsed={}ms|", n, (e - s) / 1000000);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test performance. ", CaseCounter.incr(1)));
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Moves bytes between the two endpoints until both are quiet, optionally in random sized chunks.
+	 */
+	private void pump(Http2Connection client, Http2Connection server) {
+		while (true) {
+			byte[] c = client.flush();
+			byte[] s = server.flush();
+			if (c.length == 0 && s.length == 0) {
+				return;
+			}
+			deliver(c, server, requests);
+			deliver(s, client, responses);
+		}
+	}
+
+	private void deliver(byte[] bytes, Http2Connection to, List<Http2Message> messages) {
+		if (!chunked) {
+			messages.addAll(to.decode(bytes));
+			return;
+		}
+		for (int off = 0; off < bytes.length;) {
+			int n = Math.min(bytes.length - off, 1 + random.nextInt(8192));
+			messages.addAll(to.decode(Arrays.copyOfRange(bytes, off, off + n)));
+			off += n;
+		}
+	}
+
+	private static HttpRequest request(HttpMethod method, String uri, byte[] body) {
+		HttpRequest request = new HttpRequest();
+		request.setRequestLine(new HttpRequestLine(method, uri, HttpVersion.HTTP_2_0));
+		request.addHeader(new HttpHeader("Host", "example.com"));
+		request.addHeader(new HttpHeader("X-Custom", "v"));
+		if (body != null) {
+			request.setEntity(new HttpEntity(body));
+		}
+		return request;
+	}
+
+	private static HttpResponse response(HttpStatus status, byte[] body) {
+		HttpResponse response = new HttpResponse();
+		response.setStatusLine(new HttpStatusLine(HttpVersion.HTTP_2_0, status));
+		response.addHeader(new HttpHeader("Content-Type", "application/octet-stream"));
+		if (body != null) {
+			response.setEntity(new HttpEntity(body));
+		}
+		return response;
+	}
+
+	private static byte[] entity(Http2Message m) {
+		HttpEntity entity = m.getMessage().getEntity();
+		return entity == null ? new byte[0] : entity.getContent();
+	}
+
+}
@@ -0,0 +1,129 @@
+package io.craft.atom.protocol.http2;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.http2.api.Http2CodecFactory;
+import io.craft.atom.protocol.http2.model.Http2ErrorCode;
+import io.craft.atom.protocol.http2.model.Http2Frame;
+import io.craft.atom.protocol.http2.model.Http2FrameType;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHttp2FrameDecoder {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestHttp2FrameDecoder.class);
+
+
+	private ProtocolEncoder<Http2Frame> encoder = Http2CodecFactory.newHttp2FrameEncoder();
+
+
+	@Test
+	public void testRoundTrip() {
+		ProtocolDecoder<Http2Frame> decoder = Http2CodecFactory.newHttp2FrameDecoder();
+		Http2Frame frame = new Http2Frame(Http2FrameType.DATA, Http2Frame.FLAG_END_STREAM, 0x7ffffffd, "hello".getBytes());
+		List<Http2Frame> frames = decoder.decode(encoder.encode(frame));
+		Assert.assertEquals(1, frames.size());
+		Assert.assertEquals(Http2FrameType.DATA, frames.get(0).getType());
+		Assert.assertTrue(frames.get(0).hasFlag(Http2Frame.FLAG_END_STREAM));
+		Assert.assertEquals(0x7ffffffd, frames.get(0).getStreamId());
+		Assert.assertEquals("hello", new String(frames.get(0).getPayload()));
+
+		// empty payload
+		frames = decoder.decode(encoder.encode(new Http2Frame(Http2FrameType.SETTINGS, Http2Frame.FLAG_ACK, 0, null)));
+		Assert.assertEquals(1, frames.size());
+		Assert.assertEquals(0, frames.get(0).getLength());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test round trip. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testSplit() {
+		ByteArrayBuffer buf = new ByteArrayBuffer(1024);
+		buf.append(Http2FrameDecoder.PREFACE);
+		for (int i = 0; i < 50; i++) {
+			byte[] payload = new byte[i * 7];
+			Arrays.fill(payload, (byte) i);
+			Http2FrameEncoder.write(buf, Http2FrameType.DATA, 0, 2 * i + 1, payload, 0, payload.length);
+		}
+		byte[] bytes = buf.array();
+
+		for (int step = 1; step < 64; step += 5) {
+			ProtocolDecoder<Http2Frame> decoder = Http2CodecFactory.newHttp2FrameDecoder(true);
+			List<Http2Frame> frames = new ArrayList<Http2Frame>();
+			for (int off = 0; off < bytes.length; off += step) {
+				frames.addAll(decoder.decode(Arrays.copyOfRange(bytes, off, Math.min(bytes.length, off + step))));
+			}
+			Assert.assertEquals(50, frames.size());
+			for (int i = 0; i < 50; i++) {
+				Assert.assertEquals(2 * i + 1, frames.get(i).getStreamId());
+				Assert.assertEquals(i * 7, frames.get(i).getLength());
+			}
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test split. ", CaseCounter.incr(1)));
+	}
+
+	@Test
+	public void testInvalid() {
+		// preface
+		try {
+			Http2CodecFactory.newHttp2FrameDecoder(true).decode("GET / HTTP/1.1\r\n".getBytes());
+			Assert.fail();
+		} catch (Http2Exception e) {
+			Assert.assertEquals(Http2ErrorCode.PROTOCOL_ERROR, e.getErrorCode());
+		}
+
+		// frame size
+		try {
+			byte[] payload = new byte[16385];
+			Http2CodecFactory.newHttp2FrameDecoder().decode(encoder.encode(new Http2Frame(Http2FrameType.DATA, 0, 1, payload)));
+			Assert.fail();
+		} catch (Http2Exception e) {
+			Assert.assertEquals(Http2ErrorCode.FRAME_SIZE_ERROR, e.getErrorCode());
+		}
+
+		// unknown type is discarded
+		ByteArrayBuffer buf = new ByteArrayBuffer(64);
+		buf.append(new byte[] { 0, 0, 2, (byte) 0xee, 0, 0, 0, 0, 1, 'x', 'y' });
+		buf.append(encoder.encode(new Http2Frame(Http2FrameType.PING, 0, 0, new byte[8])));
+		List<Http2Frame> frames = Http2CodecFactory.newHttp2FrameDecoder().decode(buf.array());
+		Assert.assertEquals(1, frames.size());
+		Assert.assertEquals(Http2FrameType.PING, frames.get(0).getType());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test invalid. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testPerformance() {
+		ByteArrayBuffer buf = new ByteArrayBuffer(64 * 1024);
+		byte[] payload = new byte[1024];
+		for (int i = 0; i < 64; i++) {
+			Http2FrameEncoder.write(buf, Http2FrameType.DATA, 0, 1, payload, 0, payload.length);
+		}
+		byte[] bytes = buf.array();
+
+		ProtocolDecoder<Http2Frame> decoder = Http2CodecFactory.newHttp2FrameDecoder();
+		int n = 2000, count = 0;
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			count += decoder.decode(bytes).size();
+		}
+		long e = System.nanoTime();
+		Assert.assertEquals(n * 64, count);
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP2] Frame decode performance, |frames={}, bytes={}, elapsed={}ms|", count, (long) n * bytes.length, (e - s) / 1000000);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test performance. ", CaseCounter.incr(1)));
+	}
+
+}
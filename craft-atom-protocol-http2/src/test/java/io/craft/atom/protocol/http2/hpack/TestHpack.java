@@ -0,0 +1,219 @@
+package io.craft.atom.protocol.http2.hpack;
+
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http2.Http2Exception;
+import io.craft.atom.protocol.http2.model.Http2ErrorCode;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestHpack {
+
+
+	private static final Logger  LOG   = LoggerFactory.getLogger(TestHpack.class);
+	private static final Charset ASCII = Charset.forName("US-ASCII");
+
+
+	// RFC 7541 C.4, requests with huffman coding
+	private static final String[]   BLOCKS  = { "828684418cf1e3c2e5f23a6ba0ab90f4ff", "828684be5886a8eb10649cbf", "828785bf408825a849e95ba97d7f8925a849e95bb8e8b4bf" };
+	private static final String[][] HEADERS = {
+		{ ":method", "GET", ":scheme", "http" , ":path", "/"          , ":authority", "www.example.com" },
+		{ ":method", "GET", ":scheme", "http" , ":path", "/"          , ":authority", "www.example.com", "cache-control", "no-cache" },
+		{ ":method", "GET", ":scheme", "https", ":path", "/index.html", ":authority", "www.example.com", "custom-key"   , "custom-value" }
+	};
+	private static final int[]      SIZES   = { 57, 110, 164 };
+
+
+	@Test
+	public void testDecode() throws Http2Exception {
+		HpackDecoder decoder = new HpackDecoder();
+		for (int i = 0; i < BLOCKS.length; i++) {
+			assertHeaders(headers(HEADERS[i]), decoder.decode(hex(BLOCKS[i])));
+			Assert.assertEquals(SIZES[i], decoder.getTable().getSize());
+		}
+
+		// RFC 7541 C.3.1, without huffman coding
+		decoder = new HpackDecoder();
+		assertHeaders(headers(HEADERS[0]), decoder.decode(hex("828684410f7777772e6578616d706c652e636f6d")));
+		Assert.assertEquals(57, decoder.getTable().getSize());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test decode. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testEncode() throws Http2Exception {
+		HpackEncoder encoder = new HpackEncoder();
+		for (int i = 0; i < BLOCKS.length; i++) {
+			ByteArrayBuffer out = new ByteArrayBuffer(64);
+			encoder.encode(headers(HEADERS[i]), out);
+			Assert.assertEquals(BLOCKS[i], hex(out.array()));
+			Assert.assertEquals(SIZES[i], encoder.getTable().getSize());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test encode. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testSensitive() throws Http2Exception {
+		HpackEncoder    encoder = new HpackEncoder();
+		HpackDecoder    decoder = new HpackDecoder();
+		List<HttpHeader> headers = headers("authorization", "secret", "X-Upper", "Value");
+		for (int i = 0; i < 2; i++) {
+			ByteArrayBuffer out = new ByteArrayBuffer(64);
+			encoder.encode(headers, out);
+			Assert.assertEquals(0x10, out.buffer()[0] & 0xf0);
+			assertHeaders(headers("authorization", "secret", "x-upper", "Value"), decoder.decode(out.array()));
+		}
+		Assert.assertEquals(1, encoder.getTable().getLength());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test sensitive. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testHuffman() throws Http2Exception {
+		Random random = new Random(7541);
+		for (int i = 0; i < 1000; i++) {
+			byte[] bytes = new byte[random.nextInt(64)];
+			random.nextBytes(bytes);
+			ByteArrayBuffer out = new ByteArrayBuffer(64);
+			HpackHuffman.encode(bytes, out);
+			Assert.assertEquals(HpackHuffman.encodedLength(bytes), out.length());
+			Assert.assertTrue(Arrays.equals(bytes, HpackHuffman.decode(out.buffer(), 0, out.length())));
+		}
+		Assert.assertEquals("www.example.com", new String(HpackHuffman.decode(hex("f1e3c2e5f23a6ba0ab90f4ff"), 0, 12), ASCII));
+
+		// padding longer than 7 bits
+		try {
+			HpackHuffman.decode(hex("f1e3c2e5f23a6ba0ab90f4ffff"), 0, 13);
+			Assert.fail();
+		} catch (Http2Exception e) {
+			Assert.assertEquals(Http2ErrorCode.COMPRESSION_ERROR, e.getErrorCode());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test huffman. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testEviction() throws Http2Exception {
+		HpackEncoder encoder = new HpackEncoder(256);
+		HpackDecoder decoder = new HpackDecoder(256, Integer.MAX_VALUE);
+		encoder.setPeerTableSize(256);
+		for (int i = 0; i < 100; i++) {
+			List<HttpHeader> headers = headers("x-key-" + i, "value-" + i, "x-key-" + (i / 2), "value-" + (i / 2));
+			ByteArrayBuffer out = new ByteArrayBuffer(64);
+			encoder.encode(headers, out);
+			assertHeaders(headers, decoder.decode(out.array()));
+			Assert.assertTrue(decoder.getTable().getSize() <= 256);
+			Assert.assertEquals(encoder.getTable().getSize(), decoder.getTable().getSize());
+		}
+
+		// shrink then grow, both updates are signaled
+		encoder.setPeerTableSize(0);
+		encoder.setPeerTableSize(128);
+		ByteArrayBuffer out = new ByteArrayBuffer(64);
+		encoder.encode(headers("x-key", "value"), out);
+		Assert.assertEquals(0x20, out.buffer()[0] & 0xff);
+		assertHeaders(headers("x-key", "value"), decoder.decode(out.array()));
+		Assert.assertEquals(1, decoder.getTable().getLength());
+		Assert.assertEquals(128, decoder.getTable().getMaxSize());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test eviction. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testInvalid() {
+		String[] blocks = {
+			"be"                    , // index beyond table
+			"80"                    , // index 0
+			"8240"                  , // truncated literal
+			"82ff"                  , // truncated integer
+			"82ffffffffff0f"        , // integer overflow
+			"823fe11f"              , // size update after header field
+			"3fe21f"                , // size update beyond limit
+			"418cf1e3c2e5f23a6ba0"    // truncated string
+		};
+		for (String block : blocks) {
+			try {
+				new HpackDecoder().decode(hex(block));
+				Assert.fail(block);
+			} catch (Http2Exception e) {
+				Assert.assertEquals(Http2ErrorCode.COMPRESSION_ERROR, e.getErrorCode());
+			}
+		}
+
+		// header list size limit
+		try {
+			new HpackDecoder(4096, 64).decode(hex(BLOCKS[0]));
+			Assert.fail();
+		} catch (Http2Exception e) {
+			Assert.assertEquals(Http2ErrorCode.COMPRESSION_ERROR, e.getErrorCode());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test invalid. ", CaseCounter.incr(blocks.length + 1)));
+	}
+
+	@Test
+	public void testPerformance() throws Http2Exception {
+		List<HttpHeader> headers = headers(":method", "GET", ":scheme", "http", ":path", "/api/v1/items?id=12345", ":authority", "api.example.com",
+		                                   "user-agent", "craft-atom-http2", "accept", "application/json", "accept-encoding", "gzip, deflate", "cookie", "session=0123456789abcdef");
+		HpackEncoder encoder = new HpackEncoder();
+		HpackDecoder decoder = new HpackDecoder();
+		ByteArrayBuffer out = new ByteArrayBuffer(256);
+		int n = 100000;
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			out.clear();
+			encoder.encode(headers, out);
+			decoder.decode(out.array());
+		}
+		long e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-HTTP2] Hpack round trip performance, |count={}, elapsed={}ms, block={} bytes|", n, (e - s) / 1000000, out.length());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-HTTP2] (^_^)  <%s>  Case -> test performance. ", CaseCounter.incr(1)));
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private static void assertHeaders(List<HttpHeader> expected, List<HttpHeader> actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i).getName() , actual.get(i).getName() );
+			Assert.assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+		}
+	}
+
+	private static List<HttpHeader> headers(String... kvs) {
+		List<HttpHeader> headers = new ArrayList<HttpHeader>();
+		for (int i = 0; i < kvs.length; i += 2) {
+			headers.add(new HttpHeader(kvs[i], kvs[i + 1]));
+		}
+		return headers;
+	}
+
+	private static byte[] hex(String s) {
+		byte[] bytes = new byte[s.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(s.substring(2 * i, 2 * i + 2), 16);
+		}
+		return bytes;
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes) {
+			sb.append(String.format("%02x", b & 0xff));
+		}
+		return sb.toString();
+	}
+
+}
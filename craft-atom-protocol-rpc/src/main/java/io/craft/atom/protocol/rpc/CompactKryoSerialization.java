@@ -0,0 +1,186 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.protocol.rpc.model.RpcOption;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+/**
+ * The compact implementor using <a href="https://github.com/EsotericSoftware/kryo">kryo</a>.
+ * <p>
+ * The body is written field by field after a flag varint, only present fields are written and no field name is written.
+ * A body with a positive method id writes the id instead of the rpc interface, method name and parameter types,
+ * so it is only used between peers those have negotiated a method table.
+ * <pre>
+ *      compact-body = flags [ method-id | rpc-interface method-name parameter-types ] [ rpc-id ] [ parameters ]
+ *                     [ rpc-timeout ] [ attachments ] [ return-object ] [ exception ]
+ * </pre>
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class CompactKryoSerialization extends KryoSerialization {
+
+	// singleton
+	private static final CompactKryoSerialization INSTNACE = new CompactKryoSerialization();
+	public static CompactKryoSerialization getInstance() { return INSTNACE; }
+	private CompactKryoSerialization() {}
+
+
+	private static final int METHOD_ID     = 0x01;
+	private static final int METHOD        = 0x02;
+	private static final int RPC_ID        = 0x04;
+	private static final int PARAMETERS    = 0x08;
+	private static final int OPTION        = 0x10;
+	private static final int ATTACHMENTS   = 0x20;
+	private static final int RETURN_OBJECT = 0x40;
+	private static final int EXCEPTION     = 0x80;
+	
+	
+	private static final Map<String, Class<?>> CLASSES = new ConcurrentHashMap<String, Class<?>>();
+	static {
+		Class<?>[] primitives = { boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class };
+		for (Class<?> primitive : primitives) {
+			CLASSES.put(primitive.getName(), primitive);
+		}
+	}
+
+
+	// ~ --------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public byte type() {
+		return 2;
+	}
+
+	@Override
+	protected void write(Kryo kryo, Output output, RpcBody rb) {
+		RpcMethod method = rb.getRpcMethod();
+		int flags = 0;
+		if (rb.getMethodId() > 0)                                { flags |= METHOD_ID    ; }
+		else if (rb.getRpcInterface() != null && method != null) { flags |= METHOD       ; }
+		if (rb.getRpcId() != null)                               { flags |= RPC_ID       ; }
+		if (method != null && method.getParameters() != null)    { flags |= PARAMETERS   ; }
+		if (rb.getRpcOption() != null)                           { flags |= OPTION       ; }
+		if (rb.getAttachments() != null)                         { flags |= ATTACHMENTS  ; }
+		if (rb.getReturnObject() != null)                        { flags |= RETURN_OBJECT; }
+		if (rb.getException() != null)                           { flags |= EXCEPTION    ; }
+		output.writeVarInt(flags, true);
+
+		if ((flags & METHOD_ID) != 0) {
+			output.writeVarInt(rb.getMethodId(), true);
+		}
+		if ((flags & METHOD) != 0) {
+			output.writeString(rb.getRpcInterface().getName());
+			output.writeString(method.getName());
+			Class<?>[] types = method.getParameterTypes();
+			output.writeVarInt(types == null ? 0 : types.length + 1, true);
+			for (int i = 0; types != null && i < types.length; i++) {
+				output.writeString(types[i].getName());
+			}
+		}
+		if ((flags & RPC_ID) != 0) {
+			output.writeString(rb.getRpcId());
+		}
+		if ((flags & PARAMETERS) != 0) {
+			// one object graph keeps the references between parameters
+			kryo.writeObject(output, method.getParameters());
+		}
+		if ((flags & OPTION) != 0) {
+			output.writeVarInt(rb.getRpcOption().getRpcTimeoutInMillis(), true);
+		}
+		if ((flags & ATTACHMENTS) != 0) {
+			Map<String, String> attachments = rb.getAttachments();
+			output.writeVarInt(attachments.size(), true);
+			for (Entry<String, String> entry : attachments.entrySet()) {
+				output.writeString(entry.getKey());
+				output.writeString(entry.getValue());
+			}
+		}
+		if ((flags & RETURN_OBJECT) != 0) {
+			kryo.writeClassAndObject(output, rb.getReturnObject());
+		}
+		if ((flags & EXCEPTION) != 0) {
+			kryo.writeClassAndObject(output, rb.getException());
+		}
+	}
+
+	@Override
+	protected RpcBody read(Kryo kryo, Input input) {
+		RpcBody   rb     = new RpcBody();
+		RpcMethod method = null;
+		int       flags  = input.readVarInt(true);
+
+		if ((flags & METHOD_ID) != 0) {
+			rb.setMethodId(input.readVarInt(true));
+		}
+		if ((flags & METHOD) != 0) {
+			rb.setRpcInterface(forName(kryo, input.readString()));
+			method = new RpcMethod();
+			method.setName(input.readString());
+			int n = input.readVarInt(true);
+			if (n > 0) {
+				Class<?>[] types = new Class<?>[n - 1];
+				for (int i = 0; i < types.length; i++) {
+					types[i] = forName(kryo, input.readString());
+				}
+				method.setParameterTypes(types);
+			}
+		}
+		if ((flags & RPC_ID) != 0) {
+			rb.setRpcId(input.readString());
+		}
+		if ((flags & PARAMETERS) != 0) {
+			if (method == null) { method = new RpcMethod(); }
+			method.setParameters(kryo.readObject(input, Object[].class));
+		}
+		if ((flags & OPTION) != 0) {
+			RpcOption option = new RpcOption();
+			option.setRpcTimeoutInMillis(input.readVarInt(true));
+			rb.setRpcOption(option);
+		}
+		if ((flags & ATTACHMENTS) != 0) {
+			int n = input.readVarInt(true);
+			Map<String, String> attachments = new HashMap<String, String>(n * 2);
+			for (int i = 0; i < n; i++) {
+				attachments.put(input.readString(), input.readString());
+			}
+			rb.setAttachments(attachments);
+		}
+		if ((flags & RETURN_OBJECT) != 0) {
+			rb.setReturnObject(kryo.readClassAndObject(input));
+		}
+		if ((flags & EXCEPTION) != 0) {
+			rb.setException((Exception) kryo.readClassAndObject(input));
+		}
+
+		// a method id request still has a method to carry the parameters
+		if (method == null && rb.getMethodId() > 0) { method = new RpcMethod(); }
+		rb.setRpcMethod(method);
+		return rb;
+	}
+	
+	// class is written by name, kryo class registration does not distinguish primitive from its wrapper
+	private Class<?> forName(Kryo kryo, String name) {
+		Class<?> clazz = CLASSES.get(name);
+		if (clazz != null) return clazz;
+		try {
+			clazz = Class.forName(name, false, kryo.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new KryoException(e);
+		}
+		CLASSES.put(name, clazz);
+		return clazz;
+	}
+
+}
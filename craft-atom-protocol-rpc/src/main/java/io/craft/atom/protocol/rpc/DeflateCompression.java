@@ -0,0 +1,83 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.rpc.spi.Compression;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The implementor using deflate of <tt>java.util.zip</tt> at best speed level, it gets better ratio than lz4 with more cpu.
+ * <p>
+ * Each thread caches its own {@link Deflater} and {@link Inflater}, they are reset and reused by every call.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class DeflateCompression implements Compression {
+
+	// singleton
+	private static final DeflateCompression INSTNACE = new DeflateCompression();
+	public static DeflateCompression getInstance() { return INSTNACE; }
+	private DeflateCompression() {}
+
+
+	// thread local cache
+	private final ThreadLocal<Deflater> deflaters = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater(Deflater.BEST_SPEED);
+		}
+	};
+	private final ThreadLocal<Inflater> inflaters = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater();
+		}
+	};
+
+
+	// ~ --------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public byte type() {
+		return 1;
+	}
+
+	@Override
+	public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+		Deflater deflater = deflaters.get();
+		deflater.reset();
+		deflater.setInput(src, srcOff, srcLen);
+		deflater.finish();
+		int n = 0;
+		while (!deflater.finished()) {
+			if (n == dstLen) return -1;
+			n += deflater.deflate(dst, dstOff + n, dstLen - n);
+		}
+		return n;
+	}
+
+	@Override
+	public void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+		Inflater inflater = inflaters.get();
+		inflater.reset();
+		inflater.setInput(src, srcOff, srcLen);
+		int n = 0;
+		try {
+			while (n < dstLen && !inflater.finished()) {
+				int c = inflater.inflate(dst, dstOff + n, dstLen - n);
+				if (c == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+				n += c;
+			}
+			// the stream end may be read after the output is full, more bytes means a longer original
+			if (n == dstLen && !inflater.finished() && inflater.inflate(new byte[1]) > 0) { n++; }
+		} catch (DataFormatException e) {
+			throw new ProtocolException(e);
+		}
+		if (n != dstLen || !inflater.finished()) throw new ProtocolException("Invalid deflate bytes, decompressed length mismatch!");
+	}
+
+}
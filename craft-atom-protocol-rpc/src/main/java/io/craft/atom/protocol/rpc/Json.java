@@ -0,0 +1,518 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.ProtocolException;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A minimal JSON writer, parser and converter used by {@link JsonSerialization}.
+ * <p>
+ * An object is written as a JSON object of its non-static and non-transient fields, the fields of each class are cached.
+ * A parsed JSON value is a {@link Map}, {@link List}, {@link String}, {@link Long}, {@link BigInteger}, {@link Double}, {@link Boolean} or <code>null</code>,
+ * it is converted back to java object by the declared type of the field, parameter or element. Circular reference is not supported.
+ * Nesting of parsed objects and arrays is limited to {@value #MAX_DEPTH} levels, so that a hostile body can not overflow the stack.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+final class Json {
+
+
+	        static final int                    MAX_DEPTH  = 512                                       ;
+	private static final Map<Class<?>, Field[]> FIELDS     = new ConcurrentHashMap<Class<?>, Field[]>();
+	private static final Map<String, Class<?>>  PRIMITIVES = new HashMap<String, Class<?>>()           ;
+	static {
+		Class<?>[] primitives = { boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class };
+		for (Class<?> primitive : primitives) {
+			PRIMITIVES.put(primitive.getName(), primitive);
+		}
+	}
+
+
+	private Json() {}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------- writer
+
+
+	static void write(StringBuilder sb, Object o) {
+		write(sb, o, new IdentityHashMap<Object, Object>());
+	}
+
+	private static void write(StringBuilder sb, Object o, IdentityHashMap<Object, Object> path) {
+		if (o == null) {
+			sb.append("null");
+		} else if (o instanceof String || o instanceof Character) {
+			quote(sb, o.toString());
+		} else if (o instanceof Boolean) {
+			sb.append(o);
+		} else if (o instanceof Double || o instanceof Float) {
+			double d = ((Number) o).doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d)) { quote(sb, o.toString()); } else { sb.append(o); }
+		} else if (o instanceof Number) {
+			sb.append(o);
+		} else if (o instanceof Enum) {
+			quote(sb, ((Enum<?>) o).name());
+		} else if (o instanceof Date) {
+			sb.append(((Date) o).getTime());
+		} else if (o instanceof Class) {
+			quote(sb, ((Class<?>) o).getName());
+		} else {
+			if (path.put(o, o) != null) { throw new ProtocolException("Circular reference is not supported, |class=" + o.getClass().getName() + "|"); }
+			if (o.getClass().isArray()) {
+				writeArray(sb, o, path);
+			} else if (o instanceof Collection) {
+				writeCollection(sb, (Collection<?>) o, path);
+			} else if (o instanceof Map) {
+				writeMap(sb, (Map<?, ?>) o, path);
+			} else {
+				writeObject(sb, o, path);
+			}
+			path.remove(o);
+		}
+	}
+
+	private static void writeArray(StringBuilder sb, Object array, IdentityHashMap<Object, Object> path) {
+		sb.append('[');
+		for (int i = 0, len = Array.getLength(array); i < len; i++) {
+			if (i > 0) { sb.append(','); }
+			write(sb, Array.get(array, i), path);
+		}
+		sb.append(']');
+	}
+
+	private static void writeCollection(StringBuilder sb, Collection<?> collection, IdentityHashMap<Object, Object> path) {
+		sb.append('[');
+		boolean first = true;
+		for (Object e : collection) {
+			if (!first) { sb.append(','); }
+			write(sb, e, path);
+			first = false;
+		}
+		sb.append(']');
+	}
+
+	private static void writeMap(StringBuilder sb, Map<?, ?> map, IdentityHashMap<Object, Object> path) {
+		sb.append('{');
+		boolean first = true;
+		for (Entry<?, ?> entry : map.entrySet()) {
+			if (!first) { sb.append(','); }
+			Object key = entry.getKey();
+			quote(sb, key instanceof Enum ? ((Enum<?>) key).name() : String.valueOf(key));
+			sb.append(':');
+			write(sb, entry.getValue(), path);
+			first = false;
+		}
+		sb.append('}');
+	}
+
+	private static void writeObject(StringBuilder sb, Object o, IdentityHashMap<Object, Object> path) {
+		sb.append('{');
+		boolean first = true;
+		if (o instanceof Throwable) {
+			sb.append("\"@class\":");
+			quote(sb, o.getClass().getName());
+			sb.append(",\"message\":");
+			quote(sb, ((Throwable) o).getMessage());
+			first = false;
+		}
+		try {
+			for (Field field : fields(o.getClass())) {
+				if (!first) { sb.append(','); }
+				quote(sb, field.getName());
+				sb.append(':');
+				write(sb, field.get(o), path);
+				first = false;
+			}
+		} catch (IllegalAccessException e) {
+			throw new ProtocolException(e);
+		}
+		sb.append('}');
+	}
+
+	static void quote(StringBuilder sb, String s) {
+		if (s == null) { sb.append("null"); return; }
+		sb.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+			case '"' : sb.append("\\\""); break;
+			case '\\': sb.append("\\\\"); break;
+			case '\b': sb.append("\\b") ; break;
+			case '\f': sb.append("\\f") ; break;
+			case '\n': sb.append("\\n") ; break;
+			case '\r': sb.append("\\r") ; break;
+			case '\t': sb.append("\\t") ; break;
+			default  :
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+
+	private static Field[] fields(Class<?> clazz) {
+		Field[] fields = FIELDS.get(clazz);
+		if (fields != null) return fields;
+
+		List<Field> list = new ArrayList<Field>();
+		for (Class<?> c = clazz; c != null && c != Object.class && c != Throwable.class; c = c.getSuperclass()) {
+			List<Field> declared = new ArrayList<Field>();
+			for (Field field : c.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+				field.setAccessible(true);
+				declared.add(field);
+			}
+			list.addAll(0, declared);
+		}
+		fields = list.toArray(new Field[list.size()]);
+		FIELDS.put(clazz, fields);
+		return fields;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------- parser
+
+
+	static Object parse(String json) {
+		Parser parser = new Parser(json);
+		Object value = parser.value();
+		parser.skipWhitespace();
+		if (parser.i != json.length()) { throw parser.error(); }
+		return value;
+	}
+
+	private static class Parser {
+
+		private final String s    ;
+		private       int    i    ;
+		private       int    depth;
+
+		private Parser(String s) {
+			this.s = s;
+		}
+
+		private Object value() {
+			skipWhitespace();
+			if (i >= s.length()) { throw error(); }
+			char c = s.charAt(i);
+			switch (c) {
+			case '{': return object();
+			case '[': return array();
+			case '"': return string();
+			case 't': return literal("true", Boolean.TRUE);
+			case 'f': return literal("false", Boolean.FALSE);
+			case 'n': return literal("null", null);
+			default : return number();
+			}
+		}
+
+		private Map<String, Object> object() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			enter();
+			skipWhitespace();
+			if (peek() == '}') { i++; depth--; return map; }
+			while (true) {
+				skipWhitespace();
+				if (peek() != '"') { throw error(); }
+				String key = string();
+				skipWhitespace();
+				expect(':');
+				map.put(key, value());
+				skipWhitespace();
+				if (peek() == ',') { i++; continue; }
+				expect('}');
+				depth--;
+				return map;
+			}
+		}
+
+		private List<Object> array() {
+			List<Object> list = new ArrayList<Object>();
+			enter();
+			skipWhitespace();
+			if (peek() == ']') { i++; depth--; return list; }
+			while (true) {
+				list.add(value());
+				skipWhitespace();
+				if (peek() == ',') { i++; continue; }
+				expect(']');
+				depth--;
+				return list;
+			}
+		}
+
+		private void enter() {
+			if (++depth > MAX_DEPTH) { throw new ProtocolException("Json nesting is too deep, |index=" + i + ", max depth=" + MAX_DEPTH + "|"); }
+			i++;
+		}
+
+		private String string() {
+			i++;
+			StringBuilder sb = null;
+			int start = i;
+			while (i < s.length()) {
+				char c = s.charAt(i);
+				if (c == '"') {
+					String str = (sb == null ? s.substring(start, i) : sb.append(s, start, i).toString());
+					i++;
+					return str;
+				}
+				if (c != '\\') { i++; continue; }
+
+				if (sb == null) { sb = new StringBuilder(); }
+				sb.append(s, start, i);
+				if (++i >= s.length()) { throw error(); }
+				char e = s.charAt(i++);
+				switch (e) {
+				case 'b': sb.append('\b'); break;
+				case 'f': sb.append('\f'); break;
+				case 'n': sb.append('\n'); break;
+				case 'r': sb.append('\r'); break;
+				case 't': sb.append('\t'); break;
+				case 'u':
+					if (i + 4 > s.length()) { throw error(); }
+					sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+					i += 4;
+					break;
+				default : sb.append(e);
+				}
+				start = i;
+			}
+			throw error();
+		}
+
+		private Object number() {
+			int start = i;
+			boolean decimal = false;
+			while (i < s.length()) {
+				char c = s.charAt(i);
+				if (c == '.' || c == 'e' || c == 'E') {
+					decimal = true;
+				} else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+					break;
+				}
+				i++;
+			}
+			if (start == i) { throw error(); }
+			String n = s.substring(start, i);
+			try {
+				if (decimal) return Double.valueOf(n);
+				return n.length() < 19 ? (Object) Long.valueOf(n) : new BigInteger(n);
+			} catch (NumberFormatException e) {
+				throw error();
+			}
+		}
+
+		private Object literal(String literal, Object value) {
+			if (!s.startsWith(literal, i)) { throw error(); }
+			i += literal.length();
+			return value;
+		}
+
+		private char peek() {
+			if (i >= s.length()) { throw error(); }
+			return s.charAt(i);
+		}
+
+		private void expect(char c) {
+			if (peek() != c) { throw error(); }
+			i++;
+		}
+
+		private void skipWhitespace() {
+			while (i < s.length() && Character.isWhitespace(s.charAt(i))) { i++; }
+		}
+
+		private ProtocolException error() {
+			return new ProtocolException("Invalid json, |index=" + i + "|");
+		}
+	}
+
+
+	// ~ ---------------------------------------------------------------------------------------------------- converter
+
+
+	static Class<?> forName(String name) {
+		Class<?> primitive = PRIMITIVES.get(name);
+		if (primitive != null) return primitive;
+		try {
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			return Class.forName(name, false, loader == null ? Json.class.getClassLoader() : loader);
+		} catch (ClassNotFoundException e) {
+			throw new ProtocolException(e);
+		}
+	}
+
+	/**
+	 * Converts a parsed JSON value to the given type.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static Object convert(Object v, Type type) {
+		Class<?> raw  = raw(type);
+		Type[]   args = (type instanceof ParameterizedType ? ((ParameterizedType) type).getActualTypeArguments() : null);
+		if (v == null) {
+			if (!raw.isPrimitive()) return null;
+			if (raw == boolean.class) return Boolean.FALSE;
+			if (raw == char.class) return Character.valueOf((char) 0);
+			v = 0L;
+		}
+		if (raw == Object.class) return v;
+		if (raw.isPrimitive()) raw = wrap(raw);
+
+		if (raw == String.class) return v.toString();
+		if (raw == Boolean.class) return (v instanceof Boolean ? v : Boolean.valueOf(v.toString()));
+		if (raw == Character.class) return (v.toString().length() == 0 ? Character.valueOf((char) 0) : Character.valueOf(v.toString().charAt(0)));
+		if (Number.class.isAssignableFrom(raw) && (v instanceof Number || v instanceof String)) return number(v, raw);
+		if (raw.isEnum()) return Enum.valueOf((Class) raw, v.toString());
+		if (raw == Date.class) return new Date(((Number) v).longValue());
+		if (raw == Class.class) return forName(v.toString());
+		if (raw.isArray()) {
+			List<?> list = (List<?>) v;
+			Type component = (type instanceof GenericArrayType ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType());
+			Object array = Array.newInstance(raw(component), list.size());
+			for (int i = 0; i < list.size(); i++) {
+				Array.set(array, i, convert(list.get(i), component));
+			}
+			return array;
+		}
+		if (Collection.class.isAssignableFrom(raw)) {
+			Collection c = (Collection) newInstance(raw, ArrayList.class, LinkedHashSet.class, TreeSet.class, LinkedList.class);
+			for (Object e : (List<?>) v) {
+				c.add(convert(e, args == null ? Object.class : args[0]));
+			}
+			return c;
+		}
+		if (Map.class.isAssignableFrom(raw)) {
+			Map m = (Map) newInstance(raw, LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class);
+			for (Entry<String, Object> entry : ((Map<String, Object>) v).entrySet()) {
+				m.put(convert(entry.getKey(), args == null ? Object.class : args[0]), convert(entry.getValue(), args == null ? Object.class : args[1]));
+			}
+			return m;
+		}
+		if (v instanceof Map) {
+			return object((Map<String, Object>) v, raw);
+		}
+		throw new ProtocolException("Can not convert json value to " + raw.getName());
+	}
+
+	private static Object number(Object v, Class<?> type) {
+		if (type == BigInteger.class) return new BigInteger(v.toString());
+		if (type == BigDecimal.class) return new BigDecimal(v.toString());
+
+		Number n;
+		if (v instanceof Number) {
+			n = (Number) v;
+		} else if (type == Double.class || type == Float.class) {
+			n = Double.valueOf(v.toString());
+		} else {
+			n = new BigDecimal(v.toString());
+		}
+		if (type == Long.class   ) return n.longValue();
+		if (type == Integer.class) return n.intValue();
+		if (type == Short.class  ) return n.shortValue();
+		if (type == Byte.class   ) return n.byteValue();
+		if (type == Double.class ) return n.doubleValue();
+		if (type == Float.class  ) return n.floatValue();
+		throw new ProtocolException("Can not convert json value to " + type.getName());
+	}
+
+	private static Object object(Map<String, Object> map, Class<?> raw) {
+		try {
+			Object o;
+			if (Throwable.class.isAssignableFrom(raw)) {
+				Object name = map.get("@class");
+				if (name != null) { raw = forName(name.toString()); }
+				o = exception(raw, (String) map.get("message"));
+			} else {
+				o = newInstance(raw);
+			}
+			for (Field field : fields(raw)) {
+				if (!map.containsKey(field.getName())) continue;
+				field.set(o, convert(map.get(field.getName()), field.getGenericType()));
+			}
+			return o;
+		} catch (ProtocolException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ProtocolException(e);
+		}
+	}
+
+	private static Throwable exception(Class<?> raw, String message) throws Exception {
+		Throwable t;
+		try {
+			Constructor<?> constructor = raw.getDeclaredConstructor(String.class);
+			constructor.setAccessible(true);
+			t = (Throwable) constructor.newInstance(message);
+		} catch (NoSuchMethodException e) {
+			t = (Throwable) newInstance(raw);
+			Field field = Throwable.class.getDeclaredField("detailMessage");
+			field.setAccessible(true);
+			field.set(t, message);
+		}
+		t.setStackTrace(new StackTraceElement[0]);
+		return t;
+	}
+
+	private static Object newInstance(Class<?> raw, Class<?>... defaults) {
+		try {
+			if (!raw.isInterface() && !Modifier.isAbstract(raw.getModifiers())) {
+				Constructor<?> constructor = raw.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				return constructor.newInstance();
+			}
+			for (Class<?> d : defaults) {
+				if (raw.isAssignableFrom(d)) return d.newInstance();
+			}
+		} catch (Exception e) {
+			throw new ProtocolException(e);
+		}
+		throw new ProtocolException("Can not instantiate " + raw.getName());
+	}
+
+	private static Class<?> raw(Type type) {
+		if (type instanceof Class) return (Class<?>) type;
+		if (type instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) type).getRawType();
+		if (type instanceof GenericArrayType) return Array.newInstance(raw(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		return Object.class;
+	}
+
+	private static Class<?> wrap(Class<?> primitive) {
+		if (primitive == boolean.class) return Boolean.class;
+		if (primitive == byte.class   ) return Byte.class;
+		if (primitive == char.class   ) return Character.class;
+		if (primitive == short.class  ) return Short.class;
+		if (primitive == int.class    ) return Integer.class;
+		if (primitive == long.class   ) return Long.class;
+		if (primitive == float.class  ) return Float.class;
+		return Double.class;
+	}
+
+}
@@ -0,0 +1,199 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.protocol.rpc.model.RpcOption;
+import io.craft.atom.protocol.rpc.spi.Serialization;
+import io.craft.atom.util.Assert;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON implementor, it is human readable for debugging and is easy to implement by peers in other languages.
+ * <p>
+ * The body is written as follows, absent fields are omitted:
+ * <pre>
+ * {
+ *   "rpcId"        : "1",
+ *   "rpcInterface" : "io.craft.atom.rpc.DemoService",
+ *   "rpcMethod"    : { "name": "echo", "parameterTypes": [ "java.lang.String" ], "parameters": [ "hi" ] },
+ *   "rpcOption"    : { "rpcTimeoutInMillis": 3000 },
+ *   "attachments"  : { "k": "v" },
+ *   "returnType"   : "java.lang.String",
+ *   "returnObject" : "hi",
+ *   "exception"    : { "@class": "java.lang.IllegalStateException", "message": "error" }
+ * }
+ * </pre>
+ * Parameters are converted back by the parameter types, return object by the return type if present.
+ * The generic type arguments of parameter and return object are unknown, so their elements are read as plain JSON values.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class JsonSerialization implements Serialization<RpcBody> {
+
+	// singleton
+	private static final JsonSerialization INSTNACE = new JsonSerialization();
+	public static JsonSerialization getInstance() { return INSTNACE; }
+	private JsonSerialization() {}
+
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+
+	// ~ --------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public byte type() {
+		return 4;
+	}
+
+	@Override
+	public byte[] serialize(RpcBody rb) {
+		return serialize(rb, 0);
+	}
+
+	@Override
+	public byte[] serialize(RpcBody rb, int off) {
+		Assert.notNull(rb);
+		try {
+			byte[] json  = toJson(rb).getBytes(UTF_8);
+			byte[] bytes = new byte[off + json.length];
+			System.arraycopy(json, 0, bytes, off, json.length);
+			return bytes;
+		} catch (ProtocolException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ProtocolException(e);
+		}
+	}
+
+	@Override
+	public RpcBody deserialize(byte[] bytes) {
+		return deserialize(bytes, 0);
+	}
+
+	@Override
+	public RpcBody deserialize(byte[] bytes, int off) {
+		Assert.notNull(bytes);
+		return deserialize(bytes, off, bytes.length - off);
+	}
+
+	@Override
+	public RpcBody deserialize(byte[] bytes, int off, int len) {
+		Assert.notNull(bytes);
+		try {
+			return fromJson(new String(bytes, off, len, UTF_8));
+		} catch (ProtocolException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ProtocolException(e);
+		}
+	}
+
+
+	// ~ --------------------------------------------------------------------------------------------------------------
+
+
+	private String toJson(RpcBody rb) {
+		StringBuilder sb = new StringBuilder(256).append('{');
+		if (rb.getRpcId() != null) {
+			field(sb, "rpcId");
+			Json.quote(sb, rb.getRpcId());
+		}
+		if (rb.getRpcInterface() != null) {
+			field(sb, "rpcInterface");
+			Json.write(sb, rb.getRpcInterface());
+		}
+		RpcMethod method = rb.getRpcMethod();
+		if (method != null) {
+			field(sb, "rpcMethod").append('{');
+			if (method.getName() != null) {
+				field(sb, "name");
+				Json.quote(sb, method.getName());
+			}
+			if (method.getParameterTypes() != null) {
+				field(sb, "parameterTypes");
+				Json.write(sb, method.getParameterTypes());
+			}
+			if (method.getParameters() != null) {
+				field(sb, "parameters");
+				Json.write(sb, method.getParameters());
+			}
+			sb.append('}');
+		}
+		if (rb.getRpcOption() != null) {
+			field(sb, "rpcOption").append("{\"rpcTimeoutInMillis\":").append(rb.getRpcOption().getRpcTimeoutInMillis()).append('}');
+		}
+		if (rb.getAttachments() != null) {
+			field(sb, "attachments");
+			Json.write(sb, rb.getAttachments());
+		}
+		if (rb.getReturnObject() != null) {
+			field(sb, "returnType");
+			Json.quote(sb, rb.getReturnObject().getClass().getName());
+			field(sb, "returnObject");
+			Json.write(sb, rb.getReturnObject());
+		}
+		if (rb.getException() != null) {
+			field(sb, "exception");
+			Json.write(sb, rb.getException());
+		}
+		return sb.append('}').toString();
+	}
+
+	private StringBuilder field(StringBuilder sb, String name) {
+		char last = sb.charAt(sb.length() - 1);
+		if (last != '{') { sb.append(','); }
+		Json.quote(sb, name);
+		return sb.append(':');
+	}
+
+	@SuppressWarnings("unchecked")
+	private RpcBody fromJson(String json) {
+		Object value = Json.parse(json);
+		if (!(value instanceof Map)) { throw new ProtocolException("Invalid json rpc body"); }
+		Map<String, Object> map = (Map<String, Object>) value;
+		RpcBody rb = new RpcBody();
+		rb.setRpcId((String) map.get("rpcId"));
+		if (map.get("rpcInterface") != null) {
+			rb.setRpcInterface(Json.forName(map.get("rpcInterface").toString()));
+		}
+
+		Map<String, Object> m = (Map<String, Object>) map.get("rpcMethod");
+		if (m != null) {
+			RpcMethod method = new RpcMethod();
+			method.setName((String) m.get("name"));
+			Class<?>[] types = (Class<?>[]) Json.convert(m.get("parameterTypes"), Class[].class);
+			method.setParameterTypes(types);
+			List<Object> parameters = (List<Object>) m.get("parameters");
+			if (parameters != null) {
+				Object[] params = new Object[parameters.size()];
+				for (int i = 0; i < params.length; i++) {
+					params[i] = Json.convert(parameters.get(i), types != null && i < types.length ? types[i] : Object.class);
+				}
+				method.setParameters(params);
+			}
+			rb.setRpcMethod(method);
+		}
+
+		Map<String, Object> o = (Map<String, Object>) map.get("rpcOption");
+		if (o != null) {
+			RpcOption option = new RpcOption();
+			option.setRpcTimeoutInMillis((Integer) Json.convert(o.get("rpcTimeoutInMillis"), int.class));
+			rb.setRpcOption(option);
+		}
+
+		rb.setAttachments((Map<String, String>) map.get("attachments"));
+
+		Object returnType = map.get("returnType");
+		rb.setReturnObject(Json.convert(map.get("returnObject"), returnType == null ? Object.class : Json.forName(returnType.toString())));
+		rb.setException((Exception) Json.convert(map.get("exception"), Exception.class));
+		return rb;
+	}
+
+}
@@ -6,10 +6,7 @@ import io.craft.atom.protocol.rpc.model.RpcMethod;
 import io.craft.atom.protocol.rpc.spi.Serialization;
 import io.craft.atom.util.Assert;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.lang.ref.SoftReference;
-
+import java.util.Arrays;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
@@ -19,7 +16,9 @@ import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
 /**
  * The implementor using <a href="https://github.com/EsotericSoftware/kryo">kryo</a>.
  * <p>
- * Not thread safe.
+ * Each thread strongly caches its own {@link Kryo}, {@link Input} and {@link Output}, they are reused by every call.
+ * Objects are serialized into the cached output and copied out once, deserialized directly over the given bytes.
+ * An output grown beyond {@link #MAX_CACHED_BUFFER_SIZE} by a large object is dropped after use.
  * 
  * @author mindwind
  * @version 1.0, Jul 23, 2014
@@ -29,25 +28,42 @@ public class KryoSerialization implements Serialization<RpcBody> {
 	// singleton
 	private static final KryoSerialization INSTNACE = new KryoSerialization();
 	public static KryoSerialization getInstance() { return INSTNACE; } 
-	private KryoSerialization() {}
+	protected KryoSerialization() {}
+	
+	
+	public  static final int    MAX_CACHED_BUFFER_SIZE = 64 * 1024  ;
+	private static final int    BUFFER_SIZE            = 1024       ;
+	private static final byte[] EMPTY                  = new byte[0];
 	
 	
 	// thread local cache
-    private static final ThreadLocal<SoftReference<Kryo>> CACHE = new ThreadLocal<SoftReference<Kryo>>() {
-    	@Override
-    	protected SoftReference<Kryo> initialValue() {
-            Kryo kryo = newKryo();
-            return new SoftReference<Kryo>(kryo);
-        }
-    };
+	private final ThreadLocal<KryoHolder> cache = new ThreadLocal<KryoHolder>() {
+		@Override
+		protected KryoHolder initialValue() {
+			return new KryoHolder(newKryo());
+		}
+	};
+    
+	private static class KryoHolder {
+		private final Kryo   kryo                                ;
+		private final Input  input  = new Input()                ;
+		private       Output output = new Output(BUFFER_SIZE, -1);
+		
+		private KryoHolder(Kryo kryo) {
+			this.kryo = kryo;
+		}
+	}
     
-    private static Kryo newKryo() {
-    	Kryo kryo = new Kryo();
-        kryo.register(RpcBody.class);
-        kryo.register(RpcMethod.class);
-        kryo.setDefaultSerializer(CompatibleFieldSerializer.class);
-        return kryo;
-    }
+	/**
+	 * Creates the kryo cached by each thread, subclass may override it to configure another default serializer.
+	 */
+	protected Kryo newKryo() {
+		Kryo kryo = new Kryo();
+		kryo.register(RpcBody.class);
+		kryo.register(RpcMethod.class);
+		kryo.setDefaultSerializer(CompatibleFieldSerializer.class);
+		return kryo;
+	}
 	
 	@Override
 	public byte type() {
@@ -56,26 +72,29 @@ public class KryoSerialization implements Serialization<RpcBody> {
 
 	@Override
 	public byte[] serialize(RpcBody rb) {
+		return serialize(rb, 0);
+	}
+	
+	@Override
+	public byte[] serialize(RpcBody rb, int off) {
+		Assert.notNull(rb);
+		KryoHolder holder = cache.get();
+		Output     output = holder.output;
 		try {
-			Assert.notNull(rb);
-		    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		    Output output = new Output(baos);
-		    kryo().writeObject(output, rb);
-		    output.close();
-		    return baos.toByteArray();
+			output.clear();
+			output.setPosition(off);
+			write(holder.kryo, output, rb);
+			byte[] bytes = Arrays.copyOf(output.getBuffer(), output.position());
+			Arrays.fill(bytes, 0, off, (byte) 0);
+			return bytes;
 		} catch (Exception e) {
 			throw new ProtocolException(e);
+		} finally {
+			if (output.getBuffer().length > MAX_CACHED_BUFFER_SIZE) {
+				holder.output = new Output(BUFFER_SIZE, -1);
+			}
 		}
 	}
-	
-	private Kryo kryo() {
-		Kryo kryo = CACHE.get().get();
-		if (kryo == null) {
-			kryo = newKryo();
-			CACHE.set(new SoftReference<Kryo>(kryo));
-		}
-		return kryo;
-	}
 
 	@Override
 	public RpcBody deserialize(byte[] bytes) {
@@ -84,16 +103,38 @@ public class KryoSerialization implements Serialization<RpcBody> {
 
 	@Override
 	public RpcBody deserialize(byte[] bytes, int off) {
+		Assert.notNull(bytes);
+		return deserialize(bytes, off, bytes.length - off);
+	}
+	
+	@Override
+	public RpcBody deserialize(byte[] bytes, int off, int len) {
+		Assert.notNull(bytes);
+		KryoHolder holder = cache.get();
+		Input      input  = holder.input;
 		try {
-		    Assert.notNull(bytes);
-		    ByteArrayInputStream bais = new ByteArrayInputStream(bytes, off, bytes.length - off);
-		    Input input = new Input(bais);
-		    RpcBody rb = kryo().readObject(input, RpcBody.class);
-	        input.close();
-		    return rb;
+			input.setBuffer(bytes, off, len);
+		    return read(holder.kryo, input);
 		} catch (Exception e) {
 			throw new ProtocolException(e);
+		} finally {
+			// never hold the caller's bytes
+			input.setBuffer(EMPTY);
 		}
 	}
+	
+	/**
+	 * Writes the body with the thread cached kryo, subclass may override it to use another layout.
+	 */
+	protected void write(Kryo kryo, Output output, RpcBody rb) {
+		kryo.writeObject(output, rb);
+	}
+	
+	/**
+	 * Reads a body written by {@link #write(Kryo, Output, RpcBody)}.
+	 */
+	protected RpcBody read(Kryo kryo, Input input) {
+		return kryo.readObject(input, RpcBody.class);
+	}
 
 }
@@ -0,0 +1,185 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.rpc.spi.Compression;
+
+import java.util.Arrays;
+
+/**
+ * The implementor of <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md">lz4 block format</a> in pure java,
+ * it is fast with moderate ratio and is compatible with any lz4 block decompressor.
+ * <p>
+ * Each thread caches its own hash table of the compressor, it is cleared and reused by every call.
+ * Incompressible bytes are skipped faster as more positions fail to match, like the reference implementation.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class Lz4Compression implements Compression {
+
+	// singleton
+	private static final Lz4Compression INSTNACE = new Lz4Compression();
+	public static Lz4Compression getInstance() { return INSTNACE; }
+	private Lz4Compression() {}
+
+
+	private static final int MIN_MATCH     = 4;
+	private static final int LAST_LITERALS = 5;
+	private static final int MF_LIMIT      = 12;
+	private static final int MAX_DISTANCE  = 0xffff;
+	private static final int RUN_MASK      = 0x0f;
+	private static final int HASH_LOG      = 12;
+	private static final int SKIP_STRENGTH = 6;
+
+
+	// thread local cache
+	private final ThreadLocal<int[]> tables = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1 << HASH_LOG];
+		}
+	};
+
+
+	// ~ --------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public byte type() {
+		return 2;
+	}
+
+	@Override
+	public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+		int[] table = tables.get();
+		Arrays.fill(table, -1);
+
+		int end    = srcOff + srcLen;
+		int anchor = srcOff;
+		int ip     = srcOff;
+		int op     = dstOff;
+		int oend   = dstOff + dstLen;
+		if (srcLen > MF_LIMIT) {
+			int mflimit    = end - MF_LIMIT;
+			int matchLimit = end - LAST_LITERALS;
+			int attempts   = 1 << SKIP_STRENGTH;
+			while (ip < mflimit) {
+				int seq = readInt(src, ip);
+				int h   = hash(seq);
+				int ref = table[h];
+				table[h] = ip;
+				if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != seq) {
+					ip += attempts++ >>> SKIP_STRENGTH;
+					continue;
+				}
+				attempts = 1 << SKIP_STRENGTH;
+
+				// extend the match backward over pending literals, then forward
+				while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) { ip--; ref--; }
+				int len = MIN_MATCH;
+				while (ip + len < matchLimit && src[ip + len] == src[ref + len]) { len++; }
+
+				op = sequence(src, anchor, ip - anchor, ip - ref, len - MIN_MATCH, dst, op, oend);
+				if (op < 0) return -1;
+				ip    += len;
+				anchor = ip;
+			}
+		}
+		op = literals(src, anchor, end - anchor, dst, op, oend);
+		return op < 0 ? -1 : op - dstOff;
+	}
+
+	private int sequence(byte[] src, int anchor, int literals, int offset, int match, byte[] dst, int op, int oend) {
+		if (op + literals + literals / 255 + match / 255 + 5 > oend) return -1;
+		int token = op++;
+		dst[token] = (byte) ((Math.min(literals, RUN_MASK) << 4) | Math.min(match, RUN_MASK));
+		op = length(literals, dst, op);
+		System.arraycopy(src, anchor, dst, op, literals);
+		op += literals;
+		dst[op++] = (byte) offset;
+		dst[op++] = (byte) (offset >>> 8);
+		return length(match, dst, op);
+	}
+
+	private int literals(byte[] src, int anchor, int literals, byte[] dst, int op, int oend) {
+		if (op + literals + literals / 255 + 2 > oend) return -1;
+		dst[op++] = (byte) (Math.min(literals, RUN_MASK) << 4);
+		op = length(literals, dst, op);
+		System.arraycopy(src, anchor, dst, op, literals);
+		return op + literals;
+	}
+
+	private int length(int len, byte[] dst, int op) {
+		if (len < RUN_MASK) return op;
+		len -= RUN_MASK;
+		while (len >= 255) {
+			dst[op++] = (byte) 255;
+			len -= 255;
+		}
+		dst[op++] = (byte) len;
+		return op;
+	}
+
+	private static int readInt(byte[] b, int off) {
+		return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8 | (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+	}
+
+	private static int hash(int seq) {
+		return (seq * -1640531535) >>> (32 - HASH_LOG);
+	}
+
+	@Override
+	public void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+		int ip   = srcOff;
+		int iend = srcOff + srcLen;
+		int op   = dstOff;
+		int oend = dstOff + dstLen;
+		while (true) {
+			if (ip >= iend) throw new ProtocolException("Invalid lz4 bytes, truncated sequence!");
+			int token = src[ip++] & 0xff;
+
+			// literals
+			int literals = token >>> 4;
+			if (literals == RUN_MASK) {
+				int b;
+				do {
+					if (ip >= iend || literals > dstLen) throw new ProtocolException("Invalid lz4 bytes, literal length overflow!");
+					b = src[ip++] & 0xff;
+					literals += b;
+				} while (b == 255);
+			}
+			if (literals > iend - ip || literals > oend - op) throw new ProtocolException("Invalid lz4 bytes, literals out of bounds!");
+			System.arraycopy(src, ip, dst, op, literals);
+			ip += literals;
+			op += literals;
+			if (ip == iend) break;
+
+			// match
+			if (iend - ip < 2) throw new ProtocolException("Invalid lz4 bytes, truncated offset!");
+			int offset = (src[ip] & 0xff) | (src[ip + 1] & 0xff) << 8;
+			ip += 2;
+			if (offset == 0 || offset > op - dstOff) throw new ProtocolException("Invalid lz4 bytes, offset out of bounds!");
+			int match = token & RUN_MASK;
+			if (match == RUN_MASK) {
+				int b;
+				do {
+					if (ip >= iend || match > dstLen) throw new ProtocolException("Invalid lz4 bytes, match length overflow!");
+					b = src[ip++] & 0xff;
+					match += b;
+				} while (b == 255);
+			}
+			match += MIN_MATCH;
+			if (match > oend - op) throw new ProtocolException("Invalid lz4 bytes, match out of bounds!");
+			int ref = op - offset;
+			if (offset >= match) {
+				System.arraycopy(dst, ref, dst, op, match);
+				op += match;
+			} else {
+				// overlapped match repeats the last offset bytes
+				for (int i = 0; i < match; i++) { dst[op++] = dst[ref++]; }
+			}
+		}
+		if (op != oend) throw new ProtocolException("Invalid lz4 bytes, decompressed length mismatch!");
+	}
+
+}
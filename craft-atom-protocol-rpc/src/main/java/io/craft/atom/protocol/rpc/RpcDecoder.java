@@ -3,10 +3,12 @@ package io.craft.atom.protocol.rpc;
 import io.craft.atom.protocol.AbstractProtocolDecoder;
 import io.craft.atom.protocol.ProtocolDecoder;
 import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.rpc.api.CompressionRegistry;
 import io.craft.atom.protocol.rpc.api.SerializationRegistry;
 import io.craft.atom.protocol.rpc.model.RpcBody;
 import io.craft.atom.protocol.rpc.model.RpcHeader;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.protocol.rpc.spi.Compression;
 import io.craft.atom.protocol.rpc.spi.Serialization;
 import io.craft.atom.util.ByteUtil;
 
@@ -27,19 +29,12 @@ import lombok.Getter;
 public class RpcDecoder extends AbstractProtocolDecoder implements ProtocolDecoder<RpcMessage> {
 	
 	
-	private static final int MAGIC       = 11;
-	private static final int HEADER_SIZE = 12;
-	private static final int VERSION     = 13;
-	private static final int BIT_FLAG    = 14;
-	private static final int STATUS_CODE = 15;
-	private static final int RESERVED    = 16;
-	private static final int MESSAGE_ID  = 17;
-	private static final int BODY_SIZE   = 18;
-	private static final int BODY        = 20;
+	private static final int BODY = 20;
 	
 	
-	        private SerializationRegistry registry = SerializationRegistry.getInstance();
-	@Getter private RpcMessage            rm                                            ;
+	        private SerializationRegistry registry     = SerializationRegistry.getInstance();
+	        private CompressionRegistry   compressions = CompressionRegistry.getInstance()  ;
+	@Getter private RpcMessage            rm                                                ;
 	
 	
 	// ~ --------------------------------------------------------------------------------------------------------------
@@ -65,21 +60,14 @@ public class RpcDecoder extends AbstractProtocolDecoder implements ProtocolDecod
 		
 		while (searchIndex < buf.length() || state == END) {
 			switch (state) {
-			case START      : state4START()      ; break;
-			case MAGIC      : state4MAGIC()      ; break;
-			case HEADER_SIZE: state4HEADER_SIZE(); break;
-			case VERSION    : state4VERSION()    ; break;
-			case BIT_FLAG   : state4BIT_FLAG()   ; break;
-			case STATUS_CODE: state4STATUS_CODE(); break;
-			case RESERVED   : state4RESERVED()   ; break;
-			case MESSAGE_ID : state4MESSAGE_ID() ; break;
-			case BODY_SIZE  : state4BODY_SIZE()  ; break;
-			case BODY       : state4BODY()       ; break;
-			case END        : state4END(msgs)    ; break;
-			default         : throw new IllegalStateException("Invalid decoder state!");
+			case START: state4START()  ; break;
+			case BODY : state4BODY()   ; break;
+			case END  : state4END(msgs); break;
+			default   : throw new IllegalStateException("Invalid decoder state!");
 			}
 		}
 		
+		recycle();
 		return msgs;
 	}
 	
@@ -98,100 +86,60 @@ public class RpcDecoder extends AbstractProtocolDecoder implements ProtocolDecod
 		
 		Serialization<RpcBody> deserializer = registry.lookup(rm.getHeader().getSt());
 		if (deserializer == null) throw new ProtocolException("No mapping `deserializer`!");
-		RpcBody rb = deserializer.deserialize(buf.buffer(), 20 + splitIndex);
+		byte ct = rm.getHeader().getCt();
+		RpcBody rb = (ct == 0 ? deserializer.deserialize(buf.buffer(), hs + splitIndex, bs) : deserialize(deserializer, ct, hs + splitIndex, bs));
 		rm.setBody(rb);
 		searchIndex = hs + bs + splitIndex;
 		state = END;
 	}
 	
-	private void state4BODY_SIZE() {
-		// need more bytes
-		if (buf.length() < 20 + splitIndex) { searchIndex = buf.length(); return; }
-		
-		int bs = ByteUtil.bytes2int(buf.buffer(), 16 + splitIndex);
-		rm.getHeader().setBodySize(bs);
-		state = BODY;
-		searchIndex = 20 + splitIndex;
-	}
-	
-	private void state4MESSAGE_ID() {
-		// need more bytes
-		if (buf.length() < 16 + splitIndex) { searchIndex = buf.length(); return; }
-		
-		long id = ByteUtil.bytes2long(buf.buffer(), 8 + splitIndex);
-		rm.getHeader().setId(id);
-		state = BODY_SIZE;
-		searchIndex = 16 + splitIndex;
-	}
-	
-	private void state4RESERVED() {
-		// need more bytes
-		if (buf.length() < 8 + splitIndex) { searchIndex = buf.length(); return; }
-		
-		rm.getHeader().setReserved(buf.byteAt(7 + splitIndex));
-		state = MESSAGE_ID;
-		searchIndex = 8 + splitIndex;
-	}
-	
-	private void state4STATUS_CODE() {
-		// need more bytes
-		if (buf.length() < 7 + splitIndex) { searchIndex = buf.length(); return; }
-		
-		rm.getHeader().setStatusCode(buf.byteAt(6 + splitIndex));
-		state = RESERVED;
-		searchIndex = 7 + splitIndex;
-	}
-	
-	private void state4BIT_FLAG() {
-		// need more bytes
-		if (buf.length() < 6 + splitIndex) { searchIndex = buf.length(); return; }
+	private RpcBody deserialize(Serialization<RpcBody> deserializer, byte ct, int off, int len) {
+		Compression compression = compressions.lookup(ct);
+		if (compression == null) throw new ProtocolException("No mapping `compression`!");
+		byte[] b = buf.buffer();
+		if (len < 4) throw new ProtocolException("Invalid compressed body size!");
+		int size = ByteUtil.bytes2int(b, off);
+		if (size < 0 || size > maxSize) throw new ProtocolException("Invalid decompressed body size!");
 		
-		rm.getHeader().setSt(buf.byteAt(5 + splitIndex));
-		rm.getHeader().setHb(buf.byteAt(5 + splitIndex));
-		rm.getHeader().setOw(buf.byteAt(5 + splitIndex));
-		rm.getHeader().setRp(buf.byteAt(5 + splitIndex));
-		state = STATUS_CODE;
-		searchIndex = 6 + splitIndex;
+		byte[] body = new byte[size];
+		compression.decompress(b, off + 4, len - 4, body, 0, size);
+		return deserializer.deserialize(body, 0, size);
 	}
 	
-	private void state4VERSION() {
-		// need more bytes
-		if (buf.length() < 5 + splitIndex) { searchIndex = buf.length(); return; }
+	/**
+	 * Parses the whole header in one pass once its 20 bytes are available, 
+	 * a partial header is only checked for magic and waits for more bytes.
+	 */
+	private void state4START() {
+		int    off = splitIndex;
+		int    len = buf.length() - off;
+		byte[] b   = buf.buffer();
+		if (len >= 2 && ByteUtil.bytes2short(b, off) != RpcHeader.MAGIC) {
+			throw new ProtocolException("Invalid bytes format!");
+		}
 		
-		rm.getHeader().setVersion(buf.byteAt(4 + splitIndex));
-		state = BIT_FLAG;
-		searchIndex = 5 + splitIndex;
-	}
-	
-	private void state4HEADER_SIZE() {
 		// need more bytes
-		if (buf.length() < 4 + splitIndex) { searchIndex = buf.length(); return; }
+		if (len < RpcHeader.HEADER_SIZE) { searchIndex = buf.length(); return; }
 		
-		short hs = ByteUtil.bytes2short(buf.buffer(), 2 + splitIndex);
-		rm.getHeader().setHeaderSize(hs);
-		state = VERSION;
-		searchIndex = 4  + splitIndex;
-	}
-	
-	private void state4MAGIC() {
-		// need more bytes
-		if (buf.length() < 2 + splitIndex) { searchIndex = buf.length(); return; }
-		
-		if (RpcHeader.MAGIC_0 == buf.byteAt(0 + splitIndex) && RpcHeader.MAGIC_1 == buf.byteAt(1 + splitIndex)) {
-			RpcHeader rh = new RpcHeader();
-			rm = new RpcMessage();
-			rm.setHeader(rh);
-			state = HEADER_SIZE;
-			searchIndex = 2 + splitIndex;
-		} else {
-			throw new ProtocolException("Invalid bytes format!");
-		}
-	}
-	
-	private void state4START() {
-		if (buf.length() > 0 + splitIndex) {
-			state = MAGIC;
+		byte      flag = b[off + 5];
+		RpcHeader rh   = new RpcHeader();
+		rh.setHeaderSize(ByteUtil.bytes2short(b, off + 2));
+		rh.setVersion(b[off + 4]);
+		rh.setSt(flag);
+		rh.setHb(flag);
+		rh.setOw(flag);
+		rh.setRp(flag);
+		rh.setStatusCode(b[off + 6]);
+		rh.setCt(b[off + 7]);
+		rh.setId(ByteUtil.bytes2long(b, off + 8));
+		rh.setBodySize(ByteUtil.bytes2int(b, off + 16));
+		if (rh.getHeaderSize() < RpcHeader.HEADER_SIZE || rh.getBodySize() < 0) {
+			throw new ProtocolException("Invalid header or body size!");
 		}
+		rm = new RpcMessage();
+		rm.setHeader(rh);
+		state = BODY;
+		searchIndex = RpcHeader.HEADER_SIZE + off;
 	}
 
 }
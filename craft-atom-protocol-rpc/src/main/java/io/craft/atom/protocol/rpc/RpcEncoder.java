@@ -2,18 +2,26 @@ package io.craft.atom.protocol.rpc;
 
 import io.craft.atom.protocol.ProtocolEncoder;
 import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.rpc.api.CompressionRegistry;
 import io.craft.atom.protocol.rpc.api.SerializationRegistry;
 import io.craft.atom.protocol.rpc.model.RpcBody;
 import io.craft.atom.protocol.rpc.model.RpcHeader;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.protocol.rpc.spi.Compression;
 import io.craft.atom.protocol.rpc.spi.Serialization;
 import io.craft.atom.util.Assert;
 import io.craft.atom.util.ByteUtil;
 
+import lombok.Getter;
+import lombok.Setter;
+
 
 /**
  * A {@link ProtocolEncoder} which encodes a {@code RpcMessage} object into bytes follow the generic RPC format.
  * <p>
+ * The body is compressed with the <tt>ct</tt> of its header if it is not less than the compression threshold, 
+ * <tt>ct</tt> is cleared if the body is smaller or the compressed body does not save any byte.
+ * <p>
  * thread safe.
  * 
  * @author mindwind
@@ -22,7 +30,12 @@ import io.craft.atom.util.ByteUtil;
 public class RpcEncoder implements ProtocolEncoder<RpcMessage> {
 	
 
-	private SerializationRegistry registry = SerializationRegistry.getInstance();
+	public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+	
+	
+	                private SerializationRegistry registry             = SerializationRegistry.getInstance();
+	                private CompressionRegistry   compressions         = CompressionRegistry.getInstance()  ;
+	@Getter @Setter private int                   compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD      ;
 	
 	
 	// ~ --------------------------------------------------------------------------------------------------------------
@@ -30,6 +43,10 @@ public class RpcEncoder implements ProtocolEncoder<RpcMessage> {
 	
 	public RpcEncoder() {}
 	
+	public RpcEncoder(int compressionThreshold) {
+		this.compressionThreshold = compressionThreshold;
+	}
+	
 	
 	// ~ --------------------------------------------------------------------------------------------------------------
 	
@@ -44,18 +61,35 @@ public class RpcEncoder implements ProtocolEncoder<RpcMessage> {
 		
 		Serialization<RpcBody> serializer = registry.lookup(rh.getSt());
 		if (serializer == null) throw new ProtocolException("No mapping `serializer`!");
-		byte[] body = encodeBody(rb, serializer);
-		
-		byte[] encoded = new byte[rh.getHeaderSize() + body.length];
-		rh.setBodySize(body.length);
 		
+		// body is serialized after the reserved header bytes, then the header is filled in
+		byte[] encoded = serializer.serialize(rb, rh.getHeaderSize());
+		rh.setBodySize(encoded.length - rh.getHeaderSize());
+		encoded = compress(encoded, rh);
 		encodeHeader(encoded, rh);
-		System.arraycopy(body, 0, encoded, rh.getHeaderSize(), body.length);
 		return encoded;
 	}
 	
-	private byte[] encodeBody(RpcBody rb, Serialization<RpcBody> serializer) {
-		return serializer.serialize(rb);
+	private byte[] compress(byte[] encoded, RpcHeader rh) {
+		byte ct = rh.getCt();
+		if (ct == 0) return encoded;
+		
+		int         hs          = rh.getHeaderSize();
+		int         bs          = rh.getBodySize();
+		Compression compression = compressions.lookup(ct);
+		if (compression == null) throw new ProtocolException("No mapping `compression`!");
+		
+		// compressed body must be smaller than the original, includes its 4 bytes length
+		rh.setCt((byte) 0);
+		if (bs < compressionThreshold || bs <= 5) return encoded;
+		byte[] compressed = new byte[hs + bs - 1];
+		int len = compression.compress(encoded, hs, bs, compressed, hs + 4, bs - 5);
+		if (len < 0) return encoded;
+		
+		ByteUtil.int2bytes(bs, compressed, hs);
+		rh.setCt(ct);
+		rh.setBodySize(len + 4);
+		return len + 4 == bs - 1 ? compressed : ByteUtil.split(compressed, 0, hs + len + 4);
 	}
 	
 	private void encodeHeader(byte[] b, RpcHeader rh) {
@@ -69,6 +103,8 @@ public class RpcEncoder implements ProtocolEncoder<RpcMessage> {
 		b[5] = (byte) (rh.getSt() | rh.getHb() | rh.getOw() | rh.getRp());
 		// status code
 		b[6] = rh.getStatusCode();
+		// compression type
+		b[7] = rh.getCt();
 	    // message id
 		ByteUtil.long2bytes(rh.getId(), b, 8);
 		// body size
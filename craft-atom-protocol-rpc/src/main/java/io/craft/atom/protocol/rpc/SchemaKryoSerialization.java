@@ -0,0 +1,44 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.serializers.FieldSerializer;
+
+/**
+ * The schema driven implementor using <a href="https://github.com/EsotericSoftware/kryo">kryo</a>.
+ * <p>
+ * Objects are written by {@link FieldSerializer}, it caches the field layout of each class and writes field values only,
+ * neither field names nor field chunk lengths are written as {@link KryoSerialization} does.
+ * So it is smaller and faster, but both peers must have the same fields of each transferred class.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class SchemaKryoSerialization extends KryoSerialization {
+
+	// singleton
+	private static final SchemaKryoSerialization INSTNACE = new SchemaKryoSerialization();
+	public static SchemaKryoSerialization getInstance() { return INSTNACE; }
+	private SchemaKryoSerialization() {}
+
+
+	// ~ --------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public byte type() {
+		return 3;
+	}
+
+	@Override
+	protected Kryo newKryo() {
+		Kryo kryo = new Kryo();
+		kryo.register(RpcBody.class);
+		kryo.register(RpcMethod.class);
+		kryo.setDefaultSerializer(FieldSerializer.class);
+		return kryo;
+	}
+
+}
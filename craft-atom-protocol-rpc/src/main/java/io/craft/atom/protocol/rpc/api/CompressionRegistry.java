@@ -0,0 +1,85 @@
+package io.craft.atom.protocol.rpc.api;
+
+import io.craft.atom.protocol.rpc.DeflateCompression;
+import io.craft.atom.protocol.rpc.Lz4Compression;
+import io.craft.atom.protocol.rpc.model.RpcHeader;
+import io.craft.atom.protocol.rpc.spi.Compression;
+
+
+/**
+ * Compression registry contains the {@code Compression} and its type mapping.
+ * <p>
+ * Built-in compressions:
+ * <pre>
+ * 1 - {@link DeflateCompression}, better ratio.
+ * 2 - {@link Lz4Compression}, faster.
+ * </pre>
+ * The type is the <tt>ct</tt> field of {@link RpcHeader}, 0 means the body is not compressed, so it is in range [1, 127].
+ * Lookup is a volatile array read, register and unregister copy the array.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class CompressionRegistry {
+
+
+	// singleton
+	private static final CompressionRegistry INSTNACE = new CompressionRegistry();
+	public static CompressionRegistry getInstance() { return INSTNACE; }
+	private CompressionRegistry() {
+		register(DeflateCompression.getInstance());
+		register(Lz4Compression.getInstance());
+	}
+
+
+	private static final int MAX_TYPE = 0x7f;
+
+
+	private volatile Compression[] registry = new Compression[MAX_TYPE + 1];
+
+
+	// ~ --------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Lookup by type
+	 *
+	 * @param type
+	 * @return mapping compression, or <code>null</code> if no mapping.
+	 */
+	public Compression lookup(byte type) {
+		if (type <= 0) return null;
+		return registry[type];
+	}
+
+	/**
+	 * Register a compression with its own type.
+	 *
+	 * @param compression
+	 */
+	public synchronized void register(Compression compression) {
+		byte type = compression.type();
+		if (type <= 0) {
+			throw new IllegalArgumentException("Compression `type` is out of range [1, " + MAX_TYPE + "]!");
+		}
+		if (registry[type] != null) {
+			throw new IllegalArgumentException("Compression `type` is conflict!");
+		}
+		Compression[] copy = registry.clone();
+		copy[type] = compression;
+		registry = copy;
+	}
+
+	/**
+	 * Unregister a compression.
+	 *
+	 * @param type
+	 */
+	public synchronized void unregister(byte type) {
+		if (type <= 0) return;
+		Compression[] copy = registry.clone();
+		copy[type] = null;
+		registry = copy;
+	}
+
+}
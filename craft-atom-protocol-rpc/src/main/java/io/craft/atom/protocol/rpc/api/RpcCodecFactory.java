@@ -20,6 +20,13 @@ public class RpcCodecFactory {
 		return new RpcEncoder();
 	}
 	
+	/**
+	 * @param compressionThreshold body smaller than this size in bytes is never compressed.
+	 */
+	public static ProtocolEncoder<RpcMessage> newRpcEncoder(int compressionThreshold) {
+		return new RpcEncoder(compressionThreshold);
+	}
+	
 	public static ProtocolDecoder<RpcMessage> newRpcDecoder() {
 		return new RpcDecoder();
 	}
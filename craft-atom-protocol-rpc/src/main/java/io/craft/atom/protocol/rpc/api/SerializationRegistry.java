@@ -1,16 +1,29 @@
 package io.craft.atom.protocol.rpc.api;
 
+import io.craft.atom.protocol.rpc.CompactKryoSerialization;
+import io.craft.atom.protocol.rpc.JsonSerialization;
 import io.craft.atom.protocol.rpc.KryoSerialization;
+import io.craft.atom.protocol.rpc.SchemaKryoSerialization;
 import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcHeader;
 import io.craft.atom.protocol.rpc.spi.Serialization;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 
 
 /**
  * Serialization registry contains the {@code Serialization} and its type mapping.
+ * <p>
+ * Built-in serializations:
+ * <pre>
+ * 1 - {@link KryoSerialization}, the default.
+ * 2 - {@link CompactKryoSerialization}, used by request carries a negotiated method id.
+ * 3 - {@link SchemaKryoSerialization}, both peers must have the same classes.
+ * 4 - {@link JsonSerialization}, for debugging and peers in other languages.
+ * </pre>
+ * The type is the <tt>st</tt> field of {@link RpcHeader}, so it is in range [0, 31].
+ * Lookup is a volatile array read, register and unregister copy the array.
  * 
  * @author mindwind
  * @version 1.0, Jul 23, 2014
@@ -22,11 +35,18 @@ public class SerializationRegistry {
 	private static final SerializationRegistry INSTNACE = new SerializationRegistry();
 	public static SerializationRegistry getInstance() { return INSTNACE; } 
 	private SerializationRegistry() {
-		registry.put(KryoSerialization.getInstance().type(), KryoSerialization.getInstance());
+		register(KryoSerialization.getInstance());
+		register(CompactKryoSerialization.getInstance());
+		register(SchemaKryoSerialization.getInstance());
+		register(JsonSerialization.getInstance());
 	}
 	
 	
-	private Map<Byte, Serialization<RpcBody>> registry = new HashMap<Byte, Serialization<RpcBody>>();
+	private static final int MAX_TYPE = 0x1f;
+	
+	
+	@SuppressWarnings("unchecked")
+	private volatile Serialization<RpcBody>[] registry = new Serialization[MAX_TYPE + 1];
 	
 	
 	// ~ --------------------------------------------------------------------------------------------------------------
@@ -36,12 +56,21 @@ public class SerializationRegistry {
 	 * Lookup by type 
 	 * 
 	 * @param type
-	 * @return mapping serialization.
+	 * @return mapping serialization, or <code>null</code> if no mapping.
 	 */
 	public Serialization<RpcBody> lookup(byte type) {
-		return registry.get(type);
+		if (type < 0 || type > MAX_TYPE) return null;
+		return registry[type];
 	}
 	
+	/**
+	 * Register a serialization with its own type.
+	 * 
+	 * @param serialization
+	 */
+	public void register(Serialization<RpcBody> serialization) {
+		register(serialization.type(), serialization);
+	}
 	
 	/**
 	 * Register a serialization.
@@ -49,11 +78,16 @@ public class SerializationRegistry {
 	 * @param type
 	 * @param serialization
 	 */
-	public void register(byte type, Serialization<RpcBody> serialization) {
-		if (registry.containsKey(type)) {
+	public synchronized void register(byte type, Serialization<RpcBody> serialization) {
+		if (type < 0 || type > MAX_TYPE) {
+			throw new IllegalArgumentException("Serialization `type` is out of range [0, " + MAX_TYPE + "]!");
+		}
+		if (registry[type] != null) {
 			throw new IllegalArgumentException("Serialization `type` is conflict!");
 		}
-		registry.put(type, serialization);
+		Serialization<RpcBody>[] copy = registry.clone();
+		copy[type] = serialization;
+		registry = copy;
 	}
 	
 	/**
@@ -61,7 +95,24 @@ public class SerializationRegistry {
 	 * 
 	 * @param type
 	 */
-	public void unregister(byte type) {
-		registry.remove(type);
+	public synchronized void unregister(byte type) {
+		if (type < 0 || type > MAX_TYPE) return;
+		Serialization<RpcBody>[] copy = registry.clone();
+		copy[type] = null;
+		registry = copy;
 	}
+	
+	/**
+	 * @return all registered serialization types in ascending order.
+	 */
+	public byte[] types() {
+		Serialization<RpcBody>[] snapshot = registry;
+		byte[] types = new byte[snapshot.length];
+		int n = 0;
+		for (int i = 0; i < snapshot.length; i++) {
+			if (snapshot[i] != null) { types[n++] = (byte) i; }
+		}
+		return Arrays.copyOf(types, n);
+	}
+	
 }
@@ -14,24 +14,28 @@ import lombok.ToString;
  * A body that can be sent or received with a rpc message, 
  * but not all messages contain a body, it is optional.
  * The body contains a block of arbitrary data and can be serialized by specific serializer.
+ * <p>
+ * A request body with a positive <tt>methodId</tt> refers to a method of the method table negotiated with the server,
+ * only the compact serializer writes it instead of the rpc interface, method name and parameter types.
  * 
  * @author mindwind
  * @version 1.0, Jul 18, 2014
  */
 @ToString
-@EqualsAndHashCode(of = { "rpcInterface", "rpcMethod", "returnObject", "exception", "attachments" })
+@EqualsAndHashCode(of = { "methodId", "rpcInterface", "rpcMethod", "returnObject", "exception", "attachments" })
 public class RpcBody implements Serializable {
 
 	
 	private static final long serialVersionUID = 5138100956693144357L;
 	
 	
-	@Getter @Setter private String              rpcId       ;
-	@Getter @Setter private Class<?>            rpcInterface;
-	@Getter @Setter private RpcMethod           rpcMethod   ;
-	@Getter @Setter private RpcOption           rpcOption   ;
-	@Getter @Setter private Map<String, String> attachments ;
-	@Getter @Setter private Object              returnObject;
-	@Getter @Setter private Exception           exception   ;
+	@Getter @Setter transient private int                 methodId    ;
+	@Getter @Setter           private String              rpcId       ;
+	@Getter @Setter           private Class<?>            rpcInterface;
+	@Getter @Setter           private RpcMethod           rpcMethod   ;
+	@Getter @Setter           private RpcOption           rpcOption   ;
+	@Getter @Setter           private Map<String, String> attachments ;
+	@Getter @Setter           private Object              returnObject;
+	@Getter @Setter           private Exception           exception   ;
 
 }
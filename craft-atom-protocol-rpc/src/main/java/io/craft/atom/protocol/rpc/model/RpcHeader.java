@@ -19,7 +19,7 @@ import lombok.ToString;
  * 000-------------------------------------------------------------------015-------------------------------------------------------------------031
  * |                                 magic                                |                                header size                           |                      
  * 032--------------------------------039-----------044----045----046----047--------------------------------055--------------------------------063
- * |                version            |      st     |  hb  |  ow  |  rp  |        status code               |            reserved               |                
+ * |                version            |      st     |  hb  |  ow  |  rp  |        status code               |               ct                  |                
  * 064-----------------------------------------------------------------------------------------------------------------------------------------095
  * |                                                                 message id                                                                  |
  * |                                                                                                                                             |
@@ -31,13 +31,15 @@ import lombok.ToString;
  * hb = heartbeat flag, set '0000 0100' means it is a heatbeat message.
  * ow = one way   flag, set '0000 0010' means it is one way message, the client doesn't wait for a response.
  * rp = response  flag, set '0000 0001' means it is response message, otherwise it's a request message.
+ * ct = compression type of body, 0 means the body is not compressed, 
+ *      otherwise the body is the original body length of 4 bytes followed by the compressed body.
  * </pre>
  * 
  * @author mindwind
  * @version 1.0, Jul 18, 2014
  */
 @ToString
-@EqualsAndHashCode(of = { "magic", "headerSize", "version", "st", "hb", "ow", "rp", "statusCode", "reserved", "id", "bodySize" })
+@EqualsAndHashCode(of = { "magic", "headerSize", "version", "st", "hb", "ow", "rp", "statusCode", "ct", "id", "bodySize" })
 public class RpcHeader implements Serializable {
 
 	
@@ -61,7 +63,7 @@ public class RpcHeader implements Serializable {
 	@Getter	        private byte  ow         = (byte)  0  ;
 	@Getter	        private byte  rp         = (byte)  0  ;
 	@Getter @Setter private byte  statusCode = (byte)  0  ;
-	@Getter @Setter private byte  reserved   = (byte)  0  ;
+	@Getter @Setter private byte  ct         = (byte)  0  ;
 	@Getter @Setter private long  id         = (long)  0  ;
 	@Getter @Setter private int   bodySize   = (int)   0  ;
 	
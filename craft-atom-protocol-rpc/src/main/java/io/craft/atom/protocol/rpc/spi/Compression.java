@@ -0,0 +1,44 @@
+package io.craft.atom.protocol.rpc.spi;
+
+import io.craft.atom.protocol.ProtocolException;
+
+/**
+ * Compress bytes or decompress bytes, implementor must be thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface Compression {
+
+	/**
+	 * @return compression type.
+	 */
+	byte type();
+
+	/**
+	 * Compress <tt>srcLen</tt> bytes of <tt>src</tt> into at most <tt>dstLen</tt> bytes of <tt>dst</tt>.
+	 *
+	 * @param src    source bytes
+	 * @param srcOff source offset
+	 * @param srcLen source length
+	 * @param dst    destination bytes
+	 * @param dstOff destination offset
+	 * @param dstLen max destination length
+	 * @return compressed length, or -1 if the compressed bytes would exceed <tt>dstLen</tt>.
+	 */
+	int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen);
+
+	/**
+	 * Decompress <tt>srcLen</tt> bytes of <tt>src</tt> into exactly <tt>dstLen</tt> bytes of <tt>dst</tt>.
+	 *
+	 * @param src    compressed bytes
+	 * @param srcOff compressed offset
+	 * @param srcLen compressed length
+	 * @param dst    destination bytes
+	 * @param dstOff destination offset
+	 * @param dstLen original length
+	 * @throws ProtocolException if the compressed bytes are malformed or not decompressed to <tt>dstLen</tt> bytes.
+	 */
+	void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) throws ProtocolException;
+
+}
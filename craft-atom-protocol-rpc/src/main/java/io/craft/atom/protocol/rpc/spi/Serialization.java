@@ -23,6 +23,15 @@ public interface Serialization<T> {
 	 */
 	byte[] serialize(T object) throws ProtocolException;
 	
+	/**
+	 * Serialize object to bytes after <tt>off</tt> bytes reserved at the head, e.g. for a frame header.
+	 * 
+	 * @param object
+	 * @param off    number of bytes reserved at the head, they are zero
+	 * @return serialized bytes, its length is <tt>off</tt> + serialized length.
+	 */
+	byte[] serialize(T object, int off) throws ProtocolException;
+	
 	/**
 	 * Deserialize object from bytes.
 	 * 
@@ -40,4 +49,14 @@ public interface Serialization<T> {
 	 */
 	T deserialize(byte[] bytes, int off) throws ProtocolException;
 	
+	/**
+	 * Deserialize object from <tt>len</tt> bytes at specific offset.
+	 * 
+	 * @param bytes byte array
+	 * @param off   offset
+	 * @param len   length
+	 * @return deserialized object.
+	 */
+	T deserialize(byte[] bytes, int off, int len) throws ProtocolException;
+	
 }
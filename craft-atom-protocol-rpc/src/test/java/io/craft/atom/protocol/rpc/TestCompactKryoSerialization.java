@@ -0,0 +1,144 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.protocol.rpc.model.RpcOption;
+import io.craft.atom.protocol.rpc.spi.Serialization;
+import io.craft.atom.test.CaseCounter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@code CompactKryoSerialization}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestCompactKryoSerialization {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestCompactKryoSerialization.class);
+
+
+	private CompactKryoSerialization cks = CompactKryoSerialization.getInstance();
+	private KryoSerialization        ks  = KryoSerialization.getInstance();
+	private RpcBody                  rb  = new RpcBody();
+
+
+	@Before
+	public void before() {
+		RpcOption option = new RpcOption();
+		option.setRpcTimeoutInMillis(3000);
+		Map<String, String> attachments = new HashMap<String, String>();
+		attachments.put("k", "v");
+		rb.setRpcId("1");
+		rb.setRpcInterface(RpcService.class);
+		rb.setRpcMethod(new RpcMethod("rpc", new Class<?>[] { String.class, int.class }, new Object[] { "hello", 1 }));
+		rb.setRpcOption(option);
+		rb.setAttachments(attachments);
+	}
+
+	@Test
+	public void testMethod() {
+		RpcBody body = cks.deserialize(cks.serialize(rb));
+		Assert.assertEquals(0, body.getMethodId());
+		Assert.assertEquals(rb, body);
+		Assert.assertEquals("1", body.getRpcId());
+		Assert.assertEquals(3000, body.getRpcOption().getRpcTimeoutInMillis());
+		Assert.assertArrayEquals(new Class<?>[] { String.class, int.class }, body.getRpcMethod().getParameterTypes());
+		Assert.assertArrayEquals(new Object[] { "hello", 1 }, body.getRpcMethod().getParameters());
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compact kryo serialization method.\n", CaseCounter.incr(6));
+	}
+
+	@Test
+	public void testPrimitiveTypes() {
+		// a primitive and its wrapper are different methods
+		Class<?>[] types = new Class<?>[] { int.class, Integer.class, long.class, Long.class, boolean.class, Boolean.class, double.class, Double.class, int[].class, Integer[].class };
+		Object[]   ps    = new Object[]   { 1, 2, 3L, 4L, true, false, 5.0, 6.0, new int[] { 7 }, new Integer[] { 8 } };
+		rb.setRpcMethod(new RpcMethod("rpc", types, ps));
+		RpcBody body = cks.deserialize(cks.serialize(rb));
+		Assert.assertArrayEquals(types, body.getRpcMethod().getParameterTypes());
+		Assert.assertEquals(rb.getRpcMethod(), body.getRpcMethod());
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compact kryo serialization primitive types.\n", CaseCounter.incr(2));
+	}
+
+	@Test
+	public void testMethodId() {
+		rb.setMethodId(300);
+		byte[] compact = cks.serialize(rb);
+		RpcBody body = cks.deserialize(compact);
+		Assert.assertEquals(300, body.getMethodId());
+		Assert.assertNull(body.getRpcInterface());
+		Assert.assertNull(body.getRpcMethod().getName());
+		Assert.assertNull(body.getRpcMethod().getParameterTypes());
+		Assert.assertArrayEquals(new Object[] { "hello", 1 }, body.getRpcMethod().getParameters());
+		Assert.assertEquals(rb.getAttachments(), body.getAttachments());
+
+		// method id is never written by the full format
+		Assert.assertEquals(0, ks.deserialize(ks.serialize(rb)).getMethodId());
+		Assert.assertTrue(compact.length < cks.serialize(rb(0)).length);
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compact kryo serialization method id.\n", CaseCounter.incr(7));
+	}
+
+	@Test
+	public void testResponse() {
+		RpcBody rsp = new RpcBody();
+		rsp.setReturnObject("world");
+		RpcBody body = cks.deserialize(cks.serialize(rsp));
+		Assert.assertEquals("world", body.getReturnObject());
+		Assert.assertNull(body.getRpcMethod());
+		Assert.assertNull(body.getRpcOption());
+
+		// void response
+		body = cks.deserialize(cks.serialize(new RpcBody()));
+		Assert.assertEquals(new RpcBody(), body);
+		Assert.assertEquals(1, cks.serialize(new RpcBody()).length);
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compact kryo serialization response.\n", CaseCounter.incr(5));
+	}
+
+	@Test
+	public void testPerformance() {
+		rb.setAttachments(null);
+		rb.setRpcId(null);
+		RpcBody compact = rb(1);
+		int full = ks.serialize(rb).length;
+		int size = cks.serialize(compact).length;
+		Assert.assertTrue(size < full);
+
+		int n = 100000;
+		long ft = time(ks, rb, n);
+		long ct = time(cks, compact, n);
+		LOG.info("[CRAFT-ATOM-PROTOCOL-RPC] Compact kryo performance, |count={}, full={}B/{}ms, compact={}B/{}ms|", n, full, ft, size, ct);
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compact kryo serialization performance.\n", CaseCounter.incr(1));
+	}
+
+	private long time(Serialization<RpcBody> serialization, RpcBody body, int n) {
+		for (int i = 0; i < n / 10; i++) {
+			serialization.deserialize(serialization.serialize(body, 20), 20);
+		}
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			serialization.deserialize(serialization.serialize(body, 20), 20);
+		}
+		return (System.nanoTime() - s) / 1000000;
+	}
+
+	private RpcBody rb(int methodId) {
+		RpcBody body = new RpcBody();
+		body.setMethodId(methodId);
+		body.setRpcId(rb.getRpcId());
+		body.setRpcInterface(rb.getRpcInterface());
+		body.setRpcMethod(rb.getRpcMethod());
+		body.setRpcOption(rb.getRpcOption());
+		body.setAttachments(rb.getAttachments());
+		return body;
+	}
+
+}
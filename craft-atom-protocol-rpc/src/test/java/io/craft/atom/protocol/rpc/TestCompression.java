@@ -0,0 +1,165 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.rpc.api.CompressionRegistry;
+import io.craft.atom.protocol.rpc.spi.Compression;
+import io.craft.atom.test.CaseCounter;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@code DeflateCompression} and {@code Lz4Compression}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestCompression {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestCompression.class);
+
+
+	private Compression[] compressions = new Compression[] { DeflateCompression.getInstance(), Lz4Compression.getInstance() };
+
+
+	@Test
+	public void testRoundTrip() {
+		Random random = new Random(19);
+		for (Compression compression : compressions) {
+			for (int size : new int[] { 0, 1, 12, 13, 15, 16, 100, 270, 4096, 70000, 256 * 1024 }) {
+				assertRoundTrip(compression, compressible(size));
+				byte[] b = new byte[size];
+				random.nextBytes(b);
+				assertRoundTrip(compression, b);
+				Arrays.fill(b, (byte) 7);
+				assertRoundTrip(compression, b);
+			}
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compression round trip.\n", CaseCounter.incr(66));
+	}
+
+	@Test
+	public void testBound() {
+		byte[] random = new byte[4096];
+		new Random(19).nextBytes(random);
+		byte[] compressible = compressible(4096);
+		for (Compression compression : compressions) {
+			// incompressible bytes do not fit in less than the original length
+			Assert.assertEquals(-1, compression.compress(random, 0, random.length, new byte[random.length], 0, random.length - 1));
+
+			// compressed bytes fit in a little more than their own length, never in less
+			byte[] dst = new byte[compressible.length];
+			int len = compression.compress(compressible, 0, compressible.length, dst, 0, dst.length);
+			Assert.assertTrue(len > 0 && len < compressible.length / 2);
+			Assert.assertEquals(len, compression.compress(compressible, 0, compressible.length, new byte[len + 5], 0, len + 5));
+			Assert.assertEquals(-1, compression.compress(compressible, 0, compressible.length, new byte[len - 1], 0, len - 1));
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compression bound.\n", CaseCounter.incr(8));
+	}
+
+	@Test
+	public void testInvalid() {
+		byte[] b = compressible(4096);
+		for (Compression compression : compressions) {
+			byte[] dst = new byte[b.length];
+			int len = compression.compress(b, 0, b.length, dst, 0, dst.length);
+			assertInvalid(compression, dst, len - 1, b.length);
+			assertInvalid(compression, dst, len, b.length + 1);
+			assertInvalid(compression, dst, len, b.length - 1);
+		}
+		assertInvalid(Lz4Compression.getInstance(), new byte[] { 0x0f, 1, 0 }, 3, 100);
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compression invalid.\n", CaseCounter.incr(7));
+	}
+
+	@Test
+	public void testRegistry() {
+		CompressionRegistry registry = CompressionRegistry.getInstance();
+		Assert.assertSame(DeflateCompression.getInstance(), registry.lookup((byte) 1));
+		Assert.assertSame(Lz4Compression.getInstance(), registry.lookup((byte) 2));
+		Assert.assertNull(registry.lookup((byte) 0));
+		Assert.assertNull(registry.lookup((byte) -1));
+		Assert.assertNull(registry.lookup((byte) 3));
+		try {
+			registry.register(Lz4Compression.getInstance());
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertSame(Lz4Compression.getInstance(), registry.lookup((byte) 2));
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compression registry.\n", CaseCounter.incr(6));
+	}
+
+	@Test
+	public void testPerformance() {
+		byte[] random = new byte[256 * 1024];
+		new Random(19).nextBytes(random);
+		byte[][] bodies = new byte[][] { compressible(256 * 1024), random };
+		String[] shapes = new String[] { "compressible", "incompressible" };
+
+		int n = 500;
+		for (int i = 0; i < bodies.length; i++) {
+			byte[] b   = bodies[i];
+			byte[] dst = new byte[b.length];
+			byte[] raw = new byte[b.length];
+			for (Compression compression : compressions) {
+				int len = 0;
+				for (int j = 0; j < n / 10; j++) {
+					len = compression.compress(b, 0, b.length, dst, 0, dst.length);
+				}
+				long s = System.nanoTime();
+				for (int j = 0; j < n; j++) {
+					len = compression.compress(b, 0, b.length, dst, 0, dst.length);
+				}
+				long e = System.nanoTime();
+				for (int j = 0; j < n && len > 0; j++) {
+					compression.decompress(dst, 0, len, raw, 0, raw.length);
+				}
+				long d = System.nanoTime();
+				LOG.info("[CRAFT-ATOM-PROTOCOL-RPC] Compression performance, |shape={}, compression={}, size={}, compressed={}, count={}, compress={}MB/s, decompress={}MB/s|",
+						 shapes[i], compression.getClass().getSimpleName(), b.length, len < 0 ? "none" : len, n, mbps(b.length, n, e - s), len < 0 ? "-" : mbps(b.length, n, d - e));
+			}
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compression performance.\n", CaseCounter.incr(1));
+	}
+
+	private long mbps(int size, int n, long nanos) {
+		return (long) size * n * 1000 / Math.max(1, nanos);
+	}
+
+	private void assertRoundTrip(Compression compression, byte[] b) {
+		byte[] dst = new byte[b.length + b.length / 255 + 64];
+		int len = compression.compress(b, 0, b.length, dst, 3, dst.length - 3);
+		Assert.assertTrue(len > 0);
+		byte[] raw = new byte[b.length + 2];
+		compression.decompress(dst, 3, len, raw, 1, b.length);
+		Assert.assertArrayEquals(b, Arrays.copyOfRange(raw, 1, b.length + 1));
+	}
+
+	private void assertInvalid(Compression compression, byte[] src, int len, int size) {
+		try {
+			compression.decompress(src, 0, len, new byte[size], 0, size);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(true);
+		}
+	}
+
+	/**
+	 * Text like a list response, repeated field names with varied values.
+	 */
+	private byte[] compressible(int size) {
+		StringBuilder sb = new StringBuilder(size + 64);
+		Random random = new Random(size);
+		for (int i = 0; sb.length() < size; i++) {
+			sb.append("{\"id\":").append(i).append(",\"name\":\"item-").append(random.nextInt(1000)).append("\",\"price\":").append(random.nextInt(100000)).append('}');
+		}
+		return sb.substring(0, size).getBytes(Charset.forName("UTF-8"));
+	}
+
+}
@@ -0,0 +1,177 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.protocol.rpc.model.RpcOption;
+import io.craft.atom.test.CaseCounter;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@code JsonSerialization}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestJsonSerialization {
+
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+
+	private JsonSerialization js = JsonSerialization.getInstance();
+	private RpcBody           rb = new RpcBody();
+	private SerialA           sa = new SerialA();
+	private SerialB           sb = new SerialB();
+
+
+	@Before
+	public void before() {
+		sa.setT("transient");
+		sa.setB((byte) 1);
+		sa.setI(2);
+		sa.setL(1000L);
+		sa.setF(2.0f);
+		sa.setD(123.33);
+		sa.setBool(true);
+		sa.setS("foo \"bar\"\n\u4e2d\u6587");
+		sa.addList("1").addList("2").addList("3");
+		sa.addSet("a").addSet("b").addSet("c");
+		sa.putMap(1L, "a").putMap(2L, "b").putMap(3L, "c");
+		sa.putNested("a", "a1", "a2", "a3");
+		sa.setSenum(SerialEnum.A);
+		sa.setSeb(sb);
+		sb.setBytes(new byte[] { 1, 2, 3, 4, 5 });
+		RpcOption option = new RpcOption();
+		option.setRpcTimeoutInMillis(3000);
+		Map<String, String> attachments = new HashMap<String, String>();
+		attachments.put("k", "v");
+		rb.setRpcId("1");
+		rb.setRpcInterface(RpcService.class);
+		rb.setRpcMethod(new RpcMethod("rpc", new Class<?>[] { SerialA.class, int.class }, new Object[] { sa, 7 }));
+		rb.setRpcOption(option);
+		rb.setAttachments(attachments);
+	}
+
+	@Test
+	public void testBasic() {
+		RpcBody body = js.deserialize(js.serialize(rb));
+		Assert.assertEquals(rb, body);
+		Assert.assertEquals(3000, body.getRpcOption().getRpcTimeoutInMillis());
+		Assert.assertEquals(7, body.getRpcMethod().getParameters()[1]);
+
+		SerialA aa = (SerialA) body.getRpcMethod().getParameters()[0];
+		Assert.assertNull(aa.getT());
+		Assert.assertEquals(sa.getB(), aa.getB());
+		Assert.assertEquals(sa.getI(), aa.getI());
+		Assert.assertEquals(sa.getL(), aa.getL());
+		Assert.assertEquals(sa.getF(), aa.getF(), 0.00001);
+		Assert.assertEquals(sa.getD(), aa.getD(), 0.00001);
+		Assert.assertEquals(sa.isBool(), aa.isBool());
+		Assert.assertEquals(sa.getS(), aa.getS());
+		Assert.assertEquals(sa.getDate(), aa.getDate());
+		Assert.assertEquals(sa.getList(), aa.getList());
+		Assert.assertEquals(sa.getSet(), aa.getSet());
+		Assert.assertEquals(sa.getMap(), aa.getMap());
+		Assert.assertEquals(sa.getNested(), aa.getNested());
+		Assert.assertEquals(sa.getSenum(), aa.getSenum());
+		Assert.assertArrayEquals(sb.getBytes(), aa.getSeb().getBytes());
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test json serialization basic.\n", CaseCounter.incr(18));
+	}
+
+	@Test
+	public void testReadable() {
+		String json = new String(js.serialize(rb), UTF_8);
+		Assert.assertTrue(json.startsWith("{\"rpcId\":\"1\",\"rpcInterface\":\"io.craft.atom.protocol.rpc.RpcService\",\"rpcMethod\":{\"name\":\"rpc\""));
+
+		// written by a peer in other language
+		json = "{ \"rpcInterface\" : \"io.craft.atom.protocol.rpc.RpcService\",\n"
+		     + "  \"rpcMethod\"    : { \"name\" : \"rpc\", \"parameterTypes\" : [ \"java.lang.String\", \"int\" ], \"parameters\" : [ \"\\u0068i\", 1 ] } }";
+		RpcBody body = js.deserialize(json.getBytes(UTF_8));
+		Assert.assertEquals(RpcService.class, body.getRpcInterface());
+		Assert.assertArrayEquals(new Object[] { "hi", 1 }, body.getRpcMethod().getParameters());
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test json serialization readable.\n", CaseCounter.incr(3));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testResponse() {
+		RpcBody rsp = new RpcBody();
+		rsp.setReturnObject(sa);
+		RpcBody body = js.deserialize(js.serialize(rsp));
+		Assert.assertEquals(sa.getS(), ((SerialA) body.getReturnObject()).getS());
+
+		// generic type of return object is unknown
+		Map<String, List<String>> nested = sa.getNested();
+		rsp.setReturnObject(nested);
+		body = js.deserialize(js.serialize(rsp));
+		Assert.assertEquals(nested, body.getReturnObject());
+		Assert.assertEquals(HashMap.class, body.getReturnObject().getClass());
+		Assert.assertEquals("a1", ((Map<String, List<String>>) body.getReturnObject()).get("a").get(0));
+
+		rsp = new RpcBody();
+		rsp.setException(new IllegalStateException("error"));
+		body = js.deserialize(js.serialize(rsp));
+		Assert.assertEquals(IllegalStateException.class, body.getException().getClass());
+		Assert.assertEquals("error", body.getException().getMessage());
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test json serialization response.\n", CaseCounter.incr(6));
+	}
+
+	@Test
+	public void testInvalid() {
+		// circular reference
+		sb.setSea(sa);
+		try {
+			js.serialize(rb);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(true);
+		}
+
+		try {
+			js.deserialize("{\"rpcId\":\"1\"".getBytes(UTF_8));
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(true);
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test json serialization invalid.\n", CaseCounter.incr(2));
+	}
+
+	@Test
+	public void testNestingDepth() {
+		// nesting within the limit is parsed
+		Assert.assertNotNull(Json.parse(nested(Json.MAX_DEPTH)));
+
+		// a few KB of brackets fails with a parse error instead of a stack overflow
+		for (String json : new String[] { nested(Json.MAX_DEPTH + 1), repeat("[", 64 * 1024), repeat("{\"a\":", 16 * 1024) }) {
+			try {
+				js.deserialize(json.getBytes(UTF_8));
+				Assert.fail();
+			} catch (ProtocolException e) {
+				Assert.assertTrue(e.getMessage().contains("too deep"));
+			}
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test json serialization nesting depth.\n", CaseCounter.incr(4));
+	}
+
+	private static String nested(int depth) {
+		return repeat("[", depth) + repeat("]", depth);
+	}
+
+	private static String repeat(String s, int n) {
+		StringBuilder sb = new StringBuilder(s.length() * n);
+		for (int i = 0; i < n; i++) {
+			sb.append(s);
+		}
+		return sb.toString();
+	}
+
+}
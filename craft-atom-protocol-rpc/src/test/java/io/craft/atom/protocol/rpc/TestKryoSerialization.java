@@ -5,9 +5,13 @@ import io.craft.atom.protocol.rpc.model.RpcBody;
 import io.craft.atom.protocol.rpc.model.RpcMethod;
 import io.craft.atom.test.CaseCounter;
 
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Tests for {@code KryoSerialization}
@@ -18,6 +22,9 @@ import org.junit.Test;
 public class TestKryoSerialization {
 	
 	
+	private static final Logger LOG = LoggerFactory.getLogger(TestKryoSerialization.class);
+	
+	
 	private KryoSerialization ks = KryoSerialization.getInstance();
 	private RpcBody           rb = new RpcBody(); 
 	private SerialA           sa = new SerialA();
@@ -96,6 +103,49 @@ public class TestKryoSerialization {
 	}
 	
 	
+	@Test
+	public void testOffset() {
+		byte[] bytes = ks.serialize(rb);
+		byte[] framed = ks.serialize(rb, 20);
+		Assert.assertEquals(bytes.length + 20, framed.length);
+		Assert.assertArrayEquals(new byte[20], Arrays.copyOf(framed, 20));
+		
+		// deserialize a body in the middle of other bytes
+		byte[] padded = Arrays.copyOf(framed, framed.length + 7);
+		RpcBody body = ks.deserialize(padded, 20, bytes.length);
+		Assert.assertEquals(sa.getS(), ((SerialA) body.getRpcMethod().getParameters()[0]).getS());
+		
+		// the cached output is reused after a large body
+		char[] chars = new char[KryoSerialization.MAX_CACHED_BUFFER_SIZE];
+		Arrays.fill(chars, 'a');
+		sa.setS(new String(chars));
+		body = ks.deserialize(ks.serialize(rb));
+		Assert.assertEquals(sa.getS(), ((SerialA) body.getRpcMethod().getParameters()[0]).getS());
+		sa.setS("foo.bar");
+		Assert.assertArrayEquals(bytes, ks.serialize(rb));
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test kryo serialization offset.\n", CaseCounter.incr(6));
+	}
+	
+	@Test
+	public void testPerformance() {
+		int n = 100000;
+		for (int i = 0; i < n / 10; i++) {
+			ks.deserialize(ks.serialize(rb, 20), 20);
+		}
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			ks.serialize(rb, 20);
+		}
+		long e = System.nanoTime();
+		byte[] bytes = ks.serialize(rb);
+		for (int i = 0; i < n; i++) {
+			ks.deserialize(bytes, 0, bytes.length);
+		}
+		long d = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-RPC] Kryo performance, |size={}, count={}, serialize={}ms, deserialize={}ms|", bytes.length, n, (e - s) / 1000000, (d - e) / 1000000);
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test kryo serialization performance.\n", CaseCounter.incr(1));
+	}
+	
 	@Test
 	public void testCompatibility() throws Exception {
 		// model has more fields; comment SerialA.t1 and generate bytes
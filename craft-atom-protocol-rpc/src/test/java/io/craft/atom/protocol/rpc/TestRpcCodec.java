@@ -5,6 +5,7 @@ import io.craft.atom.protocol.ProtocolEncoder;
 import io.craft.atom.protocol.ProtocolException;
 import io.craft.atom.protocol.rpc.KryoSerialization;
 import io.craft.atom.protocol.rpc.api.RpcCodecFactory;
+import io.craft.atom.protocol.rpc.api.SerializationRegistry;
 import io.craft.atom.protocol.rpc.model.RpcBody;
 import io.craft.atom.protocol.rpc.model.RpcHeader;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
@@ -14,6 +15,7 @@ import io.craft.atom.util.ByteArrayBuffer;
 import io.craft.atom.util.ByteUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -141,6 +143,123 @@ public class TestRpcCodec {
 		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test invalid decode.\n", CaseCounter.incr(2));
 	}
 	
+	@Test
+	public void testSerializations() {
+		SerializationRegistry registry = SerializationRegistry.getInstance();
+		Assert.assertArrayEquals(new byte[] { 1, 2, 3, 4 }, registry.types());
+		for (byte type : registry.types()) {
+			rh.setSt(type);
+			List<RpcMessage> l = decoder.decode(encoder.encode(rm));
+			Assert.assertEquals(1, l.size());
+			Assert.assertEquals(rm, l.get(0));
+			Assert.assertEquals(type, l.get(0).getHeader().getSt());
+			Assert.assertArrayEquals(rm.getBody().getRpcMethod().getParameters(), l.get(0).getBody().getRpcMethod().getParameters());
+		}
+		
+		try {
+			registry.register((byte) 32, KryoSerialization.getInstance());
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertNull(registry.lookup((byte) 32));
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test serializations.\n", CaseCounter.incr(18));
+	}
+	
+	@Test
+	public void testCompression() {
+		ProtocolEncoder<RpcMessage> encoder = RpcCodecFactory.newRpcEncoder(1024);
+		for (byte ct : new byte[] { 1, 2 }) {
+			// small body is not compressed
+			rh.setCt(ct);
+			byte[] b = encoder.encode(rm);
+			Assert.assertEquals(0, b[7]);
+			Assert.assertEquals(0, rh.getCt());
+			
+			// large body is compressed and decoded in chunks
+			RpcMessage m = newRpcMessage(64 * 1024);
+			m.getHeader().setCt(ct);
+			b = encoder.encode(m);
+			Assert.assertEquals(ct, b[7]);
+			Assert.assertTrue(b.length < 1024);
+			Assert.assertEquals(b.length - RpcHeader.HEADER_SIZE, ByteUtil.bytes2int(b, 16));
+			testInRandomLoop(m, b, 10, false);
+			
+			// incompressible body is sent raw
+			byte[] random = new byte[64 * 1024];
+			new Random().nextBytes(random);
+			m.getBody().getRpcMethod().setParameters(random, 1);
+			m.getHeader().setCt(ct);
+			b = encoder.encode(m);
+			Assert.assertEquals(0, b[7]);
+			Assert.assertArrayEquals(random, (byte[]) decoder.decode(b).get(0).getBody().getRpcMethod().getParameters()[0]);
+		}
+		
+		// unknown compression
+		RpcMessage m = newRpcMessage(64 * 1024);
+		m.getHeader().setCt((byte) 9);
+		try {
+			encoder.encode(m);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(true);
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test compression.\n", CaseCounter.incr(15));
+	}
+	
+	@Test
+	public void testDecodePerformance() {
+		for (int size : new int[] { 100, 64 * 1024 }) {
+			byte[] bytes = encoder.encode(newRpcMessage(size));
+			
+			// message of bytes arrives in 1500 bytes chunks
+			ByteArrayBuffer wire = new ByteArrayBuffer(bytes.length * 16);
+			for (int i = 0; i < 16; i++) {
+				wire.append(bytes);
+			}
+			List<byte[]> chunks = new ArrayList<byte[]>();
+			byte[] b = wire.array();
+			for (int off = 0; off < b.length; off += 1500) {
+				chunks.add(ByteUtil.split(b, off, Math.min(b.length, off + 1500)));
+			}
+			
+			int n = (int) Math.max(16, (64L * 1024 * 1024) / b.length);
+			for (int i = 0; i < n / 10; i++) {
+				for (byte[] chunk : chunks) {
+					decoder.decode(chunk);
+				}
+			}
+			long s = System.nanoTime();
+			for (int i = 0; i < n; i++) {
+				for (byte[] chunk : chunks) {
+					decoder.decode(chunk);
+				}
+			}
+			long e = System.nanoTime();
+			LOG.info("[CRAFT-ATOM-PROTOCOL-RPC] Decode performance, |size={}, messages={}, elapsed={}ms, throughput={}msg/s|", bytes.length, n * 16, (e - s) / 1000000, n * 16 * 1000000000L / (e - s));
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test decode performance.\n", CaseCounter.incr(1));
+	}
+	
+	private RpcMessage newRpcMessage(int size) {
+		RpcMessage m = new RpcMessage();
+		m.setHeader(rh);
+		RpcBody rb = new RpcBody();
+		rb.setRpcInterface(RpcService.class);
+		RpcMethod method = new RpcMethod();
+		method.setName("rpc");
+		method.setParameterTypes(String.class, Integer.class);
+		method.setParameters("", 1);
+		rb.setRpcMethod(method);
+		m.setBody(rb);
+		
+		// pad the string parameter to reach the message size
+		int pad = Math.max(0, size - encoder.encode(m).length);
+		char[] chars = new char[pad];
+		Arrays.fill(chars, 'a');
+		method.setParameters(new String(chars), 1);
+		return m;
+	}
+	
 	private void testInRandomLoop(RpcMessage expected, byte[] bytes, int loop, boolean onebyte) {
 		for (int i = 0; i < loop; i++) {
 			List<byte[]> barr = new ArrayList<byte[]>();
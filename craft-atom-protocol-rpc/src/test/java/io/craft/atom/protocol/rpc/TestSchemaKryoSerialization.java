@@ -0,0 +1,68 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.test.CaseCounter;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@code SchemaKryoSerialization}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestSchemaKryoSerialization {
+
+
+	private SchemaKryoSerialization sks = SchemaKryoSerialization.getInstance();
+	private RpcBody                 rb  = new RpcBody();
+	private SerialA                 sa  = new SerialA();
+	private SerialB                 sb  = new SerialB();
+
+
+	@Before
+	public void before() {
+		sa.setT("transient");
+		sa.setI(2);
+		sa.setS("foo.bar");
+		sa.addList("1").addList("2").addList("3");
+		sa.putMap(1L, "a").putMap(2L, "b").putMap(3L, "c");
+		sa.putNested("a", "a1", "a2", "a3");
+		sa.setSenum(SerialEnum.B);
+		sa.setSeb(sb);
+		sb.setSea(sa);
+		sb.setBytes(new byte[] { 1, 2, 3, 4, 5 });
+		rb.setRpcInterface(RpcService.class);
+		rb.setRpcMethod(new RpcMethod("rpc", new Class<?>[] { SerialA.class, SerialB.class }, new Object[] { sa, sb }));
+	}
+
+	@Test
+	public void testBasic() {
+		byte[] bytes = sks.serialize(rb);
+		RpcBody body = sks.deserialize(bytes);
+		Assert.assertEquals(rb, body);
+
+		SerialA aa = (SerialA) body.getRpcMethod().getParameters()[0];
+		SerialB ab = (SerialB) body.getRpcMethod().getParameters()[1];
+		Assert.assertNull(aa.getT());
+		Assert.assertEquals(sa.getI(), aa.getI());
+		Assert.assertEquals(sa.getS(), aa.getS());
+		Assert.assertEquals(sa.getList(), aa.getList());
+		Assert.assertEquals(sa.getMap(), aa.getMap());
+		Assert.assertEquals(sa.getNested(), aa.getNested());
+		Assert.assertEquals(sa.getSenum(), aa.getSenum());
+		Assert.assertArrayEquals(sb.getBytes(), ab.getBytes());
+
+		// references in the object graph are kept
+		Assert.assertSame(ab, aa.getSeb());
+		Assert.assertSame(aa, ab.getSea());
+
+		// no field name is written
+		Assert.assertTrue(bytes.length < KryoSerialization.getInstance().serialize(rb).length);
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test schema kryo serialization basic.\n", CaseCounter.incr(12));
+	}
+
+}
@@ -0,0 +1,103 @@
+package io.craft.atom.protocol.rpc;
+
+import io.craft.atom.protocol.rpc.api.SerializationRegistry;
+import io.craft.atom.protocol.rpc.model.RpcBody;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.protocol.rpc.spi.Serialization;
+import io.craft.atom.test.CaseCounter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the performance of all registered serializations across payload shapes.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestSerializationPerformance {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestSerializationPerformance.class);
+
+
+	@Test
+	public void testPerformance() {
+		Map<String, RpcBody> shapes = new HashMap<String, RpcBody>();
+		shapes.put("primitive" , rb(new Class<?>[] { String.class, int.class }, "hello", 1));
+		shapes.put("object"    , rb(new Class<?>[] { SerialA.class }, serialA()));
+		shapes.put("collection", rb(new Class<?>[] { List.class, Map.class }, list(100), map(100)));
+
+		SerializationRegistry registry = SerializationRegistry.getInstance();
+		int n = 10000;
+		for (Map.Entry<String, RpcBody> shape : shapes.entrySet()) {
+			for (byte type : registry.types()) {
+				Serialization<RpcBody> serialization = registry.lookup(type);
+				RpcBody rb = shape.getValue();
+				for (int i = 0; i < n / 10; i++) {
+					serialization.deserialize(serialization.serialize(rb, 20), 20);
+				}
+				long s = System.nanoTime();
+				byte[] bytes = null;
+				for (int i = 0; i < n; i++) {
+					bytes = serialization.serialize(rb, 20);
+				}
+				long e = System.nanoTime();
+				for (int i = 0; i < n; i++) {
+					serialization.deserialize(bytes, 20);
+				}
+				long d = System.nanoTime();
+				LOG.info("[CRAFT-ATOM-PROTOCOL-RPC] Serialization performance, |shape={}, serialization={}, size={}, count={}, serialize={}ms, deserialize={}ms|",
+						 shape.getKey(), serialization.getClass().getSimpleName(), bytes.length - 20, n, (e - s) / 1000000, (d - e) / 1000000);
+			}
+		}
+		System.out.format("[CRAFT-ATOM-PROTOCOL-RPC] (^_^)  <%s>  Case -> test serialization performance.\n", CaseCounter.incr(1));
+	}
+
+	private RpcBody rb(Class<?>[] types, Object... parameters) {
+		RpcBody rb = new RpcBody();
+		rb.setRpcInterface(RpcService.class);
+		rb.setRpcMethod(new RpcMethod("rpc", types, parameters));
+		return rb;
+	}
+
+	private SerialA serialA() {
+		SerialA sa = new SerialA();
+		SerialB sb = new SerialB();
+		sa.setI(2);
+		sa.setL(1000L);
+		sa.setD(123.33);
+		sa.setS("foo.bar");
+		sa.addList("1").addList("2").addList("3");
+		sa.addSet("a").addSet("b").addSet("c");
+		sa.putMap(1L, "a").putMap(2L, "b").putMap(3L, "c");
+		sa.putNested("a", "a1", "a2", "a3");
+		sa.setSenum(SerialEnum.A);
+		sa.setSeb(sb);
+		sb.setBytes(new byte[] { 1, 2, 3, 4, 5 });
+		return sa;
+	}
+
+	private List<String> list(int size) {
+		List<String> list = new ArrayList<String>();
+		for (int i = 0; i < size; i++) {
+			list.add("element-" + i);
+		}
+		return list;
+	}
+
+	private Map<String, Long> map(int size) {
+		Map<String, Long> map = new HashMap<String, Long>();
+		for (int i = 0; i < size; i++) {
+			map.put("key-" + i, (long) i);
+		}
+		return map;
+	}
+
+}
@@ -1,19 +1,26 @@
 package io.craft.atom.protocol.ssl;
 
+import io.craft.atom.protocol.ProtocolException;
 import io.craft.atom.protocol.ssl.api.SslCodec;
-import io.craft.atom.util.buffer.AdaptiveByteBuffer;
+import io.craft.atom.protocol.ssl.spi.SslTaskHandler;
+import io.craft.atom.util.ByteArrayBuffer;
+import io.craft.atom.util.ByteArrayBufferPool;
 
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
 import javax.net.ssl.SSLEngineResult.HandshakeStatus;
-import javax.net.ssl.SSLEngineResult.Status;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLHandshakeException;
-import javax.xml.ws.ProtocolException;
+import javax.net.ssl.SSLSession;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -22,415 +29,533 @@ import lombok.Setter;
 
 /**
  * A easy use class using the SSLEngine API to decrypt/encrypt data.
- * 
+ * <p>
+ * Buffers are sized to the session packet and application buffer size and acquired from {@link ByteArrayBufferPool},
+ * they are released at the end of each call, only a partial TLS record waiting for more bytes is held between calls.
+ * Bytes passed to {@link #decode(byte[])} are unwrapped in place, all complete records are unwrapped in one call
+ * and the decrypted data is copied out once. Handshake records of a flight are written by one {@code needWrite}.
+ * <p>
+ * Thread safe by default. If the codec is only used by one I/O thread, set <tt>singleThread</tt> to skip the monitor.
+ * <p>
+ * Delegated tasks of the handshake (key exchange and certificate validation) run inline by default.
+ * If a <tt>taskExecutor</tt> is set they run on it instead, the codec buffers input meanwhile and notifies the 
+ * {@link SslTaskHandler} to pause and resume the channel, so that full handshakes
+ * never stall the I/O thread. Handshake latency and resumption rate are recorded to {@link SslMetrics}.
+ *
  * @author mindwind
  * @version 1.0, Oct 17, 2013
  */
 public class DefaultSslCodec implements SslCodec {
-	
-	
-	/** 
+
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+
+	/**
 	 * <pre>
-	 * Field description 
-	 * 
-	 * wantClientAuth     : Set true if the engine will <em>request</em> client authentication.This option is only useful to engines in the server mode. 
-	 * needClientAuth     : Set true if the engine will <em>require</em> client authentication.This option is only useful to engines in the server mode. 
-	 * clientMode         : Set true if the engine is set to use client mode when handshaking. 
-	 * handshakeComplete  : A flag set to true when a SSL Handshake has been completed. 
+	 * Field description
+	 *
+	 * wantClientAuth     : Set true if the engine will <em>request</em> client authentication.This option is only useful to engines in the server mode.
+	 * needClientAuth     : Set true if the engine will <em>require</em> client authentication.This option is only useful to engines in the server mode.
+	 * clientMode         : Set true if the engine is set to use client mode when handshaking.
+	 * singleThread       : Set true if the codec is only used by one thread, encode and decode skip the monitor.
+	 * handshakeComplete  : A flag set to true when a SSL Handshake has been completed.
 	 * enabledCipherSuites: The cipher suites to be enabled when {@link SSLEngine} is initialized. <tt>null</tt> means use {@link SSLEngine}'s default.
-	 * enabledProtocols   : The protocols to be enabled when {@link SSLEngine} is initialized.<tt>null</tt> means use {@link SSLEngine}'s default. 
-	 * inNetBuffer        : Encrypted data from the net. 
-	 * outNetBuffer       : Encrypted data to be written to the net. 
-	 * appBuffer          : Application cleartext data to be read by application.
+	 * enabledProtocols   : The protocols to be enabled when {@link SSLEngine} is initialized.<tt>null</tt> means use {@link SSLEngine}'s default.
+	 * inNet              : Encrypted data from the net, only a partial record held between decode calls.
+	 * appBuffer          : Decrypted application data of current decode call.
+	 * outNet             : Encrypted data to be written to the net.
 	 * peer               : peer address.
 	 * handshakeStatus    : internal handshake status.
-	 * emptyBuffer        : Empty buffer used during initial handshake and close operations. 
-	 * 
+	 * pool               : Buffer pool.
+	 * taskExecutor       : Executor to run delegated tasks, <tt>null</tt> means run them inline on the caller thread, should be bounded.
+	 * sslTaskHandler     : Handler to pause and resume the channel while delegated tasks are running on the task executor.
+	 * metrics            : Handshake metrics.
+	 * taskRunning        : A flag set to true while delegated tasks are running on the task executor.
+	 * handshakeStart     : Start time of current handshake in nanoseconds.
+	 *
 	 * </pre>
 	 */
-	@Getter @Setter private       boolean                         wantClientAuth                                      ;   
-	@Getter @Setter private       boolean                         needClientAuth                                      ;    
-	@Getter @Setter private       boolean                         clientMode                                          ;
-	                private       boolean                         handshakeComplete                                   ;
-	@Getter @Setter private       String[]                        enabledCipherSuites                                 ;
-	@Getter @Setter private       String[]                        enabledProtocols                                    ;
-                    private       AdaptiveByteBuffer              inNetBuffer                                         ;
-                    private       AdaptiveByteBuffer              outNetBuffer                                        ;
-                    private       AdaptiveByteBuffer              appBuffer                                           ;
-	@Getter @Setter private       InetSocketAddress               peer                                                ;
-	@Getter @Setter private       SSLEngine                       sslEngine                                           ;
-	@Getter         private       SSLEngineResult.HandshakeStatus handshakeStatus                                     ;
-	                private final AdaptiveByteBuffer              emptyBuffer         = AdaptiveByteBuffer.allocate(0);
-	                
-	            
+	@Getter @Setter private       boolean                         wantClientAuth                                        ;
+	@Getter @Setter private       boolean                         needClientAuth                                        ;
+	@Getter @Setter private       boolean                         clientMode                                            ;
+	@Getter @Setter private       boolean                         singleThread                                          ;
+	@Getter         private       boolean                         handshakeComplete                                     ;
+	@Getter @Setter private       String[]                        enabledCipherSuites                                   ;
+	@Getter @Setter private       String[]                        enabledProtocols                                      ;
+	                private       ByteArrayBuffer                 inNetHolder                                           ;
+	                private       ByteBuffer                      inNet                                                 ;
+	                private       ByteArrayBuffer                 appHolder                                             ;
+	                private       ByteBuffer                      appBuffer                                             ;
+	                private       ByteArrayBuffer                 outNetHolder                                          ;
+	                private       ByteBuffer                      outNet                                                ;
+	@Getter @Setter private       InetSocketAddress               peer                                                  ;
+	@Getter @Setter private       SSLEngine                       sslEngine                                             ;
+	@Getter         private       SSLEngineResult.HandshakeStatus handshakeStatus                                       ;
+	@Getter @Setter private       ByteArrayBufferPool             pool                = ByteArrayBufferPool.getInstance();
+	@Getter @Setter private       Executor                        taskExecutor                                          ;
+	@Getter @Setter private       SslTaskHandler                  sslTaskHandler                                        ;
+	@Getter @Setter private       SslMetrics                      metrics             = SslMetrics.getInstance()        ;
+	@Getter         private       volatile boolean                taskRunning                                           ;
+	                private       long                            handshakeStart                                        ;
+
+
 	                private SSLContext                                          sslContext         ;
 	                private io.craft.atom.protocol.ssl.spi.SslHandshakeHandler sslHandshakeHandler;
 
-	
+
 	// ~ -----------------------------------------------------------------------------------------------------------
-	
-	
+
+
 	public DefaultSslCodec(SSLContext sslContext, io.craft.atom.protocol.ssl.spi.SslHandshakeHandler sslHandshakeHandler) {
+		this(sslContext, sslHandshakeHandler, false);
+	}
+	
+	public DefaultSslCodec(SSLContext sslContext, io.craft.atom.protocol.ssl.spi.SslHandshakeHandler sslHandshakeHandler, boolean clientMode) {
+		this(sslContext, sslHandshakeHandler, clientMode, null);
+	}
+
+	/**
+	 * In client mode the client hello is written by the handshake handler before the constructor returns.
+	 * The client session cache is keyed by the peer address, so a client codec without peer never resumes a session.
+	 */
+	public DefaultSslCodec(SSLContext sslContext, io.craft.atom.protocol.ssl.spi.SslHandshakeHandler sslHandshakeHandler, boolean clientMode, InetSocketAddress peer) {
 		this.sslContext          = sslContext;
 		this.sslHandshakeHandler = sslHandshakeHandler;
+		this.clientMode          = clientMode;
+		this.peer                = peer;
 		init();
 	}
-	
+
 	private void init() {
 		if (peer == null) {
             sslEngine = sslContext.createSSLEngine();
         } else {
             sslEngine = sslContext.createSSLEngine(peer.getHostName(), peer.getPort());
         }
-		
+
 		sslEngine.setUseClientMode(clientMode);
-		
+
 		// these parameters are only valid when in server mode
 		if (!clientMode) {
 			sslEngine.setWantClientAuth(wantClientAuth);
 			sslEngine.setNeedClientAuth(needClientAuth);
 		}
-		
+
 		if (enabledCipherSuites != null) {
 			sslEngine.setEnabledCipherSuites(enabledCipherSuites);
 		}
 		if (enabledProtocols != null) {
 			sslEngine.setEnabledProtocols(enabledProtocols);
 		}
-		
+
 		try {
+			handshakeStart    = System.nanoTime();
 			sslEngine.beginHandshake();
+			handshakeStatus   = sslEngine.getHandshakeStatus();
+			handshakeComplete = false;
+			if (clientMode) {
+				handshake();
+				flushHandshake();
+			}
 		} catch (SSLException e) {
+			handshakeFailed();
 			throw new ProtocolException(e);
+		} finally {
+			releaseOutNet();
 		}
-		handshakeStatus   = sslEngine.getHandshakeStatus();
-		handshakeComplete = false;
 	}
-	
-	
+
+
 	// ~ -----------------------------------------------------------------------------------------------------------
 
-	
+
 	@Override
-	synchronized public byte[] decode(byte[] data) {
+	public byte[] decode(byte[] data) {
 		if (data == null) {
 			return null;
 		}
-		
+		if (singleThread) {
+			return decode0(data);
+		}
+		synchronized (this) {
+			return decode0(data);
+		}
+	}
+
+	@Override
+	public byte[] encode(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		if (singleThread) {
+			return encode0(data);
+		}
+		synchronized (this) {
+			return encode0(data);
+		}
+	}
+
+	private byte[] decode0(byte[] data) {
+		ByteBuffer      src   = input(data);
+		ByteArrayBuffer plain = null;
 		try {
-			byte[] out = null;
-			int len = data.length;
-			if (inNetBuffer == null) {
-	            inNetBuffer = AdaptiveByteBuffer.allocate(len).setAutoExpand(true);
-	        }
+			// bytes received while delegated tasks are running are held until they complete
+			if (taskRunning) {
+				return null;
+			}
 			
-			inNetBuffer.put(data);
-			if (!handshakeComplete) {
-	            handshake0();
-	        } else {
-	        	// Prepare the net data for reading.
-	            inNetBuffer.flip();
-	            
-	            if (!inNetBuffer.hasRemaining()) {
-	                return null;
-	            }
-	            
-	            SSLEngineResult res = unwrap();
-
-	            // prepare to be written again
-	            if (inNetBuffer.hasRemaining()) {
-	                inNetBuffer.compact();
-	            } else {
-	                inNetBuffer = null;
-	            }
-
-	            checkStatus(res);
-	            renegotiateIfNeeded(res);
-	            out = getBytes(fetchAppBuffer());
-	        }
-		
-			if (isInboundDone()) {
-				inNetBuffer = null;
+			// the engine may be closed or renegotiated by the application between calls
+			handshakeStatus = sslEngine.getHandshakeStatus();
+			for (;;) {
+				handshake();
+				if (taskRunning || !src.hasRemaining() || sslEngine.isInboundDone()) {
+					break;
+				}
+
+				SSLEngineResult res = sslEngine.unwrap(src, appBuffer());
+				updateHandshakeStatus(res);
+				SSLEngineResult.Status status = res.getStatus();
+				if (status == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+					// drain decrypted data, the buffer grows only if the session application buffer size grows
+					if (appBuffer.position() == 0) {
+						releaseAppBuffer();
+						appBuffer(sslEngine.getSession().getApplicationBufferSize() << 1);
+					}
+					plain = drain(plain);
+				} else if (status == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+					// partial record, wait for more bytes
+					break;
+				} else if (status == SSLEngineResult.Status.CLOSED) {
+					handshake();
+					break;
+				} else if (res.bytesConsumed() == 0 && res.bytesProduced() == 0 && handshakeStatus != HandshakeStatus.NEED_TASK && handshakeStatus != HandshakeStatus.NEED_WRAP) {
+					break;
+				}
 			}
-			return out;
-		} catch (Exception e) {
+			flushHandshake();
+			return output(plain);
+		} catch (SSLException e) {
+			handshakeFailed();
 			throw new ProtocolException(e);
+		} finally {
+			keepPartial(src);
+			releaseAppBuffer();
+			releaseOutNet();
 		}
 	}
-	
-	private void handshake0() throws SSLException {
+
+	private byte[] encode0(byte[] data) {
+		if (!handshakeComplete) {
+			throw new IllegalStateException("SSL handshake is not completed");
+		}
+
+		ByteBuffer      src    = ByteBuffer.wrap(data);
+		ByteArrayBuffer result = null;
+		try {
+			ByteBuffer out = outNet();
+			while (src.hasRemaining()) {
+				SSLEngineResult res = sslEngine.wrap(src, out);
+				SSLEngineResult.Status status = res.getStatus();
+				if (status == SSLEngineResult.Status.OK) {
+					if (res.getHandshakeStatus() == HandshakeStatus.NEED_TASK) {
+						runTasks();
+					}
+				} else if (status == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+					if (out.position() == 0) {
+						releaseOutNet();
+						out = outNet(sslEngine.getSession().getPacketBufferSize() << 1);
+						continue;
+					}
+					result = drain(result, out, data.length + out.capacity());
+				} else {
+					throw new SSLException("SSLEngine error during encrypt: " + status + " src: " + src + " outNet: " + out);
+				}
+			}
+
+			if (result == null) {
+				return Arrays.copyOf(out.array(), out.position());
+			}
+			result = drain(result, out, 0);
+			return result.length() == result.capacity() ? result.buffer() : result.array();
+		} catch (SSLException e) {
+			throw new ProtocolException(e);
+		} finally {
+			releaseOutNet();
+		}
+	}
+
+
+	// ~ ----------------------------------------------------------------------------------------------------------- handshake
+
+
+	/**
+	 * Runs delegated tasks and wraps handshake records as long as the engine asks for,
+	 * wrapped records are accumulated and written together by {@link #flushHandshake()}.
+	 */
+	private void handshake() throws SSLException {
 		for (;;) {
-			switch (handshakeStatus) {
-			case FINISHED:
-			case NOT_HANDSHAKING:
-				handshakeComplete = true;
-				return;
-			case NEED_TASK:
-				handshakeStatus = doTasks();
-                break;
-			case NEED_UNWRAP:
-				SSLEngineResult.Status status = unwrapHandshake();
-				if (status == SSLEngineResult.Status.BUFFER_UNDERFLOW && handshakeStatus != SSLEngineResult.HandshakeStatus.FINISHED || isInboundDone()) {
-					// Need more data
+			if (handshakeStatus == HandshakeStatus.NEED_TASK) {
+				if (offloadTasks()) {
 					return;
 				}
-				break;
-			case NEED_WRAP:
-				// First make sure that the out buffer is completely empty.Since we cannot call wrap with data left on the buffer
-                if (outNetBuffer != null && outNetBuffer.hasRemaining()) {
-                	return;
-                }
-                SSLEngineResult result;
-                createOutNetBuffer(0);
-
-                for (;;) {
-                    result = sslEngine.wrap(emptyBuffer.buf(), outNetBuffer.buf());
-                    if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
-                        outNetBuffer.capacity(outNetBuffer.capacity() << 1);
-                        outNetBuffer.limit(outNetBuffer.capacity());
-                    } else {
-                        break;
-                    }
-                }
-
-                outNetBuffer.flip();
-                handshakeStatus = result.getHandshakeStatus();
-                writeNetBuffer();
-                break;
-			default:
-				String msg = "Invalid handshaking state" + handshakeStatus + " while processing the Handshake for session.";
-				throw new IllegalStateException(msg);
+				handshakeStatus = sslEngine.getHandshakeStatus();
+			} else if (handshakeStatus == HandshakeStatus.NEED_WRAP) {
+				ByteBuffer out = outNet();
+				SSLEngineResult res;
+				try {
+					res = sslEngine.wrap(EMPTY, out);
+				} catch (SSLException e) {
+					SSLException ssle = new SSLHandshakeException("SSL handshake failed.");
+					ssle.initCause(e);
+					throw ssle;
+				}
+
+				if (res.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+					ByteArrayBuffer holder = pool.acquire(out.position() + sslEngine.getSession().getPacketBufferSize());
+					ByteBuffer      bigger = ByteBuffer.wrap(holder.buffer());
+					out.flip();
+					bigger.put(out);
+					releaseOutNet();
+					outNetHolder = holder;
+					outNet       = bigger;
+					continue;
+				}
+				updateHandshakeStatus(res);
+				if (res.getStatus() == SSLEngineResult.Status.CLOSED) {
+					return;
+				}
+			} else {
+				return;
 			}
 		}
 	}
+
+	private void flushHandshake() {
+		if (outNet != null && outNet.position() > 0) {
+			sslHandshakeHandler.needWrite(Arrays.copyOf(outNet.array(), outNet.position()));
+			outNet.clear();
+		}
+	}
+
+	private void updateHandshakeStatus(SSLEngineResult res) {
+		handshakeStatus = res.getHandshakeStatus();
+		if (handshakeStatus == HandshakeStatus.FINISHED) {
+			handshakeStatus = sslEngine.getHandshakeStatus();
+			handshakeCompleted();
+		}
+	}
 	
-	private void writeNetBuffer() throws SSLException {
-        // Check if any net data needed to be writen
-        if (outNetBuffer == null || !outNetBuffer.hasRemaining()) {
-            return;
-        }
-        
-        AdaptiveByteBuffer writeBuffer = fetchOutNetBuffer();
-        sslHandshakeHandler.needWrite(getBytes(writeBuffer));
-       
-        // loop while more writes required to complete handshake
-        while (needToCompleteHandshake()) {
-            try {
-                handshake0();
-            } catch (SSLException ssle) {
-                SSLException newSsle = new SSLHandshakeException("SSL handshake failed.");
-                newSsle.initCause(ssle);
-                throw newSsle;
-            }
-
-            AdaptiveByteBuffer outNetBuffer = fetchOutNetBuffer();
-            if (outNetBuffer != null && outNetBuffer.hasRemaining()) {
-            	sslHandshakeHandler.needWrite(getBytes(writeBuffer));
-            }
-        }
-    }
-	
-	private void createOutNetBuffer(int expectedRemaining) {
-        // SSLEngine requires us to allocate unnecessarily big buffer even for small data. *Shrug*
-        int capacity = Math.max(expectedRemaining, sslEngine.getSession().getPacketBufferSize());
-        if (outNetBuffer != null) {
-            outNetBuffer.capacity(capacity);
-        } else {
-            outNetBuffer = AdaptiveByteBuffer.allocate(capacity).minimumCapacity(0);
-        }
-    }
-	
-	private byte[] getBytes(AdaptiveByteBuffer buf) {
-		int len = buf.remaining();
-		if (len == 0) {
-			return null;
+	private void handshakeCompleted() {
+		if (handshakeComplete || metrics == null) {
+			handshakeComplete = true;
+			return;
 		}
-		byte[] bytes = new byte[len];
-		buf.get(bytes);
-		return bytes;
+		
+		handshakeComplete = true;
+		metrics.handshakeCompleted(System.nanoTime() - handshakeStart, resumed(sslEngine.getSession()));
 	}
 	
 	/**
-     * Get encrypted data to be sent.
-     * 
-     * @return buffer with data
-     */
-    private AdaptiveByteBuffer fetchOutNetBuffer() {
-    	AdaptiveByteBuffer answer = outNetBuffer;
-        if (answer == null) {
-            return emptyBuffer;
-        }
-
-        outNetBuffer = null;
-        return answer.shrink();
-    }
-    
-    /**
-     * Get decrypted application data.
-     * 
-     * @return buffer with data
-     */
-    private AdaptiveByteBuffer fetchAppBuffer() {
-    	AdaptiveByteBuffer appBuffer = this.appBuffer.flip();
-        this.appBuffer = null;
-        return appBuffer;
-    }
+	 * A resumed session is the cached one marked by its first handshake, or it is created before current handshake.
+	 */
+	private boolean resumed(SSLSession session) {
+		String key = DefaultSslCodec.class.getName();
+		if (session.getValue(key) != null) {
+			return true;
+		}
+		session.putValue(key, Boolean.TRUE);
+		return session.getCreationTime() < System.currentTimeMillis() - (System.nanoTime() - handshakeStart) / 1000000;
+	}
 	
-	private boolean isInboundDone() {
-        return sslEngine == null || sslEngine.isInboundDone();
-    }
+	private void handshakeFailed() {
+		if (!handshakeComplete && metrics != null) {
+			metrics.handshakeFailed();
+		}
+	}
+
+	private void runTasks() {
+		Runnable runnable;
+		while ((runnable = sslEngine.getDelegatedTask()) != null) {
+			runnable.run();
+		}
+	}
 	
 	/**
-     * Check if there is any need to complete handshake.
-     */
-    private boolean needToCompleteHandshake() {
-        return handshakeStatus == SSLEngineResult.HandshakeStatus.NEED_WRAP && !isInboundDone();
-    }
+	 * Submits delegated tasks to the task executor, or runs them inline if there is no executor.
+	 * If the executor rejects the tasks the handshake fails and the channel stays paused, it should be closed by the caller.
+	 * 
+	 * @return true if the tasks are still running on the task executor, the handshake continues after they complete.
+	 *         false if they are completed inline, e.g. by a caller-runs executor, the handshake goes on in current call.
+	 */
+	private boolean offloadTasks() throws SSLException {
+		if (taskExecutor == null) {
+			runTasks();
+			return false;
+		}
+		
+		final List<Runnable> tasks = new ArrayList<Runnable>(2);
+		Runnable runnable;
+		while ((runnable = sslEngine.getDelegatedTask()) != null) {
+			tasks.add(runnable);
+		}
+		if (tasks.isEmpty()) {
+			return false;
+		}
+		
+		taskRunning = true;
+		if (sslTaskHandler != null) {
+			sslTaskHandler.needPause();
+		}
+		try {
+			taskExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (Runnable task : tasks) {
+							task.run();
+						}
+					} finally {
+						taskCompleted();
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			taskRunning = false;
+			SSLException ssle = new SSLHandshakeException("SSL handshake delegated tasks rejected.");
+			ssle.initCause(e);
+			throw ssle;
+		}
+		return taskRunning;
+	}
 	
-	private SSLEngineResult.Status unwrapHandshake() throws SSLException {
-		// Prepare the net data for reading.
-		if (inNetBuffer != null) {
-			inNetBuffer.flip();
+	private void taskCompleted() {
+		taskRunning = false;
+		if (sslTaskHandler != null) {
+			sslTaskHandler.needResume();
 		}
+	}
 
-		if (inNetBuffer == null || !inNetBuffer.hasRemaining()) {
-			// Need more data.
-			return SSLEngineResult.Status.BUFFER_UNDERFLOW;
-		}
 
-		SSLEngineResult res = unwrap();
-		handshakeStatus = res.getHandshakeStatus();
+	// ~ ----------------------------------------------------------------------------------------------------------- buffer
 
-		checkStatus(res);
 
-		// If handshake finished, no data was produced, and the status is still ok, try to unwrap more
-		if (handshakeStatus == SSLEngineResult.HandshakeStatus.FINISHED
-				&& res.getStatus() == SSLEngineResult.Status.OK
-				&& inNetBuffer.hasRemaining()) {
-			res = unwrap();
+	/**
+	 * @return the bytes to unwrap, the data array itself if no partial record is held.
+	 */
+	private ByteBuffer input(byte[] data) {
+		if (inNet == null) {
+			return ByteBuffer.wrap(data);
+		}
 
-			// prepare to be written again
-			if (inNetBuffer.hasRemaining()) {
-				inNetBuffer.compact();
-			} else {
-				inNetBuffer = null;
-			}
+		if (inNet.remaining() < data.length) {
+			ByteArrayBuffer holder = pool.acquire(inNet.position() + data.length);
+			ByteBuffer      bigger = ByteBuffer.wrap(holder.buffer());
+			inNet.flip();
+			bigger.put(inNet);
+			pool.release(inNetHolder);
+			inNetHolder = holder;
+			inNet       = bigger;
+		}
+		inNet.put(data);
+		inNet.flip();
+		return inNet;
+	}
 
-			renegotiateIfNeeded(res);
-		} else {
-			// prepare to be written again
-			if (inNetBuffer.hasRemaining()) {
-				inNetBuffer.compact();
+	/**
+	 * Keeps the remaining partial record for next decode, or releases the buffer if nothing remains.
+	 */
+	private void keepPartial(ByteBuffer src) {
+		if (src == inNet) {
+			if (src.hasRemaining() && !sslEngine.isInboundDone()) {
+				inNet.compact();
 			} else {
-				inNetBuffer = null;
+				pool.release(inNetHolder);
+				inNetHolder = null;
+				inNet       = null;
 			}
+			return;
 		}
 
-		return res.getStatus();
+		if (src.hasRemaining() && !sslEngine.isInboundDone()) {
+			inNetHolder = pool.acquire(Math.max(src.remaining(), sslEngine.getSession().getPacketBufferSize()));
+			inNet       = ByteBuffer.wrap(inNetHolder.buffer());
+			inNet.put(src);
+		}
 	}
-	
-	private void renegotiateIfNeeded(SSLEngineResult res) throws SSLException {
-		if (   (res.getStatus()           != SSLEngineResult.Status.CLOSED)           
-		    && (res.getStatus()           != SSLEngineResult.Status.BUFFER_UNDERFLOW) 
-			&& (res.getHandshakeStatus()  != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING)) {
-			// Renegotiation required.
-			handshakeComplete = false;
-			handshakeStatus = res.getHandshakeStatus();
-			handshake0();
+
+	private ByteBuffer appBuffer() {
+		if (appBuffer == null) {
+			appBuffer(sslEngine.getSession().getApplicationBufferSize());
 		}
+		return appBuffer;
 	}
-	
-	/** 
-	 * Decrypt the incoming buffer and move the decrypted data to an application buffer. 
-	 */
-    private SSLEngineResult unwrap() throws SSLException {
-        // We first have to create the application buffer if it does not exist
-        if (appBuffer == null) {
-            appBuffer = AdaptiveByteBuffer.allocate(inNetBuffer.remaining());
-        } else {
-            // We already have one, just add the new data into it
-            appBuffer.expand(inNetBuffer.remaining());
-        }
 
-        SSLEngineResult res;
-
-        Status status = null;
-        HandshakeStatus handshakeStatus = null;
-
-        do {
-            // Unwrap the incoming data
-            res = sslEngine.unwrap(inNetBuffer.buf(), appBuffer.buf());
-            status = res.getStatus();
-
-            // We can be processing the Handshake
-            handshakeStatus = res.getHandshakeStatus();
-            if (status == SSLEngineResult.Status.BUFFER_OVERFLOW) {
-                // We have to grow the target buffer, it's too small.Then we can call the unwrap method again
-                appBuffer.capacity(appBuffer.capacity() << 1);
-                appBuffer.limit(appBuffer.capacity());
-                continue;
-            }
-        } while (((status == SSLEngineResult.Status.OK) || (status == SSLEngineResult.Status.BUFFER_OVERFLOW)) && ((handshakeStatus == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING) || (handshakeStatus == SSLEngineResult.HandshakeStatus.NEED_UNWRAP)));
-
-        return res;
-    }
-    
-    private void checkStatus(SSLEngineResult res) throws SSLException {
-        SSLEngineResult.Status status = res.getStatus();
-
-        /*
-         * The status may be:
-         * OK          - Normal operation
-         * OVERFLOW    - Should never happen since the application buffer is sized to hold the maximum packet size.
-         * UNDERFLOW   - Need to read more data from the socket. It's normal.
-         * CLOSED      - The other peer closed the socket. Also normal.
-         */
-        if (status == SSLEngineResult.Status.BUFFER_OVERFLOW) {
-            throw new SSLException("SSLEngine error during decrypt: " + status + " inNetBuffer: " + inNetBuffer + "appBuffer: " + appBuffer);
-        }
-    }
-	
-	private SSLEngineResult.HandshakeStatus doTasks() {
-		Runnable runnable;
-		while ((runnable = sslEngine.getDelegatedTask()) != null) {
-			runnable.run();
+	private void appBuffer(int capacity) {
+		appHolder = pool.acquire(capacity);
+		appBuffer = ByteBuffer.wrap(appHolder.buffer());
+	}
+
+	private void releaseAppBuffer() {
+		if (appHolder != null) {
+			pool.release(appHolder);
+			appHolder = null;
+			appBuffer = null;
 		}
-		return sslEngine.getHandshakeStatus();
 	}
-	
-	@Override
-	synchronized public byte[] encode(byte[] data) {
-		if (data == null) {
-			return null;
+
+	private ByteBuffer outNet() {
+		if (outNet == null) {
+			outNet(sslEngine.getSession().getPacketBufferSize());
 		}
-		
-		if (!handshakeComplete) {
-			throw new IllegalStateException();
+		return outNet;
+	}
+
+	private ByteBuffer outNet(int capacity) {
+		outNetHolder = pool.acquire(capacity);
+		outNet       = ByteBuffer.wrap(outNetHolder.buffer());
+		return outNet;
+	}
+
+	private void releaseOutNet() {
+		if (outNetHolder != null) {
+			pool.release(outNetHolder);
+			outNetHolder = null;
+			outNet       = null;
 		}
-		
-		ByteBuffer src = ByteBuffer.wrap(data);
-		createOutNetBuffer(src.remaining());
-		
-		try {
-	        // Loop until there is no more data in src
-	        while (src.hasRemaining()) {
-	            SSLEngineResult result = sslEngine.wrap(src, outNetBuffer.buf());
-	            if (result.getStatus() == SSLEngineResult.Status.OK) {
-	                if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK) {
-	                    doTasks();
-	                }
-	            } else if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
-	                outNetBuffer.capacity(outNetBuffer.capacity() << 1);
-	                outNetBuffer.limit(outNetBuffer.capacity());
-	            } else {
-	                throw new SSLException("SSLEngine error during encrypt: " + result.getStatus() + " src: " + src + "outNetBuffer: " + outNetBuffer);
-	            }
-	        }
-	        outNetBuffer.flip();
-	        return getBytes(fetchOutNetBuffer());
-		} catch (Exception e) {
-			throw new ProtocolException(e);
+	}
+
+	/**
+	 * Moves decrypted data out of the application buffer, so that more records can be unwrapped.
+	 */
+	private ByteArrayBuffer drain(ByteArrayBuffer plain) {
+		return drain(plain, appBuffer, appBuffer.position() << 1);
+	}
+
+	private ByteArrayBuffer drain(ByteArrayBuffer acc, ByteBuffer buf, int expected) {
+		if (buf.position() == 0) {
+			return acc;
+		}
+		if (acc == null) {
+			acc = new ByteArrayBuffer(Math.max(expected, buf.position()));
+		}
+		acc.append(buf.array(), 0, buf.position());
+		buf.clear();
+		return acc;
+	}
+
+	/**
+	 * @return decrypted data, <code>null</code> if there is none.
+	 */
+	private byte[] output(ByteArrayBuffer plain) {
+		if (plain == null) {
+			if (appBuffer == null || appBuffer.position() == 0) {
+				return null;
+			}
+			return Arrays.copyOf(appBuffer.array(), appBuffer.position());
 		}
+		plain = drain(plain);
+		return plain.array();
 	}
 
 }
@@ -0,0 +1,107 @@
+package io.craft.atom.protocol.ssl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.ToString;
+
+/**
+ * Handshake metrics of {@link DefaultSslCodec}, thread safe and usually shared by all codecs of a server or client.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "handshakes", "resumptions", "failures", "latencyNanos", "maxLatencyNanos" })
+public class SslMetrics {
+	
+	
+	private static final SslMetrics INSTANCE = new SslMetrics();
+	
+	
+	private final AtomicLong handshakes      = new AtomicLong();
+	private final AtomicLong resumptions     = new AtomicLong();
+	private final AtomicLong failures        = new AtomicLong();
+	private final AtomicLong latencyNanos    = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+	
+	
+	// ~ -----------------------------------------------------------------------------------------------------------
+	
+	
+	public static SslMetrics getInstance() {
+		return INSTANCE;
+	}
+	
+	void handshakeCompleted(long nanos, boolean resumed) {
+		handshakes.incrementAndGet();
+		if (resumed) {
+			resumptions.incrementAndGet();
+		}
+		latencyNanos.addAndGet(nanos);
+		for (long max = maxLatencyNanos.get(); nanos > max; max = maxLatencyNanos.get()) {
+			if (maxLatencyNanos.compareAndSet(max, nanos)) {
+				break;
+			}
+		}
+	}
+	
+	void handshakeFailed() {
+		failures.incrementAndGet();
+	}
+	
+	
+	// ~ -----------------------------------------------------------------------------------------------------------
+	
+	
+	/**
+	 * @return number of completed handshakes.
+	 */
+	public long getHandshakeCount() {
+		return handshakes.get();
+	}
+	
+	/**
+	 * @return number of completed handshakes which resumed a cached session.
+	 */
+	public long getResumptionCount() {
+		return resumptions.get();
+	}
+	
+	/**
+	 * @return number of failed handshakes.
+	 */
+	public long getFailureCount() {
+		return failures.get();
+	}
+	
+	/**
+	 * @return resumption count / handshake count, 0 if there is no handshake.
+	 */
+	public double getResumptionRate() {
+		long n = handshakes.get();
+		return n == 0 ? 0 : (double) resumptions.get() / n;
+	}
+	
+	/**
+	 * @return average handshake latency in microseconds.
+	 */
+	public long getAverageLatency() {
+		long n = handshakes.get();
+		return n == 0 ? 0 : latencyNanos.get() / n / 1000;
+	}
+	
+	/**
+	 * @return max handshake latency in microseconds.
+	 */
+	public long getMaxLatency() {
+		return maxLatencyNanos.get() / 1000;
+	}
+	
+	public void reset() {
+		handshakes.set(0);
+		resumptions.set(0);
+		failures.set(0);
+		latencyNanos.set(0);
+		maxLatencyNanos.set(0);
+	}
+	
+}
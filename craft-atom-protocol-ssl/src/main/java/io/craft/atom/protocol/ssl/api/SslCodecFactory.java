@@ -1,6 +1,13 @@
 package io.craft.atom.protocol.ssl.api;
 
 import io.craft.atom.protocol.ssl.DefaultSslCodec;
+import io.craft.atom.util.thread.NamedThreadFactory;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLContext;
 
@@ -17,4 +24,45 @@ public class SslCodecFactory {
 		return new DefaultSslCodec(sslContext, sslHandshakeHandler);
 	}
 	
+	public static SslCodec newSslClientCodec(SSLContext sslContext, io.craft.atom.protocol.ssl.spi.SslHandshakeHandler sslHandshakeHandler, InetSocketAddress peer) {
+		return new DefaultSslCodec(sslContext, sslHandshakeHandler, true, peer);
+	}
+	
+	/**
+	 * Creates a bounded executor to run handshake delegated tasks, a task rejected by the full queue fails its handshake
+	 * rather than running on the caller I/O thread.
+	 * 
+	 * @param threads   number of threads
+	 * @param queueSize max number of waiting tasks
+	 * @return executor for {@link DefaultSslCodec#setTaskExecutor(java.util.concurrent.Executor)}
+	 */
+	public static ExecutorService newSslTaskExecutor(int threads, int queueSize) {
+		return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize), new NamedThreadFactory("craft-atom-ssl-task", true), new ThreadPoolExecutor.AbortPolicy());
+	}
+	
+	/**
+	 * Configures the session cache of both server and client side, a cached session is resumed by an abbreviated handshake without key exchange.
+	 * 
+	 * @param sslContext
+	 * @param cacheSize  max number of cached sessions, 0 means no limit
+	 * @param timeout    session timeout in seconds, 0 means no limit
+	 */
+	public static void configSessionCache(SSLContext sslContext, int cacheSize, int timeout) {
+		sslContext.getServerSessionContext().setSessionCacheSize(cacheSize);
+		sslContext.getServerSessionContext().setSessionTimeout(timeout);
+		sslContext.getClientSessionContext().setSessionCacheSize(cacheSize);
+		sslContext.getClientSessionContext().setSessionTimeout(timeout);
+	}
+	
+	/**
+	 * Enables or disables stateless session tickets (RFC 5077), so that a server resumes sessions not in its cache.
+	 * It sets the JSSE system properties, only honored by JDK 13 or later and must be called before the first handshake.
+	 * 
+	 * @param enabled
+	 */
+	public static void configSessionTicket(boolean enabled) {
+		System.setProperty("jdk.tls.server.enableSessionTicketExtension", Boolean.toString(enabled));
+		System.setProperty("jdk.tls.client.enableSessionTicketExtension", Boolean.toString(enabled));
+	}
+	
 }
@@ -0,0 +1,23 @@
+package io.craft.atom.protocol.ssl.spi;
+
+/**
+ * The delegated task handler for {@code SslCodec}, notified when the handshake delegated tasks run on a task executor.
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface SslTaskHandler {
+	
+	/**
+	 * Delegated tasks are submitted to the task executor, the channel should stop reading until {@link #needResume()}.
+	 */
+	void needPause();
+	
+	/**
+	 * Delegated tasks are completed, the channel should resume reading and call {@code decode(new byte[0])} 
+	 * from its I/O thread to continue the handshake with the bytes received meanwhile.
+	 * It may be invoked inside {@code decode} if the executor runs tasks on the caller thread, so never call {@code decode} inline.
+	 */
+	void needResume();
+	
+}
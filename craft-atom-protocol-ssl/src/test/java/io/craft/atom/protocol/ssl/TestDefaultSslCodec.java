@@ -0,0 +1,326 @@
+package io.craft.atom.protocol.ssl;
+
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.ssl.api.SslCodecFactory;
+import io.craft.atom.protocol.ssl.spi.SslHandshakeHandler;
+import io.craft.atom.protocol.ssl.spi.SslTaskHandler;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.net.InetSocketAddress;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.TrustManagerFactory;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives a client and a server {@link DefaultSslCodec} against each other in memory, without socket.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestDefaultSslCodec {
+
+
+	private static final Logger     LOG     = LoggerFactory.getLogger(TestDefaultSslCodec.class);
+	private static final SSLContext CONTEXT = createSSLContext()                                 ;
+
+
+	private Random random = new Random(5246);
+
+
+	@Test
+	public void testHandshake() {
+		Pair pair = new Pair(false);
+		Assert.assertTrue(pair.client.isHandshakeComplete());
+		Assert.assertTrue(pair.server.isHandshakeComplete());
+
+		byte[] bytes = pair.server.decode(pair.client.encode("hello".getBytes()));
+		Assert.assertEquals("hello", new String(bytes));
+		bytes = pair.client.decode(pair.server.encode("hi".getBytes()));
+		Assert.assertEquals("hi", new String(bytes));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test handshake. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testBulk() {
+		for (boolean singleThread : new boolean[] { false, true }) {
+			Pair pair = new Pair(singleThread);
+
+			// several records in one encode, delivered in random chunks across record boundaries
+			ByteArrayBuffer wire = new ByteArrayBuffer(1024);
+			List<byte[]> messages = new ArrayList<byte[]>();
+			for (int i = 0; i < 20; i++) {
+				byte[] message = new byte[random.nextInt(100000)];
+				random.nextBytes(message);
+				messages.add(message);
+				wire.append(pair.client.encode(message));
+			}
+
+			byte[] bytes = wire.array();
+			ByteArrayBuffer received = new ByteArrayBuffer(1024);
+			for (int off = 0; off < bytes.length;) {
+				int n = Math.min(bytes.length - off, 1 + random.nextInt(40000));
+				byte[] plain = pair.server.decode(Arrays.copyOfRange(bytes, off, off + n));
+				if (plain != null) {
+					received.append(plain);
+				}
+				off += n;
+			}
+
+			ByteArrayBuffer expected = new ByteArrayBuffer(1024);
+			for (byte[] message : messages) {
+				expected.append(message);
+			}
+			Assert.assertTrue(Arrays.equals(expected.array(), received.array()));
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test bulk. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testClose() {
+		Pair pair = new Pair(false);
+		pair.client.getSslEngine().closeOutbound();
+		pair.client.decode(new byte[0]);
+		pair.pump();
+		Assert.assertTrue(pair.server.getSslEngine().isInboundDone());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test close. ", CaseCounter.incr(1)));
+	}
+
+	@Test
+	public void testOffloadedHandshake() throws Exception {
+		ExecutorService executor = SslCodecFactory.newSslTaskExecutor(2, 16);
+		try {
+			Pair pair = new Pair(false, executor, null);
+			Assert.assertTrue(pair.client.isHandshakeComplete());
+			Assert.assertTrue(pair.server.isHandshakeComplete());
+			Assert.assertTrue(pair.pauses.get() > 0);
+			Assert.assertEquals(pair.pauses.get(), pair.resumes.get());
+			
+			byte[] bytes = pair.server.decode(pair.client.encode("hello".getBytes()));
+			Assert.assertEquals("hello", new String(bytes));
+		} finally {
+			executor.shutdown();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test offloaded handshake. ", CaseCounter.incr(4)));
+	}
+	
+	@Test
+	public void testRejectedHandshakeTasks() throws Exception {
+		// one busy thread and a full queue, delegated tasks are rejected instead of running on the caller
+		ExecutorService executor = SslCodecFactory.newSslTaskExecutor(1, 1);
+		final CountDownLatch latch = new CountDownLatch(1);
+		Runnable block = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		executor.execute(block);
+		executor.execute(block);
+		
+		SslMetrics metrics = new SslMetrics();
+		try {
+			new Pair(false, executor, null, metrics);
+			Assert.fail();
+		} catch (ProtocolException e) {
+			Assert.assertTrue(e.getCause() instanceof SSLHandshakeException);
+			Assert.assertEquals(1, metrics.getFailureCount());
+		} finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test rejected handshake tasks. ", CaseCounter.incr(2)));
+	}
+	
+	@Test
+	public void testResumption() {
+		SslCodecFactory.configSessionCache(CONTEXT, 1024, 3600);
+		SslMetrics        metrics = new SslMetrics();
+		InetSocketAddress peer    = new InetSocketAddress("localhost", 5246);
+		for (int i = 0; i < 4; i++) {
+			Pair pair = new Pair(false, null, peer, metrics);
+			byte[] bytes = pair.server.decode(pair.client.encode("hello".getBytes()));
+			Assert.assertEquals("hello", new String(bytes));
+		}
+		
+		// a client and a server handshake each time, the first one of both sides is full
+		Assert.assertEquals(8, metrics.getHandshakeCount());
+		Assert.assertEquals(6, metrics.getResumptionCount());
+		Assert.assertEquals(0, metrics.getFailureCount());
+		Assert.assertEquals(0.75, metrics.getResumptionRate());
+		Assert.assertTrue(metrics.getMaxLatency() >= metrics.getAverageLatency());
+		LOG.info("[CRAFT-ATOM-PROTOCOL-SSL] Resumption metrics, |{}|", metrics);
+		
+		// without peer the client never resumes
+		metrics.reset();
+		new Pair(false, null, null, metrics);
+		Assert.assertEquals(0, metrics.getResumptionCount());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test resumption. ", CaseCounter.incr(6)));
+	}
+
+	@Test
+	public void testHandshakePerformance() {
+		int n = 200;
+		for (int i = 0; i < 20; i++) {
+			new Pair(true);
+		}
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			new Pair(true);
+		}
+		long e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-SSL] Handshake performance, |count={}, elapsed={}ms|", n, (e - s) / 1000000);
+		
+		InetSocketAddress peer = new InetSocketAddress("localhost", 5247);
+		s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			new Pair(true, null, peer);
+		}
+		e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-SSL] Resumed handshake performance, |count={}, elapsed={}ms|", n, (e - s) / 1000000);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test handshake performance. ", CaseCounter.incr(1)));
+	}
+
+	@Test
+	public void testBulkPerformance() {
+		for (int size : new int[] { 64, 1024, 16 * 1024, 256 * 1024 }) {
+			for (boolean singleThread : new boolean[] { false, true }) {
+				Pair   pair    = new Pair(singleThread);
+				byte[] message = new byte[size];
+				long   total   = 16L * 1024 * 1024;
+				int    n       = (int) (total / size);
+				for (int i = 0; i < n / 10; i++) {
+					pair.server.decode(pair.client.encode(message));
+				}
+
+				long s = System.nanoTime();
+				for (int i = 0; i < n; i++) {
+					pair.server.decode(pair.client.encode(message));
+				}
+				long e = System.nanoTime();
+				LOG.info("[CRAFT-ATOM-PROTOCOL-SSL] Bulk performance, |size={}, singleThread={}, count={}, elapsed={}ms, throughput={}MB/s|", size, singleThread, n, (e - s) / 1000000, total * 1000 / Math.max(1, (e - s)));
+			}
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-SSL] (^_^)  <%s>  Case -> test bulk performance. ", CaseCounter.incr(1)));
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private static SSLContext createSSLContext() {
+		try {
+			char[]              passphrase = "password".toCharArray();
+			SSLContext          ctx        = SSLContext.getInstance("TLS");
+			KeyManagerFactory   kmf        = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+			TrustManagerFactory tmf        = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+			KeyStore            ks         = KeyStore.getInstance("JKS");
+			KeyStore            ts         = KeyStore.getInstance("JKS");
+			ks.load(TestDefaultSslCodec.class.getResourceAsStream("/ssl.keystore"), passphrase);
+			ts.load(TestDefaultSslCodec.class.getResourceAsStream("/ssl.truststore"), passphrase);
+			kmf.init(ks, passphrase);
+			tmf.init(ts);
+			ctx.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+			return ctx;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A connected client and server, handshake data is queued and pumped to the peer after each call, never re-entrant.
+	 * If delegated tasks are offloaded, the pump waits for them and resumes the paused side with an empty decode.
+	 */
+	private static class Pair implements SslTaskHandler {
+
+		private final List<byte[]>    toServer = new ArrayList<byte[]>();
+		private final List<byte[]>    toClient = new ArrayList<byte[]>();
+		private final AtomicInteger   pauses   = new AtomicInteger()   ;
+		private final AtomicInteger   resumes  = new AtomicInteger()   ;
+		private       int             continues                        ;
+		private final DefaultSslCodec server   ;
+		private final DefaultSslCodec client   ;
+
+		Pair(boolean singleThread) {
+			this(singleThread, null, null);
+		}
+		
+		Pair(boolean singleThread, ExecutorService executor, InetSocketAddress peer) {
+			this(singleThread, executor, peer, new SslMetrics());
+		}
+		
+		Pair(boolean singleThread, ExecutorService executor, InetSocketAddress peer, SslMetrics metrics) {
+			server = new DefaultSslCodec(CONTEXT, new Queue(toClient));
+			server.setSingleThread(singleThread);
+			server.setTaskExecutor(executor);
+			server.setSslTaskHandler(this);
+			server.setMetrics(metrics);
+			client = new DefaultSslCodec(CONTEXT, new Queue(toServer), true, peer);
+			client.setSingleThread(singleThread);
+			client.setMetrics(metrics);
+			pump();
+		}
+
+		void pump() {
+			while (!toServer.isEmpty() || !toClient.isEmpty() || resumes.get() < pauses.get() || continues < resumes.get()) {
+				while (!toServer.isEmpty()) {
+					Assert.assertNull(server.decode(toServer.remove(0)));
+				}
+				while (!toClient.isEmpty()) {
+					Assert.assertNull(client.decode(toClient.remove(0)));
+				}
+				if (resumes.get() < pauses.get()) {
+					Thread.yield();
+				} else if (continues < resumes.get()) {
+					continues++;
+					Assert.assertNull(server.decode(new byte[0]));
+				}
+			}
+		}
+
+		@Override
+		public void needPause() {
+			pauses.incrementAndGet();
+		}
+
+		@Override
+		public void needResume() {
+			resumes.incrementAndGet();
+		}
+	}
+
+	private static class Queue implements SslHandshakeHandler {
+
+		private final List<byte[]> queue;
+
+		Queue(List<byte[]> queue) {
+			this.queue = queue;
+		}
+
+		@Override
+		public void needWrite(byte[] bytes) {
+			queue.add(bytes);
+		}
+	}
+
+}
@@ -51,7 +51,6 @@ public class TextLineDecoder extends AbstractProtocolDecoder implements Protocol
 	public TextLineDecoder(Charset charset, String delimiter, int defaultBufferSize) {
 		this(charset, delimiter);
 		this.defaultBufferSize = defaultBufferSize;
-		buf.reset(defaultBufferSize);
 	}
 
 	public TextLineDecoder(Charset charset, String delimiter, int defaultBufferSize, int maxSize) {
@@ -73,7 +72,7 @@ public class TextLineDecoder extends AbstractProtocolDecoder implements Protocol
 			int idx = buf.indexOf(delimiterBytes, searchIndex);
 			if (idx < 0) {
 				if (buf.length() > maxSize) {
-					buf.reset(defaultBufferSize);
+					discard();
 					throw new ProtocolException(ProtocolExceptionType.LINE_LENGTH_LIMIT, maxSize);
 				}
 				searchIndex = buf.length();
@@ -81,15 +80,21 @@ public class TextLineDecoder extends AbstractProtocolDecoder implements Protocol
 			}
 			byte[] lineBytes = buf.array(splitIndex, idx);
 			if (lineBytes.length > maxSize) {
-				buf.reset(defaultBufferSize);
+				discard();
 				throw new ProtocolException(ProtocolExceptionType.LINE_LENGTH_LIMIT, maxSize);
 			}
 			searchIndex = splitIndex = idx + delimiterLen;
 			strs.add(new String(lineBytes, charset));
 		}
 		
+		recycle();
 		return strs;
 	}
+	
+	private void discard() {
+		release();
+		splitIndex = searchIndex = 0;
+	}
 
 	public void setDelimiter(String delimiter) {
 		this.delimiter      = delimiter;
@@ -98,4 +98,20 @@ public class TestTextLineDecoder {
 		Assert.assertEquals(c7 + c7, l.get(0));
 		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-TEXTLINE] (^_^)  <%s>  Case -> test decode. ", CaseCounter.incr(16)));
 	}
+	
+	@Test
+	public void testFootprint() throws ProtocolException {
+		TextLineDecoder decoder = new TextLineDecoder(UTF_8, "\n", 64, 1024);
+		Assert.assertEquals(0, decoder.footprint());
+		
+		// pending bytes hold the buffer
+		decoder.decode("123".getBytes(UTF_8));
+		Assert.assertTrue(decoder.footprint() > 0);
+		
+		// all bytes consumed, buffer recycled
+		List<String> l = decoder.decode("456\n".getBytes(UTF_8));
+		Assert.assertEquals("123456", l.get(0));
+		Assert.assertEquals(0, decoder.footprint());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-TEXTLINE] (^_^)  <%s>  Case -> test footprint. ", CaseCounter.incr(4)));
+	}
 }
@@ -0,0 +1,67 @@
+package io.craft.atom.protocol.websocket;
+
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.zip.Deflater;
+
+import lombok.ToString;
+
+/**
+ * Compresses messages for the permessage-deflate extension, see RFC 7692 section 7.2.1.
+ * <p>
+ * Each message is compressed as a complete deflate stream, so this side always works without context takeover,
+ * the handshake announces <tt>server_no_context_takeover</tt> (or relies on <tt>client_no_context_takeover</tt> on the client side).
+ * An empty stored block is appended and its 4 octets <tt>00 00 ff ff</tt> are removed as the RFC describes.
+ * <br>
+ * Thread safe, the deflater is guarded by the compressor.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = "level")
+public class WebSocketCompressor {
+
+
+	private final int      level                   ;
+	private final Deflater deflater                ;
+	private final byte[]   block    = new byte[8192];
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public WebSocketCompressor() {
+		this(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	public WebSocketCompressor(int level) {
+		this.level    = level;
+		this.deflater = new Deflater(level, true);
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public synchronized byte[] compress(byte[] bytes) {
+		deflater.reset();
+		deflater.setInput(bytes);
+		deflater.finish();
+		ByteArrayBuffer out = new ByteArrayBuffer(Math.max(64, (bytes.length >> 1) + 16));
+		while (!deflater.finished()) {
+			int n = deflater.deflate(block);
+			out.append(block, 0, n);
+		}
+		// header of the empty stored block, its LEN and NLEN are removed
+		out.append((byte) 0);
+		return out.array();
+	}
+
+	/**
+	 * Releases native resources of the deflater.
+	 */
+	public synchronized void end() {
+		deflater.end();
+	}
+
+}
@@ -0,0 +1,145 @@
+package io.craft.atom.protocol.websocket;
+
+import static io.craft.atom.protocol.websocket.model.WebSocketFrame.CLOSE_MESSAGE_TOO_BIG;
+import static io.craft.atom.protocol.websocket.model.WebSocketFrame.CLOSE_PROTOCOL_ERROR;
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.websocket.model.WebSocketFrame;
+import io.craft.atom.protocol.websocket.model.WebSocketOpcode;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A {@link ProtocolDecoder} which decodes bytes into complete WebSocket messages.
+ * <p>
+ * Fragmented messages are aggregated up to <tt>maxMessageSize</tt>, control frames interleaved with fragments are returned as they arrive.
+ * A message in a single frame is returned as decoded without another copy.
+ * If permessage-deflate is negotiated, compressed messages (RSV1 set on the first frame) are decompressed.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "frameDecoder", "maxMessageSize", "decompressor" })
+public class WebSocketDecoder implements ProtocolDecoder<WebSocketFrame> {
+
+
+	@Getter         private final WebSocketFrameDecoder frameDecoder                     ;
+	@Getter         private final WebSocketDecompressor decompressor                     ;
+	@Getter @Setter private       int                   maxMessageSize = 4 * 1024 * 1024;
+	                private       WebSocketOpcode       opcode                           ;
+	                private       boolean               compressed                       ;
+	                private       ByteArrayBuffer       fragments                        ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public WebSocketDecoder(boolean server) {
+		this(server, 1024 * 1024, 4 * 1024 * 1024, null);
+	}
+
+	/**
+	 * @param server         <tt>true</tt> on the server side
+	 * @param maxFrameSize   max payload length of a frame
+	 * @param maxMessageSize max payload length of a message, after aggregation and decompression
+	 * @param decompressor   decompressor if permessage-deflate is negotiated, otherwise <code>null</code>
+	 */
+	public WebSocketDecoder(boolean server, int maxFrameSize, int maxMessageSize, WebSocketDecompressor decompressor) {
+		this.frameDecoder   = new WebSocketFrameDecoder(server, maxFrameSize, 2048);
+		this.maxMessageSize = maxMessageSize;
+		this.decompressor   = decompressor  ;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public List<WebSocketFrame> decode(byte[] bytes) throws ProtocolException {
+		List<WebSocketFrame> frames = frameDecoder.decode(bytes);
+		List<WebSocketFrame> messages = new ArrayList<WebSocketFrame>(frames.size());
+		try {
+			for (WebSocketFrame frame : frames) {
+				WebSocketFrame message = aggregate(frame);
+				if (message != null) {
+					messages.add(message);
+				}
+			}
+		} catch (ProtocolException e) {
+			reset();
+			throw e;
+		}
+		return messages;
+	}
+
+	@Override
+	public void reset() {
+		frameDecoder.reset();
+		opcode     = null ;
+		compressed = false;
+		fragments  = null ;
+	}
+
+	private WebSocketFrame aggregate(WebSocketFrame frame) throws WebSocketException {
+		WebSocketOpcode op = frame.getOpcode();
+		if (op.isControl()) {
+			if (frame.isRsv1()) {
+				throw new WebSocketException(CLOSE_PROTOCOL_ERROR, "RSV1 is set on control frame");
+			}
+			return frame;
+		}
+
+		if (frame.isRsv1() && (decompressor == null || op == WebSocketOpcode.CONTINUATION)) {
+			throw new WebSocketException(CLOSE_PROTOCOL_ERROR, "RSV1 is set without permessage-deflate");
+		}
+
+		if (op == WebSocketOpcode.CONTINUATION) {
+			if (opcode == null) {
+				throw new WebSocketException(CLOSE_PROTOCOL_ERROR, "Continuation frame without message");
+			}
+			if (fragments.length() + frame.getLength() > maxMessageSize) {
+				throw new WebSocketException(CLOSE_MESSAGE_TOO_BIG, "Message is too large, |max=" + maxMessageSize + "|");
+			}
+			fragments.append(frame.getPayload());
+			if (!frame.isFin()) {
+				return null;
+			}
+
+			byte[] payload = fragments.array();
+			frame.setOpcode(opcode);
+			frame.setPayload(compressed ? decompressor.decompress(payload, maxMessageSize) : payload);
+			opcode     = null ;
+			compressed = false;
+			fragments  = null ;
+			return frame;
+		}
+
+		if (opcode != null) {
+			throw new WebSocketException(CLOSE_PROTOCOL_ERROR, "Data frame interleaves fragmented message");
+		}
+		if (frame.getLength() > maxMessageSize) {
+			throw new WebSocketException(CLOSE_MESSAGE_TOO_BIG, "Message is too large, |max=" + maxMessageSize + "|");
+		}
+		if (!frame.isFin()) {
+			opcode     = op;
+			compressed = frame.isRsv1();
+			fragments  = new ByteArrayBuffer(Math.max(frame.getLength() << 1, 256));
+			fragments.append(frame.getPayload());
+			return null;
+		}
+		if (frame.isRsv1()) {
+			frame.setPayload(decompressor.decompress(frame.getPayload(), maxMessageSize));
+			frame.setRsv1(false);
+		}
+		return frame;
+	}
+
+}
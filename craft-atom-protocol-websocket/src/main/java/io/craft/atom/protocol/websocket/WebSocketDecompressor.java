@@ -0,0 +1,107 @@
+package io.craft.atom.protocol.websocket;
+
+import static io.craft.atom.protocol.websocket.model.WebSocketFrame.CLOSE_INVALID_DATA;
+import static io.craft.atom.protocol.websocket.model.WebSocketFrame.CLOSE_MESSAGE_TOO_BIG;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import lombok.ToString;
+
+/**
+ * Decompresses messages of the permessage-deflate extension, see RFC 7692 section 7.2.2.
+ * <p>
+ * The octets <tt>00 00 ff ff</tt> removed by the sender are fed after the message.
+ * The sliding window is kept across messages unless no context takeover is negotiated for the peer,
+ * or the peer ends a message with a final block.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = "noContextTakeover")
+public class WebSocketDecompressor {
+
+
+	private static final byte[] TAIL = new byte[] { 0, 0, (byte) 0xff, (byte) 0xff };
+
+
+	private final boolean  noContextTakeover                     ;
+	private final Inflater inflater          = new Inflater(true);
+	private final byte[]   block             = new byte[8192]    ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public WebSocketDecompressor() {
+		this(false);
+	}
+
+	/**
+	 * @param noContextTakeover <tt>true</tt> if the peer resets its compression context for each message.
+	 */
+	public WebSocketDecompressor(boolean noContextTakeover) {
+		this.noContextTakeover = noContextTakeover;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @param bytes     compressed message
+	 * @param maxLength max decompressed message length
+	 * @throws WebSocketException if the message is malformed or too large.
+	 */
+	public byte[] decompress(byte[] bytes, int maxLength) throws WebSocketException {
+		ByteArrayBuffer out = new ByteArrayBuffer(Math.max(64, bytes.length << 1));
+		try {
+			inflate(bytes, out, maxLength);
+			if (!inflater.finished()) {
+				inflate(TAIL, out, maxLength);
+			}
+		} catch (WebSocketException e) {
+			inflater.reset();
+			throw e;
+		}
+		if (noContextTakeover || inflater.finished()) {
+			inflater.reset();
+		}
+		return out.array();
+	}
+
+	/**
+	 * Releases native resources of the inflater.
+	 */
+	public void end() {
+		inflater.end();
+	}
+
+	private void inflate(byte[] bytes, ByteArrayBuffer out, int maxLength) throws WebSocketException {
+		inflater.setInput(bytes);
+		try {
+			while (!inflater.finished()) {
+				int n = inflater.inflate(block);
+				if (n == 0) {
+					if (inflater.needsInput()) {
+						return;
+					}
+					if (inflater.needsDictionary()) {
+						throw new WebSocketException(CLOSE_INVALID_DATA, "Deflate dictionary is not supported");
+					}
+					continue;
+				}
+				if (out.length() + n > maxLength) {
+					throw new WebSocketException(CLOSE_MESSAGE_TOO_BIG, "Message is too large, |max=" + maxLength + "|");
+				}
+				out.append(block, 0, n);
+			}
+		} catch (DataFormatException e) {
+			throw new WebSocketException(CLOSE_INVALID_DATA, "Invalid deflate data, |cause=" + e.getMessage() + "|");
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+package io.craft.atom.protocol.websocket;
+
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.websocket.model.WebSocketFrame;
+import io.craft.atom.protocol.websocket.model.WebSocketOpcode;
+
+import java.security.SecureRandom;
+import java.util.Random;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A {@link ProtocolEncoder} which encodes a {@link WebSocketFrame} object into bytes.
+ * <p>
+ * The header and payload are written into one array, on the client side the payload is masked while it is copied,
+ * the payload of the frame is never modified.
+ * If permessage-deflate is negotiated, unfragmented data frames not smaller than <tt>compressThreshold</tt> are compressed.
+ * <br>
+ * Thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "mask", "compressor", "compressThreshold" })
+public class WebSocketEncoder implements ProtocolEncoder<WebSocketFrame> {
+
+
+	private static final byte[] EMPTY = new byte[0];
+
+
+	@Getter         private final boolean             mask                   ;
+	@Getter         private final WebSocketCompressor compressor             ;
+	@Getter @Setter private       int                 compressThreshold = 256;
+	                private final Random              random                 ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public WebSocketEncoder(boolean client) {
+		this(client, null);
+	}
+
+	/**
+	 * @param client     <tt>true</tt> on the client side, frames are masked.
+	 * @param compressor compressor if permessage-deflate is negotiated, otherwise <code>null</code>
+	 */
+	public WebSocketEncoder(boolean client, WebSocketCompressor compressor) {
+		this.mask       = client;
+		this.compressor = compressor;
+		this.random     = client ? new SecureRandom() : null;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public byte[] encode(WebSocketFrame frame) throws ProtocolException {
+		if (frame == null) {
+			return null;
+		}
+
+		byte[]          payload = frame.getPayload() == null ? EMPTY : frame.getPayload();
+		WebSocketOpcode opcode  = frame.getOpcode();
+		boolean         rsv1    = frame.isRsv1();
+		if (compressor != null && !rsv1 && frame.isFin() && !opcode.isControl() && opcode != WebSocketOpcode.CONTINUATION && payload.length >= compressThreshold) {
+			payload = compressor.compress(payload);
+			rsv1    = true;
+		}
+
+		int    length = payload.length;
+		int    header = 2 + (length < 126 ? 0 : (length <= 0xffff ? 2 : 8)) + (mask ? 4 : 0);
+		byte[] bytes  = new byte[header + length];
+		bytes[0] = (byte) ((frame.isFin() ? 0x80 : 0) | (rsv1 ? 0x40 : 0) | opcode.getCode());
+		int off;
+		if (length < 126) {
+			bytes[1] = (byte) length;
+			off = 2;
+		} else if (length <= 0xffff) {
+			bytes[1] = 126;
+			bytes[2] = (byte) (length >>> 8);
+			bytes[3] = (byte)  length       ;
+			off = 4;
+		} else {
+			bytes[1] = 127;
+			bytes[6] = (byte) (length >>> 24);
+			bytes[7] = (byte) (length >>> 16);
+			bytes[8] = (byte) (length >>> 8) ;
+			bytes[9] = (byte)  length        ;
+			off = 10;
+		}
+
+		if (!mask) {
+			System.arraycopy(payload, 0, bytes, off, length);
+			return bytes;
+		}
+
+		int key = random.nextInt();
+		bytes[1]      |= 0x80;
+		bytes[off]     = (byte) (key >>> 24);
+		bytes[off + 1] = (byte) (key >>> 16);
+		bytes[off + 2] = (byte) (key >>> 8) ;
+		bytes[off + 3] = (byte)  key        ;
+		WebSocketMasking.mask(payload, 0, bytes, off + 4, length, key);
+		return bytes;
+	}
+
+}
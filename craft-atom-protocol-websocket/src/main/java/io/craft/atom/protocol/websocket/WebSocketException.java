@@ -0,0 +1,30 @@
+package io.craft.atom.protocol.websocket;
+
+import io.craft.atom.protocol.ProtocolException;
+import lombok.Getter;
+
+/**
+ * A {@link ProtocolException} carries the WebSocket close status code, 
+ * the endpoint should send a CLOSE frame with the code and close the connection.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class WebSocketException extends ProtocolException {
+
+
+	private static final long serialVersionUID = 3370913290574519628L;
+
+
+	@Getter private final int closeCode;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public WebSocketException(int closeCode, String message) {
+		super(closeCode + ": " + message);
+		this.closeCode = closeCode;
+	}
+
+}
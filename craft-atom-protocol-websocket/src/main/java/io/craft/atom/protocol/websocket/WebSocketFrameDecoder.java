@@ -0,0 +1,148 @@
+package io.craft.atom.protocol.websocket;
+
+import static io.craft.atom.protocol.websocket.model.WebSocketFrame.CLOSE_MESSAGE_TOO_BIG;
+import static io.craft.atom.protocol.websocket.model.WebSocketFrame.CLOSE_PROTOCOL_ERROR;
+import io.craft.atom.protocol.AbstractProtocolDecoder;
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.websocket.model.WebSocketFrame;
+import io.craft.atom.protocol.websocket.model.WebSocketOpcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A {@link ProtocolDecoder} which decodes bytes into raw {@link WebSocketFrame} objects, fragments are not aggregated.
+ * <p>
+ * When no partial frame is buffered, frames are parsed directly from the bytes passed in,
+ * only the remaining partial frame is buffered. The payload is unmasked while it is copied out,
+ * so a frame costs one copy of its payload.
+ * <br>
+ * Frames from a client must be masked and frames from a server must not, see RFC 6455 section 5.1.
+ * <br>
+ * Not thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(callSuper = true, of = { "server", "maxFrameSize" })
+public class WebSocketFrameDecoder extends AbstractProtocolDecoder implements ProtocolDecoder<WebSocketFrame> {
+
+
+	@Getter         private final boolean server                   ;
+	@Getter @Setter private       int     maxFrameSize = 1024 * 1024;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @param server <tt>true</tt> if frames are decoded on the server side, they must be masked.
+	 */
+	public WebSocketFrameDecoder(boolean server) {
+		this.server = server;
+	}
+
+	public WebSocketFrameDecoder(boolean server, int maxFrameSize, int defaultBufferSize) {
+		this.server            = server           ;
+		this.maxFrameSize      = maxFrameSize     ;
+		this.defaultBufferSize = defaultBufferSize;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	@Override
+	public List<WebSocketFrame> decode(byte[] bytes) throws ProtocolException {
+		List<WebSocketFrame> frames = new ArrayList<WebSocketFrame>();
+		try {
+			if (buf == null) {
+				int off = parse(bytes, 0, bytes.length, frames);
+				if (off < bytes.length) {
+					acquire();
+					buf.append(bytes, off, bytes.length - off);
+					searchIndex = buf.length();
+				}
+				return frames;
+			}
+
+			adapt();
+			buf.append(bytes);
+			searchIndex = splitIndex = parse(buf.buffer(), splitIndex, buf.length(), frames);
+		} catch (ProtocolException e) {
+			reset();
+			throw e;
+		}
+
+		recycle();
+		return frames;
+	}
+
+	/**
+	 * Parses complete frames in <tt>b[off, end)</tt>.
+	 *
+	 * @return offset of the first unparsed byte
+	 */
+	private int parse(byte[] b, int off, int end, List<WebSocketFrame> frames) throws WebSocketException {
+		while (end - off >= 2) {
+			int     b0     = b[off]     & 0xff;
+			int     b1     = b[off + 1] & 0xff;
+			boolean masked = (b1 & 0x80) != 0;
+			int     len7   = b1 & 0x7f;
+			int     header = 2 + (len7 == 126 ? 2 : (len7 == 127 ? 8 : 0)) + (masked ? 4 : 0);
+			if (end - off < header) {
+				break;
+			}
+
+			WebSocketOpcode opcode = WebSocketOpcode.from(b0 & 0x0f);
+			boolean         fin    = (b0 & 0x80) != 0;
+			if (opcode == null) {
+				throw new WebSocketException(CLOSE_PROTOCOL_ERROR, "Reserved opcode, |opcode=" + (b0 & 0x0f) + "|");
+			}
+			if ((b0 & 0x30) != 0) {
+				throw new WebSocketException(CLOSE_PROTOCOL_ERROR, "Reserved bits are set");
+			}
+			if (masked != server) {
+				throw new WebSocketException(CLOSE_PROTOCOL_ERROR, server ? "Frame from client is not masked" : "Frame from server is masked");
+			}
+			if (opcode.isControl() && (!fin || len7 > 125)) {
+				throw new WebSocketException(CLOSE_PROTOCOL_ERROR, "Invalid control frame");
+			}
+
+			long length = len7;
+			if (len7 == 126) {
+				length = ((b[off + 2] & 0xff) << 8) | (b[off + 3] & 0xff);
+			} else if (len7 == 127) {
+				length = 0;
+				for (int i = 2; i < 10; i++) {
+					length = (length << 8) | (b[off + i] & 0xff);
+				}
+			}
+			if (length < 0 || length > maxFrameSize) {
+				throw new WebSocketException(CLOSE_MESSAGE_TOO_BIG, "Frame is too large, |length=" + length + ", max=" + maxFrameSize + "|");
+			}
+			if (end - off - header < length) {
+				break;
+			}
+
+			int    n       = (int) length;
+			byte[] payload = new byte[n];
+			if (masked) {
+				int k = off + header - 4;
+				int key = ((b[k] & 0xff) << 24) | ((b[k + 1] & 0xff) << 16) | ((b[k + 2] & 0xff) << 8) | (b[k + 3] & 0xff);
+				WebSocketMasking.mask(b, off + header, payload, 0, n, key);
+			} else {
+				System.arraycopy(b, off + header, payload, 0, n);
+			}
+			frames.add(new WebSocketFrame(fin, (b0 & 0x40) != 0, opcode, payload));
+			off += header + n;
+		}
+		return off;
+	}
+
+}
@@ -0,0 +1,182 @@
+package io.craft.atom.protocol.websocket;
+
+import io.craft.atom.protocol.http.model.HttpHeader;
+import io.craft.atom.protocol.http.model.HttpHeaderType;
+import io.craft.atom.protocol.http.model.HttpMethod;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.http.model.HttpStatusLine;
+import io.craft.atom.protocol.http.model.HttpVersion;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The WebSocket opening handshake on the server side, see RFC 6455 section 4.2.
+ * <p>
+ * The upgrade request is decoded by the HTTP request decoder, this class validates it and makes the response.
+ * The permessage-deflate extension of RFC 7692 is accepted if it is enabled and an offer can be honored,
+ * the response always carries <tt>server_no_context_takeover</tt>, see {@link WebSocketCompressor}.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class WebSocketHandshake {
+
+
+	public  static final String  VERSION            = "13"                                  ;
+	public  static final String  PERMESSAGE_DEFLATE = "permessage-deflate"                  ;
+	public  static final String  SEC_KEY            = "Sec-WebSocket-Key"                   ;
+	public  static final String  SEC_ACCEPT         = "Sec-WebSocket-Accept"                ;
+	public  static final String  SEC_VERSION        = "Sec-WebSocket-Version"               ;
+	public  static final String  SEC_EXTENSIONS     = "Sec-WebSocket-Extensions"            ;
+	private static final String  GUID               = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+	private static final Charset ASCII              = Charset.forName("US-ASCII")           ;
+	private static final char[]  BASE64             = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @return <tt>true</tt> if the request asks for a WebSocket upgrade.
+	 */
+	public static boolean isUpgrade(HttpRequest request) {
+		HttpHeader upgrade = request.getFirstHeader(HttpHeaderType.UPGRADE.getName());
+		return upgrade != null && "websocket".equalsIgnoreCase(upgrade.getValue().trim()) && hasToken(request, HttpHeaderType.CONNECTION.getName(), "upgrade");
+	}
+
+	/**
+	 * Makes the handshake response of an upgrade request.
+	 *
+	 * @param request upgrade request
+	 * @param deflate <tt>true</tt> if permessage-deflate may be accepted
+	 * @return <tt>101 Switching Protocols</tt> if the handshake succeeds, otherwise <tt>400 Bad Request</tt> or <tt>426 Upgrade Required</tt>.
+	 */
+	public static HttpResponse handshake(HttpRequest request, boolean deflate) {
+		HttpHeader key     = request.getFirstHeader(SEC_KEY);
+		HttpHeader version = request.getFirstHeader(SEC_VERSION);
+		if (request.getRequestLine().getMethod() != HttpMethod.GET || !isUpgrade(request) || key == null || key.getValue().trim().length() != 24) {
+			return response(HttpStatus.BAD_REQUEST);
+		}
+		if (version == null || !VERSION.equals(version.getValue().trim())) {
+			HttpResponse response = response(HttpStatus.UPGRADE_REQUIRED);
+			response.addHeader(new HttpHeader(SEC_VERSION, VERSION));
+			return response;
+		}
+
+		HttpResponse response = response(HttpStatus.SWITCHING_PROTOCOLS);
+		response.addHeader(new HttpHeader(HttpHeaderType.UPGRADE.getName(), "websocket"));
+		response.addHeader(new HttpHeader(HttpHeaderType.CONNECTION.getName(), "Upgrade"));
+		response.addHeader(new HttpHeader(SEC_ACCEPT, accept(key.getValue().trim())));
+		if (deflate && acceptDeflate(request)) {
+			response.addHeader(new HttpHeader(SEC_EXTENSIONS, PERMESSAGE_DEFLATE + "; server_no_context_takeover"));
+		}
+		return response;
+	}
+
+	/**
+	 * @return <tt>true</tt> if the handshake response succeeds.
+	 */
+	public static boolean isAccepted(HttpResponse response) {
+		return response.getStatusLine().getStatus() == HttpStatus.SWITCHING_PROTOCOLS;
+	}
+
+	/**
+	 * @return <tt>true</tt> if the handshake response accepts permessage-deflate.
+	 */
+	public static boolean isDeflate(HttpResponse response) {
+		return hasExtension(response.getHeaders(SEC_EXTENSIONS));
+	}
+
+	/**
+	 * @return the Sec-WebSocket-Accept value of the key
+	 */
+	public static String accept(String key) {
+		try {
+			MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+			return base64(sha1.digest((key + GUID).getBytes(ASCII)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private static HttpResponse response(HttpStatus status) {
+		HttpResponse response = new HttpResponse();
+		response.setStatusLine(new HttpStatusLine(HttpVersion.HTTP_1_1, status));
+		if (status != HttpStatus.SWITCHING_PROTOCOLS) {
+			response.addHeader(new HttpHeader(HttpHeaderType.CONTENT_LENGTH.getName(), "0"));
+		}
+		return response;
+	}
+
+	private static boolean hasToken(HttpRequest request, String name, String token) {
+		for (HttpHeader header : request.getHeaders(name)) {
+			for (String t : header.getValue().split(",")) {
+				if (token.equalsIgnoreCase(t.trim())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Accepts the first permessage-deflate offer that can be honored, the JDK deflater always uses a 32K window,
+	 * so an offer limiting <tt>server_max_window_bits</tt> is declined. <tt>client_max_window_bits</tt> is ignored as allowed.
+	 */
+	private static boolean acceptDeflate(HttpRequest request) {
+		return hasExtension(request.getHeaders(SEC_EXTENSIONS));
+	}
+
+	private static boolean hasExtension(List<HttpHeader> headers) {
+		for (HttpHeader header : headers) {
+			for (String offer : header.getValue().split(",")) {
+				String[] params = offer.split(";");
+				if (!PERMESSAGE_DEFLATE.equalsIgnoreCase(params[0].trim())) {
+					continue;
+				}
+
+				boolean ok = true;
+				for (int i = 1; i < params.length && ok; i++) {
+					String param = params[i].trim().toLowerCase(Locale.ENGLISH);
+					int    eq    = param.indexOf('=');
+					String name  = eq < 0 ? param : param.substring(0, eq).trim();
+					String value = eq < 0 ? null  : param.substring(eq + 1).trim().replace("\"", "");
+					if ("server_max_window_bits".equals(name)) {
+						ok = "15".equals(value);
+					} else {
+						ok = "client_max_window_bits".equals(name) || "server_no_context_takeover".equals(name) || "client_no_context_takeover".equals(name);
+					}
+				}
+				if (ok) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String base64(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(((bytes.length + 2) / 3) * 4);
+		for (int i = 0; i < bytes.length; i += 3) {
+			int b = (bytes[i] & 0xff) << 16;
+			if (i + 1 < bytes.length) b |= (bytes[i + 1] & 0xff) << 8;
+			if (i + 2 < bytes.length) b |=  bytes[i + 2] & 0xff;
+			sb.append(BASE64[(b >>> 18) & 0x3f]);
+			sb.append(BASE64[(b >>> 12) & 0x3f]);
+			sb.append(i + 1 < bytes.length ? BASE64[(b >>> 6) & 0x3f] : '=');
+			sb.append(i + 2 < bytes.length ? BASE64[b & 0x3f]         : '=');
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,189 @@
+package io.craft.atom.protocol.websocket;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.ProtocolException;
+import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.model.HttpRequest;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.websocket.model.WebSocketFrame;
+import io.craft.atom.protocol.websocket.model.WebSocketOpcode;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The server side codec of a WebSocket connection, one instance per channel.
+ * <p>
+ * Bytes read from the channel are fed to {@link #decode(byte[])} as they are. Until the handshake completes
+ * they are decoded by the HTTP request decoder and the handshake response is queued,
+ * afterwards they are decoded into complete messages.
+ * PING is answered with PONG and CLOSE is echoed automatically, these and the handshake response are taken by {@link #flush()},
+ * which should be written to the channel after each decode.
+ * Application messages are encoded by {@link #encode(WebSocketFrame)} and written directly.
+ * <p>
+ * A typical <tt>IoHandler.channelRead</tt>:
+ * <pre>
+ * List&lt;WebSocketFrame&gt; frames = codec.decode(bytes);
+ * byte[] out = codec.flush();
+ * if (out.length > 0) channel.write(out);
+ * if (!codec.isUpgraded() || codec.isCloseSent() &amp;&amp; codec.isCloseReceived()) channel.close();
+ * </pre>
+ * The client must not send frames before it receives the handshake response, as RFC 6455 section 4.1 requires.
+ * <br>
+ * Thread safe, encode may be invoked concurrently with decode.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "upgraded", "deflate", "closeSent", "closeReceived" })
+public class WebSocketServerCodec implements ProtocolDecoder<WebSocketFrame>, ProtocolEncoder<WebSocketFrame> {
+
+
+	        private final ProtocolDecoder<HttpRequest>  httpDecoder                          ;
+	        private final ProtocolEncoder<HttpResponse> httpEncoder                          ;
+	        private final ByteArrayBuffer               out = new ByteArrayBuffer(256)       ;
+	@Getter private final boolean                       deflateEnabled                       ;
+	@Getter private final int                           maxFrameSize                         ;
+	@Getter private final int                           maxMessageSize                       ;
+	@Getter private       HttpRequest                   request                              ;
+	@Getter private       HttpResponse                  response                             ;
+	@Getter private       boolean                       deflate                              ;
+	@Getter private       boolean                       closeSent                            ;
+	@Getter private       boolean                       closeReceived                        ;
+	        private       WebSocketDecoder              decoder                              ;
+	        private       WebSocketEncoder              encoder                              ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public WebSocketServerCodec() {
+		this(true, 1024 * 1024, 4 * 1024 * 1024);
+	}
+
+	/**
+	 * @param deflateEnabled <tt>true</tt> if permessage-deflate may be negotiated
+	 * @param maxFrameSize   max payload length of a frame
+	 * @param maxMessageSize max payload length of a message
+	 */
+	public WebSocketServerCodec(boolean deflateEnabled, int maxFrameSize, int maxMessageSize) {
+		this.deflateEnabled = deflateEnabled;
+		this.maxFrameSize   = maxFrameSize  ;
+		this.maxMessageSize = maxMessageSize;
+		this.httpDecoder    = HttpCodecFactory.newHttpRequestDecoder();
+		this.httpEncoder    = HttpCodecFactory.newHttpResponseEncoder();
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @return complete messages, including control frames. Empty during the handshake.
+	 * @throws WebSocketException if the peer violates the protocol, a CLOSE frame with the status code is queued.
+	 */
+	@Override
+	public synchronized List<WebSocketFrame> decode(byte[] bytes) throws ProtocolException {
+		if (decoder == null) {
+			if (response == null) {
+				handshake(bytes);
+			}
+			return Collections.emptyList();
+		}
+
+		List<WebSocketFrame> frames;
+		try {
+			frames = decoder.decode(bytes);
+		} catch (WebSocketException e) {
+			close(e.getCloseCode(), null);
+			throw e;
+		}
+
+		for (WebSocketFrame frame : frames) {
+			if (frame.getOpcode() == WebSocketOpcode.PING && !closeSent) {
+				out.append(encoder.encode(new WebSocketFrame(WebSocketOpcode.PONG, frame.getPayload())));
+			} else if (frame.getOpcode() == WebSocketOpcode.CLOSE) {
+				closeReceived = true;
+				int code = frame.getCloseCode();
+				close(code == WebSocketFrame.CLOSE_NO_STATUS ? WebSocketFrame.CLOSE_NORMAL : code, null);
+			}
+		}
+		return frames;
+	}
+
+	@Override
+	public byte[] encode(WebSocketFrame frame) throws ProtocolException {
+		WebSocketEncoder e = encoder();
+		if (e == null) {
+			throw new IllegalStateException("WebSocket handshake is not completed");
+		}
+		return e.encode(frame);
+	}
+
+	/**
+	 * Queues a CLOSE frame, only the first close takes effect.
+	 */
+	public synchronized void close(int code, String reason) {
+		if (closeSent || encoder == null) {
+			return;
+		}
+		closeSent = true;
+		out.append(encoder.encode(WebSocketFrame.close(code, reason)));
+	}
+
+	/**
+	 * @return bytes to be written to the channel, an empty array if there is nothing to write.
+	 */
+	public synchronized byte[] flush() {
+		byte[] bytes = out.array();
+		out.clear();
+		return bytes;
+	}
+
+	/**
+	 * @return <tt>true</tt> if the handshake succeeds.
+	 */
+	public synchronized boolean isUpgraded() {
+		return decoder != null;
+	}
+
+	@Override
+	public synchronized void reset() {
+		httpDecoder.reset();
+		if (decoder != null) {
+			decoder.reset();
+		}
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private synchronized WebSocketEncoder encoder() {
+		return encoder;
+	}
+
+	private void handshake(byte[] bytes) {
+		List<HttpRequest> requests = httpDecoder.decode(bytes);
+		if (requests.isEmpty()) {
+			return;
+		}
+
+		request  = requests.get(0);
+		response = WebSocketHandshake.handshake(request, deflateEnabled);
+		out.append(httpEncoder.encode(response));
+		if (!WebSocketHandshake.isAccepted(response)) {
+			return;
+		}
+
+		deflate = WebSocketHandshake.isDeflate(response);
+		decoder = new WebSocketDecoder(true, maxFrameSize, maxMessageSize, deflate ? new WebSocketDecompressor() : null);
+		encoder = new WebSocketEncoder(false, deflate ? new WebSocketCompressor() : null);
+	}
+
+}
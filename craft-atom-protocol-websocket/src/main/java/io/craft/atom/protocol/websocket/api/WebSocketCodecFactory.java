@@ -0,0 +1,56 @@
+package io.craft.atom.protocol.websocket.api;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.websocket.WebSocketCompressor;
+import io.craft.atom.protocol.websocket.WebSocketDecoder;
+import io.craft.atom.protocol.websocket.WebSocketDecompressor;
+import io.craft.atom.protocol.websocket.WebSocketEncoder;
+import io.craft.atom.protocol.websocket.WebSocketFrameDecoder;
+import io.craft.atom.protocol.websocket.WebSocketServerCodec;
+import io.craft.atom.protocol.websocket.model.WebSocketFrame;
+
+
+/**
+ * WebSocket codec factory, which provides static factory method to create {@link ProtocolEncoder} and {@link ProtocolDecoder} instance.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class WebSocketCodecFactory {
+
+
+	// encoder
+	public static ProtocolEncoder<WebSocketFrame> newWebSocketEncoder(boolean client) {
+		return new WebSocketEncoder(client);
+	}
+
+	public static ProtocolEncoder<WebSocketFrame> newWebSocketEncoder(boolean client, boolean deflate) {
+		return new WebSocketEncoder(client, deflate ? new WebSocketCompressor() : null);
+	}
+
+
+	// decoder
+	public static ProtocolDecoder<WebSocketFrame> newWebSocketFrameDecoder(boolean server) {
+		return new WebSocketFrameDecoder(server);
+	}
+
+	public static ProtocolDecoder<WebSocketFrame> newWebSocketDecoder(boolean server) {
+		return new WebSocketDecoder(server);
+	}
+
+	public static ProtocolDecoder<WebSocketFrame> newWebSocketDecoder(boolean server, int maxFrameSize, int maxMessageSize, boolean deflate) {
+		return new WebSocketDecoder(server, maxFrameSize, maxMessageSize, deflate ? new WebSocketDecompressor() : null);
+	}
+
+
+	// server codec
+	public static WebSocketServerCodec newWebSocketServerCodec() {
+		return new WebSocketServerCodec();
+	}
+
+	public static WebSocketServerCodec newWebSocketServerCodec(boolean deflate, int maxFrameSize, int maxMessageSize) {
+		return new WebSocketServerCodec(deflate, maxFrameSize, maxMessageSize);
+	}
+
+}
@@ -0,0 +1,109 @@
+package io.craft.atom.protocol.websocket.model;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A WebSocket frame, see RFC 6455 section 5.2.
+ * <br>
+ * The payload is always unmasked, masking is applied and removed by the codec.
+ * A frame decoded by {@link io.craft.atom.protocol.websocket.WebSocketDecoder} is a complete message,
+ * fragments are aggregated and permessage-deflate is removed.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "fin", "rsv1", "opcode" })
+public class WebSocketFrame implements Serializable {
+
+
+	private static final long    serialVersionUID      = -2374829570839158390L;
+	private static final Charset UTF_8                 = Charset.forName("utf-8");
+	private static final byte[]  EMPTY                 = new byte[0]            ;
+	public  static final int     CLOSE_NORMAL          = 1000                   ;
+	public  static final int     CLOSE_GOING_AWAY      = 1001                   ;
+	public  static final int     CLOSE_PROTOCOL_ERROR  = 1002                   ;
+	public  static final int     CLOSE_NO_STATUS       = 1005                   ;
+	public  static final int     CLOSE_INVALID_DATA    = 1007                   ;
+	public  static final int     CLOSE_MESSAGE_TOO_BIG = 1009                   ;
+
+
+	@Getter @Setter private boolean         fin     = true;
+	@Getter @Setter private boolean         rsv1          ;
+	@Getter @Setter private WebSocketOpcode opcode        ;
+	@Getter @Setter private byte[]          payload       ;
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public WebSocketFrame() {}
+
+	public WebSocketFrame(WebSocketOpcode opcode, byte[] payload) {
+		this(true, false, opcode, payload);
+	}
+
+	public WebSocketFrame(boolean fin, boolean rsv1, WebSocketOpcode opcode, byte[] payload) {
+		this.fin     = fin    ;
+		this.rsv1    = rsv1   ;
+		this.opcode  = opcode ;
+		this.payload = payload;
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	public static WebSocketFrame text(String text) {
+		return new WebSocketFrame(WebSocketOpcode.TEXT, text.getBytes(UTF_8));
+	}
+
+	public static WebSocketFrame binary(byte[] bytes) {
+		return new WebSocketFrame(WebSocketOpcode.BINARY, bytes);
+	}
+
+	public static WebSocketFrame close(int code, String reason) {
+		byte[] r = reason == null ? EMPTY : reason.getBytes(UTF_8);
+		byte[] payload = new byte[2 + r.length];
+		payload[0] = (byte) (code >>> 8);
+		payload[1] = (byte)  code       ;
+		System.arraycopy(r, 0, payload, 2, r.length);
+		return new WebSocketFrame(WebSocketOpcode.CLOSE, payload);
+	}
+
+	/**
+	 * @return payload as utf-8 text
+	 */
+	public String getText() {
+		return payload == null ? "" : new String(payload, UTF_8);
+	}
+
+	/**
+	 * @return status code of a CLOSE frame, {@link #CLOSE_NO_STATUS} if absent.
+	 */
+	public int getCloseCode() {
+		if (payload == null || payload.length < 2) {
+			return CLOSE_NO_STATUS;
+		}
+		return ((payload[0] & 0xff) << 8) | (payload[1] & 0xff);
+	}
+
+	/**
+	 * @return reason of a CLOSE frame, empty if absent.
+	 */
+	public String getCloseReason() {
+		if (payload == null || payload.length <= 2) {
+			return "";
+		}
+		return new String(payload, 2, payload.length - 2, UTF_8);
+	}
+
+	public int getLength() {
+		return payload == null ? 0 : payload.length;
+	}
+
+}
@@ -0,0 +1,53 @@
+package io.craft.atom.protocol.websocket.model;
+
+/**
+ * Enumeration of WebSocket frame opcodes, see RFC 6455 section 5.2.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public enum WebSocketOpcode {
+
+
+	CONTINUATION(0x0),
+	TEXT        (0x1),
+	BINARY      (0x2),
+	CLOSE       (0x8),
+	PING        (0x9),
+	PONG        (0xa);
+
+
+	private static final WebSocketOpcode[] OPCODES = new WebSocketOpcode[16];
+	static {
+		for (WebSocketOpcode opcode : values()) {
+			OPCODES[opcode.code] = opcode;
+		}
+	}
+
+
+	private final int code;
+
+
+	private WebSocketOpcode(int code) {
+		this.code = code;
+	}
+
+	/**
+	 * @return opcode of the code, or <code>null</code> if the opcode is reserved.
+	 */
+	public static WebSocketOpcode from(int code) {
+		return code >= 0 && code < OPCODES.length ? OPCODES[code] : null;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * @return <tt>true</tt> for CLOSE, PING and PONG.
+	 */
+	public boolean isControl() {
+		return (code & 0x8) != 0;
+	}
+
+}
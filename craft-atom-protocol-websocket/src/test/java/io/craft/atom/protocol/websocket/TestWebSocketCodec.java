@@ -0,0 +1,231 @@
+package io.craft.atom.protocol.websocket;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.websocket.api.WebSocketCodecFactory;
+import io.craft.atom.protocol.websocket.model.WebSocketFrame;
+import io.craft.atom.protocol.websocket.model.WebSocketOpcode;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.ByteArrayBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestWebSocketCodec {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestWebSocketCodec.class);
+
+
+	private Random random = new Random(6455);
+
+
+	@Test
+	public void testRfcExamples() {
+		// RFC 6455 section 5.7, a single-frame masked text message
+		List<WebSocketFrame> frames = WebSocketCodecFactory.newWebSocketDecoder(true).decode(bytes(0x81, 0x85, 0x37, 0xfa, 0x21, 0x3d, 0x7f, 0x9f, 0x4d, 0x51, 0x58));
+		Assert.assertEquals(1, frames.size());
+		Assert.assertEquals(WebSocketOpcode.TEXT, frames.get(0).getOpcode());
+		Assert.assertEquals("Hello", frames.get(0).getText());
+
+		// a fragmented unmasked text message
+		ProtocolDecoder<WebSocketFrame> decoder = WebSocketCodecFactory.newWebSocketDecoder(false);
+		Assert.assertTrue(decoder.decode(bytes(0x01, 0x03, 0x48, 0x65, 0x6c)).isEmpty());
+		frames = decoder.decode(bytes(0x89, 0x00, 0x80, 0x02, 0x6c, 0x6f));
+		Assert.assertEquals(2, frames.size());
+		Assert.assertEquals(WebSocketOpcode.PING, frames.get(0).getOpcode());
+		Assert.assertEquals("Hello", frames.get(1).getText());
+
+		// RFC 7692 section 7.2.3.2, compressed messages sharing the sliding window
+		decoder = WebSocketCodecFactory.newWebSocketDecoder(false, 1024, 1024, true);
+		frames = decoder.decode(bytes(0xc1, 0x07, 0xf2, 0x48, 0xcd, 0xc9, 0xc9, 0x07, 0x00, 0xc1, 0x05, 0xf2, 0x00, 0x11, 0x00, 0x00));
+		Assert.assertEquals(2, frames.size());
+		Assert.assertEquals("Hello", frames.get(0).getText());
+		Assert.assertEquals("Hello", frames.get(1).getText());
+		Assert.assertFalse(frames.get(1).isRsv1());
+
+		// RFC 7692 section 7.2.3.3, deflate block with BFINAL set
+		frames = WebSocketCodecFactory.newWebSocketDecoder(false, 1024, 1024, true).decode(bytes(0xc1, 0x08, 0xf3, 0x48, 0xcd, 0xc9, 0xc9, 0x07, 0x00, 0x00));
+		Assert.assertEquals("Hello", frames.get(0).getText());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test rfc examples. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		for (boolean deflate : new boolean[] { false, true }) {
+			ProtocolEncoder<WebSocketFrame> encoder = WebSocketCodecFactory.newWebSocketEncoder(true, deflate);
+			ProtocolDecoder<WebSocketFrame> decoder = WebSocketCodecFactory.newWebSocketDecoder(true, 1024 * 1024, 1024 * 1024, deflate);
+			List<byte[]> payloads = new ArrayList<byte[]>();
+			ByteArrayBuffer buf = new ByteArrayBuffer(1024);
+			for (int length : new int[] { 0, 1, 7, 8, 125, 126, 127, 1000, 65535, 65536, 300000 }) {
+				byte[] payload = new byte[length];
+				for (int i = 0; i < length; i++) {
+					payload[i] = (byte) ('a' + random.nextInt(4));
+				}
+				payloads.add(payload);
+				byte[] copy = payload.clone();
+				buf.append(encoder.encode(WebSocketFrame.binary(payload)));
+				Assert.assertTrue(Arrays.equals(copy, payload));
+			}
+
+			// random chunks
+			byte[] bytes = buf.array();
+			List<WebSocketFrame> frames = new ArrayList<WebSocketFrame>();
+			for (int off = 0; off < bytes.length;) {
+				int n = Math.min(bytes.length - off, 1 + random.nextInt(4096));
+				frames.addAll(decoder.decode(Arrays.copyOfRange(bytes, off, off + n)));
+				off += n;
+			}
+			Assert.assertEquals(payloads.size(), frames.size());
+			for (int i = 0; i < frames.size(); i++) {
+				Assert.assertEquals(WebSocketOpcode.BINARY, frames.get(i).getOpcode());
+				Assert.assertTrue(Arrays.equals(payloads.get(i), frames.get(i).getPayload()));
+			}
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test round trip. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testMasking() {
+		for (int length = 0; length < 64; length++) {
+			byte[] payload = new byte[length];
+			random.nextBytes(payload);
+			int key = random.nextInt();
+			byte[] masked = new byte[length + 3];
+			WebSocketMasking.mask(payload, 0, masked, 3, length, key);
+			byte[] expected = new byte[length];
+			for (int i = 0; i < length; i++) {
+				expected[i] = (byte) (payload[i] ^ (key >>> (8 * (3 - (i % 4)))));
+			}
+			Assert.assertTrue(Arrays.equals(expected, Arrays.copyOfRange(masked, 3, length + 3)));
+			WebSocketMasking.mask(masked, 3, length, key);
+			Assert.assertTrue(Arrays.equals(payload, Arrays.copyOfRange(masked, 3, length + 3)));
+		}
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test masking. ", CaseCounter.incr(1)));
+	}
+
+	@Test
+	public void testLimits() {
+		ProtocolEncoder<WebSocketFrame> encoder = WebSocketCodecFactory.newWebSocketEncoder(true);
+		ProtocolDecoder<WebSocketFrame> decoder = WebSocketCodecFactory.newWebSocketDecoder(true, 1024, 2048, false);
+
+		// frame size
+		assertClose(decoder, encoder.encode(WebSocketFrame.binary(new byte[1025])), WebSocketFrame.CLOSE_MESSAGE_TOO_BIG);
+
+		// aggregated message size
+		ByteArrayBuffer buf = new ByteArrayBuffer(4096);
+		buf.append(encoder.encode(new WebSocketFrame(false, false, WebSocketOpcode.TEXT        , new byte[1000])));
+		buf.append(encoder.encode(new WebSocketFrame(false, false, WebSocketOpcode.CONTINUATION, new byte[1000])));
+		buf.append(encoder.encode(new WebSocketFrame(true , false, WebSocketOpcode.CONTINUATION, new byte[1000])));
+		assertClose(decoder, buf.array(), WebSocketFrame.CLOSE_MESSAGE_TOO_BIG);
+
+		// decompressed message size
+		ProtocolEncoder<WebSocketFrame> deflater = WebSocketCodecFactory.newWebSocketEncoder(true, true);
+		byte[] bytes = deflater.encode(WebSocketFrame.binary(new byte[100000]));
+		Assert.assertTrue(bytes.length < 1024);
+		assertClose(WebSocketCodecFactory.newWebSocketDecoder(true, 1024, 2048, true), bytes, WebSocketFrame.CLOSE_MESSAGE_TOO_BIG);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test limits. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testInvalid() {
+		ProtocolEncoder<WebSocketFrame> encoder = WebSocketCodecFactory.newWebSocketEncoder(true);
+		byte[][] invalids = {
+			WebSocketCodecFactory.newWebSocketEncoder(false).encode(WebSocketFrame.text("x")), // unmasked from client
+			bytes(0x83, 0x80, 0, 0, 0, 0)                                                     , // reserved opcode
+			bytes(0xa1, 0x80, 0, 0, 0, 0)                                                     , // rsv2
+			bytes(0xc1, 0x80, 0, 0, 0, 0)                                                     , // rsv1 without deflate
+			bytes(0x09, 0x80, 0, 0, 0, 0)                                                     , // fragmented control frame
+			bytes(0x89, 0xfe, 0, 126, 0, 0, 0, 0)                                             , // control frame too large
+			encoder.encode(new WebSocketFrame(WebSocketOpcode.CONTINUATION, new byte[1]))     , // continuation without message
+		};
+		for (byte[] bytes : invalids) {
+			assertClose(WebSocketCodecFactory.newWebSocketDecoder(true), bytes, WebSocketFrame.CLOSE_PROTOCOL_ERROR);
+		}
+
+		// data frame interleaves fragmented message
+		ByteArrayBuffer buf = new ByteArrayBuffer(64);
+		buf.append(encoder.encode(new WebSocketFrame(false, false, WebSocketOpcode.TEXT, new byte[1])));
+		buf.append(encoder.encode(WebSocketFrame.text("x")));
+		assertClose(WebSocketCodecFactory.newWebSocketDecoder(true), buf.array(), WebSocketFrame.CLOSE_PROTOCOL_ERROR);
+
+		// invalid deflate data
+		assertClose(WebSocketCodecFactory.newWebSocketDecoder(false, 1024, 1024, true), bytes(0xc1, 0x02, 0xff, 0xff), WebSocketFrame.CLOSE_INVALID_DATA);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test invalid. ", CaseCounter.incr(invalids.length + 2)));
+	}
+
+	@Test
+	public void testPerformance() {
+		byte[] payload = new byte[64 * 1024];
+		byte[] dst     = new byte[payload.length];
+		int    key     = 0x37fa213d;
+		int    n       = 2000;
+		for (int i = 0; i < 200; i++) {
+			WebSocketMasking.mask(payload, 0, dst, 0, payload.length, key);
+			maskBytewise(payload, dst, key);
+		}
+
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			WebSocketMasking.mask(payload, 0, dst, 0, payload.length, key);
+		}
+		long e = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			maskBytewise(payload, dst, key);
+		}
+		long b = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] Masking performance, |bytes={}, word={}ms, bytewise={}ms|", (long) n * payload.length, (e - s) / 1000000, (b - e) / 1000000);
+
+		ProtocolEncoder<WebSocketFrame> encoder = WebSocketCodecFactory.newWebSocketEncoder(true);
+		ProtocolDecoder<WebSocketFrame> decoder = WebSocketCodecFactory.newWebSocketDecoder(true);
+		byte[] bytes = encoder.encode(WebSocketFrame.binary(new byte[512]));
+		n = 200000;
+		s = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			decoder.decode(bytes);
+		}
+		e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] Frame decode performance, |frames={}, elapsed={}ms|", n, (e - s) / 1000000);
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test performance. ", CaseCounter.incr(1)));
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private static void assertClose(ProtocolDecoder<WebSocketFrame> decoder, byte[] bytes, int closeCode) {
+		try {
+			decoder.decode(bytes);
+			Assert.fail();
+		} catch (WebSocketException e) {
+			Assert.assertEquals(closeCode, e.getCloseCode());
+		}
+	}
+
+	private static void maskBytewise(byte[] src, byte[] dst, int key) {
+		for (int i = 0; i < src.length; i++) {
+			dst[i] = (byte) (src[i] ^ (key >>> (8 * (3 - (i & 3)))));
+		}
+	}
+
+	private static byte[] bytes(int... values) {
+		byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bytes[i] = (byte) values[i];
+		}
+		return bytes;
+	}
+
+}
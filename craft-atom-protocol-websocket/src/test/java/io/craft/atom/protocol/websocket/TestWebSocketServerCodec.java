@@ -0,0 +1,148 @@
+package io.craft.atom.protocol.websocket;
+
+import io.craft.atom.protocol.ProtocolDecoder;
+import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.http.api.HttpCodecFactory;
+import io.craft.atom.protocol.http.model.HttpResponse;
+import io.craft.atom.protocol.http.model.HttpStatus;
+import io.craft.atom.protocol.websocket.api.WebSocketCodecFactory;
+import io.craft.atom.protocol.websocket.model.WebSocketFrame;
+import io.craft.atom.protocol.websocket.model.WebSocketOpcode;
+import io.craft.atom.test.CaseCounter;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestWebSocketServerCodec {
+
+
+	private static final String KEY = "dGhlIHNhbXBsZSBub25jZQ==";
+
+
+	@Test
+	public void testHandshake() {
+		Assert.assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", WebSocketHandshake.accept(KEY));
+
+		WebSocketServerCodec codec = WebSocketCodecFactory.newWebSocketServerCodec();
+		String request = upgrade("permessage-deflate; client_max_window_bits, permessage-deflate");
+		Assert.assertTrue(codec.decode(request.substring(0, 40).getBytes()).isEmpty());
+		Assert.assertFalse(codec.isUpgraded());
+		Assert.assertTrue(codec.decode(request.substring(40).getBytes()).isEmpty());
+		Assert.assertTrue(codec.isUpgraded());
+		Assert.assertTrue(codec.isDeflate());
+		Assert.assertEquals("/chat", codec.getRequest().getRequestLine().getUri());
+
+		HttpResponse response = response(codec.flush());
+		Assert.assertEquals(HttpStatus.SWITCHING_PROTOCOLS, response.getStatusLine().getStatus());
+		Assert.assertEquals("s3pPLMBiTxaQ9kYGzzhZRbK+xOo=", response.getFirstHeader(WebSocketHandshake.SEC_ACCEPT).getValue());
+		Assert.assertEquals("permessage-deflate; server_no_context_takeover", response.getFirstHeader(WebSocketHandshake.SEC_EXTENSIONS).getValue());
+
+		// offer can not be honored
+		codec = WebSocketCodecFactory.newWebSocketServerCodec();
+		codec.decode(upgrade("permessage-deflate; server_max_window_bits=10").getBytes());
+		Assert.assertTrue(codec.isUpgraded());
+		Assert.assertFalse(codec.isDeflate());
+		Assert.assertNull(response(codec.flush()).getFirstHeader(WebSocketHandshake.SEC_EXTENSIONS));
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test handshake. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testRejected() {
+		WebSocketServerCodec codec = WebSocketCodecFactory.newWebSocketServerCodec();
+		codec.decode("GET /chat HTTP/1.1\r\nHost: example.com\r\n\r\n".getBytes());
+		Assert.assertFalse(codec.isUpgraded());
+		Assert.assertEquals(HttpStatus.BAD_REQUEST, response(codec.flush()).getStatusLine().getStatus());
+
+		codec = WebSocketCodecFactory.newWebSocketServerCodec();
+		codec.decode(upgrade(null).replace("Version: 13", "Version: 8").getBytes());
+		Assert.assertFalse(codec.isUpgraded());
+		HttpResponse response = response(codec.flush());
+		Assert.assertEquals(HttpStatus.UPGRADE_REQUIRED, response.getStatusLine().getStatus());
+		Assert.assertEquals("13", response.getFirstHeader(WebSocketHandshake.SEC_VERSION).getValue());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test rejected. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testMessages() {
+		WebSocketServerCodec codec = WebSocketCodecFactory.newWebSocketServerCodec();
+		codec.decode(upgrade("permessage-deflate").getBytes());
+		codec.flush();
+
+		ProtocolEncoder<WebSocketFrame> client  = WebSocketCodecFactory.newWebSocketEncoder(true, true);
+		ProtocolDecoder<WebSocketFrame> decoder = WebSocketCodecFactory.newWebSocketDecoder(false, 1024 * 1024, 1024 * 1024, true);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append("message-").append(i).append(' ');
+		}
+		String text = sb.toString();
+
+		// compressed text both ways
+		List<WebSocketFrame> frames = codec.decode(client.encode(WebSocketFrame.text(text)));
+		Assert.assertEquals(text, frames.get(0).getText());
+		byte[] bytes = codec.encode(WebSocketFrame.text(text));
+		Assert.assertTrue(bytes.length < text.length() / 4);
+		Assert.assertEquals(text, decoder.decode(bytes).get(0).getText());
+
+		// ping is answered
+		frames = codec.decode(client.encode(new WebSocketFrame(WebSocketOpcode.PING, "p".getBytes())));
+		Assert.assertEquals(WebSocketOpcode.PING, frames.get(0).getOpcode());
+		frames = decoder.decode(codec.flush());
+		Assert.assertEquals(WebSocketOpcode.PONG, frames.get(0).getOpcode());
+		Assert.assertEquals("p", frames.get(0).getText());
+
+		// close is echoed
+		codec.decode(client.encode(WebSocketFrame.close(WebSocketFrame.CLOSE_GOING_AWAY, "bye")));
+		Assert.assertTrue(codec.isCloseReceived());
+		Assert.assertTrue(codec.isCloseSent());
+		frames = decoder.decode(codec.flush());
+		Assert.assertEquals(WebSocketOpcode.CLOSE, frames.get(0).getOpcode());
+		Assert.assertEquals(WebSocketFrame.CLOSE_GOING_AWAY, frames.get(0).getCloseCode());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test messages. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testProtocolError() {
+		WebSocketServerCodec codec = WebSocketCodecFactory.newWebSocketServerCodec();
+		codec.decode(upgrade(null).getBytes());
+		codec.flush();
+		try {
+			codec.decode(WebSocketCodecFactory.newWebSocketEncoder(false).encode(WebSocketFrame.text("unmasked")));
+			Assert.fail();
+		} catch (WebSocketException e) {
+			Assert.assertEquals(WebSocketFrame.CLOSE_PROTOCOL_ERROR, e.getCloseCode());
+		}
+		Assert.assertTrue(codec.isCloseSent());
+		List<WebSocketFrame> frames = WebSocketCodecFactory.newWebSocketDecoder(false).decode(codec.flush());
+		Assert.assertEquals(WebSocketFrame.CLOSE_PROTOCOL_ERROR, frames.get(0).getCloseCode());
+		System.out.println(String.format("[CRAFT-ATOM-PROTOCOL-WEBSOCKET] (^_^)  <%s>  Case -> test protocol error. ", CaseCounter.incr(2)));
+	}
+
+
+	// ~ ------------------------------------------------------------------------------------------------------------
+
+
+	private static String upgrade(String extensions) {
+		return "GET /chat HTTP/1.1\r\n" +
+		       "Host: server.example.com\r\n" +
+		       "Upgrade: websocket\r\n" +
+		       "Connection: keep-alive, Upgrade\r\n" +
+		       "Sec-WebSocket-Key: " + KEY + "\r\n" +
+		       "Sec-WebSocket-Version: 13\r\n" +
+		       (extensions == null ? "" : "Sec-WebSocket-Extensions: " + extensions + "\r\n") +
+		       "\r\n";
+	}
+
+	private static HttpResponse response(byte[] bytes) {
+		List<HttpResponse> responses = HttpCodecFactory.newHttpResponseDecoder().decode(bytes);
+		Assert.assertEquals(1, responses.size());
+		return responses.get(0);
+	}
+
+}
@@ -1,6 +1,7 @@
 package io.craft.atom.protocol;
 
 import io.craft.atom.util.ByteArrayBuffer;
+import io.craft.atom.util.ByteArrayBufferPool;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -13,6 +14,9 @@ import lombok.ToString;
  * - splitIndex : The separator index position according to specific protocol, indicates next byte nearby last complete protocol object.<br>
  * - searchIndex: The cursor index position for protocol process, indicates next byte would be process by protocol codec.<br>
  * - stateIndex : The index position for protocol state machine process.
+ * <p>
+ * The buffer is acquired from a shared {@link ByteArrayBufferPool} lazily when bytes arrive, 
+ * and recycled back to the pool once all buffered bytes are consumed, so an idle decoder holds no buffer.
  * 
  * 
  * @author mindwind
@@ -26,13 +30,14 @@ abstract public class AbstractProtocolDecoder extends AbstractProtocolCodec {
 	protected static final int END   = -1;
 	
 
-	@Getter @Setter protected int             splitIndex        = 0                                     ;
-	@Getter @Setter protected int             searchIndex       = 0                                     ;
-	@Getter @Setter protected int             stateIndex        = 0                                     ;
-	@Getter         protected int             state             = START                                 ;
-	@Getter @Setter protected int             defaultBufferSize = 2048                                  ;
-	@Getter @Setter protected int             maxSize           = defaultBufferSize * 1024              ;
-	@Getter @Setter protected ByteArrayBuffer buf               = new ByteArrayBuffer(defaultBufferSize);
+	@Getter @Setter protected int                 splitIndex        = 0                                     ;
+	@Getter @Setter protected int                 searchIndex       = 0                                     ;
+	@Getter @Setter protected int                 stateIndex        = 0                                     ;
+	@Getter         protected int                 state             = START                                 ;
+	@Getter @Setter protected int                 defaultBufferSize = 2048                                  ;
+	@Getter @Setter protected int                 maxSize           = defaultBufferSize * 1024              ;
+	@Getter @Setter protected ByteArrayBuffer     buf                                                   ;
+	@Getter @Setter protected ByteArrayBufferPool pool              = ByteArrayBufferPool.getInstance()     ;
 	
 	
 	// ~ ----------------------------------------------------------------------------------------------------------
@@ -43,10 +48,48 @@ abstract public class AbstractProtocolDecoder extends AbstractProtocolCodec {
 		searchIndex = 0                                     ;
 		stateIndex  = 0                                     ; 
 		state       = START                                 ;
-		buf         = new ByteArrayBuffer(defaultBufferSize);
+		release();
+	}
+	
+	/**
+	 * @return the bytes currently held by this decoder, 0 means the decoder is idle and holds no buffer.
+	 */
+	public int footprint() {
+		return buf == null ? 0 : buf.capacity();
+	}
+	
+	/**
+	 * Acquires a buffer from the pool if this decoder holds no buffer.
+	 */
+	protected void acquire() {
+		if (buf == null) {
+			buf = pool.acquire(defaultBufferSize);
+		}
+	}
+	
+	/**
+	 * Releases the buffer back to the pool.
+	 */
+	protected void release() {
+		if (buf != null) {
+			pool.release(buf);
+			buf = null;
+		}
+	}
+	
+	/**
+	 * Recycles the buffer if all buffered bytes are consumed, should be invoked at the end of a decode round.
+	 */
+	protected void recycle() {
+		if (buf != null && state == START && splitIndex == buf.length() && searchIndex == splitIndex) {
+			release();
+			splitIndex = searchIndex = stateIndex = 0;
+		}
 	}
 	
 	protected void adapt() {
+		acquire();
+		
 		if (splitIndex > 0 && splitIndex < buf.length()) {
 			byte[] tailBytes = buf.array(splitIndex, buf.length());
 			buf.clear();
@@ -59,10 +102,6 @@ abstract public class AbstractProtocolDecoder extends AbstractProtocolCodec {
 			buf.clear();
 			splitIndex = searchIndex = 0;
 		}
-		
-		if (buf.length() == 0 && buf.capacity() > maxSize * 2) {
-			buf.reset(defaultBufferSize);
-		}
 	}
 	
 }
@@ -11,7 +11,8 @@ public enum ProtocolExceptionType {
 	
 	UNEXPECTED       ("Unexpected protocol processing error, cause="),
 	LINE_LENGTH_LIMIT("Line length limit exceeded, limit="), 
-	MAX_SIZE_LIMIT   ("Max size limit exceeded, limit=");
+	MAX_SIZE_LIMIT   ("Max size limit exceeded, limit="),
+	RATIO_LIMIT      ("Ratio limit exceeded, limit=");
 	
 	
 	private final String desc;
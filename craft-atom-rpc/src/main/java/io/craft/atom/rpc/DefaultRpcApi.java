@@ -3,27 +3,38 @@ package io.craft.atom.rpc;
 import io.craft.atom.protocol.rpc.model.RpcMethod;
 import io.craft.atom.rpc.api.RpcParameter;
 import io.craft.atom.rpc.spi.RpcApi;
+
+import java.lang.reflect.Method;
+
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import com.esotericsoftware.reflectasm.MethodAccess;
+
 
 /**
+ * An exported api compiles its dispatch at construction, the method access, method index and declared exception types 
+ * are resolved once and reused by every invocation.
+ * 
  * @author mindwind
  * @version 1.0, Aug 12, 2014
  */
-@ToString
+@ToString(exclude = { "methodAccess", "methodIndex", "exceptionTypes" })
 @EqualsAndHashCode(of = "key")
 public final class DefaultRpcApi implements RpcApi, Comparable<RpcApi> {
 	
 	
-	@Getter private String       key         ;
-	@Getter private String       name        ;
-	@Getter private String       rpcId       ;
-	@Getter private Class<?>     rpcInterface;
-	@Getter private RpcMethod    rpcMethod   ;
-	@Getter private Object       rpcObject   ;
-	@Getter private RpcParameter rpcParameter;
+	@Getter private String       key           ;
+	@Getter private String       name          ;
+	@Getter private String       rpcId         ;
+	@Getter private Class<?>     rpcInterface  ;
+	@Getter private RpcMethod    rpcMethod     ;
+	@Getter private Object       rpcObject     ;
+	@Getter private RpcParameter rpcParameter  ;
+	@Getter private MethodAccess methodAccess  ;
+	@Getter private int          methodIndex   ;
+	@Getter private Class<?>[]   exceptionTypes;
 	
 	
 	// ~ ------------------------------------------------------------------------------------------------------------
@@ -45,6 +56,7 @@ public final class DefaultRpcApi implements RpcApi, Comparable<RpcApi> {
 		this.rpcParameter = rpcParameter;
 		this.key          = key()       ;
 		this.name         = name()      ;
+		compile();
 	}
 	
 	
@@ -59,6 +71,40 @@ public final class DefaultRpcApi implements RpcApi, Comparable<RpcApi> {
 		}
 	}
 
+	private void compile() {
+		Method method;
+		try {
+			method = rpcInterface.getMethod(rpcMethod.getName(), rpcMethod.getParameterTypes());
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("No rpc method of interface, |api=" + name + "|", e);
+		}
+		this.methodAccess   = MethodAccess.get(rpcInterface);
+		this.methodIndex    = methodAccess.getIndex(rpcMethod.getName(), rpcMethod.getParameterTypes());
+		this.exceptionTypes = method.getExceptionTypes();
+	}
+	
+	/**
+	 * Invokes the rpc object with compiled dispatch, exception thrown by the rpc object is thrown as it is.
+	 * 
+	 * @param  params
+	 * @return return object of the invocation.
+	 */
+	public Object invoke(Object[] params) {
+		return methodAccess.invoke(rpcObject, methodIndex, params);
+	}
+	
+	/**
+	 * @param  e
+	 * @return <tt>true</tt> if the exception type is declared by the rpc method.
+	 */
+	public boolean isDeclaredException(Exception e) {
+		Class<?> type = e.getClass();
+		for (Class<?> et : exceptionTypes) {
+			if (et == type) return true;
+		}
+		return false;
+	}
+
 	private String name() {
 		String format = "{rpc-id=%s, rpc-interface=%s, rpc-method-name=%s, rpc-method-parameter-types=%s, rpc-object=%s, rpc-parameter=%s}";
 		return String.format(format, rpcId, rpcInterface.getName(), rpcMethod.getName(), rpcMethod.getParameterTypes(), rpcObject, rpcParameter);
@@ -2,13 +2,19 @@ package io.craft.atom.rpc;
 
 import io.craft.atom.io.Channel;
 import io.craft.atom.io.IllegalChannelStateException;
+import io.craft.atom.protocol.AbstractProtocolDecoder;
 import io.craft.atom.protocol.ProtocolDecoder;
 import io.craft.atom.protocol.ProtocolEncoder;
+import io.craft.atom.protocol.rpc.CompactKryoSerialization;
+import io.craft.atom.protocol.rpc.KryoSerialization;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
 import io.craft.atom.rpc.spi.RpcChannel;
+import io.craft.atom.util.schedule.TimingWheel;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -18,6 +24,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * A client channel keeps the method table and serialization negotiated with the server, 
+ * requests are written with the negotiated serialization. With the default kryo serialization, 
+ * a request of the method in the table is written in compact format which carries only the method id instead of the method.
+ * <p>
+ * Both client and server channels keep the negotiated compression, the server channel takes it from the negotiate response it writes.
+ * Requests and responses are flagged with it and the encoder compresses those above its threshold.
+ * <p>
+ * Futures of outstanding requests are indexed by message id and scheduled on the timeout wheel of the connector, 
+ * a future is removed when its response arrives, it expires or the channel is broken.
+ * Responses and expirations are fed back to the endpoint of a client channel for balancing and ejection.
+ * 
  * @author mindwind
  * @version 1.0, Aug 22, 2014
  */
@@ -28,10 +45,15 @@ public class DefaultRpcChannel implements RpcChannel {
 	private static final Logger LOG = LoggerFactory.getLogger(DefaultRpcChannel.class);
 	
 	
-	@Getter @Setter private ProtocolEncoder<RpcMessage> encoder;
-	@Getter @Setter private ProtocolDecoder<RpcMessage> decoder;
-	@Getter @Setter private Channel<byte[]>             channel;
-	@Getter @Setter private Map<Long, RpcFuture<?>>     futures;
+	@Getter @Setter          private ProtocolEncoder<RpcMessage>        encoder      ;
+	@Getter @Setter          private ProtocolDecoder<RpcMessage>        decoder      ;
+	@Getter @Setter          private Channel<byte[]>                    channel      ;
+	@Getter @Setter          private Map<Long, DefaultRpcFuture<?>>     futures      ;
+	@Getter @Setter          private TimingWheel<DefaultRpcFuture<?>>   timeoutWheel ;
+	@Getter @Setter          private RpcEndpoint                        endpoint     ;
+	@Getter         volatile private Map<String, Integer>               methodTable  ;
+	@Getter         volatile private byte                               serialization;
+	@Getter         volatile private byte                               compression  ;
 	
 	
 	// ~ -------------------------------------------------------------------------------------------------------------
@@ -41,6 +63,7 @@ public class DefaultRpcChannel implements RpcChannel {
 		this.channel = channel;
 		this.encoder = encoder;
 		this.decoder = decoder;
+		this.serialization = KryoSerialization.getInstance().type();
 	}
 	
 	
@@ -50,6 +73,8 @@ public class DefaultRpcChannel implements RpcChannel {
 	@Override
 	public void write(RpcMessage msg) throws RpcException {
 		try {
+			compact(msg);
+			compress(msg);
 			byte[] bytes = encoder.encode(msg);
 			LOG.debug("[CRAFT-ATOM-RPC] Rpc channel write bytes, |length={}, bytes={}, channel={}|", bytes.length, bytes, channel);
 			channel.write(bytes);
@@ -58,6 +83,35 @@ public class DefaultRpcChannel implements RpcChannel {
 		}
 	}
 	
+	private void compact(RpcMessage msg) {
+		if (msg.isHeartbeat() || msg.isResponse()) return;
+		
+		byte st = serialization;
+		if (st != KryoSerialization.getInstance().type()) {
+			msg.getHeader().setSt(st);
+			return;
+		}
+		
+		Map<String, Integer> table = methodTable;
+		if (table == null) return;
+		Integer methodId = table.get(RpcMessages.methodSignature(msg));
+		if (methodId == null) return;
+		msg.getBody().setMethodId(methodId);
+		msg.getHeader().setSt(CompactKryoSerialization.getInstance().type());
+	}
+	
+	private void compress(RpcMessage msg) {
+		if (!msg.isHeartbeat()) {
+			msg.getHeader().setCt(compression);
+			return;
+		}
+		
+		byte ct = RpcMessages.compression(msg);
+		if (msg.isResponse() && ct > 0) {
+			compression = ct;
+		}
+	}
+	
 	@Override
 	public List<RpcMessage> read(byte[] bytes) {
 		LOG.debug("[CRAFT-ATOM-RPC] Rpc channel read bytes, |length={}, bytes={}, channel={}|", bytes.length, bytes, channel);
@@ -77,24 +131,111 @@ public class DefaultRpcChannel implements RpcChannel {
 		return channel.getId();
 	}
 	
-	void setRpcFuture(long mid, RpcFuture<?> future) {
+	/**
+	 * Keeps the future until its response arrives, it expires after the timeout unless the timeout is 0 or <tt>Integer.MAX_VALUE</tt>.
+	 */
+	void setRpcFuture(long mid, DefaultRpcFuture<?> future, int timeoutInMillis) {
+		future.setId(mid);
+		future.setChannel(this);
+		future.setStartNanos(System.nanoTime());
 		futures.put(mid, future);
+		if (timeoutWheel != null && timeoutInMillis > 0 && timeoutInMillis < Integer.MAX_VALUE) {
+			timeoutWheel.add(future, timeoutInMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Removes the future and completes it with a {@link TimeoutException}. 
+	 * It is a failure of the endpoint only if the future is still outstanding, not answered, cancelled or expired already.
+	 */
+	void expire(DefaultRpcFuture<?> future) {
+		unschedule(future);
+		if (futures.remove(future.getId()) == null) return;
+		
+		if (endpoint != null) { endpoint.failure(); }
+		future.setException(new TimeoutException());
+		LOG.debug("[CRAFT-ATOM-RPC] Rpc channel future expired, |mid={}, channel={}|", future.getId(), channel);
+	}
+	
+	/**
+	 * Removes the future, a response arrives later is dropped.
+	 */
+	void remove(DefaultRpcFuture<?> future) {
+		futures.remove(future.getId());
+		unschedule(future);
+	}
+	
+	private void unschedule(DefaultRpcFuture<?> future) {
+		if (timeoutWheel != null) { timeoutWheel.remove(future); }
 	}
 	
 	void notifyRpcMessage(RpcMessage msg) {
-		RpcFuture<?> future = futures.remove(msg.getId());
+		if (msg.isHeartbeat()) {
+			negotiated(msg);
+			return;
+		}
+		
+		DefaultRpcFuture<?> future = futures.remove(msg.getId());
 		if (future == null) return;
+		unschedule(future);
+		feedback(msg, future);
 		future.setResponse(msg);
 	}
 	
+	/**
+	 * Server overload and timeout responses are failures of the endpoint, others are latency samples.
+	 */
+	private void feedback(RpcMessage rsp, DefaultRpcFuture<?> future) {
+		if (endpoint == null) return;
+		
+		Exception e = rsp.getException();
+		if (e instanceof RpcException) {
+			byte code = ((RpcException) e).getCode();
+			if (code == RpcException.SERVER_OVERLOAD || code == RpcException.SERVER_TIMEOUT) {
+				endpoint.failure();
+				return;
+			}
+		}
+		endpoint.success(System.nanoTime() - future.getStartNanos());
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void negotiated(RpcMessage msg) {
+		Object table = msg.getReturnObject();
+		if (table instanceof Map) {
+			methodTable = (Map<String, Integer>) table;
+		}
+		byte st = RpcMessages.serialization(msg);
+		if (st > 0) {
+			serialization = st;
+		}
+		byte ct = RpcMessages.compression(msg);
+		if (ct > 0) {
+			compression = ct;
+		}
+		LOG.debug("[CRAFT-ATOM-RPC] Rpc channel negotiated, |methodTable={}, serialization={}, compression={}, channel={}|", methodTable, serialization, compression, channel);
+	}
+	
 	void notifyRpcException(Exception e) {
-		for (RpcFuture<?> future : futures.values()) {
+		for (DefaultRpcFuture<?> future : futures.values()) {
+			futures.remove(future.getId());
+			unschedule(future);
 			future.setException(e);
 		}
 	}
 	
-	int waitCount() {
-		return channel.getWriteQueue().size();
+	/**
+	 * @return count of outstanding requests which wait for responses.
+	 */
+	int pendingCount() {
+		return futures.size();
+	}
+	
+	int footprint() {
+		if (decoder instanceof AbstractProtocolDecoder) {
+			return ((AbstractProtocolDecoder) decoder).footprint();
+		}
+		return 0;
 	}
 
 }
@@ -1,13 +1,19 @@
 package io.craft.atom.rpc;
 
+import io.craft.atom.protocol.rpc.KryoSerialization;
 import io.craft.atom.rpc.api.RpcClient;
 import io.craft.atom.rpc.api.RpcClientX;
+import io.craft.atom.rpc.spi.RpcBalancer;
 import io.craft.atom.rpc.spi.RpcConnector;
 import io.craft.atom.rpc.spi.RpcInvoker;
 import io.craft.atom.rpc.spi.RpcProtocol;
 import io.craft.atom.rpc.spi.RpcProxyFactory;
 
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -25,16 +31,21 @@ public class DefaultRpcClient implements RpcClient {
 	private static final Logger LOG = LoggerFactory.getLogger(DefaultRpcClient.class);
 
 	
-	@Getter @Setter private String          host                  ;
-	@Getter @Setter private int             port                  ;
-	@Getter @Setter private int             connections           ;
-	@Getter @Setter private int             heartbeatInMillis     ;
-	@Getter @Setter private int             connectTimeoutInMillis;
-	@Getter @Setter private int             rpcTimeoutInMillis    ;
-	@Getter @Setter private RpcConnector    connector             ; 
-	@Getter @Setter private RpcProtocol     protocol              ;
-	@Getter @Setter private RpcProxyFactory proxyFactory          ;
-	@Getter @Setter private RpcInvoker      invoker               ;
+	@Getter @Setter private String              host                  ;
+	@Getter @Setter private int                 port                  ;
+	@Getter @Setter private List<SocketAddress> addresses             ;
+	@Getter @Setter private int                 connections           ;
+	@Getter @Setter private int                 heartbeatInMillis     ;
+	@Getter @Setter private int                 connectTimeoutInMillis;
+	@Getter @Setter private int                 rpcTimeoutInMillis    ;
+	@Getter @Setter private byte                serialization         ;
+	@Getter @Setter private byte                compression           ;
+	@Getter @Setter private Executor            callbackExecutor      ;
+	@Getter @Setter private RpcConnector        connector             ;
+	@Getter @Setter private RpcProtocol         protocol              ;
+	@Getter @Setter private RpcProxyFactory     proxyFactory          ;
+	@Getter @Setter private RpcInvoker          invoker               ;
+	@Getter @Setter private RpcBalancer         balancer              ;
 	
 	
 	// ~ -------------------------------------------------------------------------------------------------------------
@@ -48,19 +59,36 @@ public class DefaultRpcClient implements RpcClient {
 		connectTimeoutInMillis = Integer.MAX_VALUE            ;
 		rpcTimeoutInMillis     = Integer.MAX_VALUE            ;
 		connections            = 1                            ;
+		addresses              = new ArrayList<SocketAddress>();
+		balancer               = new RoundRobinRpcBalancer()  ;
+		serialization          = KryoSerialization.getInstance().type();
 	}
 	
 	public void init() {
 		connector   .setProtocol(protocol);
-		connector   .setAddress(new InetSocketAddress(host, port));
+		connector   .setAddresses(servers());
+		connector   .setBalancer(balancer);
 		connector   .setHeartbeatInMillis(heartbeatInMillis);
 		connector   .setConnectTimeoutInMillis(connectTimeoutInMillis);
 		connector   .setRpcTimeoutInMillis(rpcTimeoutInMillis);
+		connector   .setSerialization(serialization);
+		connector   .setCompression(compression);
+		connector   .setCallbackExecutor(callbackExecutor);
 		invoker     .setConnector(connector);
 		proxyFactory.setInvoker(invoker);
 		LOG.debug("[CRAFT-ATOM-RPC] Rpc client init complete.");
 	}
 	
+	/**
+	 * @return the server of host and port followed by other server addresses.
+	 */
+	private List<SocketAddress> servers() {
+		List<SocketAddress> servers = new ArrayList<SocketAddress>();
+		if (host != null) servers.add(new InetSocketAddress(host, port));
+		servers.addAll(addresses);
+		return servers;
+	}
+	
 	
 	// ~ -------------------------------------------------------------------------------------------------------------
 	
@@ -69,12 +97,19 @@ public class DefaultRpcClient implements RpcClient {
 	public <T> T refer(Class<T> rpcInterface) {
 		return proxyFactory.getProxy(rpcInterface);
 	}
+	
+	@Override
+	public <A> A refer(Class<?> rpcInterface, Class<A> asyncInterface) {
+		return proxyFactory.getAsyncProxy(rpcInterface, asyncInterface);
+	}
 
 	@Override
 	public void open() throws RpcException {
 		if (connections < 1) throw new IllegalStateException("Client connections configuration should >= 1");
-		for (int i = 0; i < connections; i++) {
-			connector.connect();
+		for (SocketAddress address : servers()) {
+			for (int i = 0; i < connections; i++) {
+				connector.connect(address);
+			}
 		}
 		LOG.debug("[CRAFT-ATOM-RPC] Rpc client open.");
 	}
@@ -89,6 +124,8 @@ public class DefaultRpcClient implements RpcClient {
 	public RpcClientX x() {
 		DefaultRpcClientX x = new DefaultRpcClientX();
 		x.setWaitCount(connector.waitCount());
+		x.setFootprint(connector.footprint());
+		x.setPendingCounts(connector.pendingCounts());
 		return x;
 	}
 
@@ -1,6 +1,9 @@
 package io.craft.atom.rpc;
 
 import io.craft.atom.rpc.api.RpcClientX;
+
+import java.util.Map;
+
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -14,11 +17,23 @@ import lombok.ToString;
 public class DefaultRpcClientX implements RpcClientX {
 	
 	
-	@Getter @Setter private int waitCount;
+	@Getter @Setter private int                waitCount    ;
+	@Getter @Setter private long               footprint    ;
+	@Getter @Setter private Map<Long, Integer> pendingCounts;
 	
 	@Override
 	public int waitCount() {
 		return waitCount;
 	}
+	
+	@Override
+	public long footprint() {
+		return footprint;
+	}
+	
+	@Override
+	public Map<Long, Integer> pendingCounts() {
+		return pendingCounts;
+	}
 
 }
@@ -1,24 +1,33 @@
 package io.craft.atom.rpc;
 import io.craft.atom.io.Channel;
+import io.craft.atom.io.IoConnectListener;
 import io.craft.atom.io.IoConnector;
 import io.craft.atom.io.IoHandler;
 import io.craft.atom.nio.NioOrderedDirectChannelEventDispatcher;
 import io.craft.atom.nio.api.NioFactory;
+import io.craft.atom.protocol.rpc.KryoSerialization;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
 import io.craft.atom.rpc.api.RpcContext;
+import io.craft.atom.rpc.spi.RpcBalancer;
 import io.craft.atom.rpc.spi.RpcChannel;
 import io.craft.atom.rpc.spi.RpcConnector;
 import io.craft.atom.rpc.spi.RpcProtocol;
+import io.craft.atom.util.schedule.ExpirationListener;
+import io.craft.atom.util.schedule.TimingWheel;
 import io.craft.atom.util.thread.NamedThreadFactory;
 
 import java.io.IOException;
 import java.net.SocketAddress;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -30,27 +39,43 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * The connector expires request futures of all its connections on one timing wheel, 
+ * so an expired future is completed and removed even if nobody waits for it.
+ * <p>
+ * The connector may connect to multiple servers, each server is an {@link RpcEndpoint} with a copy-on-write snapshot of its connections.
+ * A request is sent on a connection of the endpoint selected by the {@link RpcBalancer}, 
+ * if all connected endpoints are ejected, the ejection is ignored rather than failing the request.
+ * A broken connection ejects its endpoint until it is reconnected or the reconnect delay elapses.
+ * 
  * @author mindwind
  * @version 1.0, Aug 15, 2014
  */
 public class DefaultRpcConnector implements RpcConnector {
 	
 	
-	private static final Logger LOG = LoggerFactory.getLogger(DefaultRpcConnector.class);
+	private static final Logger LOG           = LoggerFactory.getLogger(DefaultRpcConnector.class);
+	private static final int    TIMEOUT_TICK  = 10                                               ;
+	private static final int    TIMEOUT_TICKS = 100                                              ;
 	
 	
-	@Getter @Setter private int                          connectTimeoutInMillis;
-	@Getter @Setter private int                          rpcTimeoutInMillis    ;
-	@Getter         private int                          heartbeatInMillis     ;
-	@Getter @Setter private int                          reconnectDelay        ;
-	@Getter @Setter private boolean                      allowReconnect        ;
-	@Getter         private SocketAddress                address               ;
-	@Getter @Setter private Map<Long, DefaultRpcChannel> channels              ;
-	@Getter @Setter private IoHandler                    ioHandler             ;
-	@Getter @Setter private IoConnector                  ioConnector           ;
-	@Getter @Setter private ScheduledExecutorService     hbScheduler           ;
-	@Getter @Setter private ExecutorService              reconnectExecutor     ;
-	@Getter         private RpcProtocol                  protocol              ;            
+	@Getter @Setter private int                              connectTimeoutInMillis;
+	@Getter @Setter private int                              rpcTimeoutInMillis    ;
+	@Getter         private int                              heartbeatInMillis     ;
+	@Getter         private int                              reconnectDelay        ;
+	@Getter @Setter private boolean                          allowReconnect        ;
+	@Getter         private SocketAddress                    address               ;
+	@Getter         private RpcEndpoint[]                    endpoints             ;
+	@Getter @Setter private RpcBalancer                      balancer              ;
+	@Getter @Setter private Map<Long, DefaultRpcChannel>     channels              ;
+	@Getter @Setter private IoHandler                        ioHandler             ;
+	@Getter @Setter private IoConnector                      ioConnector           ;
+	@Getter @Setter private ScheduledExecutorService         hbScheduler           ;
+	@Getter @Setter private ScheduledExecutorService         reconnectExecutor     ;
+	@Getter         private RpcProtocol                      protocol              ;
+	@Getter @Setter private byte                             serialization         ;
+	@Getter @Setter private byte                             compression           ;
+	@Getter @Setter private TimingWheel<DefaultRpcFuture<?>> timeoutWheel          ;
+	@Getter @Setter private Executor                         callbackExecutor      ;
 	
 	
 	// ~ ------------------------------------------------------------------------------------------------------------
@@ -62,8 +87,19 @@ public class DefaultRpcConnector implements RpcConnector {
 		connectTimeoutInMillis = Integer.MAX_VALUE;
 		rpcTimeoutInMillis     = Integer.MAX_VALUE;
 		heartbeatInMillis      = 0;
+		serialization          = KryoSerialization.getInstance().type();
 		reconnectExecutor      = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("craft-atom-rpc-connector-reconnect"));
 		channels               = new ConcurrentHashMap<Long, DefaultRpcChannel>();
+		endpoints              = new RpcEndpoint[0];
+		balancer               = new RoundRobinRpcBalancer();
+		timeoutWheel           = new TimingWheel<DefaultRpcFuture<?>>(TIMEOUT_TICK, TIMEOUT_TICKS, TimeUnit.MILLISECONDS);
+		timeoutWheel.addExpirationListener(new ExpirationListener<DefaultRpcFuture<?>>() {
+			@Override
+			public void expired(DefaultRpcFuture<?> future) {
+				future.getChannel().expire(future);
+			}
+		});
+		timeoutWheel.start();
 		ioHandler              = new RpcClientIoHandler(this);
 		ioConnector            = NioFactory.newTcpConnectorBuilder(ioHandler)
 						                   .connectTimeoutInMillis(connectTimeoutInMillis)
@@ -75,31 +111,76 @@ public class DefaultRpcConnector implements RpcConnector {
 	// ~ ------------------------------------------------------------------------------------------------------------
 
 	
+	/**
+	 * Connects to the endpoint with the fewest connections.
+	 */
 	@Override
 	public long connect() throws RpcException {
+		RpcEndpoint fewest = null;
+		for (RpcEndpoint ep : endpoints) {
+			if (fewest == null || ep.connectionCount() < fewest.connectionCount()) fewest = ep;
+		}
+		if (fewest == null) throw new IllegalStateException("No address to connect");
+		return connect(fewest);
+	}
+	
+	@Override
+	public long connect(SocketAddress address) throws RpcException {
+		for (RpcEndpoint ep : endpoints) {
+			if (ep.getAddress().equals(address)) return connect(ep);
+		}
+		throw new IllegalArgumentException("Unknown address, |address=" + address + "|");
+	}
+	
+	private long connect(RpcEndpoint endpoint) throws RpcException {
 		try {
-			Future<Channel<byte[]>> future = ioConnector.connect(address);
+			Future<Channel<byte[]>> future = ioConnector.connect(endpoint.getAddress());
 			Channel<byte[]> channel = future.get(connectTimeoutInMillis, TimeUnit.MILLISECONDS);
-			DefaultRpcChannel rpcChannel = new DefaultRpcChannel(channel, protocol.getRpcEncoder(), protocol.getRpcDecoder());
-			rpcChannel.setFutures(new ConcurrentHashMap<Long, RpcFuture<?>>());
-			channel.setAttribute(RpcIoHandler.RPC_CHANNEL, rpcChannel);
-			long id = channel.getId();
-			channels.put(id, rpcChannel);
-			LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector established connection, |channel={}|.", rpcChannel);
-			return id;
+			return established(endpoint, channel);
 		} catch (TimeoutException e) {
 			throw new RpcException(RpcException.CLIENT_TIMEOUT, "client timeout", e);
 		} catch (IOException e) {
 			throw new RpcException(RpcException.NETWORK, "network error", e);
+		} catch (ExecutionException e) {
+			// like a refused connection
+			if (e.getCause() instanceof IOException) throw new RpcException(RpcException.NETWORK, "network error", e.getCause());
+			throw new RpcException(RpcException.UNKNOWN, "unknown error", e);
 		} catch (Exception e) {
 			throw new RpcException(RpcException.UNKNOWN, "unknown error", e);
 		}
 	}
 
+	private long established(RpcEndpoint endpoint, Channel<byte[]> channel) {
+		DefaultRpcChannel rpcChannel = new DefaultRpcChannel(channel, protocol.getRpcEncoder(), protocol.getRpcDecoder());
+		rpcChannel.setFutures(new ConcurrentHashMap<Long, DefaultRpcFuture<?>>());
+		rpcChannel.setTimeoutWheel(timeoutWheel);
+		rpcChannel.setEndpoint(endpoint);
+		channel.setAttribute(RpcIoHandler.RPC_CHANNEL, rpcChannel);
+		long id = channel.getId();
+		channels.put(id, rpcChannel);
+		endpoint.add(rpcChannel);
+		negotiate(rpcChannel);
+		LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector established connection, |channel={}|.", rpcChannel);
+		return id;
+	}
+
+	/**
+	 * Asks the server for its method table, the preferred serialization and compression, 
+	 * requests use full format of default serialization without compression until the server answers.
+	 */
+	private void negotiate(DefaultRpcChannel channel) {
+		try {
+			channel.write(RpcMessages.newNegotiateRequestRpcMessage(serialization, compression));
+		} catch (Exception e) {
+			LOG.warn("[CRAFT-ATOM-RPC] Rpc client connector negotiate error", e);
+		}
+	}
+	
 	@Override
 	public boolean disconnect(long connectionId) {
 		DefaultRpcChannel channel = channels.remove(connectionId);
 		if (channel != null) {
+			channel.getEndpoint().remove(channel);
 			channel.close();
 			return true;
 		}
@@ -112,23 +193,25 @@ public class DefaultRpcConnector implements RpcConnector {
 		channels.clear();
 		ioConnector.shutdown();
 		reconnectExecutor.shutdownNow();
+		timeoutWheel.stop();
 		if (hbScheduler != null) { hbScheduler.shutdownNow(); }
 	}
 	
 	@Override
 	public RpcMessage send(RpcMessage req, boolean async) throws RpcException {
 		long mid = req.getId();
-		DefaultRpcChannel channel = select(mid);
+		DefaultRpcChannel channel = select(req);
 		if (channel == null) throw new RpcException(RpcException.NETWORK, "network error");
 		
 		try {
 			boolean oneway = req.isOneway();
-			RpcFuture<Object> future = null;
+			DefaultRpcFuture<Object> future = null;
 			if (!oneway) {
 				future = new DefaultRpcFuture<Object>();
-				channel.setRpcFuture(mid, future);
+				future.setExecutor(callbackExecutor);
+				channel.setRpcFuture(mid, future, req.getRpcTimeoutInMillis());
 			 }
-			channel.write(req);
+			write(channel, req, future);
 			
 			// One way request, client does not expect response
 			if (oneway) { return null; }
@@ -138,8 +221,8 @@ public class DefaultRpcConnector implements RpcConnector {
 				RpcContext.getContext().setFuture(future);
 				return null;
 			} else {
-				// sync and wait response
-				future.await(req.getRpcTimeoutInMillis(), TimeUnit.MILLISECONDS);
+				// sync and wait response, the timeout wheel adds tick slack so the wait usually times out first and expires the future
+				if (!future.await(req.getRpcTimeoutInMillis(), TimeUnit.MILLISECONDS)) { channel.expire(future); }
 				return future.getResponse();
 			}
 		} catch (RpcException e) {
@@ -153,47 +236,110 @@ public class DefaultRpcConnector implements RpcConnector {
 		}
 	}
 	
+	/**
+	 * The future of a request failed to write is removed, it would never be completed or would expire as a failure of the endpoint.
+	 */
+	private void write(DefaultRpcChannel channel, RpcMessage req, DefaultRpcFuture<Object> future) {
+		try {
+			channel.write(req);
+		} catch (RuntimeException e) {
+			if (future != null) { channel.remove(future); }
+			throw e;
+		}
+	}
+	
+	/**
+	 * Ejects the endpoint of the broken connection and reconnects to it, 
+	 * retries are scheduled by the reconnect delay and completed by the connector listener, 
+	 * so an unreachable endpoint never holds back reconnects to others.
+	 */
 	void reconnect(final long connectionId) {
-		if (!disconnect(connectionId)) return;
+		DefaultRpcChannel channel = channels.get(connectionId);
+		if (channel == null || !disconnect(connectionId)) return;
 		
-		reconnectExecutor.execute(new Runnable() {
-			
+		RpcEndpoint endpoint = channel.getEndpoint();
+		endpoint.eject();
+		reconnect(endpoint, 0);
+	}
+	
+	private void reconnect(final RpcEndpoint endpoint, long delayInMillis) {
+		schedule(new Runnable() {
 			@Override
 			public void run() {
-				while (!retryConnect()) {
-					try { Thread.sleep(reconnectDelay); } catch (InterruptedException e) {}
+				if (!allowReconnect) {
+					reconnect(endpoint, reconnectDelay);
+					return;
 				}
-			}
-			
-			private boolean retryConnect() {
+				
 				try {
-					if (!allowReconnect) return false;
-					long connId = connect();
-					if (connId > 0) {
-						LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector reconnect success, |connectionId={}|", connId);
-						return true;
-					} else {
-						LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector reconnect fail");
-						return false;
-					}
+					ioConnector.connect(endpoint.getAddress(), new IoConnectListener() {
+						@Override
+						public void completed(Future<Channel<byte[]>> future) {
+							reconnected(endpoint, future);
+						}
+					});
 				} catch (Exception e) {
-					return false;
+					LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector reconnect fail, |endpoint={}|", endpoint, e);
+					reconnect(endpoint, reconnectDelay);
 				}
 			}
-		});
+		}, delayInMillis);
+	}
+	
+	private void reconnected(RpcEndpoint endpoint, Future<Channel<byte[]>> future) {
+		try {
+			long connId = established(endpoint, future.get());
+			endpoint.readmit();
+			LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector reconnect success, |connectionId={}, endpoint={}|", connId, endpoint);
+		} catch (Exception e) {
+			LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector reconnect fail, |endpoint={}|", endpoint, e);
+			reconnect(endpoint, reconnectDelay);
+		}
 	}
 	
-	private DefaultRpcChannel select(long id) {
-		Collection<DefaultRpcChannel> collection = channels.values();
-		Object[] chs = collection.toArray();
-		if (chs.length == 0) return null;
-		int i = (int) (Math.abs(id) % chs.length);
-		return (DefaultRpcChannel) chs[i];
+	private void schedule(Runnable task, long delayInMillis) {
+		try {
+			reconnectExecutor.schedule(task, delayInMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			LOG.debug("[CRAFT-ATOM-RPC] Rpc client connector reconnect rejected, connector is closed");
+		}
+	}
+	
+	private DefaultRpcChannel select(RpcMessage req) {
+		RpcEndpoint[] eps = endpoints;
+		RpcEndpoint   ep  = eps.length == 0 ? null : balancer.select(eps, req);
+		if (ep == null) {
+			// all connected endpoints are ejected, ignore the ejection
+			for (RpcEndpoint e : eps) {
+				if (e.isConnected()) { ep = e; break; }
+			}
+		}
+		return ep == null ? null : ep.select(req.getId());
 	}
 
 	@Override
 	public void setAddress(SocketAddress address) {
-		this.address = address;
+		setAddresses(Collections.singletonList(address));
+	}
+	
+	@Override
+	public void setAddresses(List<SocketAddress> addresses) {
+		RpcEndpoint[] eps = new RpcEndpoint[addresses.size()];
+		for (int i = 0; i < eps.length; i++) {
+			eps[i] = new RpcEndpoint(addresses.get(i), reconnectDelay);
+		}
+		this.address   = eps.length == 0 ? null : eps[0].getAddress();
+		this.endpoints = eps;
+	}
+	
+	/**
+	 * The reconnect delay is also the ejection time of endpoints.
+	 */
+	public void setReconnectDelay(int reconnectDelay) {
+		this.reconnectDelay = reconnectDelay;
+		for (RpcEndpoint ep : endpoints) {
+			ep.setEjectionInMillis(reconnectDelay);
+		}
 	}
 
 	@Override
@@ -235,11 +381,29 @@ public class DefaultRpcConnector implements RpcConnector {
 	public int waitCount() {
 		int wc = 0;
 		for (DefaultRpcChannel ch : channels.values()) {
-			wc += ch.waitCount();
+			wc += ch.pendingCount();
 		}
 		return wc;
 	}
 	
+	@Override
+	public Map<Long, Integer> pendingCounts() {
+		Map<Long, Integer> counts = new HashMap<Long, Integer>();
+		for (Map.Entry<Long, DefaultRpcChannel> entry : channels.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().pendingCount());
+		}
+		return counts;
+	}
+	
+	@Override
+	public long footprint() {
+		long fp = 0;
+		for (DefaultRpcChannel ch : channels.values()) {
+			fp += ch.footprint();
+		}
+		return fp;
+	}
+	
 	
 	// ~ ----------------------------------------------------------------------------------------------------- for test
 	
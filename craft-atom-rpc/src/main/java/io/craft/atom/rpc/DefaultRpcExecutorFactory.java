@@ -7,8 +7,7 @@ import io.craft.atom.rpc.spi.RpcRegistry;
 import io.craft.atom.util.thread.MonitoringExecutorService;
 import io.craft.atom.util.thread.NamedThreadFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -17,22 +16,17 @@ import lombok.Setter;
 
 
 /**
+ * Executors are kept in a flat array indexed by method id of their apis, 
+ * the array is copied on write so getting an existing executor takes no lock.
+ * 
  * @author mindwind
  * @version 1.0, Aug 12, 2014
  */
 public class DefaultRpcExecutorFactory implements RpcExecutorFactory {
 
 	
-	@Getter @Setter private RpcRegistry                            registry;
-	@Getter @Setter private Map<String, MonitoringExecutorService> pool    ;
-	
-	
-	// ~ ------------------------------------------------------------------------------------------------------------
-	
-	
-	public DefaultRpcExecutorFactory() {
-		this.pool = new ConcurrentHashMap<String, MonitoringExecutorService>();
-	}
+	@Getter @Setter private          RpcRegistry                 registry ;
+	                private volatile MonitoringExecutorService[] executors = new MonitoringExecutorService[1];
 	
 	
 	// ~ ------------------------------------------------------------------------------------------------------------
@@ -40,36 +34,49 @@ public class DefaultRpcExecutorFactory implements RpcExecutorFactory {
 	
 	@Override
 	public MonitoringExecutorService getExecutor(RpcApi api) {
-		return getExecutor0(api);
+		int methodId = registry.methodId(api.getId(), api.getInterface(), api.getMethodName(), api.getMethodParameterTypes());
+		return getExecutor(methodId);
 	}
 	
-	private MonitoringExecutorService getExecutor0(RpcApi queryApi) {
-		String key = queryApi.getKey();
-		MonitoringExecutorService es = pool.get(key);
+	@Override
+	public MonitoringExecutorService getExecutor(int methodId) {
+		MonitoringExecutorService es = get(executors, methodId);
 		if (es == null) {
 			synchronized (this) {
+				es = get(executors, methodId);
 				if (es == null) {
-					RpcApi api = registry.lookup(queryApi);
-					if (api == null) { throw new RpcException(RpcException.SERVER_ERROR, "No exported api mapping"); } 
-					
-					RpcParameter parameter = api.getRpcParameter();
-					int          threads   = parameter.getRpcThreads() == 0 ? 1 : parameter.getRpcThreads();
-					int          queues    = parameter.getRpcQueues()  == 0 ? 1 : parameter.getRpcQueues() ;
-					RpcThreadPoolExecutor tpe = new RpcThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(queues), new NamedThreadFactory("craft-atom-rpc"));
-					tpe.allowCoreThreadTimeOut(true);
-					es = tpe;
-					pool.put(key, tpe);
+					es = newExecutor(methodId);
+					MonitoringExecutorService[] copy = Arrays.copyOf(executors, Math.max(executors.length, methodId + 1));
+					copy[methodId] = es;
+					executors = copy;
 				}
 			}
 		}
 		return es;
 	}
+	
+	private MonitoringExecutorService get(MonitoringExecutorService[] array, int methodId) {
+		return methodId > 0 && methodId < array.length ? array[methodId] : null;
+	}
+	
+	private MonitoringExecutorService newExecutor(int methodId) {
+		RpcApi api = registry.lookup(methodId);
+		if (api == null) { throw new RpcException(RpcException.SERVER_ERROR, "No exported api mapping"); } 
+		
+		RpcParameter parameter = api.getRpcParameter();
+		int          threads   = parameter.getRpcThreads() == 0 ? 1 : parameter.getRpcThreads();
+		int          queues    = parameter.getRpcQueues()  == 0 ? 1 : parameter.getRpcQueues() ;
+		RpcThreadPoolExecutor tpe = new RpcThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(queues), new NamedThreadFactory("craft-atom-rpc"));
+		tpe.allowCoreThreadTimeOut(true);
+		tpe.setLimiter(parameter.isRpcAdaptive() ? new RpcLimiter(threads, 1, threads + queues) : new RpcLimiter(threads + queues));
+		return tpe;
+	}
 
 
 	@Override
 	public void shutdown() {
-		for (MonitoringExecutorService mes : pool.values()) {
-			mes.shutdownNow();
+		for (MonitoringExecutorService mes : executors) {
+			if (mes != null) { mes.shutdownNow(); }
 		}
 	}
 
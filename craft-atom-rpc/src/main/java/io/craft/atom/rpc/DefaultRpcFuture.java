@@ -3,27 +3,49 @@ package io.craft.atom.rpc;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import lombok.Getter;
+import lombok.Setter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 
 /**
+ * A future of request has the message id and the channel it is written to, so it can be removed from the channel when it expires
+ * or it is cancelled.
+ *
  * @author mindwind
  * @version 1.0, Aug 19, 2014
  */
 public class DefaultRpcFuture<V> implements RpcFuture<V> {
-	
-	
-	private volatile RpcMessage response ;
-	private volatile Exception  exception;
-	private volatile boolean    done     ;
-	private volatile int        waiters  ;
-	
-	 
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultRpcFuture.class);
+
+
+	                private volatile RpcMessage                 response  ;
+	                private volatile Exception                  exception ;
+	                private volatile boolean                    done      ;
+	                private volatile boolean                    cancelled ;
+	                private volatile int                        waiters   ;
+	                private          List<RpcFutureListener<V>> listeners ;
+	@Getter @Setter private          long                       id        ;
+	@Getter @Setter private          long                       startNanos;
+	@Getter @Setter private          DefaultRpcChannel          channel   ;
+	@Getter @Setter private          Executor                   executor  ;
+
+
 	// ~ ------------------------------------------------------------------------------------------------------------
-	
-	
+
+
 	@Override
 	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
 		long timeoutMillis = unit.toMillis(timeout);
@@ -65,28 +87,71 @@ public class DefaultRpcFuture<V> implements RpcFuture<V> {
 
 	@Override
 	public void setException(Exception exception) {
-		synchronized (this) {
-			if (done) return;
-			this.exception = exception;
-			done = true;
-			if (waiters > 0) {
-                notifyAll();
-            }
-		}
+		notifyListeners(complete(null, exception));
 	}
 
 	@Override
 	public void setResponse(RpcMessage response) {
+		notifyListeners(complete(response, null));
+	}
+
+	/**
+	 * @return listeners to be notified, or <code>null</code> if the future is already completed.
+	 */
+	private synchronized List<RpcFutureListener<V>> complete(RpcMessage response, Exception exception) {
+		if (done) return null;
+		this.response  = response;
+		this.exception = exception;
+		done = true;
+		if (waiters > 0) {
+			notifyAll();
+		}
+		List<RpcFutureListener<V>> l = listeners;
+		listeners = null;
+		return l == null ? new ArrayList<RpcFutureListener<V>>(0) : l;
+	}
+
+	@Override
+	public void addListener(RpcFutureListener<V> listener) {
 		synchronized (this) {
-			if (done) return;
-			this.response = response;
-			done = true;
-			if (waiters > 0) {
-                notifyAll();
-            }
+			if (!done) {
+				if (listeners == null) { listeners = new ArrayList<RpcFutureListener<V>>(1); }
+				listeners.add(listener);
+				return;
+			}
 		}
+		notifyListener(listener);
+	}
+
+	private void notifyListeners(List<RpcFutureListener<V>> l) {
+		if (l == null) return;
+		for (RpcFutureListener<V> listener : l) {
+			notifyListener(listener);
+		}
+	}
+
+	private void notifyListener(final RpcFutureListener<V> listener) {
+		if (executor == null) {
+			notifyListener0(listener);
+			return;
+		}
+
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				notifyListener0(listener);
+			}
+		});
 	}
-	
+
+	private void notifyListener0(RpcFutureListener<V> listener) {
+		try {
+			listener.completed(this);
+		} catch (Exception e) {
+			LOG.warn("[CRAFT-ATOM-RPC] Rpc future listener error, |listener={}|", listener, e);
+		}
+	}
+
 	@Override
 	public V get() throws InterruptedException, ExecutionException {
 		try { return get(Long.MAX_VALUE, TimeUnit.DAYS); } catch (TimeoutException e) { throw new InterruptedException(e.getMessage()); }
@@ -96,6 +161,7 @@ public class DefaultRpcFuture<V> implements RpcFuture<V> {
 	@Override
 	public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
 		await(timeout, unit);
+		if (cancelled) throw new CancellationException();
 		try {
 			RpcMessage rsp = getResponse();
 			return (V) RpcMessages.unpackResponseMessage(rsp);
@@ -104,14 +170,25 @@ public class DefaultRpcFuture<V> implements RpcFuture<V> {
 		}
 	}
 
+	/**
+	 * Cancels the future if it is not completed, the request is removed from its channel but the server may still process it.
+	 */
 	@Override
 	public boolean cancel(boolean mayInterruptIfRunning) {
-		return false;
+		List<RpcFutureListener<V>> l;
+		synchronized (this) {
+			if (done) return false;
+			cancelled = true;
+			l = complete(null, new CancellationException());
+		}
+		if (channel != null) { channel.remove(this); }
+		notifyListeners(l);
+		return true;
 	}
 
 	@Override
 	public boolean isCancelled() {
-		return false;
+		return cancelled;
 	}
 
 	@Override
@@ -1,23 +1,24 @@
 package io.craft.atom.rpc;
 
+import io.craft.atom.protocol.rpc.api.CompressionRegistry;
+import io.craft.atom.protocol.rpc.api.SerializationRegistry;
+import io.craft.atom.protocol.rpc.model.RpcBody;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
 import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.rpc.api.RpcParameter;
 import io.craft.atom.rpc.spi.RpcApi;
 import io.craft.atom.rpc.spi.RpcChannel;
 import io.craft.atom.rpc.spi.RpcExecutorFactory;
 import io.craft.atom.rpc.spi.RpcInvoker;
 import io.craft.atom.rpc.spi.RpcProcessor;
+import io.craft.atom.rpc.spi.RpcRegistry;
+import io.craft.atom.util.schedule.ExpirationListener;
+import io.craft.atom.util.schedule.TimingWheel;
 import io.craft.atom.util.thread.MonitoringExecutorService;
-import io.craft.atom.util.thread.NamedThreadFactory;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -26,25 +27,39 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * A request is invoked on one worker thread of its api executor. 
+ * The rpc timeout counts from the request is received, a timing wheel writes back <tt>SERVER_TIMEOUT</tt> when it expires 
+ * and the invocation is abandoned, its late result is dropped and a request still in queue is not invoked at all.
+ * 
  * @author mindwind
  * @version 1.0, Aug 7, 2014
  */
 public class DefaultRpcProcessor implements RpcProcessor {
 	
 	
-	private static final Logger LOG = LoggerFactory.getLogger(DefaultRpcProcessor.class);
+	private static final Logger LOG           = LoggerFactory.getLogger(DefaultRpcProcessor.class);
+	private static final int    TIMEOUT_TICK  = 10                                                 ;
+	private static final int    TIMEOUT_TICKS = 100                                                ;
 		
 	
-	@Getter @Setter private RpcInvoker         invoker        ;
-	@Getter @Setter private RpcExecutorFactory executorFactory;
-	@Getter @Setter private ExecutorService    timeoutExecutor;
+	@Getter @Setter private RpcInvoker               invoker        ;
+	@Getter @Setter private RpcExecutorFactory       executorFactory;
+	@Getter @Setter private RpcRegistry              registry       ;
+	                private TimingWheel<ProcessTask> timeoutWheel   ;
 	
 	
 	// ~ -------------------------------------------------------------------------------------------------------------
 	
 	
 	public DefaultRpcProcessor() {
-		this.timeoutExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("craft-atom-rpc-timeout"));
+		this.timeoutWheel = new TimingWheel<ProcessTask>(TIMEOUT_TICK, TIMEOUT_TICKS, TimeUnit.MILLISECONDS);
+		this.timeoutWheel.addExpirationListener(new ExpirationListener<ProcessTask>() {
+			@Override
+			public void expired(ProcessTask task) {
+				task.timeout();
+			}
+		});
+		this.timeoutWheel.start();
 	}
 	
 	
@@ -55,55 +70,101 @@ public class DefaultRpcProcessor implements RpcProcessor {
 	public void process(RpcMessage req, RpcChannel channel) {
 		if (req == null) return;
 		if (req.isHeartbeat()) { 
-			RpcMessage rsp = RpcMessages.newHbResponseRpcMessage(req.getId());
+			RpcMessage rsp = heartbeat(req);
 			channel.write(rsp);
 			LOG.debug("[CRAFT-ATOM-RPC] Rpc server processor process heartbeat, |hbreq={}, hbrsp={}, channel={}|", req, rsp, channel);
 			return;
 		}
 		
-		RpcApi api = api(req);
 		MonitoringExecutorService executor = null;
+		ProcessTask               task     = null;
 		try {
-			executor = executor(api);
-			executor.execute(new ProcessTask(req, channel));
+			int methodId = resolve(req);
+			executor = executorFactory.getExecutor(methodId);
+			task = new ProcessTask(req, channel, limiter(executor), queueTimeoutInMillis(methodId));
+			schedule(task);
+			executor.execute(task);
 		} catch (RejectedExecutionException e) {
+			if (!task.finish()) return;
 			LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor overload, |executor={}|", executor);
-			channel.write(RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.SERVER_OVERLOAD, "server overload")));
+			write(req, RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.SERVER_OVERLOAD, "server overload")), channel);
 		} catch (RpcException e) {
 			LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor error", e);
-			channel.write(RpcMessages.newRsponseRpcMessage(req.getId(), e));
+			write(req, RpcMessages.newRsponseRpcMessage(req.getId(), e), channel);
 		}
 		LOG.debug("[CRAFT-ATOM-RPC] Rpc server processor process request, |req={}, channel={}, executor={}|", req, channel, executor);
 	}
 
+	private RpcMessage heartbeat(RpcMessage req) {
+		if (registry != null && RpcMessages.isMethodTableRequest(req)) {
+			// accepts the preferred serialization and compression if they are registered
+			byte st = RpcMessages.serialization(req);
+			byte ct = RpcMessages.compression(req);
+			if (SerializationRegistry.getInstance().lookup(st) == null) { st = 0; }
+			if (CompressionRegistry.getInstance().lookup(ct)   == null) { ct = 0; }
+			return RpcMessages.newNegotiateResponseRpcMessage(req.getId(), registry.methodTable(), st, ct);
+		}
+		return RpcMessages.newHbResponseRpcMessage(req.getId());
+	}
+	
+	/**
+	 * Resolves the method id of a compact request to its rpc api, or a request with full method description to its method id.
+	 * The method id is kept in the request body as the handle of its api for the executor and invoker.
+	 */
+	private int resolve(RpcMessage req) {
+		RpcBody body     = req.getBody();
+		int     methodId = body.getMethodId();
+		if (methodId > 0) {
+			RpcApi api = (registry == null ? null : registry.lookup(methodId));
+			if (api == null) { throw new RpcException(RpcException.SERVER_ERROR, "No exported api mapping"); }
+			body.setRpcId(api.getId());
+			body.setRpcInterface(api.getInterface());
+			body.getRpcMethod().setName(api.getMethodName());
+			body.getRpcMethod().setParameterTypes(api.getMethodParameterTypes());
+		} else {
+			RpcMethod rpcMethod = body.getRpcMethod();
+			methodId = (registry == null ? 0 : registry.methodId(body.getRpcId(), body.getRpcInterface(), rpcMethod.getName(), rpcMethod.getParameterTypes()));
+			if (methodId == 0) { throw new RpcException(RpcException.SERVER_ERROR, "No exported api mapping"); }
+			body.setMethodId(methodId);
+		}
+		return methodId;
+	}
+	
+	/**
+	 * Response is written with the serialization of its request, so a compact request gets a compact response.
+	 */
+	private void write(RpcMessage req, RpcMessage rsp, RpcChannel channel) {
+		rsp.getHeader().setSt(req.getHeader().getSt());
+		channel.write(rsp);
+	}
+	
 	private RpcMessage process0(RpcMessage req) {
 		RpcMessage rsp;
 		try {
 			rsp = invoker.invoke(req);
 		} catch (RpcException e) {
 			rsp = RpcMessages.newRsponseRpcMessage(req.getId(), e);
+		} catch (Throwable t) {
+			LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor execute error", t);
+			rsp = RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.SERVER_ERROR, "server error"));
 		}
 		return rsp;
 	}
 	
-	private int rpcTimeoutInMillis(RpcMessage req) {
-		int timeout = req.getRpcTimeoutInMillis();
-		if (timeout == 0) { timeout = Integer.MAX_VALUE; }
-		return timeout;
+	/**
+	 * One way request and request without timeout are not scheduled, nobody waits for their response in time.
+	 */
+	private void schedule(ProcessTask task) {
+		RpcMessage req     = task.req;
+		int        timeout = req.getRpcTimeoutInMillis();
+		if (req.isOneway() || timeout <= 0 || timeout == Integer.MAX_VALUE) return;
+		timeoutWheel.add(task, timeout, TimeUnit.MILLISECONDS);
 	}
 	
 	private MonitoringExecutorService executor(RpcApi api) {
 		return executorFactory.getExecutor(api);
 	}
 	
-	private RpcApi api(RpcMessage msg) {
-		String          rpcId        = msg.getBody().getRpcId(); 
-		RpcMethod       rpcMethod    = msg.getBody().getRpcMethod();
-		Class<?>        rpcInterface = msg.getBody().getRpcInterface();
-		DefaultRpcApi   api          = new DefaultRpcApi(rpcId, rpcInterface, rpcMethod);
-		return api;
-	}
-	
 	@Override
 	public int waitCount(RpcApi api) {
 		return executor(api).waitCount();
@@ -121,6 +182,34 @@ public class DefaultRpcProcessor implements RpcProcessor {
 		return executor(api).completeCount();
 	}
 	
+	@Override
+	public int limit(RpcApi api) {
+		RpcLimiter limiter = limiter(executor(api));
+		return limiter == null ? Integer.MAX_VALUE : limiter.limit();
+	}
+	
+	@Override
+	public int inflightCount(RpcApi api) {
+		RpcLimiter limiter = limiter(executor(api));
+		return limiter == null ? 0 : limiter.inflightCount();
+	}
+	
+	@Override
+	public long rejectCount(RpcApi api) {
+		RpcLimiter limiter = limiter(executor(api));
+		return limiter == null ? 0 : limiter.rejectCount();
+	}
+	
+	private RpcLimiter limiter(MonitoringExecutorService executor) {
+		return executor instanceof RpcThreadPoolExecutor ? ((RpcThreadPoolExecutor) executor).getLimiter() : null;
+	}
+	
+	private int queueTimeoutInMillis(int methodId) {
+		RpcApi       api       = registry.lookup(methodId);
+		RpcParameter parameter = (api == null ? null : api.getRpcParameter());
+		return parameter == null ? 0 : parameter.getRpcQueueTimeoutInMillis();
+	}
+	
 	
 	// ~ -------------------------------------------------------------------------------------------------------------
 	
@@ -128,44 +217,73 @@ public class DefaultRpcProcessor implements RpcProcessor {
 	private class ProcessTask implements Runnable {
 		
 		
-		private RpcMessage req;
-		private RpcChannel channel;
+		private final RpcMessage    req                                   ;
+		private final RpcChannel    channel                               ;
+		private final RpcLimiter    limiter                               ;
+		private final long          queueDeadline                         ;
+		private final AtomicBoolean done          = new AtomicBoolean()   ;
 		
 		
-		public ProcessTask(RpcMessage req, RpcChannel channel) {
-			this.req     = req;
-			this.channel = channel;
+		public ProcessTask(RpcMessage req, RpcChannel channel, RpcLimiter limiter, int queueTimeoutInMillis) {
+			this.req           = req;
+			this.channel       = channel;
+			this.limiter       = limiter;
+			this.queueDeadline = (queueTimeoutInMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutInMillis) : 0);
 		}
 		
+		
+		/**
+		 * @return <tt>true</tt> if the caller owns the response of this request, the invocation or the timeout wins only once.
+		 */
+		boolean finish() {
+			if (!done.compareAndSet(false, true)) return false;
+			timeoutWheel.remove(this);
+			return true;
+		}
+		
+		void timeout() {
+			if (!done.compareAndSet(false, true)) return;
+			LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor execute timeout, |req={}|", req);
+			write0(RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.SERVER_TIMEOUT, "server timeout")));
+		}
 
 		@Override
 		public void run() {
-			RpcMessage rsp;
-			try {
-				Future<RpcMessage> future = timeoutExecutor.submit(new Callable<RpcMessage>() {
-					@Override
-					public RpcMessage call() throws Exception {
-						return process0(req);
-					}
-				});
-				// One way request
-				if (req.isOneway()) return;
-				
-				// Wait response
-				rsp = future.get(rpcTimeoutInMillis(req), TimeUnit.MILLISECONDS);
-			} catch (ExecutionException e) {
-				LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor execute error", e);
-				rsp = RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.SERVER_ERROR, "server error"));
-			} catch (TimeoutException e) {
-				LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor execute timeout", e);
-				rsp = RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.SERVER_TIMEOUT, "server timeout"));
-			} catch (Exception e) {
-				LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor execute unknown error", e);
-				rsp = RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.UNKNOWN, "unknown error"));
+			if (done.get()) {
+				LOG.debug("[CRAFT-ATOM-RPC] Rpc server processor skip abandoned request, |req={}|", req);
+				return;
+			}
+			if (queueDeadline != 0 && System.nanoTime() - queueDeadline > 0) {
+				shed();
+				return;
 			}
 			
+			RpcMessage rsp = process0(req);
+			
+			// One way request
+			if (req.isOneway()) return;
+			
+			// Abandoned by timeout
+			if (!finish()) {
+				LOG.debug("[CRAFT-ATOM-RPC] Rpc server processor drop response of abandoned request, |rsp={}|", rsp);
+				return;
+			}
+			write0(rsp);
+		}
+		
+		/**
+		 * Sheds a request waited in queue over its deadline, it gets an overload response instead of being invoked too late.
+		 */
+		private void shed() {
+			if (limiter != null) { limiter.reject(); }
+			if (req.isOneway() || !finish()) return;
+			LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor shed request over queue deadline, |req={}|", req);
+			write0(RpcMessages.newRsponseRpcMessage(req.getId(), new RpcException(RpcException.SERVER_OVERLOAD, "server overload")));
+		}
+		
+		private void write0(RpcMessage rsp) {
 			try {
-				channel.write(rsp);
+				write(req, rsp, channel);
 				LOG.debug("[CRAFT-ATOM-RPC] Rpc server processor process response, |rsp={}, channel={}|", rsp, channel);
 			} catch (Exception e) {
 				LOG.warn("[CRAFT-ATOM-RPC] Rpc server processor write back rpc response fail", e);
@@ -176,7 +294,7 @@ public class DefaultRpcProcessor implements RpcProcessor {
 
 	@Override
 	public void close() {
-		timeoutExecutor.shutdownNow();
+		timeoutWheel.stop();
 		executorFactory.shutdown();
 	}
 
@@ -21,6 +21,13 @@ public class DefaultRpcProtocol implements RpcProtocol {
 		this.encoder = RpcCodecFactory.newRpcEncoder();
 	}
 	
+	/**
+	 * @param compressionThreshold body smaller than this size in bytes is never compressed, if the connection negotiated a compression.
+	 */
+	public DefaultRpcProtocol(int compressionThreshold) {
+		this.encoder = RpcCodecFactory.newRpcEncoder(compressionThreshold);
+	}
+	
 
 	@Override
 	public ProtocolEncoder<RpcMessage> getRpcEncoder() {
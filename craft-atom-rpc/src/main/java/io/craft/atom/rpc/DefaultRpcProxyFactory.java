@@ -24,5 +24,11 @@ public class DefaultRpcProxyFactory implements RpcProxyFactory {
 	public <T> T getProxy(Class<T> rpcInterface) {
 		return (T) Proxy.newProxyInstance(Thread.currentThread().getContextClassLoader(), new Class<?>[] { rpcInterface }, new RpcInvocationHandler(invoker));
 	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <A> A getAsyncProxy(Class<?> rpcInterface, Class<A> asyncInterface) {
+		return (A) Proxy.newProxyInstance(Thread.currentThread().getContextClassLoader(), new Class<?>[] { asyncInterface }, new RpcAsyncInvocationHandler(invoker, rpcInterface, asyncInterface));
+	}
 
 }
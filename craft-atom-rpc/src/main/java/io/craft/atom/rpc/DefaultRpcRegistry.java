@@ -3,7 +3,9 @@ package io.craft.atom.rpc;
 import io.craft.atom.rpc.spi.RpcApi;
 import io.craft.atom.rpc.spi.RpcRegistry;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -12,24 +14,75 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * RPC registry
- * 
+ * <p>
+ * Each api key is assigned a method id at first registration, an unregistered api gets the same id if it is registered again.
+ * Registered apis are kept in a flat array indexed by method id and in a small array per interface, 
+ * both are copied on write so lookups on the request path take no lock and allocate nothing.
+ *
  * @author mindwind
  * @version 1.0, Aug 12, 2014
  */
 public class DefaultRpcRegistry implements RpcRegistry {
-	
-	
-	private Map<String, RpcApi> registry = new ConcurrentHashMap<String, RpcApi>();
-	
+
+
+	private          Map<String, RpcApi>        registry    = new ConcurrentHashMap<String, RpcApi>()       ;
+	private          Map<String, Integer>       ids         = new ConcurrentHashMap<String, Integer>()      ;
+	private          Map<Class<?>, Handle[]>    interfaces  = new ConcurrentHashMap<Class<?>, Handle[]>()   ;
+	private volatile RpcApi[]                   methods     = new RpcApi[1]                                 ;
+	private volatile Map<String, Integer>       methodTable                                                 ;
+
 
 	@Override
-	public void register(RpcApi api) {
-		registry.put(api.getKey(), api);
+	public synchronized void register(RpcApi api) {
+		String  key = api.getKey();
+		Integer id  = ids.get(key);
+		if (id == null) {
+			id = ids.size() + 1;
+			ids.put(key, id);
+		}
+		registry.put(key, api);
+		methods = set(methods, id, api);
+		interfaces.put(api.getInterface(), put(interfaces.get(api.getInterface()), new Handle(id, api)));
+		methodTable = null;
 	}
 
 	@Override
-	public void unregister(RpcApi api) {
-		registry.remove(api.getKey());
+	public synchronized void unregister(RpcApi api) {
+		String  key = api.getKey();
+		Integer id  = ids.get(key);
+		registry.remove(key);
+		if (id != null) { 
+			methods = set(methods, id, null); 
+			Handle[] handles = remove(interfaces.get(api.getInterface()), id);
+			if (handles == null) { interfaces.remove(api.getInterface()); } else { interfaces.put(api.getInterface(), handles); }
+		}
+		methodTable = null;
+	}
+	
+	private RpcApi[] set(RpcApi[] array, int id, RpcApi api) {
+		RpcApi[] copy = Arrays.copyOf(array, Math.max(array.length, id + 1));
+		copy[id] = api;
+		return copy;
+	}
+	
+	private Handle[] put(Handle[] handles, Handle handle) {
+		if (handles == null) return new Handle[] { handle };
+		
+		Handle[] copy = remove(handles, handle.id);
+		copy = (copy == null ? new Handle[1] : Arrays.copyOf(copy, copy.length + 1));
+		copy[copy.length - 1] = handle;
+		return copy;
+	}
+	
+	private Handle[] remove(Handle[] handles, int id) {
+		if (handles == null) return null;
+		
+		Handle[] copy = new Handle[handles.length];
+		int n = 0;
+		for (Handle h : handles) {
+			if (h.id != id) { copy[n++] = h; }
+		}
+		return n == 0 ? null : Arrays.copyOf(copy, n);
 	}
 
 	@Override
@@ -37,10 +90,67 @@ public class DefaultRpcRegistry implements RpcRegistry {
 		return registry.get(api.getKey());
 	}
 
+	@Override
+	public RpcApi lookup(int methodId) {
+		RpcApi[] array = methods;
+		return methodId > 0 && methodId < array.length ? array[methodId] : null;
+	}
+	
+	@Override
+	public int methodId(String rpcId, Class<?> rpcInterface, String methodName, Class<?>[] parameterTypes) {
+		Handle[] handles = (rpcInterface == null ? null : interfaces.get(rpcInterface));
+		if (handles == null) return 0;
+		
+		for (Handle h : handles) {
+			RpcApi api = h.api;
+			if (eq(rpcId, api.getId()) && api.getMethodName().equals(methodName) && Arrays.equals(api.getMethodParameterTypes(), parameterTypes)) {
+				return h.id;
+			}
+		}
+		return 0;
+	}
+	
+	private boolean eq(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
 	@Override
 	public Set<RpcApi> apis() {
 		Set<RpcApi> apis = new TreeSet<RpcApi>(registry.values());
 		return Collections.unmodifiableSet(apis);
 	}
+
+	@Override
+	public Map<String, Integer> methodTable() {
+		Map<String, Integer> table = methodTable;
+		if (table == null) {
+			synchronized (this) {
+				RpcApi[] array = methods;
+				table = new HashMap<String, Integer>(array.length * 2);
+				for (int id = 1; id < array.length; id++) {
+					RpcApi api = array[id];
+					if (api == null) continue;
+					table.put(RpcMessages.methodSignature(api.getId(), api.getInterface(), api.getMethodName(), api.getMethodParameterTypes()), id);
+				}
+				methodTable = table;
+			}
+		}
+		return table;
+	}
+	
+	
+	// ~ -------------------------------------------------------------------------------------------------------------
 	
+	
+	private static class Handle {
+		
+		private final int    id ;
+		private final RpcApi api;
+		
+		private Handle(int id, RpcApi api) {
+			this.id  = id ;
+			this.api = api;
+		}
+	}
+
 }
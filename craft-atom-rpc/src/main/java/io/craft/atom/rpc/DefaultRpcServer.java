@@ -65,6 +65,7 @@ public class DefaultRpcServer implements RpcServer {
 		invoker.setRegistry(registry);
 		processor.setInvoker(invoker);
 		processor.setExecutorFactory(executorFactory);
+		processor.setRegistry(registry);
 		acceptor .setProcessor(processor);
 		acceptor .setProtocol(protocol);
 		acceptor .setIoTimeoutInMillis(ioTimeoutInMillis);
@@ -156,7 +157,10 @@ public class DefaultRpcServer implements RpcServer {
 			int wc = processor.waitCount(api);
 			int pc = processor.processingCount(api);
 			long cc = processor.completeCount(api);
-			counts.put(api.getKey(), new long[] {wc, pc, cc});
+			int  lm = processor.limit(api);
+			int  ic = processor.inflightCount(api);
+			long rc = processor.rejectCount(api);
+			counts.put(api.getKey(), new long[] {wc, pc, cc, lm, ic, rc});
 		}
 		x.setCounts(counts);
 		return x;
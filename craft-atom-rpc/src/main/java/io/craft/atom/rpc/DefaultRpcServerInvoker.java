@@ -1,5 +1,6 @@
 package io.craft.atom.rpc;
 
+import io.craft.atom.protocol.rpc.model.RpcBody;
 import io.craft.atom.protocol.rpc.model.RpcMessage;
 import io.craft.atom.protocol.rpc.model.RpcMethod;
 import io.craft.atom.rpc.api.RpcContext;
@@ -8,7 +9,8 @@ import io.craft.atom.rpc.spi.RpcConnector;
 import io.craft.atom.rpc.spi.RpcInvoker;
 import io.craft.atom.rpc.spi.RpcRegistry;
 
-import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -16,9 +18,10 @@ import lombok.Setter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.esotericsoftware.reflectasm.MethodAccess;
-
 /**
+ * Server invoker dispatches a request to the compiled dispatch of its exported api, 
+ * a request is looked up by its method id, which is resolved from its full method description if it is not compact.
+ * 
  * @author mindwind
  * @version 1.0, Aug 7, 2014
  */
@@ -28,22 +31,15 @@ public class DefaultRpcServerInvoker implements RpcInvoker {
 	private static final Logger LOG = LoggerFactory.getLogger(DefaultRpcServerInvoker.class);
 	
 	
-	@Getter @Setter private RpcRegistry registry;
+	@Getter @Setter private RpcRegistry                registry;
+	                private Map<String, DefaultRpcApi> compiled = new ConcurrentHashMap<String, DefaultRpcApi>();
 
 	
 	@Override
 	public RpcMessage invoke(RpcMessage req) throws RpcException {
-		String     rpcId        = req.getBody().getRpcId();
-		Class<?>   rpcInterface = req.getBody().getRpcInterface();
-		RpcMethod  rpcMethod    = req.getBody().getRpcMethod();
-		Class<?>[] paramTypes   = rpcMethod.getParameterTypes();
-		Object[]   params       = rpcMethod.getParameters();
-		String     methodName   = rpcMethod.getName();
-		
-		RpcApi api = registry.lookup(new DefaultRpcApi(rpcId, rpcInterface, rpcMethod));
+		RpcBody       body = req.getBody();
+		DefaultRpcApi api  = lookup(body);
 		if (api == null) { throw new RpcException(RpcException.SERVER_ERROR, "No exported api mapping"); } 
-		Object rpcObject = api.getRpcObject();
-		
 		
 		try {
 			// Set rpc context
@@ -54,13 +50,12 @@ public class DefaultRpcServerInvoker implements RpcInvoker {
 			LOG.debug("[CRAFT-ATOM-RPC] Rpc server invoker is invoking, |rpcContext={}|", ctx);
 			
 			// Reflect invoke
-			MethodAccess ma = MethodAccess.get(rpcInterface);
-			int methodIndex = ma.getIndex(methodName, paramTypes);
-			Object returnObject = ma.invoke(rpcObject, methodIndex, params);
+			Object returnObject = api.invoke(body.getRpcMethod().getParameters());
 			return RpcMessages.newRsponseRpcMessage(req.getId(), returnObject);
 		} catch (Exception e) {
 			LOG.warn("[CRAFT-ATOM-RPC] Rpc server invoker error", e);
-			if (isDeclaredException(e, rpcInterface, methodName, paramTypes)) {
+			LOG.debug("[CRAFT-ATOM-RPC] Rpc server invoker throw exception, |declaredExceptions={}, thrownException={}|", api.getExceptionTypes(), e);
+			if (api.isDeclaredException(e)) {
 				return RpcMessages.newRsponseRpcMessage(req.getId(), e);
 			} else {
 				throw new RpcException(RpcException.SERVER_ERROR, "server error");
@@ -70,18 +65,29 @@ public class DefaultRpcServerInvoker implements RpcInvoker {
 		}
 	}
 	
-	private boolean isDeclaredException(Exception e, Class<?> rpcInterface, String methodName, Class<?>[] parameterTypes) {
-		try {
-			Method method = rpcInterface.getMethod(methodName, parameterTypes);
-			Class<?>[] etypes = method.getExceptionTypes();
-			LOG.debug("[CRAFT-ATOM-RPC] Rpc server invoker throw exception, |declaredExceptions={}, thrownException={}|", etypes, e);
-			for (Class<?> et : etypes) {
-				if (et.equals(e.getClass())) return true;
-			}
-		} catch (Exception ex) {
-			return false;
+	private DefaultRpcApi lookup(RpcBody body) {
+		int methodId = body.getMethodId();
+		if (methodId <= 0) {
+			RpcMethod rpcMethod = body.getRpcMethod();
+			methodId = registry.methodId(body.getRpcId(), body.getRpcInterface(), rpcMethod.getName(), rpcMethod.getParameterTypes());
+		}
+		RpcApi api = registry.lookup(methodId);
+		if (api == null) return null;
+		return compile(api);
+	}
+	
+	/**
+	 * Api registered by {@link DefaultRpcServer} is compiled already, other implementor is compiled once and cached by key.
+	 */
+	private DefaultRpcApi compile(RpcApi api) {
+		if (api instanceof DefaultRpcApi) return (DefaultRpcApi) api;
+		
+		DefaultRpcApi dapi = compiled.get(api.getKey());
+		if (dapi == null || dapi.getRpcObject() != api.getRpcObject()) {
+			dapi = new DefaultRpcApi(api.getId(), api.getInterface(), new RpcMethod(api.getMethodName(), api.getMethodParameterTypes()), api.getRpcObject(), api.getRpcParameter());
+			compiled.put(api.getKey(), dapi);
 		}
-		return false;
+		return dapi;
 	}
 
 	@Override
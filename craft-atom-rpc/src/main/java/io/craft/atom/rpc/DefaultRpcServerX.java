@@ -49,4 +49,19 @@ public class DefaultRpcServerX implements RpcServerX {
 		return counts.get(api.getKey())[2];
 	}
 
+	@Override
+	public int limit(RpcApi api) {
+		return (int) counts.get(api.getKey())[3];
+	}
+
+	@Override
+	public int inflightCount(RpcApi api) {
+		return (int) counts.get(api.getKey())[4];
+	}
+
+	@Override
+	public long rejectCount(RpcApi api) {
+		return counts.get(api.getKey())[5];
+	}
+
 }
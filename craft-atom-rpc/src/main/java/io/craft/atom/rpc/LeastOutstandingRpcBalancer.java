@@ -0,0 +1,40 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.rpc.spi.RpcBalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects the available endpoint with the least outstanding requests, 
+ * the scan starts from endpoints in turn so ties are spread evenly.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class LeastOutstandingRpcBalancer implements RpcBalancer {
+	
+	
+	private final AtomicInteger next = new AtomicInteger();
+	
+	
+	@Override
+	public RpcEndpoint select(RpcEndpoint[] endpoints, RpcMessage req) {
+		int         n     = endpoints.length;
+		int         start = (next.getAndIncrement() & Integer.MAX_VALUE) % n;
+		int         least = Integer.MAX_VALUE;
+		RpcEndpoint ret   = null;
+		for (int i = 0; i < n; i++) {
+			RpcEndpoint ep = endpoints[(start + i) % n];
+			if (!ep.isAvailable()) continue;
+			int pc = ep.pendingCount();
+			if (pc < least) {
+				least = pc;
+				ret   = ep;
+				if (pc == 0) break;
+			}
+		}
+		return ret;
+	}
+
+}
@@ -0,0 +1,47 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.rpc.spi.RpcBalancer;
+
+/**
+ * Power of two choices: picks two endpoints at random and selects the one with lower {@link RpcEndpoint#cost()}, 
+ * the moving average latency weighted by outstanding requests.
+ * <p>
+ * The two picks are drawn from the mixed bits of the message id, so selection needs neither a shared random nor a lock.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class P2cEwmaRpcBalancer implements RpcBalancer {
+	
+	
+	@Override
+	public RpcEndpoint select(RpcEndpoint[] endpoints, RpcMessage req) {
+		int n = endpoints.length;
+		if (n == 1) return endpoints[0].isAvailable() ? endpoints[0] : null;
+		
+		long h = mix(req.getId());
+		int  a = (int) ((h >>> 1) % n);
+		int  b = (int) ((h >>> 33) % (n - 1));
+		if (b >= a) b++;
+		RpcEndpoint x = endpoints[a], y = endpoints[b];
+		boolean     xa = x.isAvailable(), ya = y.isAvailable();
+		if (xa && ya) return x.cost() <= y.cost() ? x : y;
+		if (xa) return x;
+		if (ya) return y;
+		
+		// both picks are unavailable, take the first available one after them
+		for (int i = 1; i < n; i++) {
+			RpcEndpoint ep = endpoints[(a + i) % n];
+			if (ep.isAvailable()) return ep;
+		}
+		return null;
+	}
+	
+	private static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return z ^ (z >>> 33);
+	}
+
+}
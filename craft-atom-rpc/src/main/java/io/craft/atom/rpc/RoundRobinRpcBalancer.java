@@ -0,0 +1,31 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.rpc.spi.RpcBalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selects available endpoints in turn.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class RoundRobinRpcBalancer implements RpcBalancer {
+	
+	
+	private final AtomicInteger next = new AtomicInteger();
+	
+	
+	@Override
+	public RpcEndpoint select(RpcEndpoint[] endpoints, RpcMessage req) {
+		int n     = endpoints.length;
+		int start = (next.getAndIncrement() & Integer.MAX_VALUE) % n;
+		for (int i = 0; i < n; i++) {
+			RpcEndpoint ep = endpoints[(start + i) % n];
+			if (ep.isAvailable()) return ep;
+		}
+		return null;
+	}
+
+}
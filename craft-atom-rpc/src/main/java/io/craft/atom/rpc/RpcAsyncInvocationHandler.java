@@ -0,0 +1,83 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.rpc.api.RpcContext;
+import io.craft.atom.rpc.spi.RpcInvoker;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Invocation handler of async proxy, a method of the async interface invokes the rpc interface method with the same name and parameter types
+ * and returns the {@link RpcFuture} of the invocation without waiting. A one way invocation returns <code>null</code>.
+ * <p>
+ * Methods of {@link Object} are not remote, <code>equals</code> and <code>hashCode</code> are identity based.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class RpcAsyncInvocationHandler implements InvocationHandler {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(RpcAsyncInvocationHandler.class);
+
+
+	@Getter @Setter private RpcInvoker          invoker       ;
+	@Getter         private Class<?>            asyncInterface;
+	@Getter         private Map<Method, Method> methods       ;
+
+
+	public RpcAsyncInvocationHandler(RpcInvoker invoker, Class<?> rpcInterface, Class<?> asyncInterface) {
+		this.invoker        = invoker;
+		this.asyncInterface = asyncInterface;
+		this.methods        = methods(rpcInterface, asyncInterface);
+	}
+
+	private Map<Method, Method> methods(Class<?> rpcInterface, Class<?> asyncInterface) {
+		Map<Method, Method> map = new HashMap<Method, Method>();
+		for (Method method : asyncInterface.getMethods()) {
+			if (!method.getReturnType().isAssignableFrom(RpcFuture.class)) {
+				throw new IllegalArgumentException("Async method should return `RpcFuture` or `Future`, |method=" + method + "|");
+			}
+			try {
+				map.put(method, rpcInterface.getMethod(method.getName(), method.getParameterTypes()));
+			} catch (NoSuchMethodException e) {
+				throw new IllegalArgumentException("No rpc method mapping async method, |method=" + method + "|", e);
+			}
+		}
+		return map;
+	}
+
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class) return invokeObjectMethod(proxy, method, args);
+		
+		Method     rpcMethod = methods.get(method);
+		RpcMessage req       = RpcMessages.newRequestRpcMessage(rpcMethod.getDeclaringClass(), rpcMethod.getName(), rpcMethod.getParameterTypes(), args);
+
+		// the context is removed after invocation, so keep it to get the future
+		RpcContext ctx = RpcContext.getContext();
+		ctx.setAsync(true);
+		LOG.debug("[CRAFT-ATOM-RPC] Rpc client async proxy before invocation, |req={}|", req);
+		invoker.invoke(req);
+		return ctx.getFuture();
+	}
+	
+	private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+		String name = method.getName();
+		if ("equals".equals(name))   return proxy == args[0];
+		if ("hashCode".equals(name)) return System.identityHashCode(proxy);
+		if ("toString".equals(name)) return asyncInterface.getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+		throw new UnsupportedOperationException(method.toString());
+	}
+
+}
@@ -0,0 +1,192 @@
+package io.craft.atom.rpc;
+
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A server endpoint of a client, it keeps a copy-on-write snapshot of its connections and the load and health statistics for balancing.
+ * <p>
+ * Latency is a peak sensitive moving average, a sample above the average replaces it,
+ * otherwise the average decays toward the sample by the elapsed time since the last one.
+ * Samples may race and a lost one is harmless.
+ * <p>
+ * An endpoint is ejected for a while after consecutive failures (client timeouts or server overload and timeout responses),
+ * or after one of its connections is broken until the connection is reconnected.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "address", "latency", "ejectedUntil" })
+public class RpcEndpoint {
+
+
+	private static final Logger              LOG            = LoggerFactory.getLogger(RpcEndpoint.class);
+	private static final DefaultRpcChannel[] EMPTY          = new DefaultRpcChannel[0]                  ;
+	private static final double              DECAY_NANOS    = TimeUnit.SECONDS.toNanos(10)              ;
+	private static final double              PENALTY        = TimeUnit.SECONDS.toNanos(1)               ;
+	private static final int                 EJECT_FAILURES = 5                                         ;
+
+
+	@Getter                  private final SocketAddress       address                            ;
+	@Getter @Setter volatile private       int                 ejectionInMillis                   ;
+	                volatile private       DefaultRpcChannel[] channels         = EMPTY           ;
+	                volatile private       double              latency                            ;
+	                volatile private       long                stamp                              ;
+	                volatile private       long                ejectedUntil                       ;
+	                         private final AtomicInteger       failures         = new AtomicInteger();
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	public RpcEndpoint(SocketAddress address, int ejectionInMillis) {
+		this.address          = address;
+		this.ejectionInMillis = ejectionInMillis;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Selects a connection by the message id, it is allocation free on the snapshot.
+	 *
+	 * @return the connection or <tt>null</tt> if no connection.
+	 */
+	DefaultRpcChannel select(long id) {
+		DefaultRpcChannel[] chs = channels;
+		if (chs.length == 0) return null;
+		return chs[(int) ((id & Long.MAX_VALUE) % chs.length)];
+	}
+
+	synchronized void add(DefaultRpcChannel channel) {
+		DefaultRpcChannel[] chs = new DefaultRpcChannel[channels.length + 1];
+		System.arraycopy(channels, 0, chs, 0, channels.length);
+		chs[channels.length] = channel;
+		channels = chs;
+	}
+
+	synchronized boolean remove(DefaultRpcChannel channel) {
+		int i = 0, n = channels.length;
+		while (i < n && channels[i] != channel) i++;
+		if (i == n) return false;
+
+		DefaultRpcChannel[] chs = new DefaultRpcChannel[n - 1];
+		System.arraycopy(channels, 0, chs, 0, i);
+		System.arraycopy(channels, i + 1, chs, i, n - i - 1);
+		channels = chs;
+		return true;
+	}
+
+	/**
+	 * Samples the latency of a successful response.
+	 */
+	void success(long rttInNanos) {
+		if (failures.get() != 0) failures.set(0);
+		long   now = System.nanoTime();
+		double avg = latency;
+		if (rttInNanos > avg) {
+			latency = rttInNanos;
+		} else {
+			double w = Math.exp(-(now - stamp) / DECAY_NANOS);
+			latency = avg * w + rttInNanos * (1 - w);
+		}
+		stamp = now;
+	}
+
+	/**
+	 * Counts a failure, the endpoint is ejected after consecutive failures.
+	 */
+	void failure() {
+		if (failures.incrementAndGet() < EJECT_FAILURES) return;
+		failures.set(0);
+		eject();
+	}
+
+	/**
+	 * Ejects the endpoint for the ejection time.
+	 */
+	void eject() {
+		ejectedUntil = System.currentTimeMillis() + ejectionInMillis;
+		LOG.debug("[CRAFT-ATOM-RPC] Rpc endpoint ejected, |endpoint={}|", this);
+	}
+
+	/**
+	 * Readmits the ejected endpoint, e.g. its broken connection is reconnected.
+	 */
+	void readmit() {
+		failures.set(0);
+		ejectedUntil = 0;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @return <tt>true</tt> if the endpoint is connected and not ejected.
+	 */
+	public boolean isAvailable() {
+		return isConnected() && !isEjected();
+	}
+
+	/**
+	 * @return <tt>true</tt> if the endpoint has at least one connection.
+	 */
+	public boolean isConnected() {
+		return channels.length > 0;
+	}
+
+	/**
+	 * @return <tt>true</tt> if the endpoint is ejected at the moment.
+	 */
+	public boolean isEjected() {
+		long until = ejectedUntil;
+		return until != 0 && until > System.currentTimeMillis();
+	}
+
+	/**
+	 * @return connection count.
+	 */
+	public int connectionCount() {
+		return channels.length;
+	}
+
+	/**
+	 * @return count of outstanding requests of all connections.
+	 */
+	public int pendingCount() {
+		int pc = 0;
+		for (DefaultRpcChannel ch : channels) {
+			pc += ch.pendingCount();
+		}
+		return pc;
+	}
+
+	/**
+	 * @return the moving average latency in nanoseconds, 0 if no sample.
+	 */
+	public double latency() {
+		return latency;
+	}
+
+	/**
+	 * @return the expected cost of a new request, the latency weighted by outstanding requests.
+	 *         An endpoint without latency sample costs nothing if idle, otherwise it costs a penalty.
+	 */
+	public double cost() {
+		int    pc  = pendingCount();
+		double avg = latency;
+		if (avg == 0) return pc == 0 ? 0 : PENALTY + pc;
+		return avg * (pc + 1);
+	}
+
+}
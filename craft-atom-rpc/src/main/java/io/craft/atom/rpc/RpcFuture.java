@@ -59,4 +59,12 @@ public interface RpcFuture<V> extends Future<V> {
 	 */
 	void setResponse(RpcMessage response);
 	
+	/**
+	 * Adds the listener which is notified when this future is completed, it is notified immediately if the future is already completed.
+	 * Otherwise it is notified by the thread completes the future or by the callback executor if it is configured.
+	 * 
+	 * @param listener
+	 */
+	void addListener(RpcFutureListener<V> listener);
+	
 }
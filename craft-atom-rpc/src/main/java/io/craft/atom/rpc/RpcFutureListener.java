@@ -0,0 +1,20 @@
+package io.craft.atom.rpc;
+
+
+/**
+ * A listener for completion of {@link RpcFuture}.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ * @see RpcFuture#addListener(RpcFutureListener)
+ */
+public interface RpcFutureListener<V> {
+
+	/**
+	 * Invoking when the future is completed with a response, an exception, a timeout or a cancellation.
+	 *
+	 * @param future the completed future.
+	 */
+	void completed(RpcFuture<V> future);
+
+}
@@ -0,0 +1,174 @@
+package io.craft.atom.rpc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.ToString;
+
+/**
+ * Concurrency limiter of in-flight requests for a rpc api, in-flight counts both waiting and processing requests.
+ * <p>
+ * A fixed limiter keeps its max limit.
+ * An adaptive limiter adjusts its limit by the gradient of latency, in the spirit of Netflix concurrency-limits gradient2:
+ * <pre>
+ * gradient = max(0.5, min(1.0, tolerance * longRtt / shortRtt))
+ * newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * The short rtt is the average latency of a window, a window has samples of about one limit of requests and at least 10.
+ * The long rtt is a slow moving average of short rtt over about 600 windows as the no load latency, 
+ * so the limit grows while latency is stable and shrinks as soon as requests queue up.
+ * The limit does not grow when less than half of it is in use in the window.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "adaptive", "minLimit", "maxLimit", "estimate", "inflight", "rejects" })
+public class RpcLimiter {
+
+
+	private static final double TOLERANCE   = 1.5;
+	private static final double SMOOTHING   = 0.2;
+	private static final int    LONG_WINDOW = 600;
+	private static final int    MIN_WINDOW  = 10 ;
+
+
+	private final    boolean       adaptive                    ;
+	private final    int           minLimit                    ;
+	private final    int           maxLimit                    ;
+	private final    AtomicInteger inflight = new AtomicInteger();
+	private final    AtomicLong    rejects  = new AtomicLong()   ;
+	private volatile double        estimate                    ;
+	private          double        longRtt                     ;
+	private          long          windowRtt                   ;
+	private          int           windowSamples               ;
+	private          int           windowInflight              ;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Creates a fixed limiter.
+	 *
+	 * @param limit
+	 */
+	public RpcLimiter(int limit) {
+		this(false, limit, limit, limit);
+	}
+
+	/**
+	 * Creates an adaptive limiter.
+	 *
+	 * @param initialLimit
+	 * @param minLimit
+	 * @param maxLimit
+	 */
+	public RpcLimiter(int initialLimit, int minLimit, int maxLimit) {
+		this(true, initialLimit, minLimit, maxLimit);
+	}
+
+	private RpcLimiter(boolean adaptive, int initialLimit, int minLimit, int maxLimit) {
+		this.adaptive = adaptive;
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.estimate = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @return <tt>true</tt> if a request is admitted, it must be released later; <tt>false</tt> if it is rejected.
+	 */
+	public boolean acquire() {
+		for (;;) {
+			int n = inflight.get();
+			if (n >= (int) estimate) {
+				rejects.incrementAndGet();
+				return false;
+			}
+			if (inflight.compareAndSet(n, n + 1)) return true;
+		}
+	}
+
+	/**
+	 * Releases an admitted request and samples its latency.
+	 *
+	 * @param rttInNanos latency from the request is admitted to it is completed.
+	 */
+	public void release(long rttInNanos) {
+		int n = inflight.getAndDecrement();
+		if (adaptive) { sample(Math.max(1, rttInNanos), n); }
+	}
+
+	/**
+	 * Releases an admitted request which is not executed, no latency is sampled.
+	 */
+	public void cancel() {
+		inflight.decrementAndGet();
+	}
+
+	/**
+	 * Counts a request rejected out of this limiter, e.g. a request shed by queue time deadline.
+	 */
+	public void reject() {
+		rejects.incrementAndGet();
+	}
+
+	private synchronized void sample(long rtt, int inflight) {
+		windowRtt     += rtt;
+		windowSamples += 1;
+		windowInflight = Math.max(windowInflight, inflight);
+		double limit = estimate;
+		if (windowSamples < Math.max(MIN_WINDOW, (int) limit)) return;
+		
+		double shortRtt    = (double) windowRtt / windowSamples;
+		int    maxInflight = windowInflight;
+		windowRtt = 0; windowSamples = 0; windowInflight = 0;
+		longRtt = (longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / LONG_WINDOW);
+
+		// the no load latency recovers quickly after a sustained drop of latency
+		if (longRtt / shortRtt > 2) { longRtt *= 0.95; }
+
+		double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+		double newLimit = limit * gradient + Math.sqrt(limit);
+		if (newLimit > limit && maxInflight < limit / 2) return;
+
+		newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+		estimate = Math.min(maxLimit, Math.max(minLimit, newLimit));
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * @return current limit.
+	 */
+	public int limit() {
+		return (int) estimate;
+	}
+
+	/**
+	 * @return current in-flight request count.
+	 */
+	public int inflightCount() {
+		return inflight.get();
+	}
+
+	/**
+	 * @return rejected request count.
+	 */
+	public long rejectCount() {
+		return rejects.get();
+	}
+
+	/**
+	 * @return <tt>true</tt> if the limit is adaptive.
+	 */
+	public boolean isAdaptive() {
+		return adaptive;
+	}
+
+}
@@ -6,6 +6,8 @@ import io.craft.atom.protocol.rpc.model.RpcMessage;
 import io.craft.atom.protocol.rpc.model.RpcMethod;
 import io.craft.atom.protocol.rpc.model.RpcOption;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 
@@ -18,7 +20,10 @@ import java.util.concurrent.atomic.AtomicLong;
 public class RpcMessages {
 	
 	
-	private static final AtomicLong ID_GENERATOR = new AtomicLong(0);
+	private static final AtomicLong ID_GENERATOR  = new AtomicLong(0)           ;
+	private static final String     METHOD_TABLE  = "craft-atom-rpc-method-table" ;
+	private static final String     SERIALIZATION = "craft-atom-rpc-serialization";
+	private static final String     COMPRESSION   = "craft-atom-rpc-compression"  ;
 	
 	
 	private static RpcMessage newRpcMessage() {
@@ -43,6 +48,20 @@ public class RpcMessages {
 		return req;
 	}
 	
+	/**
+	 * A heartbeat request asks the server for its method table and whether it accepts the preferred serialization and compression,
+	 * a server without negotiation support simply answers a heartbeat.
+	 */
+	public static RpcMessage newNegotiateRequestRpcMessage(byte serialization, byte compression) {
+		RpcMessage req = newHbRequestRpcMessage();
+		Map<String, String> attachments = new HashMap<String, String>();
+		attachments.put(METHOD_TABLE, Boolean.TRUE.toString());
+		attachments.put(SERIALIZATION, Byte.toString(serialization));
+		if (compression > 0) { attachments.put(COMPRESSION, Byte.toString(compression)); }
+		req.setAttachments(attachments);
+		return req;
+	}
+	
 	public static RpcMessage newRequestRpcMessage(Class<?> rpcInterface, String methodName, Class<?>[] parameterTypes, Object[] parameters) {
 		RpcMessage req = newRpcMessage();
 		req.setId(ID_GENERATOR.incrementAndGet());
@@ -88,6 +107,16 @@ public class RpcMessages {
 		return rsp;
 	}
 	
+	public static RpcMessage newNegotiateResponseRpcMessage(long id, Map<String, Integer> methodTable, byte serialization, byte compression) {
+		RpcMessage rsp = newHbResponseRpcMessage(id);
+		rsp.setReturnObject(methodTable);
+		Map<String, String> attachments = new HashMap<String, String>();
+		if (serialization > 0) { attachments.put(SERIALIZATION, Byte.toString(serialization)); }
+		if (compression   > 0) { attachments.put(COMPRESSION  , Byte.toString(compression  )); }
+		if (!attachments.isEmpty()) { rsp.setAttachments(attachments); }
+		return rsp;
+	}
+	
 	public static Object unpackResponseMessage(RpcMessage rsp) throws Exception {
 		// void
 		if (rsp == null) { return null; }
@@ -100,4 +129,57 @@ public class RpcMessages {
 		return rsp.getReturnObject();
 	}
 	
+	
+	// ~ -------------------------------------------------------------------------------------------------- negotiation
+	
+	
+	public static boolean isMethodTableRequest(RpcMessage req) {
+		Map<String, String> attachments = req.getAttachments();
+		return req.isHeartbeat() && attachments != null && attachments.containsKey(METHOD_TABLE);
+	}
+	
+	/**
+	 * @return serialization type carried by the negotiate request or response, or 0 if it is absent.
+	 */
+	public static byte serialization(RpcMessage msg) {
+		return type(msg, SERIALIZATION);
+	}
+	
+	/**
+	 * @return compression type carried by the negotiate request or response, or 0 if it is absent.
+	 */
+	public static byte compression(RpcMessage msg) {
+		return type(msg, COMPRESSION);
+	}
+	
+	private static byte type(RpcMessage msg, String key) {
+		Map<String, String> attachments = msg.getAttachments();
+		String type = (attachments == null ? null : attachments.get(key));
+		if (type == null) return 0;
+		try {
+			return Byte.parseByte(type);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+	
+	/**
+	 * @return method signature of the request, it is the key of the method table and equals among jvms.
+	 */
+	public static String methodSignature(RpcMessage req) {
+		RpcBody body = req.getBody();
+		return methodSignature(body.getRpcId(), body.getRpcInterface(), body.getRpcMethod().getName(), body.getRpcMethod().getParameterTypes());
+	}
+	
+	public static String methodSignature(String rpcId, Class<?> rpcInterface, String methodName, Class<?>[] parameterTypes) {
+		StringBuilder sb = new StringBuilder();
+		if (rpcId != null) { sb.append(rpcId); }
+		sb.append('|').append(rpcInterface.getName()).append('#').append(methodName).append('(');
+		for (int i = 0; parameterTypes != null && i < parameterTypes.length; i++) {
+			if (i > 0) { sb.append(','); }
+			sb.append(parameterTypes[i].getName());
+		}
+		return sb.append(')').toString();
+	}
+	
 }
@@ -3,20 +3,48 @@ package io.craft.atom.rpc;
 import io.craft.atom.util.thread.MonitoringThreadPoolExecutor;
 
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import lombok.Getter;
+import lombok.Setter;
+
 
 /**
+ * A task is admitted by the {@link RpcLimiter} of the executor if it has one, 
+ * a task out of limit is rejected and the latency of an admitted task is sampled from it is submitted to it is completed.
+ * 
  * @author mindwind
  * @version 1.0, Sep 9, 2014
  */
 public class RpcThreadPoolExecutor extends MonitoringThreadPoolExecutor {
 
 	
+	@Getter @Setter private RpcLimiter limiter;
+	
+	
 	public RpcThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
 		super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
 	}
+	
+	@Override
+	public void execute(Runnable command) {
+		final RpcLimiter limiter = this.limiter;
+		if (limiter == null) {
+			super.execute(command);
+			return;
+		}
+		
+		if (!limiter.acquire()) throw new RejectedExecutionException("Rpc limit exceeded, |limiter=" + limiter + "|");
+		try {
+			super.execute(new LimitedTask(command, limiter));
+		} catch (RejectedExecutionException e) {
+			limiter.cancel();
+			limiter.reject();
+			throw e;
+		}
+	}
 
 	@Override
 	public String toString() {
@@ -43,4 +71,31 @@ public class RpcThreadPoolExecutor extends MonitoringThreadPoolExecutor {
 	}
 	
 	
+	// ~ -------------------------------------------------------------------------------------------------------------
+	
+	
+	private static class LimitedTask implements Runnable {
+		
+		
+		private final Runnable   command;
+		private final RpcLimiter limiter;
+		private final long       start  ;
+		
+		
+		private LimitedTask(Runnable command, RpcLimiter limiter) {
+			this.command = command;
+			this.limiter = limiter;
+			this.start   = System.nanoTime();
+		}
+
+		@Override
+		public void run() {
+			try {
+				command.run();
+			} finally {
+				limiter.release(System.nanoTime() - start);
+			}
+		}
+	}
+	
 }
@@ -21,6 +21,24 @@ public interface RpcClient extends RpcClientMBean {
 	 */
 	<T> T refer(Class<T> rpcInterface);
 	
+	/**
+	 * Refer the async rpc api proxy instance which implements the specific async interface.
+	 * <p>
+	 * A method of async interface has the same name and parameter types with a method of rpc interface, 
+	 * and returns <tt>RpcFuture</tt> (or <tt>Future</tt>) of its return type, e.g.
+	 * <pre>
+	 * public interface DemoService      { String            echo(String in); }
+	 * public interface DemoServiceAsync { RpcFuture&lt;String&gt; echo(String in); }
+	 * </pre>
+	 * Invocation returns without waiting, the future is completed on the io thread or the callback executor of client if it is configured.
+	 * A cancelled future releases its pending request slot.
+	 * 
+	 * @param  rpcInterface
+	 * @param  asyncInterface
+	 * @return a proxy instance.
+	 */
+	<A> A refer(Class<?> rpcInterface, Class<A> asyncInterface);
+	
 	/**
 	 * Open the client, connect to rpc server for communicating.
 	 * Just invoke this once.
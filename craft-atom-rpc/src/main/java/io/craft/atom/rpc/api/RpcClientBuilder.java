@@ -5,11 +5,19 @@ import io.craft.atom.rpc.DefaultRpcClientInvoker;
 import io.craft.atom.rpc.DefaultRpcConnector;
 import io.craft.atom.rpc.DefaultRpcProtocol;
 import io.craft.atom.rpc.DefaultRpcProxyFactory;
+import io.craft.atom.rpc.RoundRobinRpcBalancer;
+import io.craft.atom.rpc.spi.RpcBalancer;
 import io.craft.atom.rpc.spi.RpcConnector;
 import io.craft.atom.rpc.spi.RpcInvoker;
 import io.craft.atom.rpc.spi.RpcProtocol;
 import io.craft.atom.rpc.spi.RpcProxyFactory;
 
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * Builder for {@link RpcServer}
  * 
@@ -19,16 +27,21 @@ import io.craft.atom.rpc.spi.RpcProxyFactory;
 public class RpcClientBuilder {
 	
 	
-	private String             host                                                  ;
-	private int                port                                                  ;
-	private int                connections            = 1                            ;
-	private int                heartbeatInMillis      = 0                            ;
-	private int                connectTimeoutInMillis = Integer.MAX_VALUE            ;
-	private int                rpcTimeoutInMillis     = Integer.MAX_VALUE            ;
-	private RpcConnector       connector              = new DefaultRpcConnector()    ;
-	private RpcProtocol        protocol               = new DefaultRpcProtocol()     ;
-	private RpcProxyFactory    proxyFactory           = new DefaultRpcProxyFactory() ;
-	private RpcInvoker         invoker                = new DefaultRpcClientInvoker();
+	private String              host                                                  ;
+	private int                 port                                                  ;
+	private List<SocketAddress> addresses              = new ArrayList<SocketAddress>();
+	private int                 connections            = 1                            ;
+	private int                 heartbeatInMillis      = 0                            ;
+	private int                 connectTimeoutInMillis = Integer.MAX_VALUE            ;
+	private int                 rpcTimeoutInMillis     = Integer.MAX_VALUE            ;
+	private byte                serialization          = 1                            ;
+	private byte                compression            = 0                            ;
+	private Executor            callbackExecutor                                      ;
+	private RpcConnector        connector              = new DefaultRpcConnector()    ;
+	private RpcProtocol         protocol               = new DefaultRpcProtocol()     ;
+	private RpcProxyFactory     proxyFactory           = new DefaultRpcProxyFactory() ;
+	private RpcInvoker          invoker                = new DefaultRpcClientInvoker();
+	private RpcBalancer         balancer               = new RoundRobinRpcBalancer()  ;
 	
 	
 	public RpcClientBuilder host                  (String          host                  ) { this.host                   = host                  ; return this; }
@@ -37,24 +50,38 @@ public class RpcClientBuilder {
 	public RpcClientBuilder heartbeatInMillis     (int             heartbeatInMillis     ) { this.heartbeatInMillis      = heartbeatInMillis     ; return this; }
 	public RpcClientBuilder connectTimeoutInMillis(int             connectTimeoutInMillis) { this.connectTimeoutInMillis = connectTimeoutInMillis; return this; }
 	public RpcClientBuilder rpcTimeoutInMillis    (int             rpcTimeoutInMillis    ) { this.rpcTimeoutInMillis     = rpcTimeoutInMillis    ; return this; }
+	public RpcClientBuilder serialization         (byte            serialization         ) { this.serialization          = serialization         ; return this; }
+	public RpcClientBuilder compression           (byte            compression           ) { this.compression            = compression           ; return this; }
+	public RpcClientBuilder callbackExecutor      (Executor        callbackExecutor      ) { this.callbackExecutor       = callbackExecutor      ; return this; }
 	public RpcClientBuilder rpcConnector          (RpcConnector    connector             ) { this.connector              = connector             ; return this; }
 	public RpcClientBuilder rpcProtocol           (RpcProtocol     protocol              ) { this.protocol               = protocol              ; return this; }
 	public RpcClientBuilder rpcProxyFactory       (RpcProxyFactory proxyFactory          ) { this.proxyFactory           = proxyFactory          ; return this; }
 	public RpcClientBuilder rpcInvoker            (RpcInvoker      invoker               ) { this.invoker                = invoker               ; return this; }
+	public RpcClientBuilder rpcBalancer           (RpcBalancer     balancer              ) { this.balancer               = balancer              ; return this; }
+	
+	/**
+	 * Adds another server to connect, requests are balanced across all servers by the {@link RpcBalancer}.
+	 */
+	public RpcClientBuilder address(String host, int port) { this.addresses.add(new InetSocketAddress(host, port)); return this; }
 	
 	
 	public RpcClient build() {
 		DefaultRpcClient rc = new DefaultRpcClient();
 		rc.setHost(host);
 		rc.setPort(port);
+		rc.setAddresses(new ArrayList<SocketAddress>(addresses));
 		rc.setConnections(connections);
 		rc.setHeartbeatInMillis(heartbeatInMillis);
 		rc.setConnectTimeoutInMillis(connectTimeoutInMillis);
 		rc.setRpcTimeoutInMillis(rpcTimeoutInMillis);
+		rc.setSerialization(serialization);
+		rc.setCompression(compression);
+		rc.setCallbackExecutor(callbackExecutor);
 		rc.setConnector(connector);
 		rc.setProtocol(protocol);
 		rc.setProxyFactory(proxyFactory);
 		rc.setInvoker(invoker);
+		rc.setBalancer(balancer);
 		rc.init();
 		return rc;
 	}
@@ -1,5 +1,7 @@
 package io.craft.atom.rpc.api;
 
+import java.util.Map;
+
 
 /**
  * The x-ray of {@link RpcClient}
@@ -10,8 +12,18 @@ package io.craft.atom.rpc.api;
 public interface RpcClientX {
 	
 	/**
-	 * @return the approximate wait to be sent request count.
+	 * @return the approximate outstanding request count, they are sent and wait for responses.
 	 */
 	int waitCount();
 	
+	/**
+	 * @return the approximate outstanding request count of each connection, keyed by connection id.
+	 */
+	Map<Long, Integer> pendingCounts();
+	
+	/**
+	 * @return the approximate bytes held by connection decoders, an idle connection holds no decode buffer.
+	 */
+	long footprint();
+	
 }
@@ -19,6 +19,16 @@ public class RpcParameter {
 	
 	/** RPC queue size for each rpc method. */
 	@Getter @Setter private int rpcQueues  = 10;
+	
+	/** 
+	 * Adaptive concurrency limit of in-flight requests for each rpc method, the limit follows observed latency. 
+	 * <tt>rpcThreads + rpcQueues</tt> is its upper bound, so generous threads and queues are fine with it.
+	 * Without it the limit is fixed at <tt>rpcThreads + rpcQueues</tt>.
+	 */
+	@Getter @Setter private boolean rpcAdaptive;
+	
+	/** RPC queue time deadline for each rpc method, a request waited in queue over it is shed with overload response, 0 means no deadline. */
+	@Getter @Setter private int rpcQueueTimeoutInMillis;
 
 	
 	public RpcParameter() {}
@@ -28,4 +38,10 @@ public class RpcParameter {
 		this.rpcQueues = rpcQueues;
 	}
 	
+	public RpcParameter(int rpcThreads, int rpcQueues, boolean rpcAdaptive, int rpcQueueTimeoutInMillis) {
+		this(rpcThreads, rpcQueues);
+		this.rpcAdaptive             = rpcAdaptive;
+		this.rpcQueueTimeoutInMillis = rpcQueueTimeoutInMillis;
+	}
+	
 }
@@ -37,4 +37,20 @@ public interface RpcServerX {
 	 * @return the approximate complete request count of the rpc api.
 	 */
 	long completeCount(RpcApi api);
+	
+	/**
+	 * @return the current concurrency limit of in-flight requests of the rpc api.
+	 */
+	int limit(RpcApi api);
+	
+	/**
+	 * @return the approximate in-flight (waiting and processing) request count of the rpc api.
+	 */
+	int inflightCount(RpcApi api);
+	
+	/**
+	 * @return the approximate rejected request count of the rpc api.
+	 */
+	long rejectCount(RpcApi api);
+	
 }
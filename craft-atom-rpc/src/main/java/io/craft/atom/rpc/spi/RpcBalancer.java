@@ -0,0 +1,25 @@
+package io.craft.atom.rpc.spi;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.rpc.RpcEndpoint;
+
+
+/**
+ * RPC balancer selects a server endpoint for each request of a client which connects to multiple servers.
+ * 
+ * @see RpcConnector
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface RpcBalancer {
+	
+	/**
+	 * Selects an available endpoint for the request, it is called on every request and should not allocate.
+	 * 
+	 * @param  endpoints all endpoints of the client, it is never empty and must not be modified.
+	 * @param  req
+	 * @return an available endpoint, or <tt>null</tt> if none of them is available.
+	 */
+	RpcEndpoint select(RpcEndpoint[] endpoints, RpcMessage req);
+	
+}
@@ -4,6 +4,9 @@ import io.craft.atom.protocol.rpc.model.RpcMessage;
 import io.craft.atom.rpc.RpcException;
 
 import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 
 
@@ -20,13 +23,22 @@ import java.net.SocketAddress;
 public interface RpcConnector {
 	
 	/**
-	 * Connect to rpc server.
+	 * Connect to rpc server, the one with the fewest connections if there are multiple servers.
 	 *
 	 * @return connection id
 	 * @throws RpcException If some other rpc error occurs
 	 */
 	long connect() throws RpcException;
 	
+	/**
+	 * Connect to the rpc server of the address.
+	 * 
+	 * @param  address one of the addresses to connect.
+	 * @return connection id
+	 * @throws RpcException If some other rpc error occurs
+	 */
+	long connect(SocketAddress address) throws RpcException;
+	
 	/**
 	 * Disconnect the connection with specified id.
 	 *  
@@ -65,6 +77,20 @@ public interface RpcConnector {
 	 */
 	void setAddress(SocketAddress address);
 	
+	/**
+	 * Set addresses of multiple rpc servers to connect.
+	 * 
+	 * @param addresses
+	 */
+	void setAddresses(List<SocketAddress> addresses);
+	
+	/**
+	 * Set balancer which selects a server for each request.
+	 * 
+	 * @param balancer
+	 */
+	void setBalancer(RpcBalancer balancer);
+	
 	/**
 	 * Set heartbeat in millisecond
 	 * 
@@ -92,8 +118,42 @@ public interface RpcConnector {
 	int getRpcTimeoutInMillis();
 	
 	/**
-	 * @return the approximate wait to be sent request count.
+	 * Set preferred serialization type of requests, it is used only if the server accepts it on connect.
+	 * 
+	 * @param serialization
+	 * @see   io.craft.atom.protocol.rpc.api.SerializationRegistry
+	 */
+	void setSerialization(byte serialization);
+	
+	/**
+	 * Set preferred compression type of requests and responses, it is used only if the server accepts it on connect, 0 means no compression.
+	 * 
+	 * @param compression
+	 * @see   io.craft.atom.protocol.rpc.api.CompressionRegistry
+	 */
+	void setCompression(byte compression);
+	
+	/**
+	 * Set executor which notifies listeners of async request futures, 
+	 * listeners are notified on the thread completes the future if it is <code>null</code>, e.g. the io thread for a response.
+	 * 
+	 * @param callbackExecutor
+	 */
+	void setCallbackExecutor(Executor callbackExecutor);
+	
+	/**
+	 * @return the approximate outstanding request count of all connections, they are sent and wait for responses.
 	 */
 	int waitCount();
 	
+	/**
+	 * @return the approximate outstanding request count of each connection, keyed by connection id.
+	 */
+	Map<Long, Integer> pendingCounts();
+	
+	/**
+	 * @return the approximate bytes held by decoders of all connections.
+	 */
+	long footprint();
+	
 }
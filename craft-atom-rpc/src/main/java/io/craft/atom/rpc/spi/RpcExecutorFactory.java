@@ -22,6 +22,15 @@ public interface RpcExecutorFactory {
 	 */
 	MonitoringExecutorService getExecutor(RpcApi api) throws RpcException;
 	
+	/**
+	 * Get a new (or reusable) monitoring executor service by method id of the api, it is the same executor of {@link #getExecutor(RpcApi)}.
+	 * 
+	 * @param  methodId
+	 * @return executor
+	 * @throws RpcException if any rpc error occurs.
+	 */
+	MonitoringExecutorService getExecutor(int methodId) throws RpcException;
+	
 	/**
 	 * Set rpc registry
 	 * 
@@ -42,6 +42,13 @@ public interface RpcProcessor {
 	 */
 	void setExecutorFactory(RpcExecutorFactory executorFactory);
 	
+	/**
+	 * Set rpc registry, used to answer method table request and resolve the method id of compact request.
+	 * 
+	 * @param registry
+	 */
+	void setRegistry(RpcRegistry registry);
+	
 	/**
 	 * @return the approximate wait request count of the rpc api.
 	 */
@@ -57,4 +64,19 @@ public interface RpcProcessor {
 	 */
 	long completeCount(RpcApi api);
 	
+	/**
+	 * @return the current concurrency limit of in-flight requests of the rpc api.
+	 */
+	int limit(RpcApi api);
+	
+	/**
+	 * @return the approximate in-flight (waiting and processing) request count of the rpc api.
+	 */
+	int inflightCount(RpcApi api);
+	
+	/**
+	 * @return the approximate rejected request count of the rpc api, rejected by concurrency limit, full queue or queue deadline.
+	 */
+	long rejectCount(RpcApi api);
+	
 }
@@ -17,6 +17,17 @@ public interface RpcProxyFactory {
 	 */
 	<T> T getProxy(Class<T> rpcInterface);
 	
+	/**
+	 * Get an instance of async proxy class for the specified async interface, 
+	 * its method invokes the rpc interface method with the same name and parameter types, and returns {@link io.craft.atom.rpc.RpcFuture} without waiting.
+	 * 
+	 * @param  rpcInterface
+	 * @param  asyncInterface
+	 * @return a proxy instance that implements the specified async interface.
+	 * @throws IllegalArgumentException if a method of async interface does not return future or has no mapping rpc method.
+	 */
+	<A> A getAsyncProxy(Class<?> rpcInterface, Class<A> asyncInterface);
+	
 	/**
 	 * Set rpc invoker. Proxy instance created by factory would use {@link RpcInvoker} to launch a rpc invocation.
 	 * 
@@ -1,5 +1,6 @@
 package io.craft.atom.rpc.spi;
 
+import java.util.Map;
 import java.util.Set;
 
 
@@ -33,8 +34,37 @@ public interface RpcRegistry {
 	 */
 	RpcApi lookup(RpcApi api);
 	
+	/**
+	 * Lookup a rpc api by its method id.
+	 * 
+	 * @param  methodId method id in the method table.
+	 * @return result rpc api, or <code>null</code> if no api mapping the id now.
+	 */
+	RpcApi lookup(int methodId);
+	
+	/**
+	 * Lookup the method id of a rpc api without creating query api object, it is the interned handle of an api on request path.
+	 * 
+	 * @param  rpcId
+	 * @param  rpcInterface
+	 * @param  methodName
+	 * @param  parameterTypes
+	 * @return positive method id of the registered api, or <tt>0</tt> if no api mapping now.
+	 */
+	int methodId(String rpcId, Class<?> rpcInterface, String methodName, Class<?>[] parameterTypes);
+	
 	/**
 	 * @return all registered rpc apis.
 	 */
 	Set<RpcApi> apis();
+	
+	/**
+	 * Method table maps method signature to a positive method id of each registered rpc api, 
+	 * the id of an api never changes and is never reused by another api in this registry.
+	 * 
+	 * @return method table of all registered rpc apis.
+	 * @see    io.craft.atom.rpc.RpcMessages#methodSignature(String, Class, String, Class[])
+	 */
+	Map<String, Integer> methodTable();
+	
 }
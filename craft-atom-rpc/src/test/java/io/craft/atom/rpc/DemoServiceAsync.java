@@ -0,0 +1,17 @@
+package io.craft.atom.rpc;
+
+import java.util.concurrent.Future;
+
+/**
+ * Async interface of {@link DemoService}
+ * 
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public interface DemoServiceAsync {
+
+	
+	RpcFuture<String> echo(String in);
+	Future<Void> noreturn(String in);
+	
+}
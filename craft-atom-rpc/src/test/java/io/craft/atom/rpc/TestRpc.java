@@ -2,6 +2,7 @@ package io.craft.atom.rpc;
 
 import io.craft.atom.io.AbstractIoHandler;
 import io.craft.atom.io.Channel;
+import io.craft.atom.io.IllegalChannelStateException;
 import io.craft.atom.io.IoConnector;
 import io.craft.atom.nio.api.NioFactory;
 import io.craft.atom.rpc.DefaultRpcClient;
@@ -15,19 +16,31 @@ import io.craft.atom.rpc.api.RpcParameter;
 import io.craft.atom.rpc.api.RpcServer;
 import io.craft.atom.rpc.api.RpcServerX;
 import io.craft.atom.rpc.spi.RpcApi;
+import io.craft.atom.rpc.spi.RpcBalancer;
 import io.craft.atom.test.AvailablePortFinder;
 import io.craft.atom.test.CaseCounter;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -144,6 +157,54 @@ public class TestRpc {
 		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test multi connections. ", CaseCounter.incr(1)));
 	}
 	
+	@Test
+	public void testMultiServers() throws InterruptedException {
+		int port2 = AvailablePortFinder.getNextAvailable(port + 1);
+		RpcServer server2 = RpcFactory.newRpcServer(port2);
+		server2.export(DemoService.class, new DemoServiceImpl1(), new RpcParameter(10, 100));
+		server2.open();
+		
+		// requests are balanced across servers
+		for (RpcBalancer balancer : new RpcBalancer[] { new RoundRobinRpcBalancer(), new LeastOutstandingRpcBalancer(), new P2cEwmaRpcBalancer() }) {
+			client = RpcFactory.newRpcClientBuilder(host, port).address(host, port2).connections(2).rpcBalancer(balancer).build();
+			client.open();
+			ds = client.refer(DemoService.class);
+			for (int i = 0; i < 40; i++) {
+				Assert.assertEquals("hi-" + i, ds.echo("hi-" + i));
+			}
+			client.close();
+		}
+		Thread.sleep(50);
+		Assert.assertTrue(completeCount(server) > 0);
+		Assert.assertTrue(completeCount(server2) > 0);
+		
+		// the endpoint of a broken connection is ejected, it can not be reconnected to the closed server and requests fail over to the other one
+		client = RpcFactory.newRpcClientBuilder(host, port).address(host, port2).build();
+		client.open();
+		ds = client.refer(DemoService.class);
+		server2.close();
+		DefaultRpcConnector connector = (DefaultRpcConnector) ((DefaultRpcClient) client).getConnector();
+		RpcEndpoint endpoint = connector.getEndpoints()[1];
+		endpoint.select(0).close();
+		Thread.sleep(100);
+		Assert.assertFalse(endpoint.isConnected());
+		Assert.assertTrue(endpoint.isEjected());
+		for (int i = 0; i < 20; i++) {
+			Assert.assertEquals("hi-" + i, ds.echo("hi-" + i));
+		}
+		client.close();
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test multi servers. ", CaseCounter.incr(124)));
+	}
+	
+	private long completeCount(RpcServer server) {
+		long count = 0;
+		RpcServerX x = server.x();
+		for (RpcApi api : x.apis()) {
+			count += x.completeCount(api);
+		}
+		return count;
+	}
+	
 	@Test
 	public void testMaxAcceptConnections() throws Exception {
 		int connections = 100;
@@ -185,6 +246,48 @@ public class TestRpc {
 		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test broken connection and reconnect. ", CaseCounter.incr(3)));
 	}
 	
+	@Test
+	public void testReconnectUnreachable() throws Exception {
+		int port2 = AvailablePortFinder.getNextAvailable(port + 1);
+		RpcServer server2 = RpcFactory.newRpcServer(port2);
+		server2.export(DemoService.class, new DemoServiceImpl1(), new RpcParameter(10, 100));
+		server2.open();
+		client = RpcFactory.newRpcClientBuilder(host, port).address(host, port2).build();
+		client.open();
+		ds = client.refer(DemoService.class);
+		DefaultRpcConnector connector = (DefaultRpcConnector) ((DefaultRpcClient) client).getConnector();
+		connector.setReconnectDelay(10);
+		
+		// the connection of the second server is moved to an unreachable endpoint, syn of its reconnect is dropped by the full backlog
+		ServerSocket full = new ServerSocket(0, 1);
+		Socket[] sockets = new Socket[3];
+		for (int i = 0; i < sockets.length; i++) {
+			sockets[i] = new Socket();
+			try { sockets[i].connect(full.getLocalSocketAddress(), 100); } catch (IOException e) { /* backlog is full */ }
+		}
+		RpcEndpoint unreachable = new RpcEndpoint(full.getLocalSocketAddress(), 10);
+		DefaultRpcChannel channel = connector.getEndpoints()[1].select(0);
+		connector.getEndpoints()[1].remove(channel);
+		channel.setEndpoint(unreachable);
+		unreachable.add(channel);
+		channel.close();
+		Thread.sleep(50);
+		
+		// the first server is reconnected all the same
+		RpcEndpoint endpoint = connector.getEndpoints()[0];
+		endpoint.select(0).close();
+		Thread.sleep(50);
+		for (int i = 0; i < 100 && !endpoint.isAvailable(); i++) { Thread.sleep(10); }
+		Assert.assertTrue(endpoint.isAvailable());
+		Assert.assertFalse(unreachable.isConnected());
+		Assert.assertEquals("hi", ds.echo("hi"));
+		client.close();
+		server2.close();
+		for (Socket socket : sockets) { socket.close(); }
+		full.close();
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test reconnect while another endpoint is unreachable. ", CaseCounter.incr(3)));
+	}
+	
 	@Test
 	public void testHeartbeat() throws InterruptedException {
 		port = AvailablePortFinder.getNextAvailable();
@@ -361,9 +464,12 @@ public class TestRpc {
 				Assert.assertEquals(0, x.waitCount(api));
 				Assert.assertEquals(0, x.processingCount(api));
 				Assert.assertEquals(1, x.completeCount(api));
+				Assert.assertEquals(110, x.limit(api));
+				Assert.assertEquals(0, x.inflightCount(api));
+				Assert.assertEquals(0, x.rejectCount(api));
 			}
 		}
-		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test server x. ", CaseCounter.incr(4)));
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test server x. ", CaseCounter.incr(7)));
 	}
 	
 	@Test
@@ -400,4 +506,242 @@ public class TestRpc {
 		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test unexport. ", CaseCounter.incr(2)));
 	}
 	
+	@Test
+	public void testMethodTable() throws InterruptedException {
+		DefaultRpcConnector connector = (DefaultRpcConnector) ((DefaultRpcClient) client).getConnector();
+		Thread.sleep(100);
+		for (DefaultRpcChannel channel : connector.getChannels().values()) {
+			Map<String, Integer> table = channel.getMethodTable();
+			Assert.assertNotNull(table);
+			Assert.assertEquals(server.x().apis().size(), table.size());
+			Assert.assertTrue(table.containsKey(RpcMessages.methodSignature(null, DemoService.class, "echo", new Class<?>[] { String.class })));
+		}
+		
+		// compact request
+		Assert.assertEquals("hi", ds.echo("hi"));
+		
+		// compact request of unexported method
+		server.unexport(DemoService.class, "echo", new Class<?>[] { String.class });
+		try {
+			ds.echo("hi");
+			Assert.fail();
+		} catch (RpcException e) {
+			Assert.assertTrue(true);
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test method table. ", CaseCounter.incr(5)));
+	}
+	
+	@Test
+	public void testSerialization() throws InterruptedException {
+		for (byte st : new byte[] { 3, 4, 9 }) {
+			client = RpcFactory.newRpcClientBuilder(host, port).serialization(st).build();
+			client.open();
+			ds = client.refer(DemoService.class);
+			Thread.sleep(100);
+			
+			DefaultRpcConnector connector = (DefaultRpcConnector) ((DefaultRpcClient) client).getConnector();
+			for (DefaultRpcChannel channel : connector.getChannels().values()) {
+				// unregistered serialization is not accepted
+				Assert.assertEquals(st == 9 ? 1 : st, channel.getSerialization());
+			}
+			Assert.assertEquals("hi", ds.echo("hi"));
+			client.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test serialization. ", CaseCounter.incr(6)));
+	}
+	
+	@Test
+	public void testCompression() throws InterruptedException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; sb.length() < 256 * 1024; i++) {
+			sb.append("element-").append(i).append(',');
+		}
+		String large = sb.toString();
+		for (byte ct : new byte[] { 1, 2, 9 }) {
+			client = RpcFactory.newRpcClientBuilder(host, port).compression(ct).build();
+			client.open();
+			ds = client.refer(DemoService.class);
+			Thread.sleep(100);
+			
+			DefaultRpcConnector connector = (DefaultRpcConnector) ((DefaultRpcClient) client).getConnector();
+			for (DefaultRpcChannel channel : connector.getChannels().values()) {
+				// unregistered compression is not accepted
+				Assert.assertEquals(ct == 9 ? 0 : ct, channel.getCompression());
+			}
+			Assert.assertEquals("hi", ds.echo("hi"));
+			Assert.assertEquals(large, ds.echo(large));
+			client.close();
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test compression. ", CaseCounter.incr(9)));
+	}
+	
+	@Test
+	public void testFutureTimeout() throws Exception {
+		// a server never responds
+		ServerSocket ss = new ServerSocket(0);
+		client = RpcFactory.newRpcClient(host, ss.getLocalPort());
+		client.open();
+		ds = client.refer(DemoService.class);
+		
+		// async future expires without waiting
+		RpcContext ctx = RpcContext.getContext();
+		ctx.setAsync(true);
+		ctx.setRpcTimeoutInMillis(50);
+		ds.echo("hi");
+		Future<String> future = ctx.getFuture();
+		RpcClientX x = client.x();
+		Assert.assertEquals(1, x.waitCount());
+		Assert.assertEquals(1, x.pendingCounts().values().iterator().next().intValue());
+		Thread.sleep(200);
+		Assert.assertTrue(future.isDone());
+		Assert.assertEquals(0, client.x().waitCount());
+		try {
+			future.get();
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof TimeoutException);
+		}
+		
+		// sync request is removed after timeout
+		RpcContext.getContext().setRpcTimeoutInMillis(50);
+		try {
+			ds.echo("hi");
+			Assert.fail();
+		} catch (RpcException e) {
+			Assert.assertEquals(RpcException.CLIENT_TIMEOUT, e.getCode());
+		}
+		Assert.assertEquals(0, client.x().waitCount());
+		client.close();
+		ss.close();
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test future timeout. ", CaseCounter.incr(7)));
+	}
+	
+	@Test
+	public void testWriteFailure() throws Exception {
+		// a request failed to write does not leave its future pending, with or without timeout
+		DefaultRpcConnector connector = (DefaultRpcConnector) ((DefaultRpcClient) client).getConnector();
+		DefaultRpcChannel channel = connector.getChannels().values().iterator().next();
+		Channel<byte[]> origin = channel.getChannel();
+		channel.setChannel(unwritable(origin));
+		for (int timeout : new int[] { Integer.MAX_VALUE, 50 }) {
+			RpcContext.getContext().setRpcTimeoutInMillis(timeout);
+			try {
+				ds.echo("hi");
+				Assert.fail();
+			} catch (RpcException e) {
+				Assert.assertEquals(RpcException.NETWORK, e.getCode());
+			}
+			Assert.assertEquals(0, client.x().waitCount());
+		}
+		channel.setChannel(origin);
+		Assert.assertEquals("hi", ds.echo("hi"));
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test write failure. ", CaseCounter.incr(5)));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Channel<byte[]> unwritable(final Channel<byte[]> channel) {
+		return (Channel<byte[]>) Proxy.newProxyInstance(Channel.class.getClassLoader(), new Class<?>[] { Channel.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if ("write".equals(method.getName())) {
+					throw new IllegalChannelStateException("Channel is broken");
+				}
+				return method.invoke(channel, args);
+			}
+		});
+	}
+	
+	@Test
+	public void testAsyncProxy() throws Exception {
+		// fan out from one thread, listeners are notified on the callback executor
+		int n = 1000;
+		ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				return new Thread(r, "rpc-callback");
+			}
+		});
+		client.close();
+		server.close();
+		server = RpcFactory.newRpcServer(port);
+		server.export(DemoService.class, new DemoServiceImpl1(), new RpcParameter(10, n));
+		server.open();
+		client = RpcFactory.newRpcClientBuilder(host, port).callbackExecutor(executor).build();
+		client.open();
+		DemoServiceAsync dsa = client.refer(DemoService.class, DemoServiceAsync.class);
+		final CountDownLatch latch = new CountDownLatch(n);
+		final AtomicInteger ok = new AtomicInteger();
+		for (int i = 0; i < n; i++) {
+			final String in = Integer.toString(i);
+			dsa.echo(in).addListener(new RpcFutureListener<String>() {
+				@Override
+				public void completed(RpcFuture<String> future) {
+					try {
+						if (in.equals(future.get()) && "rpc-callback".equals(Thread.currentThread().getName())) ok.incrementAndGet();
+					} catch (Exception e) {
+						// ignore, counted as failure
+					}
+					latch.countDown();
+				}
+			});
+		}
+		Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Assert.assertEquals(n, ok.get());
+		Assert.assertNull(dsa.noreturn("hi").get());
+		Assert.assertEquals("hi", dsa.echo("hi").get(1, TimeUnit.SECONDS));
+		client.close();
+		executor.shutdown();
+		
+		// async interface mismatch
+		try {
+			client.refer(DemoService.class, Runnable.class);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(true);
+		}
+		
+		// cancellation frees the pending request
+		ServerSocket ss = new ServerSocket(0);
+		client = RpcFactory.newRpcClient(host, ss.getLocalPort());
+		client.open();
+		dsa = client.refer(DemoService.class, DemoServiceAsync.class);
+		RpcFuture<String> future = dsa.echo("hi");
+		final AtomicBoolean cancelled = new AtomicBoolean(false);
+		future.addListener(new RpcFutureListener<String>() {
+			@Override
+			public void completed(RpcFuture<String> future) {
+				cancelled.set(future.isCancelled());
+			}
+		});
+		Assert.assertEquals(1, client.x().waitCount());
+		Assert.assertTrue(future.cancel(true));
+		Assert.assertFalse(future.cancel(true));
+		Assert.assertTrue(future.isDone());
+		Assert.assertTrue(future.isCancelled());
+		Assert.assertTrue(cancelled.get());
+		Assert.assertEquals(0, client.x().waitCount());
+		try {
+			future.get();
+			Assert.fail();
+		} catch (CancellationException e) {
+			Assert.assertTrue(true);
+		}
+		client.close();
+		ss.close();
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test async proxy. ", CaseCounter.incr(n + 10)));
+	}
+	
+	@Test
+	public void testAsyncProxyObjectMethods() {
+		DemoServiceAsync dsa   = client.refer(DemoService.class, DemoServiceAsync.class);
+		DemoServiceAsync other = client.refer(DemoService.class, DemoServiceAsync.class);
+		Assert.assertTrue(dsa.equals(dsa));
+		Assert.assertFalse(dsa.equals(other));
+		Assert.assertFalse(dsa.equals(null));
+		Assert.assertEquals(System.identityHashCode(dsa), dsa.hashCode());
+		Assert.assertTrue(dsa.toString().startsWith(DemoServiceAsync.class.getName() + "@"));
+		Assert.assertEquals(0, client.x().waitCount());
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test async proxy object methods. ", CaseCounter.incr(6)));
+	}
+	
 }
@@ -0,0 +1,222 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.rpc.spi.RpcBalancer;
+import io.craft.atom.test.CaseCounter;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test for {@link RpcBalancer} implementations and {@link RpcEndpoint}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestRpcBalancer {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestRpcBalancer.class);
+	private static final long   MS  = TimeUnit.MILLISECONDS.toNanos(1);
+
+
+	private RpcEndpoint[] endpoints;
+
+
+	@Before
+	public void before() {
+		endpoints = new RpcEndpoint[3];
+		for (int i = 0; i < endpoints.length; i++) {
+			endpoints[i] = new RpcEndpoint(new InetSocketAddress("localhost", 9000 + i), 60000);
+			endpoints[i].add(channel());
+		}
+	}
+
+	@Test
+	public void testRoundRobin() {
+		RpcBalancer balancer = new RoundRobinRpcBalancer();
+		int[] counts = count(balancer, 300);
+		Assert.assertArrayEquals(new int[] { 100, 100, 100 }, counts);
+
+		// ejected and disconnected endpoints are skipped
+		eject(endpoints[0]);
+		endpoints[1].remove(endpoints[1].select(0));
+		counts = count(balancer, 300);
+		Assert.assertArrayEquals(new int[] { 0, 0, 300 }, counts);
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test round robin balancer. ", CaseCounter.incr(2)));
+	}
+
+	@Test
+	public void testLeastOutstanding() {
+		RpcBalancer balancer = new LeastOutstandingRpcBalancer();
+		pending(endpoints[0], 3);
+		pending(endpoints[1], 1);
+		pending(endpoints[2], 2);
+		Assert.assertSame(endpoints[1], balancer.select(endpoints, request()));
+
+		// ties are spread
+		pending(endpoints[0], -1);
+		pending(endpoints[1], 1);
+		pending(endpoints[2], 1);
+		int[] counts = count(balancer, 300);
+		Assert.assertEquals(0, counts[2]);
+		Assert.assertTrue(counts[0] >= 100 && counts[1] >= 100);
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test least outstanding balancer. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testP2cEwma() {
+		RpcBalancer balancer = new P2cEwmaRpcBalancer();
+
+		// unprobed idle endpoints cost nothing, picks are spread
+		int[] counts = count(balancer, 3000);
+		for (int c : counts) { Assert.assertTrue(c > 500); }
+
+		// the slow endpoint loses every comparison
+		endpoints[0].success(1 * MS);
+		endpoints[1].success(2 * MS);
+		endpoints[2].success(50 * MS);
+		counts = count(balancer, 3000);
+		Assert.assertEquals(0, counts[2]);
+		Assert.assertTrue(counts[0] > counts[1]);
+
+		// outstanding requests weigh the latency
+		pending(endpoints[0], 4);
+		Assert.assertTrue(endpoints[0].cost() > endpoints[1].cost());
+
+		// a peak replaces the average at once
+		endpoints[1].success(100 * MS);
+		Assert.assertEquals(100 * MS, endpoints[1].latency(), 0.1);
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test p2c ewma balancer. ", CaseCounter.incr(5)));
+	}
+
+	@Test
+	public void testEjection() {
+		RpcEndpoint ep = endpoints[0];
+		for (int i = 0; i < 4; i++) { ep.failure(); }
+		Assert.assertTrue(ep.isAvailable());
+
+		// a success resets consecutive failures
+		ep.success(1 * MS);
+		for (int i = 0; i < 4; i++) { ep.failure(); }
+		Assert.assertTrue(ep.isAvailable());
+		ep.failure();
+		Assert.assertTrue(ep.isEjected());
+		Assert.assertFalse(ep.isAvailable());
+		ep.readmit();
+		Assert.assertTrue(ep.isAvailable());
+
+		// ejection expires
+		ep.setEjectionInMillis(-1);
+		ep.eject();
+		Assert.assertTrue(ep.isAvailable());
+		ep.setEjectionInMillis(60000);
+
+		// all ejected
+		for (RpcEndpoint e : endpoints) { eject(e); }
+		for (RpcBalancer balancer : new RpcBalancer[] { new RoundRobinRpcBalancer(), new LeastOutstandingRpcBalancer(), new P2cEwmaRpcBalancer() }) {
+			Assert.assertNull(balancer.select(endpoints, request()));
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test endpoint ejection. ", CaseCounter.incr(9)));
+	}
+
+	@Test
+	public void testExpire() throws Exception {
+		RpcEndpoint ep = endpoints[0];
+		DefaultRpcChannel channel = ep.select(0);
+		channel.setEndpoint(ep);
+
+		// answered, cancelled or expired futures are not failures
+		for (int i = 0; i < 5; i++) {
+			DefaultRpcFuture<Object> future = new DefaultRpcFuture<Object>();
+			channel.setRpcFuture(i, future, 0);
+			RpcMessage rsp = RpcMessages.newRsponseRpcMessage(i, "hi");
+			channel.notifyRpcMessage(rsp);
+			channel.expire(future);
+			Assert.assertSame(rsp, future.getResponse());
+		}
+		for (int i = 0; i < 5; i++) {
+			DefaultRpcFuture<Object> future = new DefaultRpcFuture<Object>();
+			channel.setRpcFuture(i, future, 0);
+			future.cancel(false);
+			channel.expire(future);
+		}
+		Assert.assertTrue(ep.isAvailable());
+
+		// outstanding futures are failures
+		for (int i = 0; i < 5; i++) {
+			DefaultRpcFuture<Object> future = new DefaultRpcFuture<Object>();
+			channel.setRpcFuture(i, future, 0);
+			channel.expire(future);
+			channel.expire(future);
+			Assert.assertTrue(future.isDone());
+		}
+		Assert.assertTrue(ep.isEjected());
+		Assert.assertEquals(0, channel.pendingCount());
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test expire counts outstanding futures only. ", CaseCounter.incr(13)));
+	}
+
+	@Test
+	public void testPerformance() {
+		int n = 1000000;
+		RpcMessage req = request();
+		for (RpcBalancer balancer : new RpcBalancer[] { new RoundRobinRpcBalancer(), new LeastOutstandingRpcBalancer(), new P2cEwmaRpcBalancer() }) {
+			Object r = null;
+			for (int i = 0; i < n / 10; i++) { req.setId(i); r = balancer.select(endpoints, req).select(i); }
+			long s = System.nanoTime();
+			for (int i = 0; i < n; i++) { req.setId(i); r = balancer.select(endpoints, req).select(i); }
+			long e = System.nanoTime();
+			Assert.assertNotNull(r);
+			LOG.info("[CRAFT-ATOM-RPC] Rpc balancer performance, |balancer={}, count={}, ns/op={}|", balancer.getClass().getSimpleName(), n, (e - s) / n);
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test balancer performance. ", CaseCounter.incr(1)));
+	}
+
+	private int[] count(RpcBalancer balancer, int n) {
+		int[] counts = new int[endpoints.length];
+		RpcMessage req = request();
+		for (int i = 0; i < n; i++) {
+			req.setId(i);
+			RpcEndpoint ep = balancer.select(endpoints, req);
+			for (int j = 0; j < endpoints.length; j++) {
+				if (endpoints[j] == ep) counts[j]++;
+			}
+		}
+		return counts;
+	}
+
+	private void eject(RpcEndpoint ep) {
+		for (int i = 0; i < 5; i++) { ep.failure(); }
+	}
+
+	/**
+	 * Adds or removes outstanding requests of the endpoint.
+	 */
+	private void pending(RpcEndpoint ep, int delta) {
+		DefaultRpcChannel channel = ep.select(0);
+		for (int i = 0; i < delta; i++) {
+			channel.setRpcFuture(channel.getFutures().size() + 1, new DefaultRpcFuture<Object>(), 0);
+		}
+		for (int i = 0; i < -delta; i++) {
+			channel.remove(channel.getFutures().values().iterator().next());
+		}
+	}
+
+	private DefaultRpcChannel channel() {
+		DefaultRpcChannel channel = new DefaultRpcChannel(null, null, null);
+		channel.setFutures(new ConcurrentHashMap<Long, DefaultRpcFuture<?>>());
+		return channel;
+	}
+
+	private RpcMessage request() {
+		return RpcMessages.newRequestRpcMessage(DemoService.class, "echo", new Class<?>[] { String.class }, new Object[] { "hi" });
+	}
+
+}
@@ -0,0 +1,85 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.test.CaseCounter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link RpcLimiter}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestRpcLimiter {
+
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+
+	@Test
+	public void testFixed() {
+		RpcLimiter limiter = new RpcLimiter(3);
+		for (int i = 0; i < 3; i++) { Assert.assertTrue(limiter.acquire()); }
+		Assert.assertFalse(limiter.acquire());
+		Assert.assertEquals(3, limiter.inflightCount());
+		Assert.assertEquals(1, limiter.rejectCount());
+
+		// latency never changes a fixed limit
+		limiter.release(1000 * MS);
+		limiter.cancel();
+		Assert.assertEquals(1, limiter.inflightCount());
+		Assert.assertEquals(3, limiter.limit());
+		limiter.reject();
+		Assert.assertEquals(2, limiter.rejectCount());
+		Assert.assertFalse(limiter.isAdaptive());
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test fixed limiter. ", CaseCounter.incr(8)));
+	}
+
+	@Test
+	public void testAdaptive() {
+		RpcLimiter limiter = new RpcLimiter(4, 1, 100);
+		Assert.assertTrue(limiter.isAdaptive());
+		Assert.assertEquals(4, limiter.limit());
+
+		// stable latency with demand grows the limit up to max
+		for (int i = 0; i < 1000; i++) { sample(limiter, limiter.limit(), 10 * MS); }
+		Assert.assertEquals(100, limiter.limit());
+
+		// latency increases as requests queue up, the limit shrinks
+		for (int i = 0; i < 100; i++) { sample(limiter, limiter.limit(), 50 * MS); }
+		int shrunk = limiter.limit();
+		Assert.assertTrue(shrunk < 50);
+
+		// latency recovers, the limit grows again
+		for (int i = 0; i < 1000; i++) { sample(limiter, limiter.limit(), 10 * MS); }
+		Assert.assertTrue(limiter.limit() > shrunk);
+		Assert.assertEquals(0, limiter.inflightCount());
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test adaptive limiter. ", CaseCounter.incr(5)));
+	}
+
+	@Test
+	public void testAppLimited() {
+		// the limit does not grow when less than half of it is in use
+		RpcLimiter limiter = new RpcLimiter(20, 1, 100);
+		for (int i = 0; i < 1000; i++) { sample(limiter, 5, 10 * MS); }
+		Assert.assertEquals(20, limiter.limit());
+
+		// nor shrink below min
+		for (int i = 0; i < 1000; i++) { sample(limiter, 1, (i + 10) * MS); }
+		Assert.assertTrue(limiter.limit() >= 1);
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test app limited limiter. ", CaseCounter.incr(2)));
+	}
+
+	/**
+	 * Acquires n requests and releases them with the rtt, the last one is sampled with n in flight.
+	 */
+	private void sample(RpcLimiter limiter, int n, long rtt) {
+		int acquired = 0;
+		for (int i = 0; i < n && limiter.acquire(); i++) { acquired++; }
+		for (int i = 0; i < acquired; i++) { limiter.release(rtt); }
+	}
+
+}
@@ -0,0 +1,210 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.rpc.api.RpcParameter;
+import io.craft.atom.rpc.spi.RpcApi;
+import io.craft.atom.rpc.spi.RpcChannel;
+import io.craft.atom.rpc.spi.RpcConnector;
+import io.craft.atom.rpc.spi.RpcInvoker;
+import io.craft.atom.rpc.spi.RpcRegistry;
+import io.craft.atom.test.CaseCounter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test for {@link DefaultRpcProcessor}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestRpcProcessor {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestRpcProcessor.class);
+
+
+	private DefaultRpcRegistry        registry ;
+	private DefaultRpcProcessor       processor;
+	private BlockingQueue<RpcMessage> rsps     ;
+	private RpcChannel                channel  ;
+	private AtomicInteger             invoked  ;
+
+
+	@Before
+	public void before() {
+		registry = new DefaultRpcRegistry();
+		registry.register(new DefaultRpcApi(null, DemoService.class, new RpcMethod("echo", new Class<?>[] { String.class }), new DemoServiceImpl1(), new RpcParameter(4, 200000)));
+		registry.register(new DefaultRpcApi(null, DemoService.class, new RpcMethod("noreturn", new Class<?>[] { String.class }), new DemoServiceImpl1(), new RpcParameter(4, 1000, true, 100)));
+		DefaultRpcExecutorFactory executorFactory = new DefaultRpcExecutorFactory();
+		executorFactory.setRegistry(registry);
+		rsps      = new LinkedBlockingQueue<RpcMessage>();
+		invoked   = new AtomicInteger();
+		processor = new DefaultRpcProcessor();
+		processor.setRegistry(registry);
+		processor.setExecutorFactory(executorFactory);
+		processor.setInvoker(new SleepInvoker());
+		channel = new RpcChannel() {
+			@Override
+			public void write(RpcMessage msg) throws RpcException {
+				rsps.add(msg);
+			}
+
+			@Override
+			public List<RpcMessage> read(byte[] bytes) {
+				return null;
+			}
+		};
+	}
+
+	@After
+	public void after() {
+		processor.close();
+	}
+
+	@Test
+	public void testServerTimeout() throws Exception {
+		// timer writes back server timeout and the late result is dropped
+		long s = System.currentTimeMillis();
+		processor.process(request("200", 50), channel);
+		RpcMessage rsp = rsps.poll(1, TimeUnit.SECONDS);
+		long e = System.currentTimeMillis();
+		Assert.assertEquals(RpcException.SERVER_TIMEOUT, ((RpcException) rsp.getException()).getCode());
+		Assert.assertTrue(e - s >= 50 && e - s < 200);
+		Assert.assertNull(rsps.poll(300, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(1, invoked.get());
+
+		// in time response is written once and not followed by a timeout
+		processor.process(request("10", 100), channel);
+		rsp = rsps.poll(1, TimeUnit.SECONDS);
+		Assert.assertEquals("10", rsp.getReturnObject());
+		Assert.assertNull(rsps.poll(200, TimeUnit.MILLISECONDS));
+
+		// no timeout means waiting until the invocation returns
+		processor.process(request("100", 0), channel);
+		rsp = rsps.poll(1, TimeUnit.SECONDS);
+		Assert.assertEquals("100", rsp.getReturnObject());
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test server timeout. ", CaseCounter.incr(7)));
+	}
+
+	@Test
+	public void testAbandonedInQueue() throws Exception {
+		// requests behind the busy workers expire in queue and are never invoked
+		for (int i = 0; i < 8; i++) {
+			processor.process(request("200", 50), channel);
+		}
+		for (int i = 0; i < 8; i++) {
+			RpcMessage rsp = rsps.poll(1, TimeUnit.SECONDS);
+			Assert.assertEquals(RpcException.SERVER_TIMEOUT, ((RpcException) rsp.getException()).getCode());
+		}
+		Thread.sleep(500);
+		Assert.assertEquals(4, invoked.get());
+		Assert.assertTrue(rsps.isEmpty());
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test abandoned in queue. ", CaseCounter.incr(10)));
+	}
+
+	@Test
+	public void testAdaptiveLimit() throws Exception {
+		// a flood far beyond the capacity is shed early by the adaptive limit and the queue deadline
+		RpcApi api = registry.lookup(2);
+		int n = 2000, overload = 0;
+		for (int i = 0; i < n; i++) {
+			processor.process(request("noreturn", "5", 0), channel);
+		}
+		for (int i = 0; i < n; i++) {
+			RpcMessage rsp = rsps.poll(5, TimeUnit.SECONDS);
+			if (rsp.getException() == null) continue;
+			Assert.assertEquals(RpcException.SERVER_OVERLOAD, ((RpcException) rsp.getException()).getCode());
+			overload++;
+		}
+		Assert.assertTrue(overload > n / 2);
+		Assert.assertEquals(overload, processor.rejectCount(api));
+		Assert.assertTrue(processor.limit(api) < 1004);
+		Assert.assertEquals(0, processor.inflightCount(api));
+		Assert.assertEquals(n - overload, invoked.get());
+		
+		// fixed limit of the other api
+		RpcApi echo = registry.lookup(1);
+		Assert.assertEquals(200004, processor.limit(echo));
+		Assert.assertEquals(0, processor.rejectCount(echo));
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test adaptive limit. ", CaseCounter.incr(n + 7)));
+	}
+
+	@Test
+	public void testPerformance() throws Exception {
+		ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+		int n = 100000;
+		for (int i = 0; i < n / 10; i++) {
+			processor.process(request("0", 60000), channel);
+		}
+		for (int i = 0; i < n / 10; i++) { rsps.take(); }
+
+		mx.resetPeakThreadCount();
+		int  threads = mx.getThreadCount();
+		long s       = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			processor.process(request("0", 60000), channel);
+		}
+		for (int i = 0; i < n; i++) {
+			Assert.assertNull(rsps.take().getException());
+		}
+		long e = System.nanoTime();
+		int peak = mx.getPeakThreadCount();
+		LOG.info("[CRAFT-ATOM-RPC] Rpc processor performance, |count={}, tps={}, threads={}, peakThreads={}|", n, (long) n * 1000000000 / (e - s), threads, peak);
+		Assert.assertTrue(peak - threads <= 4);
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test processor performance. ", CaseCounter.incr(1)));
+	}
+
+	private RpcMessage request(String sleepInMillis, int timeoutInMillis) {
+		return request("echo", sleepInMillis, timeoutInMillis);
+	}
+
+	private RpcMessage request(String methodName, String sleepInMillis, int timeoutInMillis) {
+		RpcMessage req = RpcMessages.newRequestRpcMessage(DemoService.class, methodName, new Class<?>[] { String.class }, new Object[] { sleepInMillis });
+		req.setRpcTimeoutInMillis(timeoutInMillis);
+		return req;
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Sleeps the milliseconds of its parameter and echoes it.
+	 */
+	private class SleepInvoker implements RpcInvoker {
+
+		@Override
+		public RpcMessage invoke(RpcMessage req) throws RpcException {
+			invoked.incrementAndGet();
+			String in = (String) req.getBody().getRpcMethod().getParameters()[0];
+			try {
+				Thread.sleep(Long.parseLong(in));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return RpcMessages.newRsponseRpcMessage(req.getId(), in);
+		}
+
+		@Override
+		public void setConnector(RpcConnector connector) {}
+
+		@Override
+		public void setRegistry(RpcRegistry registry) {}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.rpc.api.RpcParameter;
+import io.craft.atom.rpc.spi.RpcApi;
+import io.craft.atom.test.CaseCounter;
+import io.craft.atom.util.thread.MonitoringExecutorService;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test for {@link DefaultRpcRegistry} and {@link DefaultRpcExecutorFactory}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestRpcRegistry {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestRpcRegistry.class);
+
+
+	private DefaultRpcRegistry        registry       ;
+	private DefaultRpcExecutorFactory executorFactory;
+	private Class<?>[]                types          = new Class<?>[] { String.class };
+
+
+	@Before
+	public void before() {
+		registry = new DefaultRpcRegistry();
+		registry.register(api(null , "echo"));
+		registry.register(api("ds2", "echo"));
+		registry.register(api(null , "noreturn"));
+		executorFactory = new DefaultRpcExecutorFactory();
+		executorFactory.setRegistry(registry);
+	}
+
+	@After
+	public void after() {
+		executorFactory.shutdown();
+	}
+
+	@Test
+	public void testMethodId() {
+		int id1 = registry.methodId(null , DemoService.class, "echo", new Class<?>[] { String.class });
+		int id2 = registry.methodId("ds2", DemoService.class, "echo", new Class<?>[] { String.class });
+		int id3 = registry.methodId(null , DemoService.class, "noreturn", types);
+		Assert.assertEquals(1, id1);
+		Assert.assertEquals(2, id2);
+		Assert.assertEquals(3, id3);
+		Assert.assertEquals("ds2", registry.lookup(id2).getId());
+		Assert.assertEquals(0, registry.methodId(null , DemoService.class, "echo", new Class<?>[0]));
+		Assert.assertEquals(0, registry.methodId("ds3", DemoService.class, "echo", types));
+		Assert.assertEquals(0, registry.methodId(null , Runnable.class, "run", new Class<?>[0]));
+		Assert.assertEquals(0, registry.methodId(null , null, "echo", types));
+		Assert.assertNull(registry.lookup(0));
+		Assert.assertNull(registry.lookup(4));
+
+		// id is kept after unregister and register again
+		registry.unregister(new DefaultRpcApi(null, DemoService.class, new RpcMethod("echo", types)));
+		Assert.assertEquals(0, registry.methodId(null, DemoService.class, "echo", types));
+		Assert.assertNull(registry.lookup(id1));
+		Assert.assertEquals(id2, registry.methodId("ds2", DemoService.class, "echo", types));
+		registry.register(api(null, "echo"));
+		Assert.assertEquals(id1, registry.methodId(null, DemoService.class, "echo", types));
+		Assert.assertEquals(3, registry.apis().size());
+		Assert.assertEquals(3, registry.methodTable().size());
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test registry method id. ", CaseCounter.incr(17)));
+	}
+
+	@Test
+	public void testExecutor() {
+		MonitoringExecutorService es1 = executorFactory.getExecutor(1);
+		Assert.assertSame(es1, executorFactory.getExecutor(1));
+		Assert.assertSame(es1, executorFactory.getExecutor(api(null, "echo")));
+		Assert.assertNotSame(es1, executorFactory.getExecutor(2));
+		try {
+			executorFactory.getExecutor(4);
+			Assert.fail();
+		} catch (RpcException e) {
+			Assert.assertEquals(RpcException.SERVER_ERROR, e.getCode());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test registry executor. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testPerformance() {
+		int n = 500000;
+		RpcMethod rpcMethod = new RpcMethod("noreturn", types);
+		executorFactory.getExecutor(3);
+
+		// query api object and string keys
+		Object r = null;
+		for (int i = 0; i < n / 10; i++) { r = registry.lookup(new DefaultRpcApi(null, DemoService.class, rpcMethod)); }
+		long s = System.nanoTime();
+		for (int i = 0; i < n; i++) { r = registry.lookup(new DefaultRpcApi(null, DemoService.class, rpcMethod)); }
+		long e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-RPC] Rpc api lookup performance, |lookup=key, count={}, ns/op={}|", n, (e - s) / n);
+
+		// interned method id and executor index
+		for (int i = 0; i < n / 10; i++) { r = executorFactory.getExecutor(registry.methodId(null, DemoService.class, "noreturn", types)); }
+		s = System.nanoTime();
+		for (int i = 0; i < n; i++) { r = executorFactory.getExecutor(registry.methodId(null, DemoService.class, "noreturn", types)); }
+		e = System.nanoTime();
+		LOG.info("[CRAFT-ATOM-RPC] Rpc api lookup performance, |lookup=method-id, count={}, ns/op={}|", n, (e - s) / n);
+		Assert.assertNotNull(r);
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test registry lookup performance. ", CaseCounter.incr(1)));
+	}
+
+	private RpcApi api(String rpcId, String methodName) {
+		return new DefaultRpcApi(rpcId, DemoService.class, new RpcMethod(methodName, types), new DemoServiceImpl1(), new RpcParameter());
+	}
+
+}
@@ -0,0 +1,117 @@
+package io.craft.atom.rpc;
+
+import io.craft.atom.protocol.rpc.model.RpcMessage;
+import io.craft.atom.protocol.rpc.model.RpcMethod;
+import io.craft.atom.rpc.api.RpcParameter;
+import io.craft.atom.rpc.spi.RpcApi;
+import io.craft.atom.test.CaseCounter;
+
+import java.lang.reflect.Method;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Test for {@link DefaultRpcServerInvoker}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestRpcServerInvoker {
+
+
+	private static final Logger LOG = LoggerFactory.getLogger(TestRpcServerInvoker.class);
+
+
+	private DefaultRpcRegistry      registry;
+	private DefaultRpcServerInvoker invoker ;
+
+
+	@Before
+	public void before() {
+		registry = new DefaultRpcRegistry();
+		for (Method method : DemoService.class.getMethods()) {
+			registry.register(new DefaultRpcApi(null, DemoService.class, new RpcMethod(method.getName(), method.getParameterTypes()), new DemoServiceImpl1(), new RpcParameter()));
+		}
+		invoker = new DefaultRpcServerInvoker();
+		invoker.setRegistry(registry);
+	}
+
+	@Test
+	public void testDispatch() throws Exception {
+		// by api key
+		RpcMessage req = request("echo", new Class<?>[] { String.class }, new Object[] { "hi" });
+		Assert.assertEquals("hi", invoker.invoke(req).getReturnObject());
+
+		// by method id
+		req = request("echo", new Class<?>[] { String.class }, new Object[] { "hello" });
+		req.getBody().setMethodId(methodId(req));
+		req.getBody().setRpcInterface(null);
+		Assert.assertEquals("hello", invoker.invoke(req).getReturnObject());
+
+		// not exported
+		req = request("echo", new Class<?>[] { String.class }, new Object[] { "hi" });
+		req.getBody().setRpcId("none");
+		try {
+			invoker.invoke(req);
+			Assert.fail();
+		} catch (RpcException e) {
+			Assert.assertEquals(RpcException.SERVER_ERROR, e.getCode());
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test server invoker dispatch. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testException() {
+		// declared exception is responded
+		RpcMessage rsp = invoker.invoke(request("bizException", new Class<?>[0], new Object[0]));
+		Assert.assertTrue(rsp.getException() instanceof IllegalAccessException);
+
+		// undeclared exception, even a subclass of declared one, is server error
+		try {
+			invoker.invoke(request("undeclaredException", new Class<?>[0], new Object[0]));
+			Assert.fail();
+		} catch (RpcException e) {
+			Assert.assertEquals(RpcException.SERVER_ERROR, e.getCode());
+		}
+
+		// a method not in the interface can not be exported
+		try {
+			new DefaultRpcApi(null, DemoService.class, new RpcMethod("echo", new Class<?>[0]), new DemoServiceImpl1(), new RpcParameter());
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(true);
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test server invoker exception. ", CaseCounter.incr(3)));
+	}
+
+	@Test
+	public void testPerformance() {
+		RpcMessage keyed = request("echo", new Class<?>[] { String.class }, new Object[] { "hi" });
+		RpcMessage ided  = request("echo", new Class<?>[] { String.class }, new Object[] { "hi" });
+		ided.getBody().setMethodId(methodId(ided));
+
+		int n = 200000;
+		for (RpcMessage req : new RpcMessage[] { keyed, ided }) {
+			for (int i = 0; i < n / 10; i++) { invoker.invoke(req); }
+			long s = System.nanoTime();
+			for (int i = 0; i < n; i++) { invoker.invoke(req); }
+			long e = System.nanoTime();
+			LOG.info("[CRAFT-ATOM-RPC] Rpc server invoker performance, |lookup={}, count={}, ns/op={}|", req == keyed ? "key" : "method-id", n, (e - s) / n);
+		}
+		System.out.println(String.format("[CRAFT-ATOM-NIO] (^_^)  <%s>  Case -> test server invoker performance. ", CaseCounter.incr(1)));
+	}
+
+	private RpcMessage request(String methodName, Class<?>[] parameterTypes, Object[] parameters) {
+		return RpcMessages.newRequestRpcMessage(DemoService.class, methodName, parameterTypes, parameters);
+	}
+
+	private int methodId(RpcMessage req) {
+		RpcApi api = registry.lookup(new DefaultRpcApi(null, DemoService.class, req.getBody().getRpcMethod()));
+		return registry.methodTable().get(RpcMessages.methodSignature(api.getId(), api.getInterface(), api.getMethodName(), api.getMethodParameterTypes()));
+	}
+
+}
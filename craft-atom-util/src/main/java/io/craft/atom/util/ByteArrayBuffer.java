@@ -12,7 +12,7 @@ import lombok.ToString;
  * @author mindwind
  * @version 1.0, 2011-10-26
  */
-@ToString
+@ToString(exclude = "pool")
 public final class ByteArrayBuffer implements Serializable {
 
 	
@@ -22,6 +22,9 @@ public final class ByteArrayBuffer implements Serializable {
 	private byte[] buffer;
 	private int    len   ;
 	
+	/** The pool which hands out the buffer, <code>null</code> if it is not held by a pool user. */
+	transient ByteArrayBufferPool pool;
+	
 	
 	// ~ -------------------------------------------------------------------------------------------------------------
 	
@@ -0,0 +1,183 @@
+package io.craft.atom.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.ToString;
+
+/**
+ * A shared pool of {@link ByteArrayBuffer}, it allows per-connection codec to hold a buffer only while there are pending bytes.
+ * <p>
+ * Buffers are pooled by power of 2 capacity classes, a buffer whose capacity is not power of 2 or bigger than
+ * <tt>maxCachedBufferSize</tt> is not pooled and left to garbage collection.
+ * Each capacity class holds at most <tt>maxPoolSize</tt> buffers.
+ * Only buffers acquired from the pool are released to it, others are ignored.
+ * <br>
+ * Thread safe.
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+@ToString(of = { "maxPoolSize", "maxCachedBufferSize", "size", "acquired" })
+public class ByteArrayBufferPool {
+
+
+	private static final int DEFAULT_MAX_POOL_SIZE          = 1024   ;
+	private static final int DEFAULT_MAX_CACHED_BUFFER_SIZE = 1 << 16;              // 64KB
+	private static final int MIN_CACHED_BUFFER_SIZE         = 1 << 6 ;              // 64B
+
+
+	// singleton
+	private static final ByteArrayBufferPool INSTNACE = new ByteArrayBufferPool();
+	public static ByteArrayBufferPool getInstance() { return INSTNACE; }
+
+
+	private final int                       maxPoolSize                                     ;
+	private final int                       maxCachedBufferSize                             ;
+	private final Queue<ByteArrayBuffer>[]  pools                                           ;
+	private final AtomicInteger[]           sizes                                           ;
+	private final AtomicInteger             size                = new AtomicInteger()       ;
+	private final AtomicLong                acquired            = new AtomicLong()          ;
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Creates a new pool with default parameters, max pool size is 1024 for each capacity class and max cached buffer size is 64KB.
+	 */
+	public ByteArrayBufferPool() {
+		this(DEFAULT_MAX_POOL_SIZE, DEFAULT_MAX_CACHED_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param maxPoolSize         the maximum number of buffers with the same capacity.
+	 * @param maxCachedBufferSize the maximum capacity of a pooled buffer.
+	 */
+	@SuppressWarnings("unchecked")
+	public ByteArrayBufferPool(int maxPoolSize, int maxCachedBufferSize) {
+		if (maxPoolSize < 0) {
+			throw new IllegalArgumentException("maxPoolSize: " + maxPoolSize);
+		}
+		if (maxCachedBufferSize < MIN_CACHED_BUFFER_SIZE) {
+			throw new IllegalArgumentException("maxCachedBufferSize: " + maxCachedBufferSize);
+		}
+
+		this.maxPoolSize         = maxPoolSize;
+		this.maxCachedBufferSize = normalize(maxCachedBufferSize);
+		int classes = index(this.maxCachedBufferSize) + 1;
+		this.pools = new Queue[classes];
+		this.sizes = new AtomicInteger[classes];
+		for (int i = 0; i < classes; i++) {
+			pools[i] = new ConcurrentLinkedQueue<ByteArrayBuffer>();
+			sizes[i] = new AtomicInteger();
+		}
+	}
+
+
+	// ~ -------------------------------------------------------------------------------------------------------------
+
+
+	/**
+	 * Acquires an empty buffer whose capacity is at least the specified capacity.
+	 *
+	 * @param capacity
+	 * @return an empty buffer
+	 */
+	public ByteArrayBuffer acquire(int capacity) {
+		acquired.incrementAndGet();
+		int normalized = normalize(capacity);
+		if (normalized > maxCachedBufferSize) {
+			return own(new ByteArrayBuffer(capacity));
+		}
+
+		int i = index(normalized);
+		ByteArrayBuffer buf = pools[i].poll();
+		if (buf == null) {
+			return own(new ByteArrayBuffer(normalized));
+		}
+
+		sizes[i].decrementAndGet();
+		size.decrementAndGet();
+		buf.clear();
+		return own(buf);
+	}
+	
+	private ByteArrayBuffer own(ByteArrayBuffer buf) {
+		buf.pool = this;
+		return buf;
+	}
+
+	/**
+	 * Releases the buffer back to the pool, the buffer should not be used by the caller any more.
+	 * A buffer not acquired from the pool or released already is ignored.
+	 *
+	 * @param buf
+	 * @return <tt>true</tt> if the buffer is pooled, <tt>false</tt> if it is dropped or ignored.
+	 */
+	public boolean release(ByteArrayBuffer buf) {
+		if (buf == null || buf.pool != this) {
+			return false;
+		}
+
+		buf.pool = null;
+		acquired.decrementAndGet();
+		int capacity = buf.capacity();
+		if (capacity < MIN_CACHED_BUFFER_SIZE || capacity > maxCachedBufferSize || Integer.bitCount(capacity) != 1) {
+			return false;
+		}
+
+		int i = index(capacity);
+		if (sizes[i].incrementAndGet() > maxPoolSize) {
+			sizes[i].decrementAndGet();
+			return false;
+		}
+
+		buf.clear();
+		pools[i].offer(buf);
+		size.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * @return the number of buffers currently held by the pool.
+	 */
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * @return the approximate bytes currently held by the pool.
+	 */
+	public long pooledBytes() {
+		long bytes = 0;
+		for (int i = 0; i < sizes.length; i++) {
+			bytes += (long) sizes[i].get() * (MIN_CACHED_BUFFER_SIZE << i);
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the approximate number of buffers acquired from the pool and not released yet.
+	 */
+	public long acquired() {
+		return acquired.get();
+	}
+
+	private int normalize(int capacity) {
+		if (capacity <= MIN_CACHED_BUFFER_SIZE) {
+			return MIN_CACHED_BUFFER_SIZE;
+		}
+		int highest = Integer.highestOneBit(capacity);
+		return highest == capacity ? capacity : highest << 1;
+	}
+
+	private int index(int normalizedCapacity) {
+		return Integer.numberOfTrailingZeros(normalizedCapacity) - Integer.numberOfTrailingZeros(MIN_CACHED_BUFFER_SIZE);
+	}
+
+}
@@ -39,6 +39,12 @@ import org.slf4j.LoggerFactory;
  *    TIMING_WHEEL.remove(e);
  * </pre>
  * 
+ * <li>using timing-wheel manage objects with different timeout</li>
+ * <pre>
+ *    // Add one element to be timeout approximated after 3 seconds, a timeout longer than the wheel is checked every round.
+ *    TIMING_WHEEL.add(e, 3, TimeUnit.SECONDS);
+ * </pre>
+ * 
  * After expiration occurs, the {@link ExpirationListener} interface will be invoked and the expired object will be 
  * the argument for callback method {@link ExpirationListener#expired(Object)}
  * <p>
@@ -164,6 +170,33 @@ public class TimingWheel<E> {
 		}
 	}
 	
+	/**
+	 * Add a element to {@link TimingWheel} and start to count down its specified life-time.
+	 * It expires no earlier than the timeout and at most about two ticks later, a timeout of many rounds is checked once per round
+	 * and moved to the slot of its remaining ticks in its last round.
+	 * 
+	 * @param e
+	 * @param timeout
+	 * @param timeUnit
+	 * @return remain time to be expired in millisecond.
+	 */
+	public long add(E e, long timeout, TimeUnit timeUnit) {
+		long timeoutMillis = Math.max(0, timeUnit.toMillis(timeout));
+		long deadline      = System.currentTimeMillis() + timeoutMillis;
+		synchronized(e) {
+			checkAdd(e);
+			
+			// the slot after current one is notified within a tick, so the slot after `ticks` more is notified no earlier than the timeout
+			long ticks = (timeoutMillis + tickDuration - 1) / tickDuration + 1;
+			int idx = (int) ((getCurrentTickIndex() + ticks) % ticksPerWheel);
+			Slot<E> slot = wheel.get(idx);
+			slot.add(e, deadline);
+			indicator.put(e, slot);
+			
+			return timeoutMillis;
+		}
+	}
+	
 	private void checkAdd(E e) {
 		Slot<E> slot = indicator.get(e);
 		if (slot != null) {
@@ -171,6 +204,15 @@ public class TimingWheel<E> {
 		}
 	}
 	
+	private int getCurrentTickIndex() {
+		lock.readLock().lock();
+		try {
+			return currentTickIndex;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
 	private int getPreviousTickIndex() {
 		lock.readLock().lock();
 		try {
@@ -207,7 +249,13 @@ public class TimingWheel<E> {
 	private void notifyExpired(int idx) {
 		Slot<E> slot = wheel.get(idx);
 		Set<E> elements = slot.elements();
+		long now = System.currentTimeMillis();
 		for (E e : elements) {
+			if (!slot.expired(e, now)) {
+				reschedule(slot, e, idx, now);
+				continue;
+			}
+			
 			slot.remove(e);
 			synchronized (e) {
 				Slot<E> latestSlot = indicator.get(e);
@@ -221,6 +269,25 @@ public class TimingWheel<E> {
 		}
 	}
 	
+	/**
+	 * Moves the element not expired yet to the slot of its remaining ticks if it is within the round, 
+	 * so a worker behind the schedule delays it by ticks rather than a round.
+	 */
+	private void reschedule(Slot<E> slot, E e, int idx, long now) {
+		synchronized (e) {
+			Long deadline = slot.deadline(e);
+			if (deadline == null || !slot.equals(indicator.get(e))) return;
+			
+			long ticks = (deadline - now + tickDuration - 1) / tickDuration + 1;
+			if (ticks >= ticksPerWheel) return;
+			
+			Slot<E> next = wheel.get((int) ((idx + ticks) % ticksPerWheel));
+			slot.remove(e);
+			next.add(e, deadline);
+			indicator.put(e, next);
+		}
+	}
+	
 	/**
 	 * @return the number of elements within timing wheel.
 	 */
@@ -290,20 +357,36 @@ public class TimingWheel<E> {
 	private static class Slot<E> {
 		
 		private int id;
-		private Map<E, E> elements = new ConcurrentHashMap<E, E>();
+		private Map<E, Long> elements = new ConcurrentHashMap<E, Long>();
 		
 		public Slot(int id) {
 			this.id = id;
 		}
 
 		public void add(E e) {
-			elements.put(e, e);
+			add(e, 0);
+		}
+		
+		public void add(E e, long deadline) {
+			elements.put(e, deadline);
 		}
 		
-		public E remove(E e) {
+		public Long remove(E e) {
 			return elements.remove(e);
 		}
 		
+		public Long deadline(E e) {
+			return elements.get(e);
+		}
+		
+		/**
+		 * An element without deadline expires at its first notification, otherwise once its deadline is reached.
+		 */
+		public boolean expired(E e, long now) {
+			Long deadline = elements.get(e);
+			return deadline == null || deadline <= now;
+		}
+		
 		public Set<E> elements() {
 			return elements.keySet();
 		}
@@ -0,0 +1,76 @@
+package io.craft.atom.util;
+
+import io.craft.atom.test.CaseCounter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ByteArrayBufferPool}
+ *
+ * @author mindwind
+ * @version 1.0, Oct 19, 2026
+ */
+public class TestByteArrayBufferPool {
+
+	@Test
+	public void testAcquireRelease() {
+		ByteArrayBufferPool pool = new ByteArrayBufferPool(2, 4096);
+		ByteArrayBuffer buf = pool.acquire(1000);
+		Assert.assertEquals(1024, buf.capacity());
+		Assert.assertEquals(0, buf.length());
+
+		buf.append(new byte[] { 1, 2, 3 });
+		Assert.assertTrue(pool.release(buf));
+		Assert.assertEquals(1, pool.size());
+		Assert.assertEquals(1024, pool.pooledBytes());
+
+		ByteArrayBuffer reused = pool.acquire(1024);
+		Assert.assertSame(buf, reused);
+		Assert.assertEquals(0, reused.length());
+		Assert.assertEquals(0, pool.size());
+		System.out.println(String.format("[CRAFT-ATOM-UTIL] (^_^)  <%s>  Case -> test acquire release. ", CaseCounter.incr(7)));
+	}
+
+	@Test
+	public void testDrop() {
+		ByteArrayBufferPool pool = new ByteArrayBufferPool(1, 4096);
+
+		// bigger than max cached buffer size
+		ByteArrayBuffer big = pool.acquire(8192);
+		Assert.assertFalse(pool.release(big));
+
+		// not power of 2
+		Assert.assertFalse(pool.release(new ByteArrayBuffer(1000)));
+
+		// exceed max pool size
+		ByteArrayBuffer b1 = pool.acquire(64);
+		ByteArrayBuffer b2 = pool.acquire(64);
+		Assert.assertTrue(pool.release(b1));
+		Assert.assertFalse(pool.release(b2));
+		Assert.assertEquals(1, pool.size());
+		System.out.println(String.format("[CRAFT-ATOM-UTIL] (^_^)  <%s>  Case -> test drop. ", CaseCounter.incr(4)));
+	}
+
+	@Test
+	public void testForeignRelease() {
+		ByteArrayBufferPool pool  = new ByteArrayBufferPool(2, 4096);
+		ByteArrayBufferPool other = new ByteArrayBufferPool(2, 4096);
+		ByteArrayBuffer     buf   = pool.acquire(64);
+		Assert.assertEquals(1, pool.acquired());
+
+		// a buffer not acquired from the pool does not count
+		Assert.assertFalse(pool.release(new ByteArrayBuffer(64)));
+		Assert.assertFalse(pool.release(other.acquire(64)));
+		Assert.assertEquals(1, pool.acquired());
+		Assert.assertEquals(0, pool.size());
+
+		// nor does a buffer released twice
+		Assert.assertTrue(pool.release(buf));
+		Assert.assertFalse(pool.release(buf));
+		Assert.assertEquals(0, pool.acquired());
+		Assert.assertEquals(1, pool.size());
+		System.out.println(String.format("[CRAFT-ATOM-UTIL] (^_^)  <%s>  Case -> test foreign release. ", CaseCounter.incr(9)));
+	}
+
+}
@@ -5,7 +5,9 @@ import io.craft.atom.util.schedule.ExpirationListener;
 import io.craft.atom.util.schedule.TimingWheel;
 
 import java.util.Date;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import junit.framework.Assert;
@@ -98,6 +100,58 @@ public class TestTimingWheel {
 		System.out.println(String.format("[CRAFT-ATOM-UTIL] (^_^)  <%s>  Case -> test timing wheel expire. ", CaseCounter.incr(2)));
 	}
 	
+	@Test
+	public void testAddTimeout() throws InterruptedException {
+		// shorter and longer than the wheel
+		for (long timeout : new long[] { 50, 1200 }) {
+			endTime = 0;
+			startTime = System.currentTimeMillis();
+			long ttl = wheel.add("test-timeout", timeout, TimeUnit.MILLISECONDS);
+			Assert.assertEquals(timeout, ttl);
+			while(endTime == 0) { Thread.sleep(1); }
+			long deviation = (endTime - startTime) - ttl;
+			LOG.debug("[CRAFT-ATOM-UTIL] Timing wheel timeout deviation={}", deviation);
+			Assert.assertTrue(deviation >= 0);
+			Assert.assertTrue(deviation <= 10);
+			Assert.assertEquals(0, wheel.size());
+		}
+		
+		wheel.add("test-timeout", 100, TimeUnit.MILLISECONDS);
+		Assert.assertTrue(wheel.remove("test-timeout"));
+		Assert.assertEquals(0, wheel.size());
+		System.out.println(String.format("[CRAFT-ATOM-UTIL] (^_^)  <%s>  Case -> test timing wheel add timeout. ", CaseCounter.incr(7)));
+	}
+	
+	@Test
+	public void testAddTimeoutWhileLagging() throws InterruptedException {
+		// the worker is held up by a slow listener, a timeout added meanwhile still expires neither early nor a round late
+		final Map<String, Long> expired = new ConcurrentHashMap<String, Long>();
+		TimingWheel<String> lagging = new TimingWheel<String>(10, 10, TimeUnit.MILLISECONDS);
+		lagging.addExpirationListener(new ExpirationListener<String>() {
+			@Override
+			public void expired(String e) {
+				expired.put(e, System.currentTimeMillis());
+				if ("slow".equals(e)) {
+					try { Thread.sleep(50); } catch (InterruptedException ie) { /* stopped */ }
+				}
+			}
+		});
+		lagging.start();
+		lagging.add("slow", 20, TimeUnit.MILLISECONDS);
+		while (!expired.containsKey("slow")) { Thread.sleep(1); }
+		Thread.sleep(20);
+		
+		long start = System.currentTimeMillis();
+		lagging.add("test-lag", 300, TimeUnit.MILLISECONDS);
+		while (!expired.containsKey("test-lag")) { Thread.sleep(1); }
+		long deviation = expired.get("test-lag") - start - 300;
+		LOG.debug("[CRAFT-ATOM-UTIL] Timing wheel lagging timeout deviation={}", deviation);
+		Assert.assertTrue(deviation >= 0);
+		Assert.assertTrue(deviation <= 40);
+		lagging.stop();
+		System.out.println(String.format("[CRAFT-ATOM-UTIL] (^_^)  <%s>  Case -> test timing wheel add timeout while lagging. ", CaseCounter.incr(2)));
+	}
+	
 	private class TestExpirationListener implements ExpirationListener<String> {
 		@Override
 		public void expired(String expiredObject) {